@@ -122,7 +122,7 @@ final class ESRI extends Geometries<Geometry> {
 
     /**
      * Creates a polyline from the given ordinate values.
-     * Each {@link Double#NaN} ordinate value start a new path.
+     * Each {@link Double#NaN} ordinate value start a new path.
      * The implementation returned by this method must be an instance of {@link #rootClass}.
      */
     @Override
@@ -130,8 +130,30 @@ final class ESRI extends Geometries<Geometry> {
         if (dimension != 2) {
             throw unsupported(dimension);
         }
+        return addPaths(new Polyline(), ordinates);
+    }
+
+    /**
+     * Creates a polygon from the given ordinate values.
+     * Each {@link Double#NaN} ordinate value start a new ring.
+     * The rings are closed implicitly.
+     */
+    @Override
+    public Geometry createPolygon(final int dimension, final Vector... ordinates) {
+        if (dimension != 2) {
+            throw unsupported(dimension);
+        }
+        return addPaths(new Polygon(), ordinates);
+    }
+
+    /**
+     * Adds the (x,y) tuples of the given vectors to the given polyline or polygon.
+     * Each {@link Double#NaN} ordinate value start a new path.
+     *
+     * @return the given {@code path}, for convenience.
+     */
+    private static MultiPath addPaths(final MultiPath path, final Vector[] ordinates) {
         boolean lineTo = false;
-        final Polyline path = new Polyline();
         for (final Vector v : ordinates) {
             if (v != null) {
                 final int size = v.size();
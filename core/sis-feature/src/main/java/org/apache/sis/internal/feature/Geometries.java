@@ -16,7 +16,10 @@
  */
 package org.apache.sis.internal.feature;
 
+import java.util.List;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import org.apache.sis.util.logging.Logging;
@@ -248,6 +251,54 @@ public abstract class Geometries<G> {
      */
     public abstract G createPolyline(int dimension, Vector... ordinates);
 
+    /**
+     * Creates a polygon from the given ordinate values. The ordinate vectors are handled as in
+     * {@link #createPolyline(int, Vector...)}, with each {@link Double#NaN} ordinate value starting a new ring.
+     * Whether a ring is an exterior boundary or a hole is determined by the geometry library.
+     * The default implementation throws {@link UnsupportedOperationException};
+     * libraries capable to build polygons from unclassified rings override this method.
+     *
+     * @param  dimension  the number of dimensions (2 or 3).
+     * @param  ordinates  sequence of (x,y) or (x,y,z) tuples.
+     * @return the geometric object for the given points.
+     * @throws UnsupportedOperationException if the geometry library can not create the requested polygon.
+     */
+    public G createPolygon(int dimension, Vector... ordinates) {
+        throw unsupported(dimension);
+    }
+
+    /**
+     * Creates a polygon or multi-polygon from rings which are already assigned to their polygon.
+     * Each element of the {@code polygons} array is a polygon, with the exterior ring in the first vector
+     * and the holes in the other vectors. Each vector contains the (x,y) or (x,y,z) tuples of a single ring.
+     * Contrarily to {@link #createPolygon(int, Vector...)}, the role of each ring is not inferred from
+     * its geometry.
+     *
+     * <p>The default implementation separates all rings by {@link Double#NaN} values and delegates to
+     * {@link #createPolygon(int, Vector...)}. This is correct for libraries which determine the interior
+     * of polygons by the even-odd rule or by the ring orientations. Other libraries override this method.</p>
+     *
+     * @param  dimension  the number of dimensions (2 or 3).
+     * @param  polygons   for each polygon, the exterior ring followed by the holes.
+     * @return the geometric object for the given polygons.
+     * @throws UnsupportedOperationException if the geometry library can not create the requested polygon.
+     */
+    public G createPolygons(final int dimension, final Vector[]... polygons) {
+        final double[] separator = new double[dimension];
+        Arrays.fill(separator, Double.NaN);
+        final Vector nan = Vector.create(separator, false);
+        final List<Vector> rings = new ArrayList<>();
+        for (final Vector[] polygon : polygons) {
+            for (final Vector ring : polygon) {
+                if (!rings.isEmpty()) {
+                    rings.add(nan);
+                }
+                rings.add(ring);
+            }
+        }
+        return createPolygon(dimension, rings.toArray(new Vector[rings.size()]));
+    }
+
     /**
      * Merges a sequence of polyline instances if the first instance is an implementation of this library.
      *
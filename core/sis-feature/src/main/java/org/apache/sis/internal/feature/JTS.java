@@ -24,6 +24,7 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.MultiLineString;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -129,17 +130,130 @@ final class JTS extends Geometries<Geometry> {
 
     /**
      * Creates a polyline from the given ordinate values.
-     * Each {@link Double#NaN} ordinate value start a new path.
+     * Each {@link Double#NaN} ordinate value start a new path.
      * The implementation returned by this method must be an instance of {@link #rootClass}.
      */
     @Override
     public Geometry createPolyline(final int dimension, final Vector... ordinates) {
+        final List<LineString> lines = new ArrayList<>();
+        final List<Coordinate> coordinates = new ArrayList<>(32);
+        for (final Coordinate[] path : toPaths(dimension, ordinates)) {
+            coordinates.addAll(Arrays.asList(path));
+            toLineString(coordinates, lines);
+            coordinates.clear();
+        }
+        return toGeometry(lines);
+    }
+
+    /**
+     * Creates a polygon or multi-polygon from the given ordinate values.
+     * Each {@link Double#NaN} ordinate value start a new ring. A ring located inside a previous exterior ring
+     * is a hole of that exterior ring; other rings are the exterior rings of new polygons. Rings which are not
+     * closed are closed by repeating their first point.
+     */
+    @Override
+    public Geometry createPolygon(final int dimension, final Vector... ordinates) {
+        final List<LinearRing>       shells = new ArrayList<>();
+        final List<Polygon>          areas  = new ArrayList<>();
+        final List<List<LinearRing>> holes  = new ArrayList<>();
+        for (final Coordinate[] path : toPaths(dimension, ordinates)) {
+            final LinearRing ring = toLinearRing(path);
+            if (ring == null) {
+                continue;                                   // Degenerated ring.
+            }
+            final Point first = factory.createPoint(path[0]);
+            int owner = -1;
+            for (int i=0; i<areas.size(); i++) {
+                if (areas.get(i).contains(first)) {
+                    owner = i;
+                    break;
+                }
+            }
+            if (owner >= 0) {
+                holes.get(owner).add(ring);
+            } else {
+                shells.add(ring);
+                areas.add(factory.createPolygon(ring));
+                holes.add(new ArrayList<>());
+            }
+        }
+        final Polygon[] polygons = new Polygon[shells.size()];
+        for (int i=0; i<polygons.length; i++) {
+            final List<LinearRing> h = holes.get(i);
+            polygons[i] = h.isEmpty() ? areas.get(i) : factory.createPolygon(shells.get(i), h.toArray(new LinearRing[h.size()]));
+        }
+        return toGeometry(polygons);
+    }
+
+    /**
+     * Creates a polygon or multi-polygon from rings which are already assigned to their polygon.
+     * The first ring of each polygon is the exterior ring and the other rings are holes, regardless
+     * their location. Rings which are not closed are closed by repeating their first point.
+     * Polygons having a degenerated exterior ring are omitted.
+     */
+    @Override
+    public Geometry createPolygons(final int dimension, final Vector[]... polygons) {
+        final List<Polygon> result = new ArrayList<>(polygons.length);
+        final List<LinearRing> holes = new ArrayList<>();
+        for (final Vector[] rings : polygons) {
+            LinearRing shell = null;
+            for (int i=0; i<rings.length; i++) {
+                for (final Coordinate[] path : toPaths(dimension, new Vector[] {rings[i]})) {
+                    final LinearRing ring = toLinearRing(path);
+                    if (ring != null) {
+                        if (i == 0) {
+                            shell = ring;
+                        } else {
+                            holes.add(ring);
+                        }
+                    }
+                }
+                if (shell == null) break;                   // Degenerated exterior ring.
+            }
+            if (shell != null) {
+                result.add(factory.createPolygon(shell, holes.toArray(new LinearRing[holes.size()])));
+            }
+            holes.clear();
+        }
+        return toGeometry(result.toArray(new Polygon[result.size()]));
+    }
+
+    /**
+     * Creates a ring from the given coordinates, closing the ring if needed.
+     *
+     * @return the ring, or {@code null} if degenerated.
+     */
+    private LinearRing toLinearRing(Coordinate[] path) {
+        final int s = path.length;
+        if (!path[0].equals2D(path[s-1])) {
+            path = Arrays.copyOf(path, s+1);
+            path[s] = path[0];
+        }
+        return (path.length >= 4) ? factory.createLinearRing(path) : null;
+    }
+
+    /**
+     * Returns the given polygons as a single polygon if possible, or as a multi-polygon otherwise.
+     */
+    private Geometry toGeometry(final Polygon[] polygons) {
+        switch (polygons.length) {
+            case 0:  return factory.createPolygon((Coordinate[]) null);        // Creates an empty polygon.
+            case 1:  return polygons[0];
+            default: return factory.createMultiPolygon(polygons);
+        }
+    }
+
+    /**
+     * Splits the given ordinate values in paths of coordinates.
+     * Each {@link Double#NaN} ordinate value start a new path. Empty paths are omitted.
+     */
+    private static List<Coordinate[]> toPaths(final int dimension, final Vector[] ordinates) {
         final boolean is3D = (dimension == 3);
         if (!is3D && dimension != 2) {
             throw unsupported(dimension);
         }
         final List<Coordinate> coordinates = new ArrayList<>(32);
-        final List<LineString> lines = new ArrayList<>();
+        final List<Coordinate[]> paths = new ArrayList<>();
         for (final Vector v : ordinates) {
             if (v != null) {
                 final int size = v.size();
@@ -156,14 +270,24 @@ final class JTS extends Geometries<Geometry> {
                         coordinates.add(c);
                     } else {
                         if (is3D) i++;
-                        toLineString(coordinates, lines);
-                        coordinates.clear();
+                        addPath(coordinates, paths);
                     }
                 }
             }
         }
-        toLineString(coordinates, lines);
-        return toGeometry(lines);
+        addPath(coordinates, paths);
+        return paths;
+    }
+
+    /**
+     * Adds the given coordinates as a new path if non-empty, then clears the coordinates list.
+     */
+    private static void addPath(final List<Coordinate> coordinates, final List<Coordinate[]> paths) {
+        final int s = coordinates.size();
+        if (s != 0) {
+            paths.add(coordinates.toArray(new Coordinate[s]));
+            coordinates.clear();
+        }
     }
 
     /**
@@ -176,6 +176,40 @@ final class Java2D extends Geometries<Shape> {
         return ShapeUtilities.toPrimitive(path);
     }
 
+    /**
+     * Creates a polygon from the given ordinate values.
+     * Each {@link Double#NaN} ordinate value start a new ring, and each ring is closed.
+     * The even-odd winding rule is used, so rings inside other rings are holes regardless their orientation.
+     */
+    @Override
+    public Shape createPolygon(final int dimension, final Vector... ordinates) {
+        if (dimension != 2) {
+            throw unsupported(dimension);
+        }
+        final Path2D path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+        boolean lineTo = false;
+        for (final Vector v : ordinates) {
+            if (v != null) {
+                final int size = v.size();
+                for (int i=0; i<size;) {
+                    final double x = v.doubleValue(i++);
+                    final double y = v.doubleValue(i++);
+                    if (Double.isNaN(x) || Double.isNaN(y)) {
+                        if (lineTo) path.closePath();
+                        lineTo = false;
+                    } else if (lineTo) {
+                        path.lineTo(x, y);
+                    } else {
+                        path.moveTo(x, y);
+                        lineTo = true;
+                    }
+                }
+            }
+        }
+        if (lineTo) path.closePath();
+        return path;
+    }
+
     /**
      * Merges a sequence of points or paths if the first instance is an implementation of this library.
      *
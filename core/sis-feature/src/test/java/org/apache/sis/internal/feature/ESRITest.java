@@ -16,9 +16,12 @@
  */
 package org.apache.sis.internal.feature;
 
+import com.esri.core.geometry.Polygon;
 import com.esri.core.geometry.Polyline;
+import org.apache.sis.math.Vector;
 import org.junit.Test;
 
+import static java.lang.Double.NaN;
 import static org.junit.Assert.*;
 
 
@@ -49,6 +52,28 @@ public final strictfp class ESRITest extends GeometriesTestCase {
         assertEquals("pathCount", 2, poly.getPathCount());
     }
 
+    /**
+     * Tests {@link ESRI#createPolygon(int, Vector...)} with an exterior ring and a hole.
+     */
+    @Test
+    public void testCreatePolygon() {
+        final Polygon poly = (Polygon) new ESRI().createPolygon(2, Vector.create(new double[] {
+                  0,   0,
+                  0,  10,
+                 10,  10,
+                 10,   0,
+                  0,   0,
+                NaN, NaN,
+                  2,   2,
+                  4,   2,
+                  4,   4,
+                  2,   4,
+                  2,   2}, false));
+
+        assertEquals("pathCount", 2, poly.getPathCount());
+        assertEquals("area", 100 - 4, poly.calculateArea2D(), STRICT);
+    }
+
     /**
      * Tests {@link Geometries#tryMergePolylines(Object, Iterator)}.
      */
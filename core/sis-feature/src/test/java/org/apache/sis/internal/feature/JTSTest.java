@@ -18,8 +18,12 @@ package org.apache.sis.internal.feature;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.apache.sis.math.Vector;
 import org.junit.Test;
 
+import static java.lang.Double.NaN;
 import static org.junit.Assert.*;
 
 
@@ -51,6 +55,62 @@ public final strictfp class JTSTest extends GeometriesTestCase {
         verifyTwoFirstGeometries(mp);
     }
 
+    /**
+     * Tests {@link JTS#createPolygon(int, Vector...)} with an exterior ring, a hole
+     * and a second exterior ring which is not closed.
+     */
+    @Test
+    public void testCreatePolygon() {
+        final MultiPolygon mp = (MultiPolygon) new JTS().createPolygon(2, Vector.create(new double[] {
+                  0,   0,
+                  0,  10,
+                 10,  10,
+                 10,   0,
+                  0,   0,
+                NaN, NaN,
+                  2,   2,
+                  4,   2,
+                  4,   4,
+                  2,   4,
+                  2,   2,
+                NaN, NaN,
+                 20,  20,
+                 20,  22,
+                 22,  22,
+                 22,  20}, false));
+
+        assertEquals("numGeometries", 2, mp.getNumGeometries());
+        final Polygon first = (Polygon) mp.getGeometryN(0);
+        assertEquals("numInteriorRing", 1, first.getNumInteriorRing());
+        assertEquals("area", 100 - 4, first.getArea(), STRICT);
+        final Polygon second = (Polygon) mp.getGeometryN(1);
+        assertEquals("numInteriorRing", 0, second.getNumInteriorRing());
+        assertEquals("area", 4, second.getArea(), STRICT);
+    }
+
+    /**
+     * Tests {@link JTS#createPolygons(int, Vector[]...)} with an island inside the hole of another polygon.
+     * The island shall be a polygon of its own, not a hole, since the rings are given with their role.
+     */
+    @Test
+    public void testCreatePolygonsWithIsland() {
+        final MultiPolygon mp = (MultiPolygon) new JTS().createPolygons(2,
+                new Vector[] {
+                    Vector.create(new double[] {0, 0,  0, 10,  10, 10,  10, 0,  0, 0}, false),
+                    Vector.create(new double[] {2, 2,  8,  2,   8,  8,   2, 8,  2, 2}, false)
+                },
+                new Vector[] {
+                    Vector.create(new double[] {4, 4,  4,  6,   6,  6,   6, 4}, false)
+                });
+        assertEquals("numGeometries", 2, mp.getNumGeometries());
+        final Polygon first = (Polygon) mp.getGeometryN(0);
+        assertEquals("numInteriorRing", 1, first.getNumInteriorRing());
+        assertEquals("area", 100 - 36, first.getArea(), STRICT);
+        final Polygon island = (Polygon) mp.getGeometryN(1);
+        assertEquals("numInteriorRing", 0, island.getNumInteriorRing());
+        assertEquals("area", 4, island.getArea(), STRICT);
+    }
+
     /**
      * Verifies the coordinates of the two first geometries of the given multi line string.
      * If there is more than 2 geometries, it is caller responsibility to verify the other ones.
@@ -26,7 +26,7 @@ import org.apache.sis.util.CharSequences;
  * that can not (to our knowledge) be inferred from the {@link DatabaseMetaData}.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.7
  * @module
  */
@@ -34,30 +34,31 @@ public enum Dialect {
     /**
      * The database is presumed to use ANSI SQL syntax.
      */
-    ANSI(null, false),
+    ANSI(null, false, false),
 
     /**
      * The database uses Derby syntax. This is ANSI, with some constraints that PostgreSQL does not have
      * (for example column with {@code UNIQUE} constraint must explicitly be specified as {@code NOT NULL}).
      */
-    DERBY("derby", false),
+    DERBY("derby", false, true),
 
     /**
      * The database uses HSQL syntax. This is ANSI, but does not allow {@code INSERT} statements inserting many lines.
      * It also have a {@code SHUTDOWN} command which is specific to HSQLDB.
      */
-    HSQL("hsqldb", false),
+    HSQL("hsqldb", false, true),
 
     /**
      * The database uses PostgreSQL syntax. This is ANSI, but provided an a separated
      * enumeration value because it allows a few additional commands like {@code VACUUM}.
      */
-    POSTGRESQL("postgresql", true),
+    POSTGRESQL("postgresql", true, true),
 
     /**
      * The database uses Oracle syntax. This is ANSI, but without {@code "AS"} keyword.
+     * The {@code OFFSET} and {@code FETCH} clauses require Oracle 12c or later.
      */
-    ORACLE("oracle", false);
+    ORACLE("oracle", false, true);
 
     /**
      * The protocol in JDBC URL, or {@code null} if unknown.
@@ -78,12 +79,22 @@ public enum Dialect {
      */
     public final boolean isIndexInheritanceSupported = false;
 
+    /**
+     * Whether this dialect has a known syntax for skipping rows and limiting the number of rows in a result.
+     * If {@code true}, then {@link SQLBuilder#appendFetchPage(long, long)} can be used with this dialect.
+     * This is {@code false} for {@link #ANSI} since we do not know which syntax (if any) an unknown database uses.
+     *
+     * @since 1.0
+     */
+    public final boolean isFetchPageSupported;
+
     /**
      * Creates a new enumeration value for a SQL dialect for the given protocol.
      */
-    private Dialect(final String protocol, final boolean isTableInheritanceSupported) {
+    private Dialect(final String protocol, final boolean isTableInheritanceSupported, final boolean isFetchPageSupported) {
         this.protocol = protocol;
         this.isTableInheritanceSupported = isTableInheritanceSupported;
+        this.isFetchPageSupported = isFetchPageSupported;
     }
 
     /**
@@ -260,6 +260,35 @@ public class SQLBuilder {
         return this;
     }
 
+    /**
+     * Appends the clauses for skipping the given number of rows and limiting the number of rows in the result.
+     * PostgreSQL uses the {@code LIMIT} and {@code OFFSET} clauses. Other databases are presumed to support
+     * the SQL:2008 syntax, which is {@code OFFSET n ROWS FETCH FIRST m ROWS ONLY}.
+     * Nothing is appended if the offset is zero and the limit is negative.
+     *
+     * <p>Callers should verify that {@link Dialect#isFetchPageSupported} is {@code true} before to invoke
+     * this method. A limit of zero is not accepted by all databases; callers should return an empty result
+     * without querying the database in such case.</p>
+     *
+     * @param  offset  number of rows to skip, or 0 if none.
+     * @param  limit   maximal number of rows to return (should be greater than zero), or a negative value if unlimited.
+     * @return this builder, for method call chaining.
+     */
+    public final SQLBuilder appendFetchPage(final long offset, final long limit) {
+        if (dialect == Dialect.POSTGRESQL) {
+            if (limit >= 0) buffer.append(" LIMIT ").append(limit);
+            if (offset > 0) buffer.append(" OFFSET ").append(offset);
+        } else {
+            if (offset > 0) {
+                buffer.append(" OFFSET ").append(offset).append(offset == 1 ? " ROW" : " ROWS");
+            }
+            if (limit >= 0) {
+                buffer.append(" FETCH FIRST ").append(limit).append(limit == 1 ? " ROW" : " ROWS").append(" ONLY");
+            }
+        }
+        return this;
+    }
+
     /**
      * Returns a SQL statement for adding a column in a table.
      * The returned statement is of the form:
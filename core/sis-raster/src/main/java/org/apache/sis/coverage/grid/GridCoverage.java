@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.coverage.grid;
+
+import java.awt.image.RenderedImage;
+import org.apache.sis.util.ArgumentChecks;
+
+
+/**
+ * Base class of coverages with domains defined as a set of grid points.
+ * The essential property of coverage is to be able to generate a value for any point within its domain.
+ * Since grid coverages are represented by grids of sample values, the values are usually made available
+ * as {@link RenderedImage} instances, one image for each two-dimensional slice of the grid.
+ *
+ * <p>Grid coverages are often the result of a read operation on a data store, in which case the
+ * {@linkplain #getGridGeometry() grid geometry} describes the sub-region and sub-sampling that
+ * have been read, not necessarily the full extent of the data in the file.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public abstract class GridCoverage {
+    /**
+     * The grid extent, coordinate reference system (CRS) and conversion from cell indices to CRS.
+     *
+     * @see #getGridGeometry()
+     */
+    private final GridGeometry gridGeometry;
+
+    /**
+     * Constructs a grid coverage using the specified grid geometry.
+     *
+     * @param  grid  the grid extent, CRS and conversion from cell indices to CRS.
+     */
+    protected GridCoverage(final GridGeometry grid) {
+        ArgumentChecks.ensureNonNull("grid", grid);
+        gridGeometry = grid;
+    }
+
+    /**
+     * Returns information about the <cite>domain</cite> of this grid coverage.
+     * Information includes the grid extent, CRS and conversion from cell indices to CRS.
+     *
+     * @return grid extent, CRS and conversion from cell indices to CRS.
+     */
+    public GridGeometry getGridGeometry() {
+        return gridGeometry;
+    }
+
+    /**
+     * Returns a two-dimensional slice of grid data as a rendered image. The given {@code sliceExtent} argument specifies
+     * the coordinates of the slice in all dimensions that are not in the two-dimensional image. For example if this grid
+     * coverage has (<var>x</var>, <var>y</var>, <var>z</var>, <var>t</var>) dimensions and we want to render an image
+     * of data in the (<var>x</var>, <var>y</var>) dimensions, then the given {@code sliceExtent} shall contain the
+     * (<var>z</var>, <var>t</var>) coordinates of the desired slice. The two dimensions of the image may be specified
+     * too, but they will be ignored. If the extent is {@code null}, then the default is implementation-dependent
+     * (for example it may be the slice at the lowest <var>z</var> and <var>t</var> coordinates).
+     *
+     * @param  sliceExtent  coordinates of the slice to render, or {@code null} for a default slice.
+     * @return the grid slice as a rendered image.
+     * @throws IllegalArgumentException if the given extent does not designate a valid slice of this coverage.
+     */
+    public abstract RenderedImage render(GridExtent sliceExtent);
+}
@@ -539,6 +539,36 @@ public class GridGeometry implements Serializable {
         throw incomplete(GRID_TO_CRS, Resources.Keys.UnspecifiedTransform);
     }
 
+    /**
+     * Returns a piecewise affine approximation of the given transform over the grid extent of this grid geometry.
+     * The given transform shall expect grid coordinates with {@link PixelInCell#CELL_CENTER} convention, for example
+     * the concatenation of {@code getGridToCRS(CELL_CENTER)} with a map projection and the inverse of the
+     * <cite>grid to CRS</cite> conversion of another grid. The approximation is computed over the area of all
+     * cells in the {@linkplain #getExtent() grid extent} and differs from the given transform by no more than
+     * {@code maxError} at the sampled points, in units of the target coordinates (e.g. pixels).
+     * This is useful for transforming every cell of a grid, for example when resampling an image.
+     *
+     * @param  gridToAny  the transform to approximate, from cell center coordinates of this grid.
+     * @param  maxError   the maximal error allowed, in units of target coordinates.
+     * @return a piecewise affine approximation of the given transform over the grid extent.
+     * @throws IncompleteGridGeometryException if this grid geometry has no extent.
+     * @throws MismatchedDimensionException if the grid extent or the given transform is not two-dimensional.
+     *
+     * @see MathTransforms#approximate(MathTransform, Envelope, double)
+     *
+     * @since 1.0
+     */
+    public MathTransform approximate(final MathTransform gridToAny, final double maxError) {
+        ArgumentChecks.ensureNonNull("gridToAny", gridToAny);
+        final GridExtent extent = getExtent();
+        final int dimension = extent.getDimension();
+        final GeneralEnvelope domain = new GeneralEnvelope(dimension);
+        for (int i=0; i<dimension; i++) {
+            domain.setRange(i, extent.getLow(i) - 0.5, extent.getHigh(i) + 0.5);
+        }
+        return MathTransforms.approximate(gridToAny, domain, maxError);
+    }
+
     /**
      * Returns an <em>estimation</em> of the grid resolution, in units of the coordinate reference system axes.
      * The length of the returned array is the number of CRS dimensions, with {@code resolution[0]}
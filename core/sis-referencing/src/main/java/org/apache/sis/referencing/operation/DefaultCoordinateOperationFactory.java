@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.ServiceLoader;
+import java.nio.file.Path;
 import org.opengis.util.FactoryException;
 import org.opengis.util.NoSuchIdentifierException;
 import org.opengis.parameter.ParameterValueGroup;
@@ -96,6 +97,34 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
      */
     static final boolean USE_EPSG_FACTORY = true;
 
+    /**
+     * The <code>{@value}</code> property for the maximal number of coordinate operations to keep by strong
+     * references in the cache of operations inferred by {@link #createOperation(CoordinateReferenceSystem,
+     * CoordinateReferenceSystem) createOperation(sourceCRS, targetCRS)}. Operations in excess are kept by
+     * soft references, which may be garbage-collected. The value shall be an {@link Integer}.
+     *
+     * @see #DefaultCoordinateOperationFactory(Map, MathTransformFactory)
+     *
+     * @since 1.0
+     */
+    public static final String CACHE_CAPACITY_KEY = "cacheCapacity";
+
+    /**
+     * The <code>{@value}</code> property for the file where to save the cached coordinate operations
+     * when the Java Virtual Machine is shutdown, and from where to load them when the factory is created.
+     * The value shall be a {@link Path}.
+     *
+     * @see #DefaultCoordinateOperationFactory(Map, MathTransformFactory)
+     *
+     * @since 1.0
+     */
+    public static final String CACHE_FILE_KEY = "cacheFile";
+
+    /**
+     * Default value of the {@value #CACHE_CAPACITY_KEY} property.
+     */
+    private static final int DEFAULT_CACHE_CAPACITY = 50;
+
     /**
      * The default properties, or an empty map if none. This map shall not change after construction in
      * order to allow usage without synchronization in multi-thread context. But we do not need to wrap
@@ -155,6 +184,11 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
      */
     final Cache<CRSPair,CoordinateOperation> cache;
 
+    /**
+     * The file where to save the {@linkplain #cache} at shutdown time, or {@code null} if none.
+     */
+    final OperationCacheFile cacheFile;
+
     /**
      * Constructs a factory with no default properties.
      */
@@ -167,12 +201,44 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
      * The new factory will fallback on the map given to this constructor
      * for any property not present in the map given to a {@code createFoo(Map<String,?>, …)} method.
      *
+     * <p>The following properties are not default properties, but instead configure the cache of coordinate
+     * operations inferred by {@link #createOperation(CoordinateReferenceSystem, CoordinateReferenceSystem)
+     * createOperation(sourceCRS, targetCRS)}:</p>
+     *
+     * <table class="sis">
+     *   <caption>Cache configuration</caption>
+     *   <tr>
+     *     <th>Property name</th>
+     *     <th>Value type</th>
+     *     <th>Description</th>
+     *   </tr>
+     *   <tr>
+     *     <td>{@value #CACHE_CAPACITY_KEY}</td>
+     *     <td>{@link Integer}</td>
+     *     <td>Number of operations kept by strong references (default is 50).</td>
+     *   </tr>
+     *   <tr>
+     *     <td>{@value #CACHE_FILE_KEY}</td>
+     *     <td>{@link Path}</td>
+     *     <td>File where to save the cached operations at shutdown time and from where to load them at
+     *         construction time.</td>
+     *   </tr>
+     * </table>
+     *
+     * The cached operations are saved with Java serialization. Operations that can not be serialized are not saved,
+     * and the file is ignored if it has been written by a different Apache SIS version or with a different version
+     * of the EPSG dataset. All factories having the same {@value #CACHE_FILE_KEY} property share the same cache,
+     * which is saved once by a shutdown hook. In such case the {@value #CACHE_CAPACITY_KEY} property is used only
+     * by the first factory created for that file.
+     *
      * @param properties  the default properties, or {@code null} if none.
      * @param factory     the factory to use for creating {@linkplain AbstractMathTransform math transforms},
      *                    or {@code null} for the default factory.
      */
     @SuppressWarnings("ResultOfMethodCallIgnored")
     public DefaultCoordinateOperationFactory(Map<String,?> properties, final MathTransformFactory factory) {
+        int  capacity = DEFAULT_CACHE_CAPACITY;
+        Path file     = null;
         if (properties == null || properties.isEmpty()) {
             properties = Collections.emptyMap();
         } else {
@@ -187,6 +253,12 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
                 crsFactory = (CRSFactory)           (value = properties.remove(key = ReferencingServices.CRS_FACTORY));
                 csFactory  = (CSFactory)            (value = properties.remove(key = ReferencingServices.CS_FACTORY));
                 mtFactory  = (MathTransformFactory) (value = properties.remove(key = ReferencingServices.MT_FACTORY));
+                file       = (Path)                 (value = properties.remove(key = CACHE_FILE_KEY));
+                value = properties.remove(key = CACHE_CAPACITY_KEY);
+                if (value != null) {
+                    capacity = (Integer) value;
+                    ArgumentChecks.ensurePositive(key, capacity);
+                }
             } catch (ClassCastException e) {
                 throw new IllegalArgumentException(Errors.getResources(properties)
                         .getString(Errors.Keys.IllegalPropertyValueClass_2, key, Classes.getClass(value)));
@@ -199,7 +271,13 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
             mtFactory = factory;
         }
         pool = new WeakHashSet<>(IdentifiedObject.class);
-        cache = new Cache<>(12, 50, true);
+        if (file != null) {
+            cacheFile = OperationCacheFile.getInstance(file, capacity);
+            cache = cacheFile.cache;
+        } else {
+            cacheFile = null;
+            cache = new Cache<>(12, capacity, true);
+        }
     }
 
     /**
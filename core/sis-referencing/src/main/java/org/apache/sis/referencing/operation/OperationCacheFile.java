@@ -0,0 +1,380 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import org.opengis.util.FactoryException;
+import org.opengis.util.InternationalString;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.apache.sis.internal.system.Loggers;
+import org.apache.sis.internal.system.Shutdown;
+import org.apache.sis.internal.util.Constants;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.util.collection.Cache;
+import org.apache.sis.util.logging.Logging;
+import org.apache.sis.util.Version;
+
+
+/**
+ * A file where the coordinate operations cached by {@link DefaultCoordinateOperationFactory} are saved
+ * at shutdown time and loaded at construction time. This avoids to search again the same operations in
+ * the EPSG database after each restart of the Java Virtual Machine.
+ *
+ * <p>Each entry (source CRS, target CRS and coordinate operation) is stored with Java serialization
+ * in its own block of bytes, so an entry that can not be serialized or deserialized (for example after
+ * a class change) is skipped without discarding the other entries. The whole file is ignored if it has
+ * been written by a different Apache SIS version or with a different version of the EPSG dataset.
+ * Errors are logged but not propagated, since this file is only an optimization.</p>
+ *
+ * <p>Deserialization accepts only the classes of Apache SIS, GeoAPI, units of measurement, a few
+ * core Java packages and the Java2D classes extended by Apache SIS serializable classes,
+ * so a file written by another application can not instantiate arbitrary classes.</p>
+ *
+ * <p>There is at most one instance of this class per file. All factories configured with the same
+ * file share the same cache, which is saved only once at shutdown time.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+final class OperationCacheFile implements Callable<Object> {
+    /**
+     * A number identifying the format of the file, written at the beginning of the file.
+     */
+    private static final int MAGIC_NUMBER = 0x5349534F;             // "SISO" in ASCII.
+
+    /**
+     * Prefixes of the names of classes allowed to be deserialized, including sub-packages.
+     * Names of array classes are reduced to the name of their component type before to be checked.
+     */
+    private static final String[] ALLOWED_PREFIXES = {
+        "org.apache.sis.", "org.opengis.", "javax.measure."
+    };
+
+    /**
+     * Packages of the classes allowed to be deserialized, excluding sub-packages.
+     * Sub-packages such as {@code java.lang.invoke} are excluded on purpose.
+     */
+    private static final String[] ALLOWED_PACKAGES = {
+        "java.lang", "java.util", "java.net"
+    };
+
+    /**
+     * Names of other classes allowed to be deserialized. Those classes are the serializable parents
+     * of Apache SIS classes, for example {@code AffineTransform} for {@code AffineTransform2D}.
+     */
+    private static final String[] ALLOWED_CLASSES = {
+        "java.awt.geom.AffineTransform",            // Parent of AffineTransform2D.
+        "java.awt.geom.Point2D$Double",             // Parent of DirectPosition2D.
+        "java.awt.geom.Rectangle2D$Double"          // Parent of Envelope2D.
+    };
+
+    /**
+     * The instances created for each file.
+     * All accesses to this map shall be synchronized on the map.
+     */
+    private static final Map<Path,OperationCacheFile> INSTANCES = new HashMap<>();
+
+    /**
+     * The file where to load and save the cached operations.
+     */
+    final Path file;
+
+    /**
+     * The cache to save. This cache is shared by all factories using the same file.
+     */
+    final Cache<CRSPair,CoordinateOperation> cache;
+
+    /**
+     * Version of the EPSG dataset used for creating the cached operations, or an empty string if unknown.
+     * This version is determined once at construction time, so the EPSG database is not queried at shutdown
+     * time when the cache is saved.
+     */
+    private final String epsgVersion;
+
+    /**
+     * Creates a new file for the given cache.
+     *
+     * @param  file         the file where to load and save the cached operations.
+     * @param  cache        the cache to save.
+     * @param  epsgVersion  version of the EPSG dataset, or an empty string if unknown.
+     */
+    OperationCacheFile(final Path file, final Cache<CRSPair,CoordinateOperation> cache, final String epsgVersion) {
+        this.file        = file;
+        this.cache       = cache;
+        this.epsgVersion = epsgVersion;
+    }
+
+    /**
+     * Returns the instance for the given file, creating it when first needed. A new instance loads the
+     * operations found in the file and registers itself for saving them at shutdown time. The capacity
+     * is used only for a new instance; if an instance already exists for the given file, its cache is
+     * returned unchanged.
+     *
+     * @param  file      the file where to load and save the cached operations.
+     * @param  capacity  number of operations to keep by strong references.
+     * @return the instance for the given file.
+     */
+    static OperationCacheFile getInstance(Path file, final int capacity) {
+        file = file.toAbsolutePath().normalize();
+        synchronized (INSTANCES) {
+            final OperationCacheFile instance = INSTANCES.get(file);
+            if (instance != null) {
+                return instance;
+            }
+        }
+        /*
+         * Get the EPSG version outside the synchronized block, since it may require the initialization
+         * of the EPSG factory which may be long. If another thread created an instance for the same file
+         * in the meantime, the instance created by the other thread is returned.
+         */
+        final String epsgVersion = epsgVersion();
+        synchronized (INSTANCES) {
+            OperationCacheFile instance = INSTANCES.get(file);
+            if (instance == null) {
+                instance = new OperationCacheFile(file, new Cache<>(12, capacity, true), epsgVersion);
+                instance.load();
+                Shutdown.register(instance);
+                INSTANCES.put(file, instance);
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Discards this instance without saving the cache. The next call to {@link #getInstance(Path, int)}
+     * for the same file will create a new instance. This method is used for testing purpose.
+     */
+    final void dispose() {
+        synchronized (INSTANCES) {
+            INSTANCES.remove(file, this);
+        }
+        Shutdown.unregister(this);
+    }
+
+    /**
+     * Adds in the cache all operations found in the file. Entries already in the cache are not replaced.
+     * If the file does not exist, then this method does nothing.
+     *
+     * @return number of operations added in the cache.
+     */
+    final int load() {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC_NUMBER || !Version.SIS.toString().equals(in.readUTF())
+                    || !epsgVersion.equals(in.readUTF()))
+            {
+                return 0;                       // Written by another application, SIS version or EPSG version.
+            }
+            final long size = Files.size(file);
+            for (int length; (length = in.readInt()) >= 0;) {
+                if (length > size) {
+                    throw new StreamCorruptedException(file.toString());
+                }
+                final byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                try (ObjectInputStream entry = new Input(new ByteArrayInputStream(bytes))) {
+                    final CoordinateReferenceSystem sourceCRS = (CoordinateReferenceSystem) entry.readObject();
+                    final CoordinateReferenceSystem targetCRS = (CoordinateReferenceSystem) entry.readObject();
+                    final CoordinateOperation operation = (CoordinateOperation) entry.readObject();
+                    if (cache.putIfAbsent(new CRSPair(sourceCRS, targetCRS), operation) == null) {
+                        count++;
+                    }
+                } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                    warning("load", e);                     // Skip that entry but continue with the next ones.
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // No operation saved yet. This is not an error.
+        } catch (EOFException e) {
+            warning("load", e);                             // Truncated file. Keep the entries read so far.
+        } catch (IOException e) {
+            warning("load", e);
+        }
+        return count;
+    }
+
+    /**
+     * Writes all operations in the cache to the file. The operations are first written in a temporary file
+     * in the same directory, which then replaces the previous file. Entries that can not be serialized are
+     * skipped.
+     *
+     * @return number of operations written.
+     */
+    final int save() {
+        int count = 0;
+        Path tmp = null;
+        try {
+            final Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            tmp = Files.createTempFile(parent, "operations", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC_NUMBER);
+                out.writeUTF(Version.SIS.toString());
+                out.writeUTF(epsgVersion);
+                final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                for (final Map.Entry<CRSPair,CoordinateOperation> e : cache.entrySet()) {
+                    final CRSPair key = e.getKey();
+                    buffer.reset();
+                    try (ObjectOutputStream entry = new ObjectOutputStream(buffer)) {
+                        entry.writeObject(key.sourceCRS);
+                        entry.writeObject(key.targetCRS);
+                        entry.writeObject(e.getValue());
+                    } catch (IOException ex) {
+                        warning("save", ex);                // Typically a NotSerializableException.
+                        continue;
+                    }
+                    out.writeInt(buffer.size());
+                    buffer.writeTo(out);
+                    count++;
+                }
+                out.writeInt(-1);                           // End of entries.
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            tmp = null;
+        } catch (IOException e) {
+            warning("save", e);
+            count = 0;
+        } finally {
+            if (tmp != null) try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException e) {
+                warning("save", e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the version of the EPSG dataset, or an empty string if unknown.
+     * The version is written in the file header because a cached operation
+     * may become obsolete after an update of the EPSG dataset.
+     */
+    private static String epsgVersion() {
+        try {
+            final Citation authority = CRS.getAuthorityFactory(Constants.EPSG).getAuthority();
+            if (authority != null) {
+                final InternationalString edition = authority.getEdition();
+                if (edition != null) {
+                    return edition.toString();
+                }
+            }
+        } catch (FactoryException e) {
+            warning("getInstance", e);
+        }
+        return "";
+    }
+
+    /**
+     * Invoked at shutdown time for saving the cached operations.
+     *
+     * @return {@code null}.
+     */
+    @Override
+    public Object call() {
+        save();
+        return null;
+    }
+
+    /**
+     * Logs a warning about an error that occurred while reading or writing the file.
+     */
+    private static void warning(final String method, final Exception e) {
+        Logging.unexpectedException(Logging.getLogger(Loggers.COORDINATE_OPERATION), OperationCacheFile.class, method, e);
+    }
+
+    /**
+     * An object input stream accepting only the classes in the {@linkplain #ALLOWED_PREFIXES allowed packages}
+     * and the {@linkplain #ALLOWED_CLASSES allowed classes}.
+     * We do not use {@code java.io.ObjectInputFilter} because it is not available on all Java versions supported
+     * by Apache SIS.
+     */
+    private static final class Input extends ObjectInputStream {
+        /**
+         * Creates a new stream reading the given bytes.
+         */
+        Input(final InputStream in) throws IOException {
+            super(in);
+        }
+
+        /**
+         * Resolves the given class only if it is in one of the allowed packages.
+         */
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            int start = 0;
+            while (start < name.length() && name.charAt(start) == '[') start++;
+            if (start != 0) {
+                if (start == name.length() - 1) {
+                    return super.resolveClass(desc);                        // Array of primitive type.
+                }
+                name = name.substring(start + 1, name.length() - 1);       // Remove "[L" and ";".
+            }
+            for (final String prefix : ALLOWED_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    return super.resolveClass(desc);
+                }
+            }
+            final String pkg = name.substring(0, Math.max(0, name.lastIndexOf('.')));
+            for (final String allowed : ALLOWED_PACKAGES) {
+                if (pkg.equals(allowed)) {
+                    return super.resolveClass(desc);
+                }
+            }
+            for (final String allowed : ALLOWED_CLASSES) {
+                if (name.equals(allowed)) {
+                    return super.resolveClass(desc);
+                }
+            }
+            throw new InvalidClassException(name, "Class not allowed in a cache of coordinate operations.");
+        }
+
+        /**
+         * Rejects all proxy classes, since they are not used by the serialized operations.
+         */
+        @Override
+        protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed in a cache of coordinate operations.");
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.opengis.referencing.operation.OperationMethod;
 import org.apache.sis.internal.referencing.Formulas;
 import org.apache.sis.internal.referencing.Resources;
@@ -47,7 +48,7 @@ import static org.apache.sis.internal.referencing.provider.AlbersEqualArea.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @author  Rémi Maréchal (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.8
  * @module
  */
@@ -280,6 +281,57 @@ public class AlbersEqualArea extends EqualAreaProjection {
          */
     }
 
+    /**
+     * Converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #transform(double[], int, double[], int, boolean)} method, but is overridden for efficiency.
+     *
+     * @throws TransformException if a point can not be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != AlbersEqualArea.class) {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            // Each point is read before to be written, so this loop is safe when srcOff >= dstOff.
+            final double C  = this.C;
+            final double nm = this.nm;
+            while (--numPts >= 0) {
+                final double θ = srcPts[srcOff++];
+                final double φ = srcPts[srcOff++];
+                final double ρ = sqrt(C - nm*qm_ellipsoid(sin(φ)));
+                dstPts[dstOff++] = ρ * sin(θ);
+                dstPts[dstOff++] = ρ * cos(θ);
+            }
+        }
+    }
+
+    /**
+     * Inverse converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #inverseTransform(double[], int, double[], int)} method, but is overridden for efficiency.
+     *
+     * @throws ProjectionException if a point can not be converted.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != AlbersEqualArea.class) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            final double C  = this.C;
+            final double nm = this.nm;
+            while (--numPts >= 0) {
+                final double x = srcPts[srcOff++];
+                final double y = srcPts[srcOff++];
+                dstPts[dstOff++] = atan2(x, y);
+                dstPts[dstOff++] = φ((C - (x*x + y*y)) / nm);
+            }
+        }
+    }
+
 
     /**
      * Provides the transform equations for the spherical case of the Albers Equal Area projection.
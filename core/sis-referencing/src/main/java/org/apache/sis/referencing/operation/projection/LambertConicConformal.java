@@ -23,6 +23,7 @@ import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
 import org.opengis.referencing.operation.OperationMethod;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.measure.Latitude;
 import org.apache.sis.parameter.Parameters;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
@@ -58,7 +59,7 @@ import static org.apache.sis.internal.util.DoubleDouble.verbatim;
  * @author  André Gosselin (MPO)
  * @author  Rueben Schulz (UBC)
  * @author  Rémi Maréchal (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.6
  * @module
  */
@@ -465,6 +466,68 @@ public class LambertConicConformal extends ConformalProjection {
         dstPts[dstOff+1] = -φ(pow(hypot(x, y), 1/n));   // Equivalent to φ(pow(hypot(x,y), -1/n)) but more accurate for n>0.
     }
 
+    /**
+     * Converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #transform(double[], int, double[], int, boolean)} method, but is overridden for efficiency.
+     *
+     * @throws TransformException if a point can not be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != LambertConicConformal.class) {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            /*
+             * Same formulas than the single-point method, without the derivative. The source ordinates are read
+             * before the target ordinates are written, so this loop is safe when the source and target arrays
+             * are the same with srcOff >= dstOff. The opposite case has been delegated to the parent class.
+             */
+            final double n = this.n;
+            final double ℯ = eccentricity;
+            while (--numPts >= 0) {
+                final double θ    = srcPts[srcOff++];
+                final double φ    = srcPts[srcOff++];
+                final double absφ = abs(φ);
+                final double ρ;
+                if (absφ < PI/2) {
+                    ρ = pow(expOfNorthing(φ, ℯ*sin(φ)), n);
+                } else if (absφ < PI/2 + ANGULAR_TOLERANCE) {
+                    ρ = (φ*n >= 0) ? POSITIVE_INFINITY : 0;
+                } else {
+                    ρ = NaN;
+                }
+                dstPts[dstOff++] = ρ * sin(θ);
+                dstPts[dstOff++] = ρ * cos(θ);
+            }
+        }
+    }
+
+    /**
+     * Inverse converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #inverseTransform(double[], int, double[], int)} method, but is overridden for efficiency.
+     *
+     * @throws ProjectionException if a point can not be converted.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != LambertConicConformal.class) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            final double p = 1 / n;
+            while (--numPts >= 0) {
+                final double x = srcPts[srcOff++];
+                final double y = srcPts[srcOff++];
+                dstPts[dstOff++] = atan2(x, y);
+                dstPts[dstOff++] = -φ(pow(hypot(x, y), p));
+            }
+        }
+    }
+
 
     /**
      * Provides the transform equations for the spherical case of the Lambert Conformal projection.
@@ -130,7 +130,7 @@ import org.opengis.referencing.ReferenceIdentifier;
  * @author  André Gosselin (MPO)
  * @author  Rueben Schulz (UBC)
  * @author  Rémi Maréchal (Geomatys)
- * @version 0.8
+ * @version 1.0
  *
  * @see ContextualParameters
  * @see <a href="http://mathworld.wolfram.com/MapProjection.html">Map projections on MathWorld</a>
@@ -724,6 +724,30 @@ public abstract class NormalizedProjection extends AbstractMathTransform2D imple
     protected abstract void inverseTransform(double[] srcPts, int srcOff, double[] dstPts, int dstOff)
             throws ProjectionException;
 
+    /**
+     * Inverse converts an arbitrary amount of coordinates. This method is invoked by the {@linkplain #inverse() inverse}
+     * transform only when the conversions can be applied by a loop with indices in increasing order, i.e. when
+     * the source and destination arrays are different or when {@code srcOff >= dstOff}. The default implementation
+     * invokes {@link #inverseTransform(double[], int, double[], int)} for each point. Subclasses can override this
+     * method with a loop specialized for their formulas.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset of the first point to be converted in the source array.
+     * @param  dstPts  the array into which the converted point coordinates are returned.
+     * @param  dstOff  the offset of the location of the first converted point that is stored in the destination array.
+     * @param  numPts  the number of points to be converted.
+     * @throws ProjectionException if a point can not be converted.
+     */
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        while (--numPts >= 0) {
+            inverseTransform(srcPts, srcOff, dstPts, dstOff);
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
     /**
      * Returns the inverse of this map projection.
      * Subclasses do not need to override this method, as they should override
@@ -803,10 +827,8 @@ public abstract class NormalizedProjection extends AbstractMathTransform2D imple
         {
             if (srcPts == dstPts && srcOff < dstOff) {
                 super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
-            } else while (--numPts >= 0) {
-                forward.inverseTransform(srcPts, srcOff, dstPts, dstOff);
-                srcOff += DIMENSION;
-                dstOff += DIMENSION;
+            } else {
+                forward.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
             }
         }
 
@@ -19,6 +19,7 @@ package org.apache.sis.referencing.operation.projection;
 import java.util.EnumMap;
 import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.opengis.referencing.operation.OperationMethod;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
@@ -58,7 +59,7 @@ import static org.apache.sis.internal.referencing.provider.ObliqueStereographic.
  *
  * @author  Rémi Maréchal (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.7
+ * @version 1.0
  * @since   0.7
  * @module
  */
@@ -370,6 +371,90 @@ public class ObliqueStereographic extends NormalizedProjection {
         throw new ProjectionException(Resources.format(Resources.Keys.NoConvergence));
     }
 
+    /**
+     * Converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #transform(double[], int, double[], int, boolean)} method, but is overridden for efficiency.
+     *
+     * @throws TransformException if a point can not be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != ObliqueStereographic.class) {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            // Each point is read before to be written, so this loop is safe when srcOff >= dstOff.
+            final double ℯ     = eccentricity;
+            final double c     = this.c;
+            final double n     = this.n;
+            final double sinχ0 = this.sinχ0;
+            final double cosχ0 = this.cosχ0;
+            while (--numPts >= 0) {
+                final double Λ     = srcPts[srcOff++];
+                final double φ     = srcPts[srcOff++];
+                final double sinφ  = sin(φ);
+                final double ℯsinφ = ℯ * sinφ;
+                final double Sa    = (1 +  sinφ) / (1 -  sinφ);
+                final double Sb    = (1 - ℯsinφ) / (1 + ℯsinφ);
+                final double w     = c * pow(Sa * pow(Sb, ℯ), n);
+                final double sinχ  = (w - 1) / (w + 1);
+                final double cosχ  = sqrt(1 - sinχ*sinχ);
+                final double cosΛ  = cos(Λ);
+                final double B     = 1 + sinχ*sinχ0 + cosχ*cosχ0*cosΛ;
+                dstPts[dstOff++] = cosχ*sin(Λ) / B;
+                dstPts[dstOff++] = (sinχ*cosχ0 - cosχ*sinχ0*cosΛ) / B;
+            }
+        }
+    }
+
+    /**
+     * Inverse converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #inverseTransform(double[], int, double[], int)} method, but is overridden for efficiency.
+     *
+     * @throws ProjectionException if a point can not be converted.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != ObliqueStereographic.class) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            final double ℯ  = eccentricity;
+            final double c  = this.c;
+            final double n2 = 2*n;
+            final double g  = this.g;
+            final double h  = this.h;
+            final double χ0 = this.χ0;
+            final double he = ℯ/2;
+            final double me = 1 - eccentricitySquared;
+            while (--numPts >= 0) {
+                final double x = srcPts[srcOff++];
+                final double y = srcPts[srcOff++];
+                final double i = atan(x / (h + y));
+                final double j = atan(x / (g - y)) - i;
+                final double sinχ = sin(χ0 + 2*atan(y - x*tan(j/2)));
+                final double ψ = log((1 + sinχ) / ((1 - sinχ)*c)) / n2;
+                double φ = 2*atan(exp(ψ)) - PI/2;                           // First approximation
+                double Δφ;
+                int it = MAXIMUM_ITERATIONS;
+                do {
+                    if (--it < 0) {
+                        throw new ProjectionException(Resources.format(Resources.Keys.NoConvergence));
+                    }
+                    final double ℯsinφ = ℯ * sin(φ);
+                    final double ψi = log(tan(φ/2 + PI/4) * pow((1 - ℯsinφ) / (1 + ℯsinφ), he));
+                    Δφ = (ψ - ψi) * cos(φ) * (1 - ℯsinφ*ℯsinφ) / me;
+                    φ += Δφ;
+                } while (abs(Δφ) > ITERATION_TOLERANCE);                   // False for NaN.
+                dstPts[dstOff++] = j + 2*i;
+                dstPts[dstOff++] = φ;
+            }
+        }
+    }
+
 
 
 
@@ -23,6 +23,7 @@ import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
 import org.opengis.referencing.operation.OperationMethod;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
 import org.apache.sis.referencing.operation.matrix.MatrixSIS;
 import org.apache.sis.referencing.operation.transform.ContextualParameters;
@@ -55,7 +56,7 @@ import static org.apache.sis.internal.util.DoubleDouble.verbatim;
  * @author  Martin Desruisseaux (MPO, IRD, Geomatys)
  * @author  Rueben Schulz (UBC)
  * @author  Rémi Maréchal (Geomatys)
- * @version 0.6
+ * @version 1.0
  *
  * @see ObliqueStereographic
  *
@@ -338,6 +339,54 @@ public class PolarStereographic extends ConformalProjection {
         dstPts[dstOff+1] = -φ(hypot(x, y));
     }
 
+    /**
+     * Converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #transform(double[], int, double[], int, boolean)} method, but is overridden for efficiency.
+     *
+     * @throws TransformException if a point can not be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != PolarStereographic.class) {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            // Each point is read before to be written, so this loop is safe when srcOff >= dstOff.
+            final double ℯ = eccentricity;
+            while (--numPts >= 0) {
+                final double θ = srcPts[srcOff++];
+                final double φ = srcPts[srcOff++];
+                final double t = expOfNorthing(φ, ℯ*sin(φ));
+                dstPts[dstOff++] = t * sin(θ);
+                dstPts[dstOff++] = t * cos(θ);
+            }
+        }
+    }
+
+    /**
+     * Inverse converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #inverseTransform(double[], int, double[], int)} method, but is overridden for efficiency.
+     *
+     * @throws ProjectionException if a point can not be converted.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != PolarStereographic.class) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            while (--numPts >= 0) {
+                final double x = srcPts[srcOff++];
+                final double y = srcPts[srcOff++];
+                dstPts[dstOff++] = atan2(x, y);         // Really (x,y), not (y,x)
+                dstPts[dstOff++] = -φ(hypot(x, y));
+            }
+        }
+    }
+
 
     /**
      * Provides the transform equations for the spherical case of the polar stereographic projection.
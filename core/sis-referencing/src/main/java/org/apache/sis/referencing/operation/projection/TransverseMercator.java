@@ -22,6 +22,7 @@ import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.opengis.referencing.operation.OperationMethod;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
 import org.apache.sis.referencing.operation.matrix.MatrixSIS;
@@ -59,7 +60,7 @@ import static org.apache.sis.internal.referencing.provider.TransverseMercator.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @author  Rémi Maréchal (Geomatys)
- * @version 0.8
+ * @version 1.0
  *
  * @see Mercator
  * @see ObliqueMercator
@@ -580,6 +581,144 @@ public class TransverseMercator extends ConformalProjection {
         throw new ProjectionException(Resources.format(Resources.Keys.NoConvergence));
     }
 
+    /**
+     * Converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #transform(double[], int, double[], int, boolean)} method, but is overridden for efficiency.
+     *
+     * @throws TransformException if a point can not be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != TransverseMercator.class
+                || !ALLOW_TRIGONOMETRIC_IDENTITIES)
+        {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
+        }
+        /*
+         * Same formulas than the single-point method, without the derivative and the assertions.
+         * Each point is read before to be written, so this loop is safe when srcOff >= dstOff.
+         */
+        final double ℯ = eccentricity;
+        final double cf2 = this.cf2, cf4 = this.cf4, cf6 = this.cf6, cf8 = this.cf8;
+        while (--numPts >= 0) {
+            final double λ = srcPts[srcOff];
+            if (abs(λ) >= (0.9*PI/2)) {
+                /*
+                 * Points outside the domain of validity are rare. Let the parent class handle this point
+                 * and all remaining ones, since it knows how to set the failed points to NaN and continue.
+                 */
+                super.transform(srcPts, srcOff, dstPts, dstOff, numPts + 1);
+                return;
+            }
+            final double φ        = srcPts[srcOff+1];
+            final double ℯsinφ    = sin(φ) * ℯ;
+            final double Q        = asinh(tan(φ)) - atanh(ℯsinφ) * ℯ;
+            final double η0       = atanh(sin(λ) / cosh(Q));
+            final double ξ0       = asin(tanh(Q) * cosh(η0));
+            final double sin_2ξ0  = sin(2*ξ0);
+            final double cos_2ξ0  = cos(2*ξ0);
+            final double sin2     = sin_2ξ0 * sin_2ξ0;
+            final double cos2     = cos_2ξ0 * cos_2ξ0;
+            final double sin_4ξ0  = sin_2ξ0 * cos_2ξ0;
+            final double cos_4ξ0  = (cos2  - sin2) * 0.5;
+            final double sin_6ξ0  = (0.75  - sin2) * sin_2ξ0;
+            final double cos_6ξ0  = (cos2  - 0.75) * cos_2ξ0;
+            final double sin_8ξ0  =        sin_4ξ0 * cos_4ξ0;
+            final double cos_8ξ0  = 0.125 - sin_4ξ0 * sin_4ξ0;
+            final double sinh_2η0 = sinh(2*η0);
+            final double cosh_2η0 = cosh(2*η0);
+            final double sinh2    = sinh_2η0 * sinh_2η0;
+            final double cosh2    = cosh_2η0 * cosh_2η0;
+            final double cosh_4η0 = (cosh2 + sinh2) * 0.5;
+            final double sinh_4η0 = cosh_2η0 * sinh_2η0;
+            final double cosh_6η0 = cosh_2η0 * (cosh2 - 0.75);
+            final double sinh_6η0 = sinh_2η0 * (sinh2 + 0.75);
+            final double cosh_8η0 = sinh_4η0 * sinh_4η0 + 0.125;
+            final double sinh_8η0 = sinh_4η0 * cosh_4η0;
+            dstPts[dstOff  ] = cf8 * cos_8ξ0 * sinh_8η0
+                             + cf6 * cos_6ξ0 * sinh_6η0
+                             + cf4 * cos_4ξ0 * sinh_4η0
+                             + cf2 * cos_2ξ0 * sinh_2η0
+                             + η0;
+            dstPts[dstOff+1] = cf8 * sin_8ξ0 * cosh_8η0
+                             + cf6 * sin_6ξ0 * cosh_6η0
+                             + cf4 * sin_4ξ0 * cosh_4η0
+                             + cf2 * sin_2ξ0 * cosh_2η0
+                             + ξ0;
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
+    /**
+     * Inverse converts a list of coordinate points. This method performs the same calculation than above
+     * {@link #inverseTransform(double[], int, double[], int)} method, but is overridden for efficiency.
+     *
+     * @throws ProjectionException if a point can not be converted.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != TransverseMercator.class || !ALLOW_TRIGONOMETRIC_IDENTITIES) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            final double ℯ = eccentricity;
+            final double ci2 = this.ci2, ci4 = this.ci4, ci6 = this.ci6, ci8 = this.ci8;
+            while (--numPts >= 0) {
+                final double η       = srcPts[srcOff++];
+                final double ξ       = srcPts[srcOff++];
+                final double sin_2ξ  = sin (2*ξ);
+                final double cos_2ξ  = cos (2*ξ);
+                final double sinh_2η = sinh(2*η);
+                final double cosh_2η = cosh(2*η);
+                final double sin2    = sin_2ξ * sin_2ξ;
+                final double cos2    = cos_2ξ * cos_2ξ;
+                final double sin_4ξ  = sin_2ξ * cos_2ξ;
+                final double cos_4ξ  = (cos2  - sin2) * 0.5;
+                final double sin_6ξ  = (0.75  - sin2) * sin_2ξ;
+                final double cos_6ξ  = (cos2  - 0.75) * cos_2ξ;
+                final double sin_8ξ  =         sin_4ξ * cos_4ξ;
+                final double cos_8ξ  = 0.125 - sin_4ξ * sin_4ξ;
+                final double sinh2   = sinh_2η * sinh_2η;
+                final double cosh2   = cosh_2η * cosh_2η;
+                final double cosh_4η = (cosh2 + sinh2) * 0.5;
+                final double sinh_4η = cosh_2η * sinh_2η;
+                final double cosh_6η = cosh_2η * (cosh2 - 0.75);
+                final double sinh_6η = sinh_2η * (sinh2 + 0.75);
+                final double cosh_8η = sinh_4η * sinh_4η + 0.125;
+                final double sinh_8η = sinh_4η * cosh_4η;
+                final double ξ0 = ξ - (ci8 * sin_8ξ * cosh_8η
+                                     + ci6 * sin_6ξ * cosh_6η
+                                     + ci4 * sin_4ξ * cosh_4η
+                                     + ci2 * sin_2ξ * cosh_2η);
+                final double η0 = η - (ci8 * cos_8ξ * sinh_8η
+                                     + ci6 * cos_6ξ * sinh_6η
+                                     + ci4 * cos_4ξ * sinh_4η
+                                     + ci2 * cos_2ξ * sinh_2η);
+                final double β = asin(sin(ξ0) / cosh(η0));
+                final double Q = asinh(tan(β));
+                double p  = ℯ * atanh(ℯ * tanh(Q));
+                double Qp = Q + p;
+                for (int it=0;; it++) {
+                    if (it >= MAXIMUM_ITERATIONS) {
+                        throw new ProjectionException(Resources.format(Resources.Keys.NoConvergence));
+                    }
+                    final double c = ℯ * atanh(ℯ * tanh(Qp));
+                    Qp = Q + c;
+                    if (abs(c - p) <= ITERATION_TOLERANCE) break;
+                    p = c;
+                }
+                dstPts[dstOff++] = asin(tanh(η0) / cos(β));
+                dstPts[dstOff++] = atan(sinh(Qp));
+            }
+        }
+    }
+
 
 
 
@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.Arrays;
+import java.io.Serializable;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+import org.apache.sis.referencing.operation.builder.LinearTransformBuilder;
+import org.apache.sis.referencing.operation.matrix.Matrices;
+import org.apache.sis.referencing.operation.matrix.MatrixSIS;
+import org.apache.sis.io.wkt.Formatter;
+import org.apache.sis.util.ComparisonMode;
+import org.apache.sis.util.Utilities;
+
+
+/**
+ * A piecewise affine approximation of a two-dimensional transform inside a rectangular domain.
+ * The domain is subdivided recursively in four cells until the affine transform fitted on each cell
+ * approximates the exact transform with an error not greater than a given threshold in target units.
+ * This is similar to the "approximate transformer" used by GDAL for warping images, except that the
+ * cells are computed once at construction time and can be reused for any number of points.
+ *
+ * <p>The affine transform of each cell is fitted by {@link LinearTransformBuilder} on a grid of
+ * 3×3 points of the exact transform (corners, middle of edges and center). The error is measured
+ * on those 9 points and on 4 additional points in the middle of each quarter of the cell.
+ * Consequently the error threshold is honored at the sampled points only; the error at other
+ * points may be slightly greater if the exact transform varies rapidly inside a cell.</p>
+ *
+ * <p>Cells where some sampled points can not be transformed are subdivided like cells where the error
+ * is too high, since they usually cross the border of the domain of validity of the exact transform.
+ * Points outside the domain, and points in cells where no approximation was found (cells at the maximal
+ * depth, or cells where no sampled point can be transformed), are transformed by the exact transform.
+ * The {@linkplain #inverse() inverse} is the inverse of the exact transform.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ *
+ * @see MathTransforms#approximate(MathTransform, org.opengis.geometry.Envelope, double)
+ *
+ * @since 1.0
+ * @module
+ */
+final class ApproximatedTransform extends AbstractMathTransform implements Serializable {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = 2150213834513405287L;
+
+    /**
+     * Number of dimensions of source points. This is fixed by the use of a quadtree.
+     */
+    private static final int DIMENSION = 2;
+
+    /**
+     * Maximal depth of the quadtree. Cells at this depth are not subdivided further even if
+     * the error threshold is not met, in which case points in those cells are transformed by
+     * the exact transform. A depth of 10 allows up to 1024×1024 cells along each axis.
+     */
+    private static final int MAXIMUM_DEPTH = 10;
+
+    /**
+     * Source coordinates of the points where the exact transform is evaluated in each cell,
+     * in units of half cell size. The 9 first points are the 3×3 grid used for fitting the affine
+     * transform, in the order expected by {@link LinearTransformBuilder} (<var>x</var> varying fastest).
+     * The 4 last points are in the middle of each quarter of the cell and are used only for checking the error.
+     */
+    private static final double[] SAMPLES = {
+        0,0,  1,0,  2,0,
+        0,1,  1,1,  2,1,
+        0,2,  1,2,  2,2,
+        0.5,0.5,  1.5,0.5,  0.5,1.5,  1.5,1.5
+    };
+
+    /**
+     * Number of points in the grid used for fitting the affine transform of a cell.
+     */
+    private static final int GRID_POINTS = 9;
+
+    /**
+     * The exact transform.
+     */
+    private final MathTransform transform;
+
+    /**
+     * Number of dimensions of target points.
+     */
+    private final int tgtDim;
+
+    /**
+     * The maximal error allowed in each cell, in units of the target coordinates.
+     */
+    private final double maxError;
+
+    /**
+     * The root of the quadtree, covering the whole domain.
+     */
+    private final Cell root;
+
+    /**
+     * Number of points transformed by the exact transform during the construction of the quadtree.
+     * Used for statistics and tests only.
+     */
+    final int evaluationCount;
+
+    /**
+     * A node of the quadtree. Each cell is either subdivided in 4 children, or is a leaf
+     * containing the coefficients of an affine transform, or is a leaf without coefficients
+     * if the exact transform shall be used.
+     */
+    private static final class Cell implements Serializable {
+        /** For cross-version compatibility. */
+        private static final long serialVersionUID = -6498349806466294286L;
+
+        /** Minimal and maximal source coordinates of this cell. */
+        final double xmin, ymin, xmax, ymax;
+
+        /**
+         * The 4 children in (<var>x</var>,<var>y</var>) order: lower-left, lower-right, upper-left, upper-right.
+         * This is {@code null} if this cell is a leaf.
+         */
+        Cell[] children;
+
+        /**
+         * For leaf cells, the coefficients of the affine transform without the last row, in row-major order.
+         * Each row contains the factors for <var>x</var> and <var>y</var> followed by the translation term.
+         * This is {@code null} if this cell is not a leaf, or if the exact transform shall be used.
+         */
+        double[] coefficients;
+
+        /** Creates a new cell for the given domain. */
+        Cell(final double xmin, final double ymin, final double xmax, final double ymax) {
+            this.xmin = xmin;
+            this.ymin = ymin;
+            this.xmax = xmax;
+            this.ymax = ymax;
+        }
+
+        /** Returns whether the given point is inside this cell, borders included. */
+        final boolean contains(final double x, final double y) {
+            return x >= xmin && x <= xmax && y >= ymin && y <= ymax;        // False for NaN.
+        }
+
+        /**
+         * Returns the leaf containing the given point, which shall be inside this cell.
+         */
+        final Cell leaf(final double x, final double y) {
+            Cell cell = this;
+            Cell[] c;
+            while ((c = cell.children) != null) {
+                int i = 0;
+                if (x >= (cell.xmin + cell.xmax) * 0.5) i  = 1;
+                if (y >= (cell.ymin + cell.ymax) * 0.5) i |= 2;
+                cell = c[i];
+            }
+            return cell;
+        }
+    }
+
+    /**
+     * Creates a new approximation of the given transform inside the given domain.
+     *
+     * @param  transform  the two-dimensional transform to approximate.
+     * @param  xmin       minimal <var>x</var> source coordinate of the domain where to compute the approximation.
+     * @param  ymin       minimal <var>y</var> source coordinate of the domain where to compute the approximation.
+     * @param  xmax       maximal <var>x</var> source coordinate of the domain where to compute the approximation.
+     * @param  ymax       maximal <var>y</var> source coordinate of the domain where to compute the approximation.
+     * @param  maxError   the maximal error allowed in each cell, in units of the target coordinates.
+     */
+    ApproximatedTransform(final MathTransform transform, final double xmin, final double ymin,
+            final double xmax, final double ymax, final double maxError)
+    {
+        this.transform = transform;
+        this.tgtDim    = transform.getTargetDimensions();
+        this.maxError  = maxError;
+        root = new Cell(xmin, ymin, xmax, ymax);
+        int count = 0;
+        Cell[] pending = {root};
+        for (int depth=0; pending.length != 0; depth++) {
+            final Cell[] next = new Cell[pending.length * 4];
+            int n = 0;
+            for (final Cell cell : pending) {
+                count += SAMPLES.length / DIMENSION;
+                if (!fit(cell) && depth < MAXIMUM_DEPTH) {
+                    final double xmid = (cell.xmin + cell.xmax) * 0.5;
+                    final double ymid = (cell.ymin + cell.ymax) * 0.5;
+                    final Cell[] children = {
+                        new Cell(cell.xmin, cell.ymin, xmid, ymid),
+                        new Cell(xmid, cell.ymin, cell.xmax, ymid),
+                        new Cell(cell.xmin, ymid, xmid, cell.ymax),
+                        new Cell(xmid, ymid, cell.xmax, cell.ymax)
+                    };
+                    cell.children = children;
+                    System.arraycopy(children, 0, next, n, children.length);
+                    n += children.length;
+                }
+            }
+            pending = Arrays.copyOf(next, n);
+        }
+        evaluationCount = count;
+    }
+
+    /**
+     * Computes the affine approximation of the given cell. If the error is not greater than {@link #maxError},
+     * then this method stores the coefficients in the cell and returns {@code true}. Otherwise this method
+     * returns {@code false}, in which case the caller should subdivide the cell.
+     *
+     * <p>If only some points can not be transformed (exception or non-finite values), then this method
+     * returns {@code false} for subdividing the cell, since the cell probably crosses the border of the
+     * domain of validity. If no point can be transformed, then this method returns {@code true} without
+     * storing coefficients, which means that the exact transform will be used for the whole cell.
+     * We do not subdivide in that case because the failure may happen in large areas, which would cause
+     * the evaluation of the exact transform on all cells down to the maximal depth.</p>
+     */
+    private boolean fit(final Cell cell) {
+        final int numPts = SAMPLES.length / DIMENSION;
+        final double sx = (cell.xmax - cell.xmin) * 0.5;
+        final double sy = (cell.ymax - cell.ymin) * 0.5;
+        final double[] sources = new double[SAMPLES.length];
+        for (int i=0; i<SAMPLES.length;) {
+            sources[i] = cell.xmin + sx * SAMPLES[i]; i++;
+            sources[i] = cell.ymin + sy * SAMPLES[i]; i++;
+        }
+        final double[] points = new double[numPts * tgtDim];
+        try {
+            transform.transform(sources, 0, points, 0, numPts);
+        } catch (TransformException e) {
+            /*
+             * Not all implementations set the points that can not be transformed to NaN.
+             * Transform again one point at a time for identifying which points failed.
+             */
+            for (int k=0; k<numPts; k++) {
+                try {
+                    transform.transform(sources, k*DIMENSION, points, k*tgtDim, 1);
+                } catch (TransformException failure) {
+                    Arrays.fill(points, k*tgtDim, (k+1)*tgtDim, Double.NaN);
+                }
+            }
+        }
+        int failures = 0;
+        for (int k=0; k<numPts; k++) {
+            for (int j=0; j<tgtDim; j++) {
+                if (!Double.isFinite(points[k*tgtDim + j])) {
+                    failures++;
+                    break;
+                }
+            }
+        }
+        if (failures != 0) {
+            return failures == numPts;      // If all points failed, use the exact transform in this cell.
+        }
+        final double[] elements = new double[tgtDim * (DIMENSION + 1)];
+        try {
+            final LinearTransformBuilder builder = new LinearTransformBuilder(3, 3);
+            final int[] index = new int[DIMENSION];
+            for (int k=0; k<GRID_POINTS; k++) {
+                index[0] = k % 3;
+                index[1] = k / 3;
+                builder.setControlPoint(index, Arrays.copyOfRange(points, k*tgtDim, (k+1)*tgtDim));
+            }
+            /*
+             * The fitted transform expects grid indices in the [0…2] range. Concatenate with
+             * the conversion from source coordinates to grid indices: i = (x - xmin) / sx.
+             */
+            final Matrix m = builder.create(null).getMatrix();
+            for (int j=0; j<tgtDim; j++) {
+                final double ax = m.getElement(j, 0) / sx;
+                final double ay = m.getElement(j, 1) / sy;
+                final int offset = j * (DIMENSION + 1);
+                elements[offset    ] = ax;
+                elements[offset + 1] = ay;
+                elements[offset + 2] = m.getElement(j, 2) - ax*cell.xmin - ay*cell.ymin;
+            }
+        } catch (IllegalArgumentException | FactoryException e) {
+            return false;                   // Degenerated fit: try again on smaller cells.
+        }
+        /*
+         * Measure the error on all sampled points, including the ones that were not used for the fitting.
+         */
+        for (int k=0; k<numPts; k++) {
+            final double x = sources[k*DIMENSION];
+            final double y = sources[k*DIMENSION + 1];
+            for (int j=0; j<tgtDim; j++) {
+                final int offset = j * (DIMENSION + 1);
+                final double error = elements[offset]*x + elements[offset+1]*y + elements[offset+2] - points[k*tgtDim + j];
+                if (!(Math.abs(error) <= maxError)) {
+                    return false;
+                }
+            }
+        }
+        cell.coefficients = elements;
+        return true;
+    }
+
+    /**
+     * Gets the dimension of input points, which is 2.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return DIMENSION;
+    }
+
+    /**
+     * Gets the dimension of output points.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return tgtDim;
+    }
+
+    /**
+     * Transforms a single coordinate point in an array, and optionally computes the transform derivative
+     * at that location. Inside the approximated cells, the derivative is the matrix of the affine transform.
+     */
+    @Override
+    public Matrix transform(final double[] srcPts, final int srcOff,
+                            final double[] dstPts, final int dstOff,
+                            final boolean derivate) throws TransformException
+    {
+        final double x = srcPts[srcOff];
+        final double y = srcPts[srcOff + 1];
+        final double[] elements = root.contains(x, y) ? root.leaf(x, y).coefficients : null;
+        if (elements == null) {
+            if (derivate) {
+                return MathTransforms.derivativeAndTransform(transform, srcPts, srcOff, dstPts, dstOff);
+            }
+            if (dstPts != null) {
+                transform.transform(srcPts, srcOff, dstPts, dstOff, 1);
+            }
+            return null;
+        }
+        if (dstPts != null) {
+            for (int j=0; j<tgtDim; j++) {
+                final int offset = j * (DIMENSION + 1);
+                dstPts[dstOff + j] = elements[offset]*x + elements[offset+1]*y + elements[offset+2];
+            }
+        }
+        if (!derivate) {
+            return null;
+        }
+        final MatrixSIS derivative = Matrices.createZero(tgtDim, DIMENSION);
+        for (int j=0; j<tgtDim; j++) {
+            final int offset = j * (DIMENSION + 1);
+            derivative.setElement(j, 0, elements[offset]);
+            derivative.setElement(j, 1, elements[offset + 1]);
+        }
+        return derivative;
+    }
+
+    /**
+     * Returns the inverse of the exact transform. The inverse is not approximated.
+     */
+    @Override
+    public MathTransform inverse() throws NoninvertibleTransformException {
+        return transform.inverse();
+    }
+
+    /**
+     * Computes a hash value for this transform.
+     * This method is invoked by {@link #hashCode()} when first needed.
+     */
+    @Override
+    protected int computeHashCode() {
+        return super.computeHashCode() + 31*(transform.hashCode() + 31*Double.hashCode(maxError));
+    }
+
+    /**
+     * Compares the specified object with this math transform for equality.
+     */
+    @Override
+    public boolean equals(final Object object, final ComparisonMode mode) {
+        if (super.equals(object, mode)) {
+            final ApproximatedTransform that = (ApproximatedTransform) object;
+            return Double.doubleToLongBits(maxError)  == Double.doubleToLongBits(that.maxError)
+                && Double.doubleToLongBits(root.xmin) == Double.doubleToLongBits(that.root.xmin)
+                && Double.doubleToLongBits(root.ymin) == Double.doubleToLongBits(that.root.ymin)
+                && Double.doubleToLongBits(root.xmax) == Double.doubleToLongBits(that.root.xmax)
+                && Double.doubleToLongBits(root.ymax) == Double.doubleToLongBits(that.root.ymax)
+                && Utilities.deepEquals(transform, that.transform, mode);
+        }
+        return false;
+    }
+
+    /**
+     * Formats the inner part of a <cite>Well Known Text</cite> version 1 (WKT 1) element.
+     *
+     * <div class="note"><b>Compatibility note:</b>
+     * The {@code APPROXIMATED_MT} element formatted here is an Apache SIS-specific extension.</div>
+     *
+     * @param  formatter  the formatter to use.
+     * @return the WKT element name, which is {@code "Approximated_MT"}.
+     */
+    @Override
+    protected String formatTo(final Formatter formatter) {
+        formatter.newLine();
+        formatter.append(transform);
+        formatter.setInvalidWKT(ApproximatedTransform.class, null);
+        return "Approximated_MT";
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.List;
+import java.util.Arrays;
+import java.io.Serializable;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+import org.apache.sis.referencing.operation.matrix.Matrices;
+import org.apache.sis.io.wkt.Formatter;
+import org.apache.sis.util.ComparisonMode;
+import org.apache.sis.util.Utilities;
+
+
+/**
+ * A chain of transforms applied on small blocks of points. {@link ConcatenatedTransform} often applies each
+ * step on the whole array of coordinates before to apply the next step, which implies as many passes through
+ * memory as there is steps. This class applies all steps on a block of at most {@value #MAXIMUM_BUFFER_SIZE}
+ * ordinates before to move to the next block, using temporary arrays which stay in the processor cache.
+ * Affine steps are applied inline by this class. Other steps are applied by their
+ * {@link MathTransform#transform(double[], int, double[], int, int)} method on the whole block,
+ * so they keep the benefit of loops specialized for arrays of points.
+ *
+ * <p>This approach is intended for long chains of transforms (e.g. affine → projection → affine → datum shift
+ * → affine) applied on arrays much larger than the processor cache. No measurable speedup has been observed
+ * yet on map projections or geocentric datum shifts, which are dominated by trigonometric functions.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ *
+ * @see MathTransforms#fuse(MathTransform)
+ *
+ * @since 1.0
+ * @module
+ */
+final class FusedTransform extends AbstractMathTransform implements Serializable {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = -3357526519530009216L;
+
+    /**
+     * The transform on which to delegate the operations other than transforming arrays of points.
+     */
+    private final MathTransform transform;
+
+    /**
+     * All steps of {@link #transform}, in the order they are applied.
+     */
+    private final MathTransform[] steps;
+
+    /**
+     * For each step, the coefficients of the affine transform without the last row, or {@code null}
+     * if the step is not affine. Coefficients are stored in row-major order, with the translation
+     * term at the end of each row.
+     */
+    private final double[][] matrices;
+
+    /**
+     * Number of dimensions before and after each step. The length of this array is {@code steps.length + 1}.
+     */
+    private final int[] dimensions;
+
+    /**
+     * Maximal number of dimensions of all intermediate points.
+     */
+    private final int maxDimension;
+
+    /**
+     * The inverse transform, created when first needed.
+     */
+    private FusedTransform inverse;
+
+    /**
+     * Creates a new transform applying all steps of the given transform on blocks of points.
+     *
+     * @param  transform  the transform to fuse, usually a concatenation of two or more transforms.
+     */
+    FusedTransform(final MathTransform transform) {
+        this.transform = transform;
+        final List<MathTransform> list = MathTransforms.getSteps(transform);
+        steps      = list.toArray(new MathTransform[list.size()]);
+        matrices   = new double[steps.length][];
+        dimensions = new int[steps.length + 1];
+        int max = dimensions[0] = transform.getSourceDimensions();
+        for (int i=0; i<steps.length; i++) {
+            final MathTransform step = steps[i];
+            final int tgtDim = step.getTargetDimensions();
+            dimensions[i+1] = tgtDim;
+            max = Math.max(max, tgtDim);
+            final Matrix m = MathTransforms.getMatrix(step);
+            if (m != null && Matrices.isAffine(m)) {
+                final int numCol = m.getNumCol();
+                final double[] elements = new double[tgtDim * numCol];
+                for (int j=0; j<tgtDim; j++) {
+                    for (int k=0; k<numCol; k++) {
+                        elements[j*numCol + k] = m.getElement(j, k);
+                    }
+                }
+                matrices[i] = elements;
+            }
+        }
+        maxDimension = max;
+    }
+
+    /**
+     * Gets the dimension of input points.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return dimensions[0];
+    }
+
+    /**
+     * Gets the dimension of output points.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return dimensions[steps.length];
+    }
+
+    /**
+     * Tests whether this transform does not move any points.
+     */
+    @Override
+    public boolean isIdentity() {
+        return transform.isIdentity();
+    }
+
+    /**
+     * Transforms a single coordinate point in an array, and optionally computes the transform
+     * derivative at that location. The derivative is computed by the wrapped transform.
+     */
+    @Override
+    public Matrix transform(final double[] srcPts, final int srcOff,
+                            final double[] dstPts, final int dstOff,
+                            final boolean derivate) throws TransformException
+    {
+        if (derivate) {
+            return MathTransforms.derivativeAndTransform(transform, srcPts, srcOff, dstPts, dstOff);
+        }
+        if (dstPts != null) {
+            transform(srcPts, srcOff, dstPts, dstOff, 1);
+        }
+        return null;
+    }
+
+    /**
+     * Transforms a list of coordinate points by applying all steps on a block of points before to move
+     * to the next block. Points that can not be transformed are set to {@link Double#NaN} and the first
+     * exception is thrown after all points have been processed.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if (numPts <= 0) {
+            return;
+        }
+        final int srcDim = dimensions[0];
+        final int tgtDim = dimensions[steps.length];
+        if (srcPts == dstPts && IterationStrategy.suggest(srcOff, srcDim, dstOff, tgtDim, numPts) != IterationStrategy.ASCENDING) {
+            /*
+             * Each block is fully read before to be written, so ascending order is safe when it is safe
+             * for individual points. In all other cases, copying the source is sufficient.
+             */
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + numPts*srcDim);
+            srcOff = 0;
+        }
+        final int blockSize = Math.min(numPts, Math.max(1, MAXIMUM_BUFFER_SIZE / maxDimension));
+        double[] block  = new double[blockSize * maxDimension];
+        double[] buffer = new double[blockSize * maxDimension];
+        TransformException failure = null;
+        do {
+            final int n = Math.min(numPts, blockSize);
+            System.arraycopy(srcPts, srcOff, block, 0, n * srcDim);
+            for (int s=0; s<steps.length; s++) {
+                final int dim = dimensions[s];
+                final int numRow = dimensions[s+1];
+                final double[] elt = matrices[s];
+                if (elt != null) {
+                    /*
+                     * Same calculation than ProjectiveTransform, including the check for zero coefficients
+                     * which allows NaN values in dimensions that are dropped. The division by the last row
+                     * is omitted since the matrix is affine.
+                     */
+                    for (int p=0, in=0, out=0; p<n; p++, in += dim) {
+                        int mix = 0;
+                        for (int j=0; j<numRow; j++) {
+                            double sum = elt[mix + dim];
+                            for (int i=0; i<dim; i++) {
+                                final double e = elt[mix++];
+                                if (e != 0) {
+                                    sum += block[in + i] * e;
+                                }
+                            }
+                            buffer[out++] = sum;
+                            mix++;
+                        }
+                    }
+                } else {
+                    final MathTransform step = steps[s];
+                    try {
+                        step.transform(block, 0, buffer, 0, n);
+                    } catch (TransformException exception) {
+                        /*
+                         * Some implementations stop at the first point that can not be transformed.
+                         * Transform the block again one point at a time for isolating the failures.
+                         */
+                        if (failure == null) {
+                            failure = exception;                    // Keep only the first failure.
+                        }
+                        for (int p=0, in=0, out=0; p<n; p++, in += dim, out += numRow) {
+                            try {
+                                step.transform(block, in, buffer, out, 1);
+                            } catch (TransformException e) {
+                                Arrays.fill(buffer, out, out + numRow, Double.NaN);
+                            }
+                        }
+                    }
+                }
+                final double[] t = block;
+                block  = buffer;
+                buffer = t;
+            }
+            System.arraycopy(block, 0, dstPts, dstOff, n * tgtDim);
+            srcOff += n * srcDim;
+            dstOff += n * tgtDim;
+            numPts -= n;
+        } while (numPts != 0);
+        if (failure != null) {
+            failure.setLastCompletedTransform(this);
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the inverse transform, which is the fused inverse of the wrapped transform.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            inverse = new FusedTransform(transform.inverse());
+            inverse.inverse = this;
+        }
+        return inverse;
+    }
+
+    /**
+     * Computes a hash value for this transform.
+     * This method is invoked by {@link #hashCode()} when first needed.
+     */
+    @Override
+    protected int computeHashCode() {
+        return super.computeHashCode() + 31*transform.hashCode();
+    }
+
+    /**
+     * Compares the specified object with this math transform for equality.
+     */
+    @Override
+    public boolean equals(final Object object, final ComparisonMode mode) {
+        if (super.equals(object, mode)) {
+            return Utilities.deepEquals(transform, ((FusedTransform) object).transform, mode);
+        }
+        return false;
+    }
+
+    /**
+     * Formats the inner part of a <cite>Well Known Text</cite> version 1 (WKT 1) element.
+     *
+     * <div class="note"><b>Compatibility note:</b>
+     * The {@code FUSED_MT} element formatted here is an Apache SIS-specific extension.</div>
+     *
+     * @param  formatter  the formatter to use.
+     * @return the WKT element name, which is {@code "Fused_MT"}.
+     */
+    @Override
+    protected String formatTo(final Formatter formatter) {
+        formatter.newLine();
+        formatter.append(transform);
+        formatter.setInvalidWKT(FusedTransform.class, null);
+        return "Fused_MT";
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * Transforms a large amount of points using all processors of the common fork-join pool.
+ * The points are split in chunks which are transformed independently by calls to the
+ * {@code MathTransform.transform(…)} methods for arrays of points. Consequently each chunk
+ * keeps the failure semantic of those methods: with Apache SIS implementations, points that
+ * can not be transformed are set to {@link Double#NaN} and the other points are still
+ * transformed before the exception is thrown.
+ *
+ * <p>Subclasses provide the transformation of a chunk for a particular type of array or buffer.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ *
+ * @see MathTransforms#transformParallel(MathTransform, double[], double[], int)
+ *
+ * @since 1.0
+ * @module
+ */
+abstract class ParallelTransform {
+    /**
+     * Minimal number of points in a chunk. Arrays having less points than this threshold are
+     * transformed in the current thread, since the cost of task management would exceed the gain.
+     */
+    static final int THRESHOLD = 4096;
+
+    /**
+     * Number of chunks to create for each processor, for compensating differences in execution time.
+     */
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    /**
+     * The transform to apply. Must be thread-safe.
+     */
+    final MathTransform transform;
+
+    /**
+     * Number of dimensions of source and target points.
+     */
+    final int srcDim, tgtDim;
+
+    /**
+     * The first exception that occurred in a chunk, or {@code null} if none.
+     * Exceptions in other chunks are added as suppressed exceptions.
+     */
+    private TransformException failure;
+
+    /**
+     * Creates a new parallel transformation.
+     */
+    ParallelTransform(final MathTransform transform) {
+        this.transform = transform;
+        srcDim = transform.getSourceDimensions();
+        tgtDim = transform.getTargetDimensions();
+    }
+
+    /**
+     * Transforms the points in the given range. This method is invoked from worker threads.
+     *
+     * @param  first  index of the first point to transform.
+     * @param  count  number of points to transform.
+     */
+    abstract void transform(int first, int count) throws TransformException;
+
+    /**
+     * Transforms all points in parallel, then throws the first exception if any chunk failed.
+     *
+     * @param  numPts  number of points to transform.
+     */
+    final void execute(final int numPts) throws TransformException {
+        if (numPts <= THRESHOLD) {
+            if (numPts > 0) {
+                transform(0, numPts);
+            }
+            return;
+        }
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final int chunk = Math.max(THRESHOLD, numPts / (pool.getParallelism() * CHUNKS_PER_PROCESSOR));
+        pool.invoke(new Task(0, numPts, chunk));
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Records an exception that occurred in a chunk.
+     */
+    private synchronized void failed(final TransformException exception) {
+        if (failure == null) {
+            failure = exception;
+        } else {
+            failure.addSuppressed(exception);
+        }
+    }
+
+    /**
+     * A range of points to transform, split in two halves until the range is not greater than the chunk size.
+     */
+    @SuppressWarnings("serial")
+    private final class Task extends RecursiveAction {
+        /** Index of the first point and number of points to transform. */
+        private final int first, count;
+
+        /** Maximal number of points to transform without splitting. */
+        private final int chunk;
+
+        /** Creates a new task for the given range of points. */
+        Task(final int first, final int count, final int chunk) {
+            this.first = first;
+            this.count = count;
+            this.chunk = chunk;
+        }
+
+        /** Transforms the points, or splits the range if it is too large. */
+        @Override
+        protected void compute() {
+            if (count > chunk) {
+                final int half = count >>> 1;
+                invokeAll(new Task(first, half, chunk), new Task(first + half, count - half, chunk));
+            } else try {
+                transform(first, count);
+            } catch (TransformException e) {
+                failed(e);
+            }
+        }
+    }
+
+    /**
+     * Parallel transformation of points stored in arrays of {@code double} values.
+     */
+    static final class Doubles extends ParallelTransform {
+        /** The source and target arrays. */
+        private final double[] srcPts, dstPts;
+
+        /** Index of the first ordinate in the source and target arrays. */
+        private final int srcOff, dstOff;
+
+        /** Creates a new parallel transformation between the given arrays. */
+        Doubles(final MathTransform transform, final double[] srcPts, final int srcOff,
+                                               final double[] dstPts, final int dstOff)
+        {
+            super(transform);
+            this.srcPts = srcPts;
+            this.srcOff = srcOff;
+            this.dstPts = dstPts;
+            this.dstOff = dstOff;
+        }
+
+        /** Transforms the points in the given range. */
+        @Override
+        void transform(final int first, final int count) throws TransformException {
+            transform.transform(srcPts, srcOff + first*srcDim, dstPts, dstOff + first*tgtDim, count);
+        }
+    }
+
+    /**
+     * Parallel transformation of points stored in arrays of {@code float} values.
+     */
+    static final class Floats extends ParallelTransform {
+        /** The source and target arrays. */
+        private final float[] srcPts, dstPts;
+
+        /** Creates a new parallel transformation between the given arrays. */
+        Floats(final MathTransform transform, final float[] srcPts, final float[] dstPts) {
+            super(transform);
+            this.srcPts = srcPts;
+            this.dstPts = dstPts;
+        }
+
+        /** Transforms the points in the given range. */
+        @Override
+        void transform(final int first, final int count) throws TransformException {
+            transform.transform(srcPts, first*srcDim, dstPts, first*tgtDim, count);
+        }
+    }
+
+    /**
+     * Parallel transformation of points stored in buffers without backing arrays.
+     * Each chunk is copied in a temporary array, transformed, then copied in the target buffer.
+     */
+    static final class Buffers extends ParallelTransform {
+        /** The source and target buffers. Positions shall not be modified. */
+        private final DoubleBuffer source, target;
+
+        /** Creates a new parallel transformation between the given buffers. */
+        Buffers(final MathTransform transform, final DoubleBuffer source, final DoubleBuffer target) {
+            super(transform);
+            this.source = source;
+            this.target = target;
+        }
+
+        /** Transforms the points in the given range. */
+        @Override
+        void transform(final int first, final int count) throws TransformException {
+            final double[] buffer = new double[count * Math.max(srcDim, tgtDim)];
+            final DoubleBuffer src = source.duplicate();
+            src.position(src.position() + first*srcDim);
+            src.get(buffer, 0, count*srcDim);
+            TransformException failure = null;
+            try {
+                transform.transform(buffer, 0, buffer, 0, count);
+            } catch (TransformException e) {
+                failure = e;            // Points that failed have been set to NaN; copy the other ones.
+            }
+            final DoubleBuffer dst = target.duplicate();
+            dst.position(dst.position() + first*tgtDim);
+            dst.put(buffer, 0, count*tgtDim);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
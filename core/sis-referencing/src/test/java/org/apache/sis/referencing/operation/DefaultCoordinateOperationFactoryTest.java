@@ -16,7 +16,12 @@
  */
 package org.apache.sis.referencing.operation;
 
+import java.util.Map;
 import java.util.List;
+import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
 import org.opengis.util.FactoryException;
 import org.opengis.parameter.ParameterValueGroup;
@@ -56,7 +61,7 @@ import static org.apache.sis.test.ReferencingAssert.*;
  * </ul>
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.7
  * @module
  */
@@ -352,4 +357,49 @@ public final strictfp class DefaultCoordinateOperationFactoryTest extends MathTr
                         CoordinateOperationFinderTest.expectedAGD66(false));
         validate();
     }
+
+    /**
+     * Tests saving the cached operations in a file and loading them in a new factory.
+     *
+     * @throws IOException if an error occurred while creating or deleting the temporary file.
+     * @throws FactoryException if the operation can not be created.
+     *
+     * @since 1.0
+     */
+    @Test
+    public void testCacheFile() throws IOException, FactoryException {
+        final Path file = Files.createTempFile("operations", ".ser");
+        Files.delete(file);                                 // The factory shall not find an existing file.
+        try {
+            final Map<String,Object> properties = new HashMap<>(4);
+            properties.put(DefaultCoordinateOperationFactory.CACHE_FILE_KEY, file);
+            properties.put(DefaultCoordinateOperationFactory.CACHE_CAPACITY_KEY, 200);
+            DefaultCoordinateOperationFactory f = new DefaultCoordinateOperationFactory(properties, null);
+            final CoordinateReferenceSystem sourceCRS = CommonCRS.WGS84.geographic();
+            final CoordinateReferenceSystem targetCRS = CommonCRS.WGS84.normalizedGeographic();
+            final CoordinateOperation operation;
+            try {
+                operation = f.createOperation(sourceCRS, targetCRS);
+                assertSame("Factories using the same file shall share the same cache.",
+                           f.cache, new DefaultCoordinateOperationFactory(properties, null).cache);
+                assertEquals("save", 1, f.cacheFile.save());
+            } finally {
+                f.cacheFile.dispose();                      // Do not write the file at JVM shutdown.
+            }
+            /*
+             * A new factory shall find the operation in the file without searching it again.
+             */
+            f = new DefaultCoordinateOperationFactory(properties, null);
+            try {
+                final CoordinateOperation cached = f.cache.peek(new CRSPair(sourceCRS, targetCRS));
+                assertNotNull("Operation should have been loaded from the file.", cached);
+                assertEquals("operation", operation, cached);
+                assertSame("createOperation", cached, f.createOperation(sourceCRS, targetCRS));
+            } finally {
+                f.cacheFile.dispose();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
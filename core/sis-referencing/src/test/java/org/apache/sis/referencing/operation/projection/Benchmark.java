@@ -30,6 +30,7 @@ import org.apache.sis.parameter.Parameters;
 import org.apache.sis.internal.util.Constants;
 import org.apache.sis.internal.util.StandardDateFormat;
 import org.apache.sis.internal.referencing.provider.AbstractProvider;
+import org.apache.sis.referencing.operation.transform.AbstractMathTransform;
 import org.apache.sis.referencing.operation.transform.LinearTransform;
 import org.apache.sis.referencing.operation.transform.MathTransforms;
 import org.apache.sis.referencing.operation.transform.MathTransformFactoryMock;
@@ -38,13 +39,15 @@ import org.apache.sis.referencing.operation.transform.MathTransformFactoryMock;
 /**
  * Measures the performance of a given map projection implementation.
  * This class can be used for comparing different implementation alternatives,
- * for example with {@code ALLOW_TRIGONOMETRIC_IDENTITIES} flag on or off.
+ * for example with {@code ALLOW_TRIGONOMETRIC_IDENTITIES} flag on or off. When measuring only the non-linear
+ * part of the projection, this class also measures the time needed for projecting the same points one-by-one
+ * with the single-point {@code transform(…)} method, for comparison with the loops specialized for arrays.
  *
  * <p><b>Usage:</b> modify the provider created in the {@code main} method if needed, and run. Change map projection
  * implementation (for example by changing a {@code ALLOW_TRIGONOMETRIC_IDENTITIES} flag value) and run again.</p>
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.8
  * @module
  */
@@ -172,6 +175,11 @@ public final class Benchmark {
          */
         private final Statistics performance;
 
+        /**
+         * Statistics about the time needed for performing the map projection one point at a time.
+         */
+        private final Statistics performancePerPoint;
+
         /**
          * Creates a decomposition of the given map projection.
          *
@@ -181,6 +189,7 @@ public final class Benchmark {
         private Transforms(final String label, final MathTransform projection) {
             this.projection = projection;
             performance = new Statistics(label);
+            performancePerPoint = new Statistics(label + " per point");
             final List<MathTransform> steps = MathTransforms.getSteps(projection);
             int kernelIndex = -1;
             for (int i=steps.size(); --i >= 0;) {
@@ -236,6 +245,25 @@ public final class Benchmark {
             System.out.printf("%s time: %1.4f%n", performance.name(), seconds);
             performance.accept(seconds);
         }
+
+        /**
+         * Runs the benchmark only on the non-linear part of the map projection, invoking the single-point
+         * {@code transform(…)} method for each point. This is the code path used by {@link AbstractMathTransform}
+         * for projections that do not override the method transforming arrays of points.
+         */
+        final void runKernelPerPoint(final double[] sources, final double[] targets) throws TransformException {
+            final AbstractMathTransform k = (AbstractMathTransform) kernel;
+            normalize.transform(sources, 0, targets, 0, NUM_POINTS);
+            long time = System.nanoTime();
+            for (int i=0; i < NUM_POINTS * DIMENSION; i += DIMENSION) {
+                k.transform(targets, i, targets, i, false);
+            }
+            time = System.nanoTime() - time;
+            denormalize.transform(targets, 0, targets, 0, NUM_POINTS);
+            final double seconds = time / (double) StandardDateFormat.NANOS_PER_SECOND;
+            System.out.printf("%s time: %1.4f%n", performancePerPoint.name(), seconds);
+            performancePerPoint.accept(seconds);
+        }
     }
 
     /**
@@ -246,6 +274,8 @@ public final class Benchmark {
      */
     private void run(final boolean kernelOnly) throws TransformException {
         if (kernelOnly) {
+            forward.runKernelPerPoint(coordinates, result);
+            inverse.runKernelPerPoint(result, result);
             forward.runKernel(coordinates, result);
             inverse.runKernel(result, result);
         } else {
@@ -270,7 +300,9 @@ public final class Benchmark {
      */
     private void printStatistics() throws IOException {
         System.out.println();
-        StatisticsFormat.getInstance().format(new Statistics[] {forward.performance, inverse.performance}, System.out);
+        StatisticsFormat.getInstance().format(new Statistics[] {
+                forward.performance, forward.performancePerPoint,
+                inverse.performance, inverse.performancePerPoint}, System.out);
         System.out.printf("%nAverage error is %1.2E cm (standard deviation %1.1E).%n", errors.mean(), errors.standardDeviation(false));
         System.out.flush();
     }
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.Random;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.Matrix;
+import org.apache.sis.referencing.operation.matrix.Matrix2;
+import org.apache.sis.referencing.operation.matrix.Matrix3;
+import org.apache.sis.geometry.Envelope2D;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
+import org.junit.Test;
+
+import static org.opengis.test.Assert.*;
+
+
+/**
+ * Tests the {@link ApproximatedTransform} class. The transform to approximate is
+ * the conversion from polar coordinates (with angles in degrees) to Cartesian coordinates.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+@DependsOn({PolarToCartesianTest.class, org.apache.sis.referencing.operation.builder.LinearTransformBuilderTest.class})
+public final strictfp class ApproximatedTransformTest extends TestCase {
+    /**
+     * Tests {@link MathTransforms#approximate(MathTransform, org.opengis.geometry.Envelope, double)}
+     * on a transform which is already linear.
+     */
+    @Test
+    public void testLinear() {
+        final MathTransform tr = MathTransforms.linear(new Matrix3(2, 0, 3, 0, 1, 4, 0, 0, 1));
+        assertSame(tr, MathTransforms.approximate(tr, new Envelope2D(null, 0, 0, 10, 10), 0.1));
+    }
+
+    /**
+     * Compares the approximated transform with the exact transform on random points
+     * inside and outside the domain of the approximation.
+     *
+     * @throws FactoryException if the transform can not be created.
+     * @throws TransformException if a coordinate can not be transformed.
+     */
+    @Test
+    public void testApproximation() throws FactoryException, TransformException {
+        final double maxError = 0.1;
+        final MathTransform exact = PolarToCartesian.INSTANCE.completeTransform(PolarToCartesianTest.factory());
+        final MathTransform tr = MathTransforms.approximate(exact, new Envelope2D(null, 100, 0, 900, 90), maxError);
+        assertInstanceOf("approximate", ApproximatedTransform.class, tr);
+        assertEquals("Source dimensions", 2, tr.getSourceDimensions());
+        assertEquals("Target dimensions", 2, tr.getTargetDimensions());
+        final int evaluationCount = ((ApproximatedTransform) tr).evaluationCount;
+        assertTrue("Expected the domain to be subdivided.", evaluationCount > 13);
+        /*
+         * With a radius up to 900, cells spanning more than about 1.4° of angle have an error greater
+         * than 0.1. This is reached at depth 6, so the quadtree shall not be deeper than that level.
+         * A complete quadtree of depth 6 has (4⁷ - 1)/3 cells, with 13 evaluations per cell.
+         */
+        assertTrue("Too many evaluations.", evaluationCount <= 13 * (16384 - 1) / 3);
+
+        final int numPts = 1000;
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final double[] source = new double[numPts * 2];
+        for (int i=0; i<source.length;) {
+            source[i++] = 100 + 900 * random.nextDouble();
+            source[i++] =        90 * random.nextDouble();
+        }
+        final double[] expected = new double[source.length];
+        final double[] actual   = new double[source.length];
+        exact.transform(source, 0, expected, 0, numPts);
+        tr   .transform(source, 0, actual,   0, numPts);
+        /*
+         * The error threshold is verified only on sampled points,
+         * so we need to allow a small margin for the other points.
+         */
+        assertArrayEquals(expected, actual, 2 * maxError);
+        /*
+         * Points outside the domain shall be transformed by the exact transform.
+         */
+        final double[] outside = {50, 45, 1200, -10};
+        exact.transform(outside, 0, expected, 0, 2);
+        tr   .transform(outside, 0, actual,   0, 2);
+        for (int i=0; i<outside.length; i++) {
+            assertEquals(expected[i], actual[i], STRICT);
+        }
+        assertSame(exact.inverse(), tr.inverse());
+    }
+
+    /**
+     * A non-linear transform which can not transform points having a negative <var>x</var> value.
+     * Used for testing cells crossing the border of the domain of validity.
+     */
+    private static final class PartialTransform extends AbstractMathTransform2D {
+        /** Computes (x², y) or throws an exception if <var>x</var> is negative. */
+        @Override
+        public Matrix transform(final double[] srcPts, final int srcOff,
+                                final double[] dstPts, final int dstOff,
+                                final boolean derivate) throws TransformException
+        {
+            final double x = srcPts[srcOff];
+            final double y = srcPts[srcOff + 1];
+            if (x < 0) {
+                throw new TransformException("Can not transform " + x);
+            }
+            if (dstPts != null) {
+                dstPts[dstOff]     = x * x;
+                dstPts[dstOff + 1] = y;
+            }
+            return derivate ? new Matrix2(2*x, 0, 0, 1) : null;
+        }
+    }
+
+    /**
+     * Tests the approximation of a transform which can not transform a part of the domain.
+     * Cells crossing the border of the domain of validity shall be subdivided, so that the
+     * valid part is approximated and the invalid part is delegated to the exact transform.
+     *
+     * @throws TransformException if a coordinate can not be transformed.
+     */
+    @Test
+    public void testPartialDomain() throws TransformException {
+        final double maxError = 0.001;
+        final MathTransform exact = new PartialTransform();
+        final ApproximatedTransform tr = (ApproximatedTransform)
+                MathTransforms.approximate(exact, new Envelope2D(null, -0.3, 0, 1.3, 1), maxError);
+        assertTrue("Expected the domain to be subdivided.", tr.evaluationCount > 13);
+        /*
+         * Only the cells crossing the border of the domain of validity are subdivided down to the maximal depth.
+         * A complete subdivision down to the maximal depth of 10 would require about 18 millions evaluations.
+         */
+        assertTrue("Too many evaluations.", tr.evaluationCount < 100000);
+        final double[] expected = new double[2];
+        final double[] actual   = new double[2];
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        int failures = 0;
+        for (int i=0; i<1000; i++) {
+            final double[] source = {random.nextDouble() * 1.3 - 0.3, random.nextDouble()};
+            try {
+                exact.transform(source, 0, expected, 0, 1);
+            } catch (TransformException e) {
+                try {
+                    tr.transform(source, 0, actual, 0, 1);
+                    fail("Points outside the domain of validity shall be delegated to the exact transform.");
+                } catch (TransformException expectedFailure) {
+                    failures++;
+                }
+                continue;
+            }
+            tr.transform(source, 0, actual, 0, 1);
+            assertArrayEquals(expected, actual, 2 * maxError);
+        }
+        assertTrue("Expected some points outside the domain of validity.", failures != 0);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.referencing.operation.matrix.Matrix4;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.DependsOnMethod;
+import org.apache.sis.test.TestUtilities;
+import org.junit.Test;
+
+import static org.opengis.test.Assert.*;
+
+
+/**
+ * Tests the {@link FusedTransform} class. The transform to fuse is the concatenation
+ * of affine transforms with the conversion from spherical to Cartesian coordinates.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+@DependsOn({ConcatenatedTransformTest.class, SphericalToCartesianTest.class})
+public final strictfp class FusedTransformTest extends MathTransformTestCase {
+    /**
+     * Creates a chain of transforms converting spherical coordinates to Cartesian coordinates,
+     * then applying a scale and a translation.
+     */
+    private static MathTransform createChain() throws FactoryException {
+        final Matrix4 scale = new Matrix4(
+                2, 0, 0, 100,
+                0, 3, 0, -20,
+                0, 0, 4,  10,
+                0, 0, 0,   1);
+        return MathTransforms.concatenate(
+                SphericalToCartesian.INSTANCE.completeTransform(SphericalToCartesianTest.factory()),
+                MathTransforms.linear(scale));
+    }
+
+    /**
+     * Tests {@link MathTransforms#fuse(MathTransform)} on transforms that can not be fused.
+     */
+    @Test
+    public void testNothingToFuse() {
+        final MathTransform tr = MathTransforms.linear(new Matrix4());
+        assertSame(tr, MathTransforms.fuse(tr));
+    }
+
+    /**
+     * Tests coordinate conversions on a few hard-coded points.
+     *
+     * @throws FactoryException if the transform can not be created.
+     * @throws TransformException if a coordinate can not be transformed.
+     */
+    @Test
+    public void testConversion() throws FactoryException, TransformException {
+        transform = MathTransforms.fuse(SphericalToCartesian.INSTANCE.completeTransform(SphericalToCartesianTest.factory()));
+        assertInstanceOf("fuse", FusedTransform.class, transform);
+        tolerance = 1E-12;
+        final double[][] data = SphericalToCartesianTest.testData();
+        verifyTransform(data[0], data[1]);
+    }
+
+    /**
+     * Compares the results of the fused transform with the results of the concatenated transform
+     * on random points, and verifies the derivatives and the inverse transform.
+     *
+     * @throws FactoryException if the transform can not be created.
+     * @throws TransformException if a coordinate can not be transformed.
+     */
+    @Test
+    @DependsOnMethod("testConversion")
+    public void testConsistency() throws FactoryException, TransformException {
+        final MathTransform chain = createChain();
+        transform = MathTransforms.fuse(chain);
+        assertInstanceOf("fuse", FusedTransform.class, transform);
+        assertEquals("Source dimensions", 3, transform.getSourceDimensions());
+        assertEquals("Target dimensions", 3, transform.getTargetDimensions());
+        final double[] source = new double[] {
+            -120, -30, 20,
+              45,  60, 80,
+              10,  89,  5,
+             170, -89, 50
+        };
+        final double[] expected = new double[source.length];
+        chain.transform(source, 0, expected, 0, source.length / 3);
+        tolerance = 1E-10;
+        verifyTransform(source, expected);
+
+        derivativeDeltas = new double[] {1E-6, 1E-6, 1E-6};
+        tolerance = 1E-6;
+        verifyInDomain(new double[] {-180, -90,   0},       // Minimal coordinates
+                       new double[] {+180, +90, 100},       // Maximal coordinates
+                       new int[]    {  10,  10,  10},
+                       TestUtilities.createRandomNumberGenerator());
+    }
+
+    /**
+     * Compares the results of the fused transform with the results of the concatenated transform on an array
+     * large enough for requiring many blocks, including with overlapping source and destination regions.
+     *
+     * @throws FactoryException if the transform can not be created.
+     * @throws TransformException if a coordinate can not be transformed.
+     */
+    @Test
+    @DependsOnMethod("testConsistency")
+    public void testManyBlocks() throws FactoryException, TransformException {
+        final MathTransform chain = createChain();
+        transform = MathTransforms.fuse(chain);
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final int numPts = 1000;
+        final double[] source = new double[numPts * 3 + 6];
+        for (int i=0; i<source.length;) {
+            source[i++] = random.nextDouble() * 360 - 180;
+            source[i++] = random.nextDouble() * 180 -  90;
+            source[i++] = random.nextDouble() * 100;
+        }
+        final double[] expected = new double[numPts * 3];
+        chain.transform(source, 0, expected, 0, numPts);
+        final double[] actual = new double[numPts * 3];
+        transform.transform(source, 0, actual, 0, numPts);
+        assertArrayEquals(expected, actual, 1E-10);
+        /*
+         * Overlapping arrays in both directions.
+         */
+        final double[] shifted = source.clone();
+        transform.transform(shifted, 0, shifted, 6, numPts);
+        assertArrayEquals(expected, Arrays.copyOfRange(shifted, 6, shifted.length), 1E-10);
+        System.arraycopy(source, 0, shifted, 6, numPts * 3);
+        transform.transform(shifted, 6, shifted, 0, numPts);
+        assertArrayEquals(expected, Arrays.copyOf(shifted, numPts * 3), 1E-10);
+    }
+}
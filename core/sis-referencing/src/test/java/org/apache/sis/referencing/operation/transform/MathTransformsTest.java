@@ -16,13 +16,21 @@
  */
 package org.apache.sis.referencing.operation.transform;
 
+import java.util.Set;
 import java.util.List;
+import java.util.Random;
+import java.util.HashSet;
+import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
 import org.apache.sis.referencing.operation.matrix.Matrix3;
 import org.apache.sis.referencing.operation.matrix.Matrix4;
 import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
 import org.junit.Test;
 
 import static org.apache.sis.test.Assert.*;
@@ -32,7 +40,7 @@ import static org.apache.sis.test.Assert.*;
  * Tests {@link MathTransforms}.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.6
+ * @version 1.0
  * @since   0.5
  * @module
  */
@@ -120,4 +128,106 @@ public final strictfp class MathTransformsTest extends TestCase {
             0,  0,  0,  0,  0,  0,  1
         }), MathTransforms.getMatrix(r), STRICT);
     }
+
+    /**
+     * Tests {@link MathTransforms#transformParallel(MathTransform, double[], double[], int)} and its variants.
+     * The number of points is large enough for splitting the work in many chunks. Results shall be identical
+     * to the results of a sequential transformation.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testTransformParallel() throws TransformException {
+        final MathTransform tr = createConcatenateAndPassThrough();
+        final int numPts = ParallelTransform.THRESHOLD * 5 + 7;
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final double[] source = new double[numPts * 3];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 100;
+        }
+        final double[] expected = new double[source.length];
+        tr.transform(source, 0, expected, 0, numPts);
+
+        final double[] actual = new double[source.length];
+        MathTransforms.transformParallel(tr, source, actual, numPts);
+        assertArrayEquals("double[]", expected, actual, STRICT);
+
+        System.arraycopy(source, 0, actual, 0, source.length);
+        MathTransforms.transformParallel(tr, actual, actual, numPts);
+        assertArrayEquals("in-place", expected, actual, STRICT);
+
+        final float[] sourceAsFloats = new float[source.length];
+        for (int i=0; i<source.length; i++) {
+            sourceAsFloats[i] = (float) source[i];
+        }
+        final float[] expectedAsFloats = new float[source.length];
+        final float[] actualAsFloats   = new float[source.length];
+        tr.transform(sourceAsFloats, 0, expectedAsFloats, 0, numPts);
+        MathTransforms.transformParallel(tr, sourceAsFloats, actualAsFloats, numPts);
+        assertArrayEquals("float[]", expectedAsFloats, actualAsFloats, 0f);
+
+        final DoubleBuffer src = ByteBuffer.allocateDirect(source.length * Double.BYTES).asDoubleBuffer();
+        final DoubleBuffer dst = ByteBuffer.allocateDirect(source.length * Double.BYTES).asDoubleBuffer();
+        src.put(source).flip();
+        MathTransforms.transformParallel(tr, src, dst);
+        assertEquals("source position", source.length, src.position());
+        assertEquals("target position", source.length, dst.position());
+        dst.flip();
+        dst.get(actual);
+        assertArrayEquals("DoubleBuffer", expected, actual, STRICT);
+    }
+
+    /**
+     * A transform multiplying values by 2, except negative values which can not be transformed.
+     * Used for testing the handling of failures in {@link #testTransformParallelFailures()}.
+     */
+    private static final class FailingTransform extends AbstractMathTransform1D {
+        /** Returns twice the given value, or throws an exception if the value is negative. */
+        @Override public double transform(final double value) throws TransformException {
+            if (value < 0) {
+                throw new TransformException("Can not transform " + value);
+            }
+            return value * 2;
+        }
+
+        /** Returns the derivative, which is constant. */
+        @Override public double derivative(final double value) {
+            return 2;
+        }
+    }
+
+    /**
+     * Tests {@link MathTransforms#transformParallel(MathTransform, double[], double[], int)} with a transform
+     * failing on a point of the first chunk and on a point of the last chunk. The failed points shall be set
+     * to NaN, the other points shall be transformed, and the exception of one chunk shall be suppressed in
+     * the exception of the other chunk.
+     */
+    @Test
+    public void testTransformParallelFailures() {
+        final MathTransform tr = new FailingTransform();
+        final int numPts = ParallelTransform.THRESHOLD * 5 + 7;
+        final double[] source = new double[numPts];
+        for (int i=0; i<numPts; i++) {
+            source[i] = i;
+        }
+        source[1] = -1;
+        source[numPts - 2] = -2;
+        final double[] actual = new double[numPts];
+        try {
+            MathTransforms.transformParallel(tr, source, actual, numPts);
+            fail("Expected a TransformException.");
+        } catch (TransformException e) {
+            final Throwable[] suppressed = e.getSuppressed();
+            assertEquals("suppressed.length", 1, suppressed.length);
+            final Set<String> messages = new HashSet<>(Arrays.asList(e.getMessage(), suppressed[0].getMessage()));
+            assertEquals(new HashSet<>(Arrays.asList("Can not transform -1.0", "Can not transform -2.0")), messages);
+        }
+        for (int i=0; i<numPts; i++) {
+            if (source[i] < 0) {
+                assertTrue("Failed point shall be NaN.", Double.isNaN(actual[i]));
+            } else {
+                assertEquals("Transformed point", source[i] * 2, actual[i], STRICT);
+            }
+        }
+    }
 }
@@ -132,6 +132,7 @@ import org.junit.BeforeClass;
     org.apache.sis.referencing.operation.transform.CartesianToPolarTest.class,
     org.apache.sis.referencing.operation.transform.CoordinateSystemTransformTest.class,
     org.apache.sis.referencing.operation.transform.SpecializableTransformTest.class,
+    org.apache.sis.referencing.operation.transform.FusedTransformTest.class,
     org.apache.sis.referencing.operation.DefaultFormulaTest.class,
     org.apache.sis.referencing.operation.DefaultOperationMethodTest.class,
     org.apache.sis.referencing.operation.AbstractSingleOperationTest.class,
@@ -217,6 +218,7 @@ import org.junit.BeforeClass;
     org.apache.sis.referencing.operation.builder.ResidualGridTest.class,
     org.apache.sis.referencing.operation.builder.LinearTransformBuilderTest.class,
     org.apache.sis.referencing.operation.builder.LocalizationGridBuilderTest.class,
+    org.apache.sis.referencing.operation.transform.ApproximatedTransformTest.class,
 
     // Geometry and miscellaneous
     org.apache.sis.geometry.AbstractDirectPositionTest.class,
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.system;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counters of hits, misses and evictions in a cache shared by the whole Apache SIS library.
+ * Those counters are reported by the {@link Supervisor} MBean for helping to choose a cache size.
+ * The counters are updated by the cache implementations, which may be defined in other modules.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final class CacheStatistics {
+    /**
+     * Statistics about the cache of decoded tiles shared by all coverage readers.
+     */
+    public static final CacheStatistics TILES = new CacheStatistics();
+
+    /**
+     * Number of times that a value has been found in the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of times that a value has not been found in the cache and needed to be computed.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Number of values that were no longer retained by strong references because of the memory budget.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The maximal cost of values retained by strong references (typically a number of bytes).
+     */
+    private volatile long budget;
+
+    /**
+     * Creates a new set of counters initialized to zero.
+     */
+    private CacheStatistics() {
+    }
+
+    /** Increments the number of cache hits.      */ public void hit()     {hits     .increment();}
+    /** Increments the number of cache misses.    */ public void miss()    {misses   .increment();}
+    /** Increments the number of cache evictions. */ public void evicted() {evictions.increment();}
+
+    /** Returns the number of cache hits.         */ public long hits()      {return hits     .sum();}
+    /** Returns the number of cache misses.       */ public long misses()    {return misses   .sum();}
+    /** Returns the number of cache evictions.    */ public long evictions() {return evictions.sum();}
+
+    /**
+     * Returns the maximal cost of values retained by strong references, or 0 if the cache has not yet been created.
+     *
+     * @return the cost limit of the cache.
+     */
+    public long budget() {
+        return budget;
+    }
+
+    /**
+     * Sets the maximal cost of values retained by strong references.
+     * This method shall be invoked by the cache implementation when the cache is created.
+     *
+     * @param  limit  the cost limit of the cache.
+     */
+    public void budget(final long limit) {
+        budget = limit;
+    }
+}
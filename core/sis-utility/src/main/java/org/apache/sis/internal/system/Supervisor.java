@@ -51,7 +51,7 @@ import org.apache.sis.util.collection.TreeTable;
  * eventually perform some operations like clearing a cache.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.7
+ * @version 1.0
  * @since   0.3
  * @module
  */
@@ -234,4 +234,36 @@ public final class Supervisor extends StandardMBean implements SupervisorMBean {
         }
         return warnings;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTileCacheHits() {
+        return CacheStatistics.TILES.hits();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTileCacheMisses() {
+        return CacheStatistics.TILES.misses();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTileCacheEvictions() {
+        return CacheStatistics.TILES.evictions();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTileCacheBudget() {
+        return CacheStatistics.TILES.budget();
+    }
 }
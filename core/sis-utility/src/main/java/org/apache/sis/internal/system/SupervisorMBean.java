@@ -27,7 +27,7 @@ import org.apache.sis.util.collection.TreeTable;
  * Provides information about the state of a running Apache SIS instance.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.7
+ * @version 1.0
  * @since   0.3
  * @module
  */
@@ -54,4 +54,34 @@ public interface SupervisorMBean {
      * @return a description of a problems in the library, or {@code null} if none.
      */
     String[] warnings(Locale locale);
+
+    /**
+     * Returns the number of times that a decoded tile has been found in the shared tile cache.
+     *
+     * @return number of tile cache hits since the library has been loaded.
+     */
+    long getTileCacheHits();
+
+    /**
+     * Returns the number of times that a tile has not been found in the shared tile cache
+     * and needed to be read and decoded.
+     *
+     * @return number of tile cache misses since the library has been loaded.
+     */
+    long getTileCacheMisses();
+
+    /**
+     * Returns the number of tiles that were no longer retained in memory because the memory budget was exceeded.
+     * Those tiles may still be found in the cache until they are garbage-collected.
+     *
+     * @return number of tile cache evictions since the library has been loaded.
+     */
+    long getTileCacheEvictions();
+
+    /**
+     * Returns the memory budget of the shared tile cache, in bytes.
+     *
+     * @return maximal amount of bytes of decoded tiles retained by strong references.
+     */
+    long getTileCacheBudget();
 }
@@ -1204,6 +1204,8 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
                                                       : new Weak<>(map, oldKey, (V) oldValue);
                         if (!map.replace(oldKey, oldValue, ref)) {
                             ref.clear();                // Prevents the reference to be enqueued.
+                        } else {
+                            evicted(oldKey);
                         }
                     }
                     it.remove();
@@ -1337,4 +1339,20 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
     protected int cost(final V value) {
         return 1;
     }
+
+    /**
+     * Invoked when the value associated to the given key is no longer retained by strong reference
+     * because the total cost exceeded the cost limit. The value is still in the cache, but may be
+     * garbage-collected at any time. The default implementation does nothing. Subclasses can override
+     * this method for collecting statistics about the cache usage.
+     *
+     * <p>This method is invoked from a background thread while a lock is held,
+     * so implementations shall be fast and shall not invoke any method of this cache.</p>
+     *
+     * @param  key  the key of the value which is no longer retained by strong reference.
+     *
+     * @since 1.0
+     */
+    protected void evicted(final K key) {
+    }
 }
@@ -81,6 +81,11 @@ public final class Resources extends IndexedResourceBundle {
          */
         public static final short ConstantValueRequired_3 = 3;
 
+        /**
+         * Tile {1} of “{0}” TIFF file can not be decompressed.
+         */
+        public static final short CorruptedTile_2 = 29;
+
         /**
          * No value specified for the “{0}” TIFF tag. The {1} default value will be used.
          */
@@ -175,6 +180,11 @@ public final class Resources extends IndexedResourceBundle {
          */
         public static final short UnknownCRS_1 = 22;
 
+        /**
+         * Can not read pixel values from “{0}” because the {1} compression method is not supported.
+         */
+        public static final short UnsupportedCompression_2 = 27;
+
         /**
          * Coordinate system kind {0} is unsupported.
          */
@@ -190,6 +200,12 @@ public final class Resources extends IndexedResourceBundle {
          */
         public static final short UnsupportedGeoKeyStorage_1 = 21;
 
+        /**
+         * Can not read pixel values from “{0}” because the value of the “{1}” TIFF tag is not
+         * supported.
+         */
+        public static final short UnsupportedImageLayout_2 = 28;
+
         /**
          * TIFF file “{0}” uses an unsupported map projection.
          */
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.util.Arrays;
+import java.util.zip.Inflater;
+import java.util.zip.DataFormatException;
+
+
+/**
+ * Decompresses the content of a tile or a strip after it has been read from the TIFF file.
+ * Each subclass implements one of the {@link Compression} methods. Instances of this class
+ * are immutable and can be used concurrently by many threads, which allows the decompression
+ * of different tiles to be performed in parallel if desired.
+ *
+ * <p>The decompression methods are tolerant to truncated data: if the compressed stream ends before
+ * the destination array has been filled, then the remaining destination elements are left unchanged.
+ * This is consistent with the behavior of other TIFF readers, which usually log a warning but still
+ * display the part of the image that they have been able to decode.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+abstract class Decompressor {
+    /**
+     * The decompressor for data stored without compression.
+     */
+    private static final Decompressor NONE = new Decompressor() {
+        @Override int decompress(final byte[] source, final int length, final byte[] target) {
+            final int n = Math.min(length, target.length);
+            System.arraycopy(source, 0, target, 0, n);
+            return n;
+        }
+    };
+
+    /**
+     * For subclass constructors.
+     */
+    Decompressor() {
+    }
+
+    /**
+     * Returns the decompressor for the given compression method,
+     * or {@code null} if the given method is not supported.
+     *
+     * @param  compression  the compression method, or {@code null} if unknown.
+     * @return decompressor for the given method, or {@code null} if unsupported.
+     */
+    static Decompressor create(final Compression compression) {
+        if (compression != null) {
+            switch (compression) {
+                case NONE:     return NONE;
+                case PACKBITS: return PackBits.INSTANCE;
+                case LZW:      return LZW.INSTANCE;
+                case DEFLATE:  return Deflate.INSTANCE;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decompresses the given source bytes into the given target array.
+     * The target array length shall be the expected size of the tile after decompression.
+     *
+     * @param  source  the compressed bytes, as read from the TIFF file.
+     * @param  length  number of valid bytes in the {@code source} array.
+     * @param  target  where to write the uncompressed bytes.
+     * @return number of bytes written in {@code target}. May be less than {@code target.length} if the data are truncated.
+     * @throws DataFormatException if the compressed data are corrupted.
+     */
+    abstract int decompress(byte[] source, int length, byte[] target) throws DataFormatException;
+
+    /**
+     * Decompressor for the PackBits compression, a simple byte-oriented run-length scheme.
+     * Each run begins with a header byte <var>n</var> interpreted as below:
+     *
+     * <ul>
+     *   <li>0 to 127: copy the next <var>n</var>+1 bytes literally.</li>
+     *   <li>-127 to -1: repeat the next byte −<var>n</var>+1 times.</li>
+     *   <li>-128: no operation.</li>
+     * </ul>
+     */
+    private static final class PackBits extends Decompressor {
+        /** The unique instance of this decompressor. */
+        static final PackBits INSTANCE = new PackBits();
+
+        /** Decompresses PackBits data. */
+        @Override
+        int decompress(final byte[] source, final int length, final byte[] target) {
+            int s = 0, t = 0;
+            while (s < length && t < target.length) {
+                final int n = source[s++];
+                if (n >= 0) {
+                    final int count = Math.min(Math.min(n + 1, length - s), target.length - t);
+                    System.arraycopy(source, s, target, t, count);
+                    s += n + 1;
+                    t += count;
+                } else if (n != Byte.MIN_VALUE) {
+                    if (s >= length) break;
+                    final int end = Math.min(t + 1 - n, target.length);
+                    Arrays.fill(target, t, end, source[s++]);
+                    t = end;
+                }
+            }
+            return t;
+        }
+    }
+
+    /**
+     * Decompressor for the Lempel-Ziv-Welch compression as specified in TIFF 6 specification.
+     * Codes are packed with the most significant bit first and their width varies from 9 to 12 bits.
+     * The TIFF variant switches to a wider code one entry earlier than the usual LZW algorithm
+     * (the "early change" behavior).
+     *
+     * <p>This implementation takes advantage of the fact that every string in the LZW table is a copy
+     * of a sequence of bytes already written in the target array. Consequently we only need to store
+     * the offset and length of each string, without any auxiliary buffer.</p>
+     */
+    private static final class LZW extends Decompressor {
+        /** The unique instance of this decompressor. */
+        static final LZW INSTANCE = new LZW();
+
+        /** Code for clearing the table, end of information and first code for strings. */
+        private static final int CLEAR_CODE = 256, EOI_CODE = 257, FIRST_CODE = 258;
+
+        /** Minimal and maximal number of bits in a code. */
+        private static final int MIN_BITS = 9, MAX_BITS = 12;
+
+        /** Decompresses LZW data. */
+        @Override
+        int decompress(final byte[] source, final int length, final byte[] target) throws DataFormatException {
+            final int[] offsets = new int[1 << MAX_BITS];
+            final int[] lengths = new int[1 << MAX_BITS];
+            int s = 0, t = 0;
+            int bits = 0, numBits = 0;                          // Bits not yet consumed.
+            int codeSize = MIN_BITS, nextCode = FIRST_CODE;
+            int previous = 0;                                   // Length of previous string, or 0 if none.
+            while (t < target.length) {
+                while (numBits < codeSize) {
+                    if (s >= length) return t;                  // Missing EOI code; tolerated.
+                    bits = (bits << Byte.SIZE) | Byte.toUnsignedInt(source[s++]);
+                    numBits += Byte.SIZE;
+                }
+                numBits -= codeSize;
+                final int code = (bits >>> numBits) & ((1 << codeSize) - 1);
+                if (code == CLEAR_CODE) {
+                    codeSize = MIN_BITS;
+                    nextCode = FIRST_CODE;
+                    previous = 0;
+                    continue;
+                }
+                if (code == EOI_CODE) {
+                    break;
+                }
+                final int n;                                    // Length of the string to write.
+                if (code < CLEAR_CODE) {
+                    target[t] = (byte) code;
+                    n = 1;
+                } else if (code < nextCode) {
+                    n = lengths[code];
+                    System.arraycopy(target, offsets[code], target, t, Math.min(n, target.length - t));
+                } else if (code == nextCode && previous != 0) {
+                    /*
+                     * Special case where the code is not yet in the table. The string is the previous
+                     * string followed by its own first character. The previous string has been written
+                     * just before the current position.
+                     */
+                    final int start = t - previous;
+                    System.arraycopy(target, start, target, t, Math.min(previous, target.length - t));
+                    if (t + previous < target.length) {
+                        target[t + previous] = target[start];
+                    }
+                    n = previous + 1;
+                } else {
+                    throw new DataFormatException();
+                }
+                /*
+                 * New table entry is the previous string followed by the first character of current string.
+                 * Since the current string has been written just after the previous one, the new entry is
+                 * a contiguous sequence starting at the position of the previous string.
+                 */
+                if (previous != 0 && nextCode < (1 << MAX_BITS)) {
+                    offsets[nextCode] = t - previous;
+                    lengths[nextCode] = previous + 1;
+                    if (++nextCode >= (1 << codeSize) - 1 && codeSize < MAX_BITS) {
+                        codeSize++;
+                    }
+                }
+                previous = n;
+                t += n;
+            }
+            return Math.min(t, target.length);
+        }
+    }
+
+    /**
+     * Decompressor for the Deflate compression (the algorithm used in ZIP files).
+     * This implementation delegates to the {@link Inflater} class provided by the JDK.
+     */
+    private static final class Deflate extends Decompressor {
+        /** The unique instance of this decompressor. */
+        static final Deflate INSTANCE = new Deflate();
+
+        /** Decompresses Deflate data. */
+        @Override
+        int decompress(final byte[] source, final int length, final byte[] target) throws DataFormatException {
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(source, 0, length);
+                int t = 0;
+                while (t < target.length && !inflater.finished()) {
+                    final int n = inflater.inflate(target, t, target.length - t);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;                                  // Truncated data; tolerated.
+                    }
+                    t += n;
+                }
+                return t;
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -45,6 +45,7 @@ import org.apache.sis.internal.storage.io.ChannelDataInput;
 import org.apache.sis.internal.storage.io.IOUtilities;
 import org.apache.sis.internal.storage.MetadataBuilder;
 import org.apache.sis.internal.storage.StoreUtilities;
+import org.apache.sis.internal.storage.TileCache;
 import org.apache.sis.internal.storage.URIDataStore;
 import org.apache.sis.internal.util.Constants;
 import org.apache.sis.internal.util.Numerics;
@@ -286,6 +287,7 @@ public class GeoTiffStore extends DataStore {
     public synchronized void close() throws DataStoreException {
         final Reader r = reader;
         reader = null;
+        TileCache.getInstance().clear(this);
         if (r != null) try {
             r.close();
         } catch (IOException e) {
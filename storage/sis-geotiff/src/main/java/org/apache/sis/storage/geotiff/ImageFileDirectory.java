@@ -18,11 +18,38 @@ package org.apache.sis.storage.geotiff;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.List;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
+import java.util.zip.DataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
+import java.awt.Point;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
 import javax.measure.Unit;
 import javax.measure.quantity.Length;
 import org.opengis.metadata.Metadata;
@@ -31,15 +58,20 @@ import org.opengis.util.FactoryException;
 import org.opengis.util.GenericName;
 import org.apache.sis.internal.geotiff.Resources;
 import org.apache.sis.internal.storage.AbstractResource;
+import org.apache.sis.internal.storage.GridRequest;
 import org.apache.sis.internal.storage.MetadataBuilder;
+import org.apache.sis.internal.storage.TileCache;
 import org.apache.sis.internal.storage.io.ChannelDataInput;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.DataStoreContentException;
 import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.coverage.grid.GridCoverage;
 import org.apache.sis.coverage.grid.GridGeometry;
 import org.apache.sis.coverage.grid.GridExtent;
 import org.apache.sis.math.Vector;
 import org.apache.sis.measure.Units;
+import org.apache.sis.util.resources.Errors;
+import org.apache.sis.util.collection.BackingStoreException;
 
 
 /**
@@ -71,12 +103,28 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
      */
     private static final byte SIGNED = 1, UNSIGNED = 0, FLOAT = 3;
 
+    /**
+     * Bits in the {@link #subfileType} flags. {@code REDUCED_RESOLUTION} is set if the image is a
+     * reduced-resolution version of another image in the same TIFF file, {@code SINGLE_PAGE} is set
+     * if the image is a single page of a multi-page image and {@code TRANSPARENCY_MASK} is set if the
+     * image defines a transparency mask for another image.
+     *
+     * @see #isReducedResolution()
+     */
+    private static final int REDUCED_RESOLUTION = 1, SINGLE_PAGE = 2, TRANSPARENCY_MASK = 4;
+
     /**
      * The GeoTIFF reader which contain this {@code ImageFileDirectory}.
      * Used for fetching information like the input channel and where to report warnings.
      */
     private final Reader reader;
 
+    /**
+     * The image index as a sequence number starting with 0 for the first image.
+     * Used as part of the key of tiles in the shared cache.
+     */
+    private final int index;
+
     /**
      * The identifier as a sequence number in the namespace of the {@link GeoTiffStore}.
      * The first image has the sequence number "1".
@@ -91,6 +139,22 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
      */
     boolean hasDeferredEntries;
 
+    /**
+     * A general indication of the kind of data contained in this subfile, as a set of 32 flag bits.
+     * This is the value of the {@code NewSubfileType} tag, or a value derived from the deprecated
+     * {@code SubfileType} tag. See {@link #REDUCED_RESOLUTION} and {@link #SINGLE_PAGE}.
+     */
+    private int subfileType;
+
+    /**
+     * The reduced-resolution versions of this image in order of decreasing resolution,
+     * or {@code null} if not yet determined. This list is empty if this image has no
+     * overview or is itself an overview.
+     *
+     * @see #overviews()
+     */
+    private List<ImageFileDirectory> overviews;
+
     /**
      * The size of the image described by this FID, or -1 if the information has not been found.
      * The image may be much bigger than the memory capacity, in which case the image shall be tiled.
@@ -319,6 +383,15 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
      */
     private Compression compression;
 
+    /**
+     * The mathematical operator applied to the image data before compression, as a value of the
+     * {@code Predictor} TIFF tag. The value 1 means that no prediction scheme has been applied.
+     * The value 2 means that each sample value (except the first one of each row) has been replaced
+     * by its difference with the sample value of the previous pixel on the same row.
+     * Other values (for example 3 for floating point predictor) are not supported.
+     */
+    private short predictor = 1;
+
     /**
      * A helper class for building Coordinate Reference System and complete related metadata.
      * Contains the following information:
@@ -352,6 +425,7 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
     ImageFileDirectory(final Reader reader, final int index) {
         super(reader.owner);
         this.reader = reader;
+        this.index  = index;
         identifier = reader.nameFactory.createLocalName(reader.owner.identifier, String.valueOf(index + 1));
     }
 
@@ -523,6 +597,16 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
                 }
                 break;
             }
+            /*
+             * A mathematical operator that is applied to the image data before an encoding scheme is applied.
+             * 1 = No prediction scheme used before coding.
+             * 2 = Horizontal differencing.
+             * 3 = Floating point horizontal differencing.
+             */
+            case Tags.Predictor: {
+                predictor = type.readShort(input(), count);
+                break;
+            }
             /*
              * The logical order of bits within a byte. If this value is 2, then
              * bits order shall be reversed in every bytes before decompression.
@@ -662,7 +746,7 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
              * Bit 4 indicates MRC imaging model as described in ITU-T recommendation T.44 [T.44] (See ImageLayer tag) - RFC 2301.
              */
             case Tags.NewSubfileType: {
-                // TODO
+                subfileType = type.readInt(input(), count);
                 break;
             }
             /*
@@ -672,7 +756,13 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
              * 3 = a single page of a multi-page image (see PageNumber).
              */
             case Tags.SubfileType: {
-                // TODO
+                final int value = type.readInt(input(), count);
+                switch (value) {
+                    default: return value;
+                    case 1:  subfileType &= ~REDUCED_RESOLUTION; break;
+                    case 2:  subfileType |=  REDUCED_RESOLUTION; break;
+                    case 3:  subfileType |=  SINGLE_PAGE;        break;
+                }
                 break;
             }
 
@@ -1244,6 +1334,650 @@ final class ImageFileDirectory extends AbstractResource implements GridCoverageR
         }
     }
 
+    /**
+     * Returns the image as a {@link RenderedImage} whose tiles are read and decompressed only when requested.
+     * This method does not read any pixel value. Memory consumption is limited to the tiles that the caller
+     * actually fetches from the returned image.
+     *
+     * @return the image with tiles read on demand.
+     * @throws DataStoreContentException if the compression method or the sample layout is not supported.
+     */
+    final RenderedImage getImage() throws DataStoreContentException {
+        if (Decompressor.create(compression) == null) {
+            throw new DataStoreContentException(reader.resources().getString(Resources.Keys.UnsupportedCompression_2,
+                    filename(), (compression != null) ? compression.name() : Tags.name(Tags.Compression)));
+        }
+        final int dataType = getDataType();
+        if (predictor != 1 && (predictor != 2 || bitsPerSample < Byte.SIZE || sampleFormat == FLOAT)) {
+            throw unsupportedLayout(Tags.Predictor);
+        }
+        final SampleModel model;
+        if (bitsPerSample < Byte.SIZE) {
+            model = new MultiPixelPackedSampleModel(dataType, tileWidth, tileHeight, bitsPerSample);
+        } else if (isPlanar) {
+            model = new BandedSampleModel(dataType, tileWidth, tileHeight, samplesPerPixel);
+        } else {
+            final int[] offsets = new int[samplesPerPixel];
+            for (int i=0; i<offsets.length; i++) offsets[i] = i;
+            model = new PixelInterleavedSampleModel(dataType, tileWidth, tileHeight,
+                    samplesPerPixel, Math.multiplyExact(tileWidth, samplesPerPixel), offsets);
+        }
+        final int width, height;
+        try {
+            width  = Math.toIntExact(imageWidth);
+            height = Math.toIntExact(imageHeight);
+        } catch (ArithmeticException e) {
+            throw (DataStoreContentException) unsupportedLayout(Tags.ImageWidth).initCause(e);
+        }
+        return new TiledImage(this, width, height, model, createColorModel(dataType));
+    }
+
+    /**
+     * Returns {@code true} if this image is a reduced-resolution version of another image in the same TIFF file.
+     */
+    final boolean isReducedResolution() {
+        return (subfileType & REDUCED_RESOLUTION) != 0;
+    }
+
+    /**
+     * Returns the reduced-resolution versions of this image, in order of decreasing resolution.
+     * The overviews are the images flagged as reduced-resolution which follow this image in the
+     * TIFF file, until the next full-resolution image. Transparency masks are ignored.
+     * This is the layout written by GDAL and required by "Cloud Optimized GeoTIFF".
+     *
+     * @return the overviews of this image (may be empty). Shall not be modified.
+     */
+    final List<ImageFileDirectory> overviews() throws IOException, DataStoreException {
+        synchronized (reader.owner) {
+            if (overviews == null) {
+                final List<ImageFileDirectory> pyramid = new ArrayList<>();
+                if (!isReducedResolution()) {
+                    ImageFileDirectory dir;
+                    int n = index;
+                    while ((dir = reader.getImageFileDirectory(++n)) != null) {
+                        if ((dir.subfileType & TRANSPARENCY_MASK) != 0) continue;
+                        if (!dir.isReducedResolution()) break;
+                        pyramid.add(dir);
+                    }
+                    pyramid.sort((a, b) -> Long.compare(b.imageWidth, a.imageWidth));
+                }
+                overviews = pyramid;
+            }
+            return overviews;
+        }
+    }
+
+    /**
+     * Loads a subset of this image. Only the tiles (or strips) containing at least one pixel to read
+     * are read from the TIFF file. The result is a coverage containing a single tile in memory,
+     * with the requested bands in the requested order. If the requested resolution is coarser than
+     * the resolution of this image and the TIFF file contains {@linkplain #overviews() overviews},
+     * then the pixels are read from the coarsest overview having a sufficient resolution.
+     *
+     * @param  domain  desired grid extent and resolution, or {@code null} for reading the whole domain.
+     * @param  range   0-based indices of bands to read, or {@code null} or empty for reading them all.
+     * @return the grid coverage for the specified domain and range.
+     * @throws DataStoreException if an error occurred while reading the pixel values.
+     */
+    @Override
+    public GridCoverage read(final GridGeometry domain, final int... range) throws DataStoreException {
+        final RenderedImage image = getImage();
+        final SampleModel model = image.getSampleModel();
+        final int numBands = model.getNumBands();
+        int[] bands = null;
+        if (range != null && range.length != 0) {
+            boolean isIdentity = (range.length == numBands);
+            for (int i=0; i<range.length; i++) {
+                final int b = range[i];
+                if (b < 0 || b >= numBands) {
+                    throw new IllegalArgumentException(Errors.format(Errors.Keys.ValueOutOfRange_4, "range", 0, numBands - 1, b));
+                }
+                isIdentity &= (b == i);
+            }
+            if (!isIdentity) {
+                bands = range.clone();
+            }
+        }
+        final GridRequest request = new GridRequest(getGridGeometry(), domain);
+        final int x0, y0, width, height;
+        try {
+            x0     = Math.toIntExact(request.getLow(0));
+            y0     = Math.toIntExact(request.getLow(1));
+            width  = request.getTargetSize(0);
+            height = request.getTargetSize(1);
+        } catch (ArithmeticException e) {
+            throw (DataStoreContentException) unsupportedLayout(Tags.ImageWidth).initCause(e);
+        }
+        final SampleModel targetModel = (bands != null ? model.createSubsetSampleModel(bands) : model)
+                .createCompatibleSampleModel(width, height);
+        final WritableRaster target = Raster.createWritableRaster(targetModel, null);
+        try {
+            /*
+             * If the TIFF file contains reduced-resolution versions of this image, use the coarsest one
+             * which still has a resolution equal or finer than the requested resolution. An overview is
+             * used only if its reduction factors are integers dividing both the sub-sampling and the grid
+             * coordinates of the first pixel to read. In such case each overview pixel covers exactly the
+             * cells of the full-resolution image read by the request, so the result can keep the target
+             * grid geometry computed by the request without approximation.
+             */
+            final int sx = request.getSubsampling(0);
+            final int sy = request.getSubsampling(1);
+            if (sx > 1 || sy > 1) {
+                final List<ImageFileDirectory> pyramid = overviews();
+                for (int i = pyramid.size(); --i >= 0;) {
+                    final ImageFileDirectory overview = pyramid.get(i);
+                    if (overview.samplesPerPixel != samplesPerPixel || overview.bitsPerSample != bitsPerSample
+                            || overview.sampleFormat != sampleFormat)
+                    {
+                        continue;
+                    }
+                    final int rx = reductionFactor(imageWidth,  overview.imageWidth);
+                    final int ry = reductionFactor(imageHeight, overview.imageHeight);
+                    if (rx == 0 || ry == 0 || sx % rx != 0 || sy % ry != 0 || x0 % rx != 0 || y0 % ry != 0) {
+                        continue;           // Overview too coarse or not aligned with the requested grid.
+                    }
+                    final int ox  = x0 / rx;
+                    final int oy  = y0 / ry;
+                    final int osx = sx / rx;
+                    final int osy = sy / ry;
+                    if (ox + (width  - 1) * (long) osx < overview.imageWidth &&
+                        oy + (height - 1) * (long) osy < overview.imageHeight)
+                    {
+                        overview.readRegion(overview.getImage().getSampleModel(), target, bands, ox, oy, osx, osy);
+                        return coverage(request, target, (bands == null) ? image.getColorModel() : null);
+                    }
+                }
+            }
+            readRegion(model, target, bands, x0, y0, sx, sy);
+        } catch (IOException e) {
+            throw new DataStoreException(reader.errors().getString(Errors.Keys.CanNotRead_1, filename()), e);
+        }
+        return coverage(request, target, (bands == null) ? image.getColorModel() : null);
+    }
+
+    /**
+     * Returns the integer factor by which an overview reduces the given size of the full-resolution image,
+     * or 0 if the overview size is not the full size divided by an integer. Both rounding up (as done by
+     * GDAL) and rounding down of the divided size are accepted.
+     *
+     * @param  full      size of the full-resolution image along a dimension.
+     * @param  overview  size of the overview along the same dimension.
+     * @return the reduction factor, or 0 if none.
+     */
+    private static int reductionFactor(final long full, final long overview) {
+        if (overview > 0) {
+            final long n = Math.round(full / (double) overview);
+            if (n >= 1 && n <= Integer.MAX_VALUE && (full / n == overview || (full + n - 1) / n == overview)) {
+                return (int) n;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Wraps the given raster in a grid coverage having the target grid geometry of the given request.
+     *
+     * @throws DataStoreException if the target grid geometry can not be computed.
+     */
+    private static GridCoverage coverage(final GridRequest request, final Raster target, final ColorModel cm)
+            throws DataStoreException
+    {
+        final TiledImage result = new TiledImage(target, cm);
+        return new GridCoverage(request.getTargetGeometry()) {
+            @Override public RenderedImage render(final GridExtent sliceExtent) {
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Reads the sub-sampled pixels of this image starting at the given pixel coordinates.
+     * The pixel at (<var>x₀</var> + <var>kx</var>⋅<var>sx</var>, <var>y₀</var> + <var>ky</var>⋅<var>sy</var>)
+     * in this image is copied at (<var>kx</var>, <var>ky</var>) in the target raster.
+     * Only the tiles (or strips) containing at least one pixel to read are read from the TIFF file.
+     *
+     * @param model   the sample model of tiles in this image.
+     * @param target  the raster where to write pixel values.
+     * @param bands   the bands to copy, or {@code null} for all bands in the same order.
+     * @param x0      column of the first pixel to read in this image.
+     * @param y0      row of the first pixel to read in this image.
+     * @param sx      sub-sampling along the <var>x</var> axis.
+     * @param sy      sub-sampling along the <var>y</var> axis.
+     */
+    private void readRegion(final SampleModel model, final WritableRaster target, final int[] bands,
+                            final int x0, final int y0, final int sx, final int sy)
+            throws IOException, DataStoreException
+    {
+        final int width  = target.getWidth();
+        final int height = target.getHeight();
+        /*
+         * Read only the tiles containing at least one pixel at the sub-sampled positions. For a tile row
+         * starting at 'ymin', the first pixel row to read is the first y0 + ky*sy value equal or greater
+         * than 'ymin'. If that row is after the tile end, the whole tile row is skipped. Same for columns.
+         * Tiles are loaded in batches, so their decompression can be done in parallel.
+         */
+        final int batchSize = Math.max(2, 4 * ForkJoinPool.getCommonPoolParallelism());
+        final int[] tileXs = new int[batchSize];
+        final int[] tileYs = new int[batchSize];
+        int count = 0;
+        final int yLast = y0 + (height - 1) * sy;
+        final int xLast = x0 + (width  - 1) * sx;
+        for (int ty = y0 / tileHeight; ty <= yLast / tileHeight; ty++) {
+            final long ymin = (long) ty * tileHeight;
+            final int kyStart = (int) Math.max(0, (ymin - y0 + sy - 1) / sy);
+            if (y0 + (long) kyStart * sy >= ymin + tileHeight) continue;
+            for (int tx = x0 / tileWidth; tx <= xLast / tileWidth; tx++) {
+                final long xmin = (long) tx * tileWidth;
+                final int kxStart = (int) Math.max(0, (xmin - x0 + sx - 1) / sx);
+                if (x0 + (long) kxStart * sx >= xmin + tileWidth) continue;
+                tileXs[count] = tx;
+                tileYs[count] = ty;
+                if (++count == batchSize) {
+                    for (final Raster tile : readTiles(model, tileXs, tileYs, count)) {
+                        copy(tile, target, bands, x0, y0, sx, sy);
+                    }
+                    count = 0;
+                }
+            }
+        }
+        if (count != 0) {
+            for (final Raster tile : readTiles(model, tileXs, tileYs, count)) {
+                copy(tile, target, bands, x0, y0, sx, sy);
+            }
+        }
+    }
+
+    /**
+     * Copies the sub-sampled pixels of the given tile in the target raster.
+     * The pixel at (<var>x₀</var> + <var>kx</var>⋅<var>sx</var>, <var>y₀</var> + <var>ky</var>⋅<var>sy</var>)
+     * in the tile is copied at (<var>kx</var>, <var>ky</var>) in the target raster.
+     *
+     * @param tile    the tile from which to copy pixel values.
+     * @param target  the raster where to write pixel values.
+     * @param bands   the bands to copy, or {@code null} for all bands in the same order.
+     * @param x0      column of the first pixel to read in the image.
+     * @param y0      row of the first pixel to read in the image.
+     * @param sx      sub-sampling along the <var>x</var> axis.
+     * @param sy      sub-sampling along the <var>y</var> axis.
+     */
+    private static void copy(Raster tile, final WritableRaster target, final int[] bands,
+                             final int x0, final int y0, final int sx, final int sy)
+    {
+        final int xmin = tile.getMinX();
+        final int ymin = tile.getMinY();
+        final int xmax = xmin + tile.getWidth();
+        final int ymax = ymin + tile.getHeight();
+        if (bands != null) {
+            tile = tile.createChild(xmin, ymin, tile.getWidth(), tile.getHeight(), xmin, ymin, bands);
+        }
+        if (sx == 1 && sy == 1) {
+            target.setRect(-x0, -y0, tile);                 // Clipped to target bounds.
+            return;
+        }
+        final int width  = target.getWidth();
+        final int height = target.getHeight();
+        final int kxStart = Math.max(0, (xmin - x0 + sx - 1) / sx);
+        Object pixel = null;
+        for (int ky = Math.max(0, (ymin - y0 + sy - 1) / sy); ky < height; ky++) {
+            final int y = y0 + ky * sy;
+            if (y >= ymax) break;
+            for (int kx = kxStart; kx < width; kx++) {
+                final int x = x0 + kx * sx;
+                if (x >= xmax) break;
+                pixel = tile.getDataElements(x, y, pixel);
+                target.setDataElements(kx, ky, pixel);
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link DataBuffer} type to use for storing sample values.
+     * Unsigned 32 bits integers are stored as signed integers, since Java2D has no type for them.
+     *
+     * @throws DataStoreContentException if the combination of sample size and format is not supported.
+     */
+    private int getDataType() throws DataStoreContentException {
+        switch (bitsPerSample) {
+            case 1:
+            case 2:
+            case 4: {
+                if (samplesPerPixel == 1 && sampleFormat != FLOAT) return DataBuffer.TYPE_BYTE;
+                break;
+            }
+            case Byte.SIZE: {
+                if (sampleFormat != FLOAT) return DataBuffer.TYPE_BYTE;
+                break;
+            }
+            case Short.SIZE: {
+                if (sampleFormat != FLOAT) return (sampleFormat == SIGNED) ? DataBuffer.TYPE_SHORT : DataBuffer.TYPE_USHORT;
+                break;
+            }
+            case Integer.SIZE: return (sampleFormat == FLOAT) ? DataBuffer.TYPE_FLOAT : DataBuffer.TYPE_INT;
+            case Long.SIZE: {
+                if (sampleFormat == FLOAT) return DataBuffer.TYPE_DOUBLE;
+                break;
+            }
+        }
+        throw unsupportedLayout(Tags.BitsPerSample);
+    }
+
+    /**
+     * Creates the color model for the given type of sample values, or returns {@code null} if none.
+     * Current implementation supports only the most common photometric interpretations:
+     * grayscale, RGB (with optional alpha channel) and color palette.
+     *
+     * @param  dataType  the {@link DataBuffer} type of sample values.
+     * @return the color model, or {@code null} if none can be created for this image.
+     */
+    private ColorModel createColorModel(final int dataType) {
+        final boolean isShortOrByte = (dataType == DataBuffer.TYPE_BYTE || dataType == DataBuffer.TYPE_USHORT);
+        switch (photometricInterpretation) {
+            case -1:                                // Unspecified, handled as BlackIsZero.
+            case 0:                                 // WhiteIsZero
+            case 1: {                               // BlackIsZero
+                if (samplesPerPixel != 1 || !isShortOrByte) break;
+                if (bitsPerSample >= Byte.SIZE) {
+                    return new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+                            new int[] {bitsPerSample}, false, true, Transparency.OPAQUE, dataType);
+                }
+                final int n = 1 << bitsPerSample;
+                final byte[] gray = new byte[n];
+                for (int i=0; i<n; i++) {
+                    final int v = i * 0xFF / (n - 1);
+                    gray[i] = (byte) (photometricInterpretation == 0 ? 0xFF - v : v);
+                }
+                return new IndexColorModel(bitsPerSample, n, gray, gray, gray);
+            }
+            case 2: {                               // RGB
+                if ((samplesPerPixel != 3 && samplesPerPixel != 4) || !isShortOrByte) break;
+                final boolean hasAlpha = (samplesPerPixel == 4);
+                final boolean isPremultiplied = hasAlpha && extraSamples != null && extraSamples.intValue(0) == 1;
+                final int[] numBits = new int[samplesPerPixel];
+                Arrays.fill(numBits, bitsPerSample);
+                return new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), numBits, hasAlpha,
+                        isPremultiplied, hasAlpha ? Transparency.TRANSLUCENT : Transparency.OPAQUE, dataType);
+            }
+            case 3: {                               // PaletteColor
+                if (colorMap == null || samplesPerPixel != 1 || !isShortOrByte) break;
+                final int n = 1 << bitsPerSample;
+                if (colorMap.size() < 3*n) break;
+                final byte[] r = new byte[n];
+                final byte[] g = new byte[n];
+                final byte[] b = new byte[n];
+                for (int i=0; i<n; i++) {
+                    r[i] = (byte) (colorMap.intValue(i      ) >>> Byte.SIZE);   // Keep the 8 most significant bits.
+                    g[i] = (byte) (colorMap.intValue(i +   n) >>> Byte.SIZE);
+                    b[i] = (byte) (colorMap.intValue(i + 2*n) >>> Byte.SIZE);
+                }
+                return new IndexColorModel(bitsPerSample, n, r, g, b);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the tile at the given index, reading and decompressing it if it is not in the shared tile cache.
+     * This method is invoked by {@link TiledImage} when a tile is requested.
+     *
+     * @param  model  the sample model of the tile to create.
+     * @param  tileX  the tile column index.
+     * @param  tileY  the tile row index.
+     * @return the tile at the given index.
+     * @throws IOException if an error occurred while reading the tile bytes.
+     * @throws DataStoreException if the tile can not be decompressed.
+     */
+    final Raster readTile(final SampleModel model, final int tileX, final int tileY)
+            throws IOException, DataStoreException
+    {
+        return TileCache.getInstance().getOrLoad(new TileCache.Key(reader.owner, index, 0, tileX, tileY),
+                () -> decodeTile(model, tileX, tileY));
+    }
+
+    /**
+     * Returns the tiles at the given indices, reading and decompressing them if they are not in the shared
+     * tile cache. If more than one tile is missing, then the compressed bytes of all missing tiles are read
+     * in a single pass in increasing file offset order while holding the lock on the data store, then the
+     * tiles are decompressed in parallel in the {@linkplain ForkJoinPool#commonPool() fork-join common pool}.
+     *
+     * @param  model   the sample model of the tiles to create.
+     * @param  tileXs  the tile column indices.
+     * @param  tileYs  the tile row indices.
+     * @param  count   number of valid elements in the {@code tileXs} and {@code tileYs} arrays.
+     * @return the tiles at the given indices.
+     * @throws IOException if an error occurred while reading the tile bytes.
+     * @throws DataStoreException if a tile can not be decompressed.
+     */
+    private Raster[] readTiles(final SampleModel model, final int[] tileXs, final int[] tileYs, final int count)
+            throws IOException, DataStoreException
+    {
+        final TileCache cache = TileCache.getInstance();
+        final Object source = reader.owner;
+        final Raster[] tiles = new Raster[count];
+        final TileCache.Key[] keys = new TileCache.Key[count];
+        final List<Integer> missing = new ArrayList<>(count);
+        for (int i=0; i<count; i++) {
+            keys[i] = new TileCache.Key(source, index, 0, tileXs[i], tileYs[i]);
+            tiles[i] = cache.getIfPresent(keys[i]);
+            if (tiles[i] == null) {
+                missing.add(i);
+            }
+        }
+        if (missing.size() == 1) {
+            final int i = missing.get(0);
+            tiles[i] = readTile(model, tileXs[i], tileYs[i]);
+        } else if (!missing.isEmpty()) {
+            missing.sort(Comparator.comparingLong((i) -> tileOffsets.longValue(tileIndex(tileXs[i], tileYs[i], 0))));
+            final byte[][][] compressed = new byte[count][][];
+            synchronized (reader.owner) {
+                for (final int i : missing) {
+                    compressed[i] = readCompressed(tileXs[i], tileYs[i]);
+                }
+            }
+            try {
+                missing.parallelStream().forEach((i) -> {
+                    try {
+                        tiles[i] = cache.store(keys[i], decompress(model, tileXs[i], tileYs[i], compressed[i]));
+                    } catch (DataStoreException e) {
+                        throw new BackingStoreException(e);
+                    }
+                    compressed[i] = null;                   // Let the garbage collector reclaim memory early.
+                });
+            } catch (BackingStoreException e) {
+                throw e.unwrapOrRethrow(DataStoreException.class);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Reads and decompresses the tile at the given index, bypassing the cache.
+     * The tile bytes are read while holding the lock on the data store,
+     * but the decompression is performed outside the lock.
+     *
+     * @param  model  the sample model of the tile to create.
+     * @param  tileX  the tile column index.
+     * @param  tileY  the tile row index.
+     * @return the tile at the given index.
+     * @throws IOException if an error occurred while reading the tile bytes.
+     * @throws DataStoreException if the tile can not be decompressed.
+     */
+    private Raster decodeTile(final SampleModel model, final int tileX, final int tileY)
+            throws IOException, DataStoreException
+    {
+        final byte[][] compressed;
+        synchronized (reader.owner) {
+            compressed = readCompressed(tileX, tileY);
+        }
+        return decompress(model, tileX, tileY, compressed);
+    }
+
+    /**
+     * Returns the index of the given tile in the {@link #tileOffsets} and {@link #tileByteCounts} vectors.
+     *
+     * @param  tileX  the tile column index.
+     * @param  tileY  the tile row index.
+     * @param  plane  the plane index, which is always 0 if the image is not planar.
+     * @return index of the tile offset and byte count.
+     */
+    private int tileIndex(final int tileX, final int tileY, final int plane) {
+        final long tilesAcross = (imageWidth  + tileWidth  - 1) / tileWidth;
+        final long tilesDown   = (imageHeight + tileHeight - 1) / tileHeight;
+        return Math.toIntExact((plane * tilesDown + tileY) * tilesAcross + tileX);
+    }
+
+    /**
+     * Reads the compressed bytes of all planes of the given tile.
+     * Caller must hold the lock on the data store.
+     *
+     * @param  tileX  the tile column index.
+     * @param  tileY  the tile row index.
+     * @return the compressed bytes of each plane of the tile.
+     * @throws IOException if an error occurred while reading the tile bytes.
+     */
+    private byte[][] readCompressed(final int tileX, final int tileY) throws IOException {
+        final byte[][] planes = new byte[isPlanar ? samplesPerPixel : 1][];
+        final ChannelDataInput input = input();
+        for (int p=0; p<planes.length; p++) {
+            final int i = tileIndex(tileX, tileY, p);
+            planes[p] = new byte[Math.toIntExact(tileByteCounts.longValue(i))];
+            input.seek(Math.addExact(reader.origin, tileOffsets.longValue(i)));
+            input.readFully(planes[p]);
+        }
+        return planes;
+    }
+
+    /**
+     * Decompresses the given tile bytes and wraps the result in a raster.
+     * This method does not read the file and can be invoked concurrently from many threads.
+     *
+     * @param  model       the sample model of the tile to create.
+     * @param  tileX       the tile column index.
+     * @param  tileY       the tile row index.
+     * @param  compressed  the compressed bytes of each plane, as returned by {@link #readCompressed(int, int)}.
+     * @return the tile at the given index.
+     * @throws DataStoreContentException if the tile can not be decompressed.
+     */
+    private Raster decompress(final SampleModel model, final int tileX, final int tileY, final byte[][] compressed)
+            throws DataStoreContentException
+    {
+        final int numPlanes     = compressed.length;
+        final int samplesPerRow = Math.multiplyExact(tileWidth, isPlanar ? 1 : samplesPerPixel);
+        final int rowLength     = Math.toIntExact((samplesPerRow * (long) bitsPerSample + (Byte.SIZE - 1)) / Byte.SIZE);
+        final int planeLength   = Math.multiplyExact(rowLength, tileHeight);
+        final Decompressor decompressor = Decompressor.create(compression);
+        final byte[][] planes = new byte[numPlanes][];
+        for (int p=0; p<numPlanes; p++) {
+            final byte[] source = compressed[p];
+            if (reverseBitsOrder) {
+                for (int i=0; i<source.length; i++) {
+                    source[i] = (byte) (Integer.reverse(source[i]) >>> (Integer.SIZE - Byte.SIZE));
+                }
+            }
+            byte[] data = source;
+            if (data.length != planeLength || compression != Compression.NONE) {
+                data = new byte[planeLength];
+                try {
+                    decompressor.decompress(source, source.length, data);
+                } catch (DataFormatException e) {
+                    throw new DataStoreContentException(reader.resources().getString(
+                            Resources.Keys.CorruptedTile_2, filename(), tileIndex(tileX, tileY, p)), e);
+                }
+            }
+            planes[p] = data;
+        }
+        /*
+         * Convert the bytes to the Java primitive type expected by the sample model, then undo the
+         * predictor if any. The predictor (if any) needs to be applied on the values after conversion
+         * because the horizontal differences are computed on sample values, not on bytes.
+         */
+        final int stride = isPlanar ? 1 : samplesPerPixel;
+        final ByteOrder order = input().buffer.order();
+        final DataBuffer buffer;
+        switch (model.getDataType()) {
+            case DataBuffer.TYPE_BYTE: {
+                if (predictor == 2) {
+                    for (final byte[] data : planes) {
+                        for (int start=0; start < data.length; start += samplesPerRow) {
+                            for (int i=start+stride, end=start+samplesPerRow; i<end; i++) {
+                                data[i] += data[i - stride];
+                            }
+                        }
+                    }
+                }
+                buffer = new DataBufferByte(planes, planeLength);
+                break;
+            }
+            case DataBuffer.TYPE_SHORT:
+            case DataBuffer.TYPE_USHORT: {
+                final short[][] banks = new short[numPlanes][];
+                for (int p=0; p<numPlanes; p++) {
+                    final short[] data = new short[planeLength / Short.BYTES];
+                    ByteBuffer.wrap(planes[p]).order(order).asShortBuffer().get(data);
+                    if (predictor == 2) {
+                        for (int start=0; start < data.length; start += samplesPerRow) {
+                            for (int i=start+stride, end=start+samplesPerRow; i<end; i++) {
+                                data[i] += data[i - stride];
+                            }
+                        }
+                    }
+                    banks[p] = data;
+                }
+                buffer = (model.getDataType() == DataBuffer.TYPE_SHORT)
+                        ? new DataBufferShort (banks, planeLength / Short.BYTES)
+                        : new DataBufferUShort(banks, planeLength / Short.BYTES);
+                break;
+            }
+            case DataBuffer.TYPE_INT: {
+                final int[][] banks = new int[numPlanes][];
+                for (int p=0; p<numPlanes; p++) {
+                    final int[] data = new int[planeLength / Integer.BYTES];
+                    ByteBuffer.wrap(planes[p]).order(order).asIntBuffer().get(data);
+                    if (predictor == 2) {
+                        for (int start=0; start < data.length; start += samplesPerRow) {
+                            for (int i=start+stride, end=start+samplesPerRow; i<end; i++) {
+                                data[i] += data[i - stride];
+                            }
+                        }
+                    }
+                    banks[p] = data;
+                }
+                buffer = new DataBufferInt(banks, planeLength / Integer.BYTES);
+                break;
+            }
+            case DataBuffer.TYPE_FLOAT: {
+                final float[][] banks = new float[numPlanes][];
+                for (int p=0; p<numPlanes; p++) {
+                    banks[p] = new float[planeLength / Float.BYTES];
+                    ByteBuffer.wrap(planes[p]).order(order).asFloatBuffer().get(banks[p]);
+                }
+                buffer = new DataBufferFloat(banks, planeLength / Float.BYTES);
+                break;
+            }
+            case DataBuffer.TYPE_DOUBLE: {
+                final double[][] banks = new double[numPlanes][];
+                for (int p=0; p<numPlanes; p++) {
+                    banks[p] = new double[planeLength / Double.BYTES];
+                    ByteBuffer.wrap(planes[p]).order(order).asDoubleBuffer().get(banks[p]);
+                }
+                buffer = new DataBufferDouble(banks, planeLength / Double.BYTES);
+                break;
+            }
+            default: throw new AssertionError(model.getDataType());
+        }
+        return Raster.createRaster(model, buffer, new Point(tileX * tileWidth, tileY * tileHeight));
+    }
+
+    /**
+     * Builds an exception for a TIFF tag value which is valid but not supported by current implementation
+     * of the pixel reader.
+     *
+     * @param  tag  the numerical value of the tag having an unsupported value.
+     */
+    private DataStoreContentException unsupportedLayout(final short tag) {
+        return new DataStoreContentException(reader.resources().getString(
+                Resources.Keys.UnsupportedImageLayout_2, filename(), Tags.name(tag)));
+    }
+
     /**
      * Reports a warning with a message created from the given resource keys and parameters.
      *
@@ -62,8 +62,9 @@ final class Reader extends GeoTIFF {
 
     /**
      * Stream position of the first byte of the GeoTIFF file. This is usually zero.
+     * All offsets declared in the TIFF file (including tile offsets) are relative to this position.
      */
-    private final long origin;
+    final long origin;
 
     /**
      * A multiplication factor for the size of pointers, expressed as a power of 2.
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.util.Vector;
+import java.io.IOException;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.awt.image.ColorModel;
+import java.awt.image.SampleModel;
+import java.awt.image.RenderedImage;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.util.collection.BackingStoreException;
+
+
+/**
+ * A view over the pixels of a TIFF image, as a {@link RenderedImage} with tiles read on demand.
+ * No pixel is read at construction time. Each call to {@link #getTile(int, int)} reads the bytes
+ * of the requested tile from the TIFF file, decompresses them and wraps the result in a raster,
+ * unless the tile is already in the shared {@linkplain org.apache.sis.internal.storage.TileCache tile cache}.
+ * Consequently the memory used by this image is only the memory of the tiles that the caller
+ * is actually using, plus the memory budget of the tile cache.
+ *
+ * <p>Strips are handled as tiles having the same width than the image.</p>
+ *
+ * <p>This class is also used for the result of sub-sampled read operations, in which case the image
+ * contains a single tile already in memory.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+final class TiledImage implements RenderedImage {
+    /**
+     * The Image File Directory which contains the information about how to read tiles,
+     * or {@code null} if the image content is already in memory.
+     */
+    private final ImageFileDirectory source;
+
+    /**
+     * The single tile of this image if its content is already in memory, or {@code null}
+     * if tiles shall be read from the {@linkplain #source} when requested.
+     */
+    private final Raster data;
+
+    /**
+     * The image size in pixels.
+     */
+    private final int width, height;
+
+    /**
+     * The size of each tile in pixels.
+     */
+    private final int tileWidth, tileHeight;
+
+    /**
+     * The number of tiles along each axis.
+     */
+    private final int numXTiles, numYTiles;
+
+    /**
+     * The layout of sample values in each tile.
+     */
+    private final SampleModel sampleModel;
+
+    /**
+     * The colors to use for rendering the image, or {@code null} if none.
+     */
+    private final ColorModel colorModel;
+
+    /**
+     * Creates a new image for the given Image File Directory.
+     *
+     * @param source       the Image File Directory which contains the information about how to read tiles.
+     * @param width        the image width in pixels.
+     * @param height       the image height in pixels.
+     * @param sampleModel  the layout of sample values in each tile.
+     * @param colorModel   the colors to use for rendering the image, or {@code null} if none.
+     */
+    TiledImage(final ImageFileDirectory source, final int width, final int height,
+               final SampleModel sampleModel, final ColorModel colorModel)
+    {
+        this.source      = source;
+        this.data        = null;
+        this.width       = width;
+        this.height      = height;
+        this.tileWidth   = sampleModel.getWidth();
+        this.tileHeight  = sampleModel.getHeight();
+        this.numXTiles   = (width  + tileWidth  - 1) / tileWidth;
+        this.numYTiles   = (height + tileHeight - 1) / tileHeight;
+        this.sampleModel = sampleModel;
+        this.colorModel  = colorModel;
+    }
+
+    /**
+     * Creates a new image for pixel values already in memory.
+     * The image will contain a single tile, which is the given raster.
+     *
+     * @param data        the pixel values. Shall have its upper-left corner at (0,0).
+     * @param colorModel  the colors to use for rendering the image, or {@code null} if none.
+     */
+    TiledImage(final Raster data, final ColorModel colorModel) {
+        this.source      = null;
+        this.data        = data;
+        this.width       = data.getWidth();
+        this.height      = data.getHeight();
+        this.tileWidth   = width;
+        this.tileHeight  = height;
+        this.numXTiles   = 1;
+        this.numYTiles   = 1;
+        this.sampleModel = data.getSampleModel();
+        this.colorModel  = colorModel;
+    }
+
+    /** Returns {@code null} since this image has no source. */
+    @Override public Vector<RenderedImage> getSources()   {return null;}
+    /** Returns {@link java.awt.Image#UndefinedProperty} since this image has no property. */
+    @Override public Object      getProperty(String name) {return java.awt.Image.UndefinedProperty;}
+    /** Returns {@code null} since this image has no property. */
+    @Override public String[]    getPropertyNames()       {return null;}
+    /** Returns the colors to use for rendering the image, or {@code null} if none. */
+    @Override public ColorModel  getColorModel()          {return colorModel;}
+    /** Returns the layout of sample values in each tile. */
+    @Override public SampleModel getSampleModel()         {return sampleModel;}
+    /** Returns the image width in pixels. */
+    @Override public int         getWidth()               {return width;}
+    /** Returns the image height in pixels. */
+    @Override public int         getHeight()              {return height;}
+    /** Returns the minimal pixel coordinate, which is always 0. */
+    @Override public int         getMinX()                {return 0;}
+    /** Returns the minimal pixel coordinate, which is always 0. */
+    @Override public int         getMinY()                {return 0;}
+    /** Returns the number of tiles along the <var>x</var> axis. */
+    @Override public int         getNumXTiles()           {return numXTiles;}
+    /** Returns the number of tiles along the <var>y</var> axis. */
+    @Override public int         getNumYTiles()           {return numYTiles;}
+    /** Returns the minimal tile index, which is always 0. */
+    @Override public int         getMinTileX()            {return 0;}
+    /** Returns the minimal tile index, which is always 0. */
+    @Override public int         getMinTileY()            {return 0;}
+    /** Returns the tile width in pixels. */
+    @Override public int         getTileWidth()           {return tileWidth;}
+    /** Returns the tile height in pixels. */
+    @Override public int         getTileHeight()          {return tileHeight;}
+    /** Returns the pixel coordinate of the upper-left corner of tile (0,0), which is always 0. */
+    @Override public int         getTileGridXOffset()     {return 0;}
+    /** Returns the pixel coordinate of the upper-left corner of tile (0,0), which is always 0. */
+    @Override public int         getTileGridYOffset()     {return 0;}
+
+    /**
+     * Reads and decompresses the tile at the given index. Unless the image content is already in memory,
+     * the tile is read from the TIFF file if it is not in the shared tile cache.
+     *
+     * @param  tileX  the tile column index, from 0 inclusive to {@link #getNumXTiles()} exclusive.
+     * @param  tileY  the tile row index, from 0 inclusive to {@link #getNumYTiles()} exclusive.
+     * @return the tile at the given index.
+     * @throws IndexOutOfBoundsException if a tile index is out of bounds.
+     * @throws BackingStoreException if an error occurred while reading or decompressing the tile.
+     */
+    @Override
+    public Raster getTile(final int tileX, final int tileY) {
+        if (tileX < 0 || tileX >= numXTiles) throw new IndexOutOfBoundsException(String.valueOf(tileX));
+        if (tileY < 0 || tileY >= numYTiles) throw new IndexOutOfBoundsException(String.valueOf(tileY));
+        if (data != null) {
+            return data;
+        }
+        try {
+            return source.readTile(sampleModel, tileX, tileY);
+        } catch (IOException | DataStoreException e) {
+            throw new BackingStoreException(e);
+        }
+    }
+
+    /**
+     * Returns a copy of the whole image as a single raster.
+     * This method reads all tiles, so it should be used only for small images.
+     *
+     * @return a copy of all pixel values.
+     */
+    @Override
+    public Raster getData() {
+        return copyData(null);
+    }
+
+    /**
+     * Returns a copy of the given region of this image.
+     * Only the tiles intersecting the given region are read.
+     *
+     * @param  region  the region of this image to copy.
+     * @return a copy of the pixel values in the given region.
+     */
+    @Override
+    public Raster getData(final Rectangle region) {
+        final WritableRaster target = Raster.createWritableRaster(
+                sampleModel.createCompatibleSampleModel(region.width, region.height),
+                new Point(region.x, region.y));
+        return copyData(target);
+    }
+
+    /**
+     * Copies an arbitrary rectangular region of this image to the given raster.
+     * Only the tiles intersecting the raster bounds are read.
+     *
+     * @param  target  the raster where to copy pixel values, or {@code null} for creating a new raster.
+     * @return the given raster, or the newly created raster if the argument was null.
+     */
+    @Override
+    public WritableRaster copyData(WritableRaster target) {
+        if (target == null) {
+            target = Raster.createWritableRaster(sampleModel.createCompatibleSampleModel(width, height), null);
+        }
+        final Rectangle bounds = target.getBounds().intersection(new Rectangle(width, height));
+        if (!bounds.isEmpty()) {
+            final int maxX = (bounds.x + bounds.width  - 1) / tileWidth;
+            final int maxY = (bounds.y + bounds.height - 1) / tileHeight;
+            for (int ty = bounds.y / tileHeight; ty <= maxY; ty++) {
+                for (int tx = bounds.x / tileWidth; tx <= maxX; tx++) {
+                    target.setRect(getTile(tx, ty));
+                }
+            }
+        }
+        return target;
+    }
+}
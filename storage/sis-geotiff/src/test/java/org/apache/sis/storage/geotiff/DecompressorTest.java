@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DataFormatException;
+import java.nio.charset.StandardCharsets;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link Decompressor} implementations.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+@DependsOn(CompressionTest.class)
+public final strictfp class DecompressorTest extends TestCase {
+    /**
+     * Tests the decompression of PackBits data.
+     * The sample data are the example given in Apple Technical Note TN1023.
+     *
+     * @throws DataFormatException if the compressed data are considered invalid.
+     */
+    @Test
+    public void testPackBits() throws DataFormatException {
+        final byte[] source = {
+            (byte) 0xFE, (byte) 0xAA, 0x02, (byte) 0x80, 0x00, 0x2A, (byte) 0xFD, (byte) 0xAA,
+            0x03, (byte) 0x80, 0x00, 0x2A, 0x22, (byte) 0xF7, (byte) 0xAA
+        };
+        final byte[] expected = {
+            (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0x80, 0x00, 0x2A, (byte) 0xAA, (byte) 0xAA,
+            (byte) 0xAA, (byte) 0xAA, (byte) 0x80, 0x00, 0x2A, 0x22, (byte) 0xAA, (byte) 0xAA,
+            (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA
+        };
+        final byte[] target = new byte[expected.length];
+        assertEquals(expected.length, Decompressor.create(Compression.PACKBITS).decompress(source, source.length, target));
+        assertArrayEquals(expected, target);
+    }
+
+    /**
+     * Tests the decompression of LZW data. The codes used in this test are
+     * {@code Clear}, {@code 'A'}, {@code 'B'}, 258, 260, {@code EndOfInformation},
+     * each of them on 9 bits. The 260 code tests the case where a code is used
+     * before it has been added in the table.
+     *
+     * @throws DataFormatException if the compressed data are considered invalid.
+     */
+    @Test
+    public void testLZW() throws DataFormatException {
+        final int[] codes = {256, 'A', 'B', 258, 260, 257};
+        final byte[] source = new byte[(codes.length * 9 + (Byte.SIZE - 1)) / Byte.SIZE];
+        int bitPosition = 0;
+        for (final int code : codes) {
+            for (int i=8; i>=0; i--) {
+                if ((code & (1 << i)) != 0) {
+                    source[bitPosition / Byte.SIZE] |= 0x80 >>> (bitPosition % Byte.SIZE);
+                }
+                bitPosition++;
+            }
+        }
+        final byte[] target = new byte[7];
+        assertEquals(target.length, Decompressor.create(Compression.LZW).decompress(source, source.length, target));
+        assertEquals("ABABABA", new String(target, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Tests the decompression of Deflate data compressed by the JDK.
+     *
+     * @throws DataFormatException if the compressed data are considered invalid.
+     */
+    @Test
+    public void testDeflate() throws DataFormatException {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final byte[] expected = new byte[1000];
+        for (int i=0; i<expected.length; i++) {
+            expected[i] = (byte) random.nextInt(4);
+        }
+        final Deflater deflater = new Deflater();
+        deflater.setInput(expected);
+        deflater.finish();
+        final byte[] source = new byte[expected.length * 2];
+        final int length = deflater.deflate(source);
+        deflater.end();
+        final byte[] target = new byte[expected.length];
+        assertEquals(expected.length, Decompressor.create(Compression.DEFLATE).decompress(source, length, target));
+        assertArrayEquals(expected, target);
+    }
+
+    /**
+     * Verifies that unsupported compression methods are reported by a {@code null} value.
+     */
+    @Test
+    public void testUnsupported() {
+        assertNull(Decompressor.create(Compression.JPEG));
+        assertNull(Decompressor.create(null));
+    }
+}
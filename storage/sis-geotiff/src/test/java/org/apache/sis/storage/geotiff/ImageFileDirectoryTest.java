@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.io.ByteArrayInputStream;
+import java.awt.image.Raster;
+import org.opengis.referencing.datum.PixelInCell;
+import org.opengis.referencing.operation.MathTransform;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.referencing.operation.matrix.Matrix3;
+import org.apache.sis.referencing.operation.matrix.Matrices;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the selection of overviews by {@link ImageFileDirectory#read(GridGeometry, int...)}.
+ * The test file contains a 8×8 pixels image followed by a 4×4 pixels reduced-resolution image.
+ * Pixel values in the full-resolution image are {@code 8*y + x} while pixel values in the
+ * overview are {@code 100 + 4*y + x}, so we can check from which image the values come from.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final strictfp class ImageFileDirectoryTest extends TestCase {
+    /**
+     * TIFF types used in the test file.
+     */
+    private static final short SHORT = 3, LONG = 4, DOUBLE = 12;
+
+    /**
+     * Size of the full-resolution image and of the overview.
+     */
+    private static final int SIZE = 8, OVERVIEW_SIZE = 4;
+
+    /**
+     * Size in CRS units of a pixel in the full-resolution image,
+     * and CRS coordinates of the upper-left image corner.
+     */
+    private static final double PIXEL_SIZE = 10, X0 = 1000, Y0 = 2000;
+
+    /**
+     * Creates the content of a little-endian TIFF file with one image and one overview.
+     */
+    private static byte[] createFile() {
+        final int ifd0     = 8;
+        final int ifd1     = ifd0 + Short.BYTES + 12 * 12 + Integer.BYTES;
+        final int scale    = ifd1 + Short.BYTES + 10 * 12 + Integer.BYTES;
+        final int tiePoint = scale    + 3 * Double.BYTES;
+        final int pixels   = tiePoint + 6 * Double.BYTES;
+        final int overview = pixels   + SIZE * SIZE;
+        final ByteBuffer b = ByteBuffer.allocate(overview + OVERVIEW_SIZE * OVERVIEW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        b.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(ifd0);
+        b.putShort((short) 12);
+        entry(b, Tags.NewSubfileType,            LONG,   1, 0);
+        entry(b, Tags.ImageWidth,                SHORT,  1, SIZE);
+        entry(b, Tags.ImageLength,               SHORT,  1, SIZE);
+        entry(b, Tags.BitsPerSample,             SHORT,  1, Byte.SIZE);
+        entry(b, Tags.Compression,               SHORT,  1, 1);
+        entry(b, Tags.PhotometricInterpretation, SHORT,  1, 1);
+        entry(b, Tags.StripOffsets,              LONG,   1, pixels);
+        entry(b, Tags.SamplesPerPixel,           SHORT,  1, 1);
+        entry(b, Tags.RowsPerStrip,              SHORT,  1, SIZE);
+        entry(b, Tags.StripByteCounts,           LONG,   1, SIZE * SIZE);
+        entry(b, Tags.ModelPixelScaleTag,        DOUBLE, 3, scale);
+        entry(b, Tags.ModelTiePoints,            DOUBLE, 6, tiePoint);
+        b.putInt(ifd1);
+        b.putShort((short) 10);
+        entry(b, Tags.NewSubfileType,            LONG,   1, 1);                 // Reduced-resolution image.
+        entry(b, Tags.ImageWidth,                SHORT,  1, OVERVIEW_SIZE);
+        entry(b, Tags.ImageLength,               SHORT,  1, OVERVIEW_SIZE);
+        entry(b, Tags.BitsPerSample,             SHORT,  1, Byte.SIZE);
+        entry(b, Tags.Compression,               SHORT,  1, 1);
+        entry(b, Tags.PhotometricInterpretation, SHORT,  1, 1);
+        entry(b, Tags.StripOffsets,              LONG,   1, overview);
+        entry(b, Tags.SamplesPerPixel,           SHORT,  1, 1);
+        entry(b, Tags.RowsPerStrip,              SHORT,  1, OVERVIEW_SIZE);
+        entry(b, Tags.StripByteCounts,           LONG,   1, OVERVIEW_SIZE * OVERVIEW_SIZE);
+        b.putInt(0);                                                            // No more IFD.
+        b.putDouble(PIXEL_SIZE).putDouble(PIXEL_SIZE).putDouble(0);
+        b.putDouble(0).putDouble(0).putDouble(0).putDouble(X0).putDouble(Y0).putDouble(0);
+        for (int i=0; i < SIZE * SIZE; i++) {
+            b.put((byte) i);
+        }
+        for (int i=0; i < OVERVIEW_SIZE * OVERVIEW_SIZE; i++) {
+            b.put((byte) (100 + i));
+        }
+        assertEquals("remaining", 0, b.remaining());
+        return b.array();
+    }
+
+    /**
+     * Writes an IFD entry having a single value, or an offset to the values.
+     */
+    private static void entry(final ByteBuffer b, final short tag, final short type, final int count, final int value) {
+        b.putShort(tag).putShort(type).putInt(count);
+        if (type == SHORT) {
+            b.putShort((short) value).putShort((short) 0);
+        } else {
+            b.putInt(value);
+        }
+    }
+
+    /**
+     * Reads the image with a sub-sampling of {@code s} starting at pixel ({@code offset}, {@code offset})
+     * and verifies the "grid to CRS" conversion of the result.
+     *
+     * @param  image   the full-resolution image.
+     * @param  size    number of pixels to read along each dimension.
+     * @param  offset  column and row of the first pixel to read in the full-resolution image.
+     * @param  s       the sub-sampling.
+     * @return the pixel values.
+     */
+    private static Raster read(final ImageFileDirectory image, final int size, final int offset, final int s)
+            throws Exception
+    {
+        final MathTransform gridToCRS = image.getGridGeometry().getGridToCRS(PixelInCell.CELL_CORNER);
+        final GridGeometry domain = new GridGeometry(new GridExtent(size, size), PixelInCell.CELL_CORNER,
+                MathTransforms.concatenate(MathTransforms.linear(new Matrix3(s, 0, offset, 0, s, offset, 0, 0, 1)), gridToCRS), null);
+        final GridCoverage coverage = image.read(domain);
+        final Raster raster = coverage.render(null).getData();
+        assertEquals("width",  size, raster.getWidth());
+        assertEquals("height", size, raster.getHeight());
+        final Matrix3 expected = new Matrix3(
+                PIXEL_SIZE * s, 0, X0 + PIXEL_SIZE * offset,
+                0, -PIXEL_SIZE * s, Y0 - PIXEL_SIZE * offset,
+                0, 0, 1);
+        assertTrue("gridToCRS", Matrices.equals(expected,
+                MathTransforms.getMatrix(coverage.getGridGeometry().getGridToCRS(PixelInCell.CELL_CORNER)), STRICT, false));
+        return raster;
+    }
+
+    /**
+     * Tests reading with sub-samplings that are multiples of the overview reduction factor.
+     * The pixel values shall be read from the overview.
+     *
+     * @throws Exception if an error occurred while reading the test file.
+     */
+    @Test
+    public void testReadFromOverview() throws Exception {
+        try (GeoTiffStore store = new GeoTiffStore(null, new StorageConnector(new ByteArrayInputStream(createFile())))) {
+            final ImageFileDirectory image = (ImageFileDirectory) store.findResource("1");
+            Raster raster = read(image, 4, 0, 2);
+            for (int y=0; y<4; y++) {
+                for (int x=0; x<4; x++) {
+                    assertEquals(100 + 4*y + x, raster.getSample(x, y, 0));
+                }
+            }
+            raster = read(image, 2, 0, 4);
+            for (int y=0; y<2; y++) {
+                for (int x=0; x<2; x++) {
+                    assertEquals(100 + 4*(2*y) + 2*x, raster.getSample(x, y, 0));
+                }
+            }
+            raster = read(image, 1, 2, 4);
+            assertEquals(100 + 4 + 1, raster.getSample(0, 0, 0));
+        }
+    }
+
+    /**
+     * Tests reading with a sub-sampling or an origin which are not aligned with the overview grid.
+     * The pixel values shall be read from the full-resolution image.
+     *
+     * @throws Exception if an error occurred while reading the test file.
+     */
+    @Test
+    public void testReadUnalignedFromImage() throws Exception {
+        try (GeoTiffStore store = new GeoTiffStore(null, new StorageConnector(new ByteArrayInputStream(createFile())))) {
+            final ImageFileDirectory image = (ImageFileDirectory) store.findResource("1");
+            Raster raster = read(image, 3, 1, 2);
+            for (int y=0; y<3; y++) {
+                for (int x=0; x<3; x++) {
+                    assertEquals(SIZE * (1 + 2*y) + (1 + 2*x), raster.getSample(x, y, 0));
+                }
+            }
+            raster = read(image, 2, 0, 3);
+            for (int y=0; y<2; y++) {
+                for (int x=0; x<2; x++) {
+                    assertEquals(SIZE * (3*y) + 3*x, raster.getSample(x, y, 0));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.netcdf;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.stream.IntStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.StandardOpenOption;
+import org.apache.sis.math.Vector;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreContentException;
+import org.apache.sis.storage.DataStoreClosedException;
+import org.apache.sis.util.collection.BackingStoreException;
+import org.apache.sis.util.resources.Errors;
+
+
+/**
+ * A variable made of the concatenation of variables of the same name in many netCDF files.
+ * This is similar to the NcML "joinExisting" aggregation: all files shall contain a variable
+ * of the given name with the same type and the same grid shape, except for the first dimension
+ * in netCDF order (the slowest varying one, typically the unlimited time dimension) along which
+ * the variables are concatenated in the order of the given files.
+ *
+ * <p>The files are not opened at construction time. They are opened in parallel when first needed,
+ * which is usually when the grid envelope is requested or data are read. Reading a sub-area of this
+ * variable reads only the relevant sub-area in each file, and skips the files that do not intersect
+ * the requested range along the joined dimension. Reads in different files are done in parallel.</p>
+ *
+ * <p>Attributes, description and units of measurement are taken from the variable in the first file.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final class JoinedVariable extends Variable implements Closeable {
+    /**
+     * The name of the variable to read in each file.
+     */
+    private final String name;
+
+    /**
+     * The functions opening the decoder of each file, in the order of concatenation.
+     */
+    private final Callable<? extends Decoder>[] openers;
+
+    /**
+     * The decoders of all files, or {@code null} if the files have not yet been opened.
+     *
+     * @see #members()
+     */
+    private Decoder[] decoders;
+
+    /**
+     * The variables found in each file, in the same order than {@link #decoders}.
+     * This array is valid only if {@link #decoders} is non-null.
+     */
+    private Variable[] variables;
+
+    /**
+     * Index of the first element of each variable along the joined dimension.
+     * The length of this array is the number of files plus one, with the last
+     * element being the total length along the joined dimension.
+     */
+    private long[] starts;
+
+    /**
+     * Whether {@link #close()} has been invoked. After closing, this variable can not be used anymore.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new variable for the concatenation of the variable of the given name in all files.
+     * The files will be opened when first needed.
+     *
+     * @param  name     name of the variable to read in each file.
+     * @param  openers  functions opening the decoder of each file, in the order of concatenation.
+     */
+    @SafeVarargs
+    public JoinedVariable(final String name, final Callable<? extends Decoder>... openers) {
+        if (openers.length == 0) {
+            throw new IllegalArgumentException(Errors.format(Errors.Keys.EmptyArgument_1, "openers"));
+        }
+        this.name    = name;
+        this.openers = openers.clone();
+    }
+
+    /**
+     * Opens all files in parallel if not already done, and verifies that the variables are compatible.
+     * After this method call, the {@link #variables} and {@link #starts} arrays are valid.
+     *
+     * @return the variables found in each file.
+     * @throws DataStoreClosedException if this variable has been closed.
+     */
+    private synchronized Variable[] members() throws IOException, DataStoreException {
+        if (closed) {
+            throw new DataStoreClosedException(null, "netCDF", StandardOpenOption.READ);
+        }
+        if (decoders == null) {
+            final Decoder[] opened = new Decoder[openers.length];
+            try {
+                IntStream.range(0, openers.length).parallel().forEach((i) -> {
+                    try {
+                        opened[i] = openers[i].call();
+                    } catch (Exception e) {
+                        throw new BackingStoreException(e);
+                    }
+                });
+            } catch (BackingStoreException e) {
+                close(opened);
+                throw unwrap(e);
+            }
+            final Variable[] found = new Variable[opened.length];
+            final long[] offsets = new long[opened.length + 1];
+            int[] shape = null;
+            DataType type = null;
+            try {
+                for (int i=0; i<opened.length; i++) {
+                    final Variable variable = find(opened[i]);
+                    final int[] s = variable.getGridEnvelope();
+                    if (i == 0) {
+                        shape = s;
+                        type  = variable.getDataType();
+                    } else if (variable.getDataType() != type || !isSameShape(s, shape)) {
+                        throw new DataStoreContentException(Resources.format(Resources.Keys.MismatchedVariableShape_3,
+                                opened[0].getFilename(), name, opened[i].getFilename()));
+                    }
+                    found[i] = variable;
+                    offsets[i+1] = offsets[i] + (s.length != 0 ? Integer.toUnsignedLong(s[0]) : 1);
+                }
+            } catch (DataStoreException | RuntimeException e) {
+                close(opened);
+                throw e;
+            }
+            variables = found;
+            starts    = offsets;
+            decoders  = opened;
+        }
+        return variables;
+    }
+
+    /**
+     * Returns whether the given grid envelopes are equal, ignoring the first dimension (the joined one).
+     */
+    private static boolean isSameShape(final int[] s1, final int[] s2) {
+        if (s1.length != s2.length) {
+            return false;
+        }
+        for (int i=1; i<s1.length; i++) {
+            if (s1[i] != s2[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the variable of the name given at construction time in the given decoder.
+     */
+    private Variable find(final Decoder decoder) throws DataStoreContentException {
+        for (final Variable variable : decoder.getVariables()) {
+            if (name.equals(variable.getName())) {
+                return variable;
+            }
+        }
+        throw new DataStoreContentException(Resources.format(Resources.Keys.VariableNotFound_2, decoder.getFilename(), name));
+    }
+
+    /**
+     * Returns the variable in the first file. This is used for delegating methods which are not
+     * related to the joined dimension, like units of measurement or attribute values.
+     *
+     * @throws BackingStoreException if the first file can not be opened.
+     */
+    private Variable first() {
+        try {
+            return members()[0];
+        } catch (IOException | DataStoreException e) {
+            throw new BackingStoreException(e);
+        }
+    }
+
+    /**
+     * Unwraps the exception thrown by a parallel operation. The fork-join framework may have wrapped
+     * the exception thrown in a worker thread in a new exception of the same type, in which case the
+     * nested wrappers are skipped.
+     */
+    private static DataStoreException unwrap(final BackingStoreException e) throws IOException {
+        Throwable cause = e.getCause();
+        while (cause instanceof BackingStoreException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException)        throw (IOException) cause;
+        if (cause instanceof DataStoreException) return (DataStoreException) cause;
+        if (cause instanceof RuntimeException)   throw (RuntimeException) cause;
+        return new DataStoreException(cause);
+    }
+
+    /**
+     * Returns the name of this variable, which is the same in all files.
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the description of the variable in the first file, or {@code null} if none.
+     */
+    @Override
+    public String getDescription() {
+        return first().getDescription();
+    }
+
+    /**
+     * Returns the unit of measurement of the variable in the first file, or {@code null} if none.
+     */
+    @Override
+    public String getUnitsString() {
+        return first().getUnitsString();
+    }
+
+    /**
+     * Returns the variable data type, which is the same in all files.
+     */
+    @Override
+    public DataType getDataType() {
+        return first().getDataType();
+    }
+
+    /**
+     * Returns whether the variable in the first file seems to be a coordinate system axis.
+     */
+    @Override
+    public boolean isCoordinateSystemAxis() {
+        return first().isCoordinateSystemAxis();
+    }
+
+    /**
+     * Returns the names of the dimensions of the variable in the first file.
+     */
+    @Override
+    public String[] getGridDimensionNames() {
+        return first().getGridDimensionNames();
+    }
+
+    /**
+     * Returns the length of each grid dimension. The length of the first dimension (in netCDF order)
+     * is the sum of the lengths in all files. Other lengths are the same than in each file.
+     *
+     * @throws ArithmeticException if the total length along the joined dimension is too large.
+     * @throws BackingStoreException if the files can not be opened or if this variable has been closed.
+     */
+    @Override
+    public int[] getGridEnvelope() {
+        final int[] shape;
+        final long length;
+        synchronized (this) {
+            shape  = first().getGridEnvelope();
+            length = starts[starts.length - 1];
+        }
+        if (shape.length != 0) {
+            if (length > 0xFFFFFFFFL) {
+                throw new ArithmeticException(Errors.format(Errors.Keys.ExcessiveListSize_2, name, length));
+            }
+            shape[0] = (int) length;
+        }
+        return shape;
+    }
+
+    /**
+     * Returns the names of all attributes associated to the variable in the first file.
+     */
+    @Override
+    public Collection<String> getAttributeNames() {
+        return first().getAttributeNames();
+    }
+
+    /**
+     * Returns the values of the given attribute in the first file, or an empty array if none.
+     */
+    @Override
+    public Object[] getAttributeValues(final String attributeName, final boolean numeric) {
+        return first().getAttributeValues(attributeName, numeric);
+    }
+
+    /**
+     * Reads all the data of the variables in all files, concatenated along the joined dimension.
+     */
+    @Override
+    public Vector read() throws IOException, DataStoreException {
+        members();                          // Report checked exceptions before getGridEnvelope() wraps them.
+        final int[] upper = getGridEnvelope();
+        final int[] sub = new int[upper.length];
+        Arrays.fill(sub, 1);
+        return read(new int[upper.length], upper, sub);
+    }
+
+    /**
+     * Reads a sub-sampled sub-area of the variable. Only the files intersecting the requested range along
+     * the joined dimension are read, and only the requested sub-area is read in each of those files.
+     *
+     * @param  areaLower    index of the first value to read along each dimension, as unsigned integers.
+     * @param  areaUpper    index after the last value to read along each dimension, as unsigned integers.
+     * @param  subsampling  sub-sampling along each dimension. 1 means no sub-sampling.
+     * @return the data as an array of a Java primitive type.
+     */
+    @Override
+    public Vector read(final int[] areaLower, final int[] areaUpper, final int[] subsampling)
+            throws IOException, DataStoreException
+    {
+        final Variable[] members;
+        final long[] starts;
+        synchronized (this) {
+            members = members();
+            starts  = this.starts;
+        }
+        if (areaLower.length == 0) {
+            return members[0].read(areaLower, areaUpper, subsampling);
+        }
+        final long lower = Integer.toUnsignedLong(areaLower[0]);
+        final long upper = Integer.toUnsignedLong(areaUpper[0]);
+        final int  step  = subsampling[0];
+        final Vector[] parts = new Vector[members.length];
+        try {
+            IntStream.range(0, members.length).parallel().forEach((i) -> {
+                final long start = starts[i];
+                final long end   = Math.min(starts[i+1], upper);
+                /*
+                 * Index of the first sub-sampled value which is inside this file.
+                 * We need to preserve the sub-sampling phase relative to 'lower'.
+                 */
+                long first = lower;
+                if (first < start) {
+                    first += ((start - first + step - 1) / step) * step;
+                }
+                if (first < end) {
+                    final int[] lo = areaLower.clone();
+                    final int[] up = areaUpper.clone();
+                    lo[0] = (int) (first - start);
+                    up[0] = (int) (end   - start);
+                    try {
+                        parts[i] = members[i].read(lo, up, subsampling);
+                    } catch (IOException | DataStoreException e) {
+                        throw new BackingStoreException(e);
+                    }
+                }
+            });
+        } catch (BackingStoreException e) {
+            throw unwrap(e);
+        }
+        return concatenate(parts, 0, parts.length);
+    }
+
+    /**
+     * Concatenates the non-null vectors in the given range of the given array. This method splits the range
+     * in two halves recursively, in order to keep the depth of nested concatenated vectors logarithmic in the
+     * number of files.
+     *
+     * @return the concatenation of all non-null vectors in the given range, or {@code null} if none.
+     */
+    private static Vector concatenate(final Vector[] parts, final int lower, final int upper) {
+        switch (upper - lower) {
+            case 0:  return null;
+            case 1:  return parts[lower];
+        }
+        final int mid = (lower + upper) >>> 1;
+        final Vector head = concatenate(parts, lower, mid);
+        final Vector tail = concatenate(parts, mid, upper);
+        if (head == null) return tail;
+        if (tail == null) return head;
+        return head.concatenate(tail);
+    }
+
+    /**
+     * Closes all decoders opened by this variable. After this method call,
+     * any attempt to read this variable will cause an exception to be thrown.
+     *
+     * @throws IOException if an error occurred while closing a file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        final Decoder[] opened = decoders;
+        closed    = true;
+        decoders  = null;
+        variables = null;
+        starts    = null;
+        if (opened != null) {
+            close(opened);
+        }
+    }
+
+    /**
+     * Closes all non-null decoders in the given array.
+     * If an exception occurs, other decoders are still closed.
+     */
+    private static void close(final Decoder[] opened) throws IOException {
+        IOException error = null;
+        for (final Decoder decoder : opened) {
+            if (decoder != null) try {
+                decoder.close();
+            } catch (IOException e) {
+                if (error == null) error = e;
+                else error.addSuppressed(e);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+}
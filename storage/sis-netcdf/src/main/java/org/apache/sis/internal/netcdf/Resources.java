@@ -68,6 +68,11 @@ public final class Resources extends IndexedResourceBundle {
          */
         public static final short DimensionNotFound_3 = 1;
 
+        /**
+         * Variable “{1}” in file “{2}” does not have the same type or grid shape than in file “{0}”.
+         */
+        public static final short MismatchedVariableShape_3 = 5;
+
         /**
          * Variable “{1}” in file “{0}” has a dimension “{3}” while we expected “{2}”.
          */
@@ -20,7 +20,9 @@ import java.util.Collection;
 import java.io.IOException;
 import java.awt.image.DataBuffer;
 import org.apache.sis.math.Vector;
+import org.apache.sis.coverage.grid.GridExtent;
 import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.util.resources.Errors;
 
 
 /**
@@ -28,7 +30,7 @@ import org.apache.sis.storage.DataStoreException;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @author  Johann Sorel (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.3
  * @module
  */
@@ -204,6 +206,33 @@ public abstract class Variable extends NamedElement {
      */
     public abstract Vector read() throws IOException, DataStoreException;
 
+    /**
+     * Reads a contiguous range of values in the flattened sequence of all values of this variable.
+     * Values are flattened in the same order than {@link #read()}. The index of the first value is
+     * a {@code long}, which allows to read by chunks the variables having more than
+     * {@link Integer#MAX_VALUE} values.
+     *
+     * <p>The default implementation reads all values with {@link #read()}, then returns the requested
+     * sub-list. Consequently it can not read variables having more than {@link Integer#MAX_VALUE} values.
+     * Subclasses should override this method with a more efficient implementation.</p>
+     *
+     * @param  first   index of the first value to read in the flattened sequence of values.
+     * @param  length  number of values to read.
+     * @return the data as an array of a Java primitive type.
+     * @throws IOException if an error occurred while reading the data.
+     * @throws DataStoreException if a logical error occurred.
+     * @throws IndexOutOfBoundsException if the given range is outside the variable.
+     *
+     * @since 1.0
+     */
+    public Vector read(final long first, final int length) throws IOException, DataStoreException {
+        final Vector data = read();
+        if (first < 0 || length < 0 || first > data.size() - length) {
+            throw new IndexOutOfBoundsException(Errors.format(Errors.Keys.IndicesOutOfBounds_2, first, first + length));
+        }
+        return data.subList((int) first, (int) first + length);
+    }
+
     /**
      * Reads a sub-sampled sub-area of the variable.
      * Constraints on the argument values are:
@@ -226,6 +255,41 @@ public abstract class Variable extends NamedElement {
      */
     public abstract Vector read(int[] areaLower, int[] areaUpper, int[] subsampling) throws IOException, DataStoreException;
 
+    /**
+     * Reads a sub-sampled sub-area of the variable, with the area specified as a grid extent.
+     * This is a convenience method for {@link #read(int[], int[], int[])} where the dimensions
+     * are given in "natural" order (reverse of netCDF order): dimension 0 in the grid extent
+     * is the last dimension declared in the netCDF file, which is the one varying fastest.
+     * Only the values at the sub-sampled positions are read.
+     *
+     * @param  area         indices of cells to read, in "natural" order. High values are inclusive.
+     * @param  subsampling  sub-sampling along each dimension in "natural" order, or {@code null} if none.
+     * @return the data as an array of a Java primitive type.
+     * @throws IOException if an error occurred while reading the data.
+     * @throws DataStoreException if a logical error occurred.
+     * @throws ArithmeticException if a grid coordinate can not be represented as an unsigned integer.
+     *
+     * @since 1.0
+     */
+    public Vector read(final GridExtent area, final int[] subsampling) throws IOException, DataStoreException {
+        final int dimension = area.getDimension();
+        final int[] lower = new int[dimension];
+        final int[] upper = new int[dimension];
+        final int[] sub   = new int[dimension];
+        for (int i=0; i<dimension; i++) {
+            final int j = (dimension - 1) - i;
+            final long low  = area.getLow(i);
+            final long high = area.getHigh(i) + 1;                  // Make exclusive.
+            if (low < 0 || high > 0xFFFFFFFFL) {
+                throw new ArithmeticException(String.valueOf(low < 0 ? low : high));
+            }
+            lower[j] = (int) low;
+            upper[j] = (int) high;
+            sub  [j] = (subsampling != null) ? subsampling[i] : 1;
+        }
+        return read(lower, upper, sub);
+    }
+
     /**
      * Returns a string representation of this variable for debugging purpose.
      *
@@ -69,7 +69,7 @@ import ucar.nc2.constants.CF;
  *
  * @author  Johann Sorel (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.8
+ * @version 1.0
  *
  * @see <a href="http://portal.opengeospatial.org/files/?artifact_id=43734">NetCDF Classic and 64-bit Offset Format (1.0)</a>
  *
@@ -146,6 +146,12 @@ public final class ChannelDecoder extends Decoder {
      */
     private final ChannelDataInput input;
 
+    /**
+     * The values of whole variables read by {@link VariableInfo#read()}. This cache is shared by all variables
+     * of this decoder, so the memory budget applies to the netCDF file as a whole.
+     */
+    private final ValuesCache values;
+
     /**
      * {@code false} if the file is the classic format, or
      * {@code true} if it is the 64-bits offset format.
@@ -229,9 +235,31 @@ public final class ChannelDecoder extends Decoder {
      */
     public ChannelDecoder(final ChannelDataInput input, final Charset encoding, final GeometryLibrary geomlib,
             final WarningListeners<DataStore> listeners) throws IOException, DataStoreException
+    {
+        this(input, encoding, geomlib, listeners, ValuesCache.DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a new decoder for the given file with the given memory budget for variable values.
+     * Values of whole variables are kept by strong references until the sum of their sizes exceeds
+     * the given budget, after which the eldest ones are kept only by soft references.
+     *
+     * @param  input      the channel and the buffer from where data are read.
+     * @param  encoding   the encoding of attribute value, or {@code null} for the default value.
+     * @param  geomlib    the library for geometric objects, or {@code null} for the default.
+     * @param  listeners  where to send the warnings.
+     * @param  budget     maximal amount of bytes of variable values to retain by strong references.
+     * @throws IOException if an error occurred while reading the channel.
+     * @throws DataStoreException if the content of the given channel is not a netCDF file.
+     *
+     * @since 1.0
+     */
+    public ChannelDecoder(final ChannelDataInput input, final Charset encoding, final GeometryLibrary geomlib,
+            final WarningListeners<DataStore> listeners, final long budget) throws IOException, DataStoreException
     {
         super(geomlib, listeners);
         this.input = input;
+        this.values = new ValuesCache(budget);
         this.encoding = (encoding != null) ? encoding : StandardCharsets.UTF_8;
         /*
          * Check the magic number, which is expected to be exactly 3 bytes forming the "CDF" string.
@@ -564,7 +592,7 @@ public final class ChannelDecoder extends Decoder {
                     default:        throw malformedHeader();
                 }
             }
-            variables[j] = new VariableInfo(input, name, varDims, attributes,
+            variables[j] = new VariableInfo(input, values, name, varDims, attributes,
                     DataType.valueOf(input.readInt()), input.readInt(), readOffset());
         }
         return variables;
@@ -850,6 +878,7 @@ nextVar:    for (final VariableInfo variable : variables) {
      */
     @Override
     public void close() throws IOException {
+        values.clear();
         input.channel.close();
     }
 
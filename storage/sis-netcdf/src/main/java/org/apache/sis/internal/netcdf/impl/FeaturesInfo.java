@@ -34,6 +34,7 @@ import org.apache.sis.internal.netcdf.DataType;
 import org.apache.sis.internal.netcdf.DiscreteSampling;
 import org.apache.sis.internal.netcdf.Resources;
 import org.apache.sis.internal.feature.MovingFeature;
+import org.apache.sis.storage.DataStore;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.util.collection.BackingStoreException;
 import ucar.nc2.constants.CF;
@@ -87,6 +88,14 @@ final class FeaturesInfo extends DiscreteSampling {
      */
     private final DefaultFeatureType type;
 
+    /**
+     * The object to use for synchronizing read operations. All variables are read from the same channel,
+     * which does not support concurrent accesses. Only the construction of feature instances can be done
+     * in parallel. This is the data store, which is also the lock used by {@code NetcdfStore} methods,
+     * or the decoder if there is no data store.
+     */
+    private final Object lock;
+
     /**
      * Creates a new discrete sampling parser for features identified by the given variable.
      *
@@ -104,11 +113,13 @@ final class FeaturesInfo extends DiscreteSampling {
             final Collection<VariableInfo> coordinates, final Collection<VariableInfo> properties)
     {
         super(decoder.geomlib, decoder.listeners);
+        final DataStore store = decoder.listeners.getSource();
         this.counts      = counts;
         this.identifiers = identifiers;
         this.coordinates = coordinates.toArray(new VariableInfo[coordinates.size()]);
         this.properties  = properties .toArray(new VariableInfo[properties .size()]);
         this.time        = time;
+        this.lock        = (store != null) ? store : decoder;
         /*
          * Creates a description of the features to be read.
          */
@@ -299,17 +310,21 @@ search: for (final VariableInfo counts : decoder.variables) {
     }
 
     /**
-     * Returns the stream of features.
+     * Returns the stream of features. If {@code parallel} is {@code true}, then the iteration can be split
+     * in ranges of feature indices. The data are read sequentially, but the construction of geometries and
+     * feature instances is done in parallel.
      *
-     * @param  parallel  ignored, since current version does not support parallelism.
+     * @param  parallel  whether the returned stream should be parallel.
      */
     @Override
-    public Stream<AbstractFeature> features(boolean parallel) {
-        return StreamSupport.stream(new Iter(), false);
+    public Stream<AbstractFeature> features(final boolean parallel) {
+        return StreamSupport.stream(new Iter(0, counts.size(), 0), parallel);
     }
 
     /**
      * Implementation of the iterator returned by {@link #features(boolean)}.
+     * Each iterator covers a range of feature indices. The {@link #counts} vector
+     * gives the position in the data vectors of the first feature of each range.
      */
     private final class Iter implements Spliterator<AbstractFeature> {
         /**
@@ -317,6 +332,11 @@ search: for (final VariableInfo counts : decoder.variables) {
          */
         private int index;
 
+        /**
+         * Index after the last feature to read.
+         */
+        private final int end;
+
         /**
          * Position in the data vectors of the next feature to read.
          * This is the sum of the length of data in all previous features.
@@ -324,9 +344,16 @@ search: for (final VariableInfo counts : decoder.variables) {
         private int position;
 
         /**
-         * Creates a new iterator.
+         * Creates a new iterator over the given range of features.
+         *
+         * @param  index     index of the first feature to read.
+         * @param  end       index after the last feature to read.
+         * @param  position  position in the data vectors of the first feature to read.
          */
-        Iter() {
+        Iter(final int index, final int end, final int position) {
+            this.index    = index;
+            this.end      = end;
+            this.position = position;
         }
 
         /**
@@ -336,6 +363,9 @@ search: for (final VariableInfo counts : decoder.variables) {
          */
         @Override
         public boolean tryAdvance(final Consumer<? super AbstractFeature> action) {
+            if (index >= end) {
+                return false;
+            }
             final int   length = counts.intValue(index);
             final int[] lower  = {position};
             final int[] upper  = {position + length};
@@ -344,28 +374,31 @@ search: for (final VariableInfo counts : decoder.variables) {
             final Vector[] coords = new Vector[coordinates.length];
             final Object[] props  = new Object[properties.length];
             try {
-                id = identifiers.read();                    // Efficiency should be okay because of cached value.
-                t = time.read(lower, upper, step);
-                for (int i=0; i<coordinates.length; i++) {
-                    coords[i] = coordinates[i].read(lower, upper, step);
-                }
-                for (int i=0; i<properties.length; i++) {
-                    final VariableInfo p = properties[i];
-                    final Vector data = p.read(lower, upper, step);
-                    if (p.isEnumeration()) {
-                        final String[] meanings = new String[data.size()];
-                        for (int j=0; j<meanings.length; j++) {
-                            String m = p.meaning(data.intValue(j));
-                            meanings[j] = (m != null) ? m : "";
-                        }
-                        props[i] = Arrays.asList(meanings);
-                    } else {
-                        props[i] = data;
+                synchronized (lock) {
+                    id = identifiers.read();                // Efficiency should be okay because of cached value.
+                    t = time.read(lower, upper, step);
+                    for (int i=0; i<coordinates.length; i++) {
+                        coords[i] = coordinates[i].read(lower, upper, step);
+                    }
+                    for (int i=0; i<properties.length; i++) {
+                        props[i] = properties[i].read(lower, upper, step);
                     }
                 }
             } catch (IOException | DataStoreException e) {
                 throw new BackingStoreException(canNotReadFile(), e);
             }
+            for (int i=0; i<properties.length; i++) {
+                final VariableInfo p = properties[i];
+                if (p.isEnumeration()) {
+                    final Vector data = (Vector) props[i];
+                    final String[] meanings = new String[data.size()];
+                    for (int j=0; j<meanings.length; j++) {
+                        String m = p.meaning(data.intValue(j));
+                        meanings[j] = (m != null) ? m : "";
+                    }
+                    props[i] = Arrays.asList(meanings);
+                }
+            }
             final AbstractFeature feature = type.newInstance();
             feature.setPropertyValue(identifiers.getName(), id.intValue(index));
             for (int i=0; i<properties.length; i++) {
@@ -381,23 +414,39 @@ search: for (final VariableInfo counts : decoder.variables) {
             feature.setPropertyValue("trajectory", factory.createPolyline(dimension, Vector.create(tmp, false)));
             action.accept(feature);
             position = Math.addExact(position, length);
-            return ++index < counts.size();
+            index++;
+            return true;
         }
 
         /**
-         * Current implementation can not split this iterator.
+         * Splits this iterator in two halves of feature indices. The position in the data vectors
+         * of the first feature of the second half is the sum of the counts of all features before it.
+         *
+         * @return an iterator over the first half of remaining features, or {@code null} if too small.
          */
         @Override
         public Spliterator<AbstractFeature> trySplit() {
-            return null;
+            final int start = index;
+            final int mid = (start + end) >>> 1;
+            if (mid <= start) {
+                return null;
+            }
+            int p = position;
+            for (int i=start; i<mid; i++) {
+                p = Math.addExact(p, counts.intValue(i));
+            }
+            final Iter prefix = new Iter(start, mid, position);
+            index    = mid;
+            position = p;
+            return prefix;
         }
 
         /**
-         * Returns the number of features.
+         * Returns the number of remaining features.
          */
         @Override
         public long estimateSize() {
-            return counts.size();
+            return end - index;
         }
 
         /**
@@ -405,13 +454,14 @@ search: for (final VariableInfo counts : decoder.variables) {
          * The iteration is assumed {@link #ORDERED} in the declaration order in the netCDF file.
          * The iteration is {@link #NONNULL} (i.e. {@link #tryAdvance(Consumer)} is not allowed
          * to return null value) and {@link #IMMUTABLE} (i.e. we do not support modification of
-         * the netCDF file while an iteration is in progress).
+         * the netCDF file while an iteration is in progress). The size is known before and after
+         * splits.
          *
          * @return characteristics of iteration over the features in the netCDF file.
          */
         @Override
         public int characteristics() {
-            return ORDERED | NONNULL | IMMUTABLE | SIZED;
+            return ORDERED | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
         }
     }
 }
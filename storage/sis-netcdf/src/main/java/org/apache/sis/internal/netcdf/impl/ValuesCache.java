@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.netcdf.impl;
+
+import org.apache.sis.math.Vector;
+import org.apache.sis.util.Numbers;
+import org.apache.sis.util.collection.Cache;
+
+
+/**
+ * Cache of the values of whole variables read by {@link VariableInfo#read()}.
+ * There is one instance per {@link ChannelDecoder}. The cost of each entry is the amount of bytes used by
+ * the vector. When the sum of the costs exceeds the memory budget, the eldest vectors are retained only by
+ * soft references and may be discarded by the garbage collector, in which case they will be read again
+ * from the netCDF file when next requested.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+final class ValuesCache extends Cache<VariableInfo,Vector> {
+    /**
+     * Default amount of bytes that a decoder may retain by strong references.
+     * This is 1/32 of the maximal heap size, up to 64 megabytes.
+     */
+    static final long DEFAULT_BUDGET = Math.min(Runtime.getRuntime().maxMemory() / 32, 64L * 1024 * 1024);
+
+    /**
+     * Creates a new cache with the given memory budget.
+     *
+     * @param  budget  maximal amount of bytes to retain by strong references.
+     */
+    ValuesCache(final long budget) {
+        super(12, budget, true);
+    }
+
+    /**
+     * Returns an estimation of the amount of bytes used by the given vector.
+     * This estimation ignores the case of vectors computed by formulas
+     * (e.g. arithmetic progressions), which use less memory.
+     *
+     * @param  values  the vector for which to estimate the memory usage.
+     * @return an estimation of the number of bytes used by the given vector.
+     */
+    @Override
+    protected int cost(final Vector values) {
+        final Class<?> type = values.getElementType();
+        final byte code = Numbers.getEnumConstant(type);
+        final int bits = (code >= Numbers.BYTE && code <= Numbers.DOUBLE) ? Numbers.primitiveBitCount(type) : Long.SIZE;
+        return (int) Math.min(Integer.MAX_VALUE, values.size() * (long) bits / Byte.SIZE);
+    }
+}
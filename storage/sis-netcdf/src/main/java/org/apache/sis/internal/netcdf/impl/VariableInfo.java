@@ -35,6 +35,7 @@ import org.apache.sis.storage.netcdf.AttributeNames;
 import org.apache.sis.util.resources.Errors;
 import org.apache.sis.util.CharSequences;
 import org.apache.sis.util.Numbers;
+import org.apache.sis.util.collection.Cache;
 import org.apache.sis.math.Vector;
 
 
@@ -45,7 +46,7 @@ import org.apache.sis.math.Vector;
  *
  * @author  Johann Sorel (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.3
  * @module
  */
@@ -125,11 +126,13 @@ final class VariableInfo extends Variable implements Comparable<VariableInfo> {
     private final boolean isCoordinateSystemAxis;
 
     /**
-     * The values of the whole variable, or {@code null} if not yet read. This vector should be assigned only
-     * for relatively small variables, or for variables that are critical to the use of other variables
-     * (for example the values in coordinate system axes).
+     * The cache of values of whole variables, shared by all variables of the same netCDF file.
+     * Values are retained by strong references only up to the memory budget of the decoder,
+     * and are read again from the file if they have been discarded by the garbage collector.
+     *
+     * @see #read()
      */
-    private transient Vector values;
+    private final ValuesCache values;
 
     /**
      * The {@code flag_meanings} values (used for enumeration values), or {@code null} if this variable is not
@@ -144,6 +147,7 @@ final class VariableInfo extends Variable implements Comparable<VariableInfo> {
      * Creates a new variable.
      *
      * @param  input       the channel together with a buffer for reading the variable data.
+     * @param  values      the cache of values of whole variables, shared by all variables of the file.
      * @param  name        the variable name.
      * @param  dimensions  the dimensions of this variable.
      * @param  attributes  the attributes associates to the variable, or an empty map if none.
@@ -152,6 +156,7 @@ final class VariableInfo extends Variable implements Comparable<VariableInfo> {
      * @param  offset      the offset where the variable data begins in the netCDF file.
      */
     VariableInfo(final ChannelDataInput      input,
+                 final ValuesCache           values,
                  final String                name,
                  final Dimension[]           dimensions,
                  final Map<String,Object>    attributes,
@@ -163,6 +168,7 @@ final class VariableInfo extends Variable implements Comparable<VariableInfo> {
         if (isUnsigned != null) {
             dataType = dataType.unsigned(booleanValue(isUnsigned));
         }
+        this.values     = values;
         this.name       = name;
         this.dimensions = dimensions;
         this.attributes = attributes;
@@ -407,37 +413,84 @@ final class VariableInfo extends Variable implements Comparable<VariableInfo> {
     /**
      * Reads all the data for this variable and returns them as an array of a Java primitive type.
      * Multi-dimensional variables are flattened as a one-dimensional array (wrapped in a vector).
-     * The vector is cached and returned as-is in all future invocation of this method.
+     * The vector is cached and returned as-is in future invocations of this method, unless the
+     * memory budget of the decoder has been exceeded and the garbage collector discarded it.
+     *
+     * <p>This method can not read variables having more than {@link Integer#MAX_VALUE} values.
+     * For such variables, {@link #read(long, int)} can be used for reading the values by chunks.</p>
      */
     @Override
-    @SuppressWarnings("ReturnOfCollectionOrArrayField")
     public Vector read() throws IOException, DataStoreException {
-        if (values == null) {
-            if (reader == null) {
-                throw new DataStoreContentException(unknownType());
-            }
-            long length = 1;
-            boolean overflow = false;
-            for (final Dimension dimension : dimensions) {
-                length *= dimension.length();
-                if (length > Integer.MAX_VALUE) {
-                    overflow = true;
+        Vector data = values.peek(this);
+        if (data == null) {
+            final Cache.Handler<Vector> handler = values.lock(this);
+            try {
+                data = handler.peek();
+                if (data == null) {
+                    final long length = length();
+                    if (length > Integer.MAX_VALUE) {
+                        throw new DataStoreContentException(Errors.format(Errors.Keys.ExcessiveListSize_2, name, length));
+                    }
+                    final int dimension = dimensions.length;
+                    final long[] size  = new long[dimension];
+                    final int [] sub   = new int [dimension];
+                    for (int i=0; i<dimension; i++) {
+                        sub [i] = 1;
+                        size[i] = dimensions[(dimension - 1) - i].length();
+                    }
+                    data = Vector.create(reader.read(new Region(size, new long[dimension], size, sub)), dataType.isUnsigned)
+                            .compress(0);
                 }
+            } finally {
+                handler.putAndUnlock(data);
             }
-            if (overflow) {
-                throw new DataStoreContentException(Errors.format(Errors.Keys.ExcessiveListSize_2, name, length));
+        }
+        return data;
+    }
+
+    /**
+     * Reads a contiguous range of values in the flattened sequence of all values of this variable.
+     * The index of the first value is a {@code long}, which allows to read by chunks the variables
+     * having more than {@link Integer#MAX_VALUE} values. The returned vector is not cached.
+     *
+     * @param  first   index of the first value to read in the flattened sequence of values.
+     * @param  length  number of values to read.
+     * @return the data as an array of a Java primitive type.
+     * @throws IndexOutOfBoundsException if the given range is outside the variable.
+     */
+    @Override
+    public Vector read(final long first, final int length) throws IOException, DataStoreException {
+        final long total = length();
+        if (first < 0 || length < 0 || first > total - length) {
+            throw new IndexOutOfBoundsException(Errors.format(Errors.Keys.IndicesOutOfBounds_2, first, first + length));
+        }
+        return Vector.create(reader.read(new Region(new long[] {total}, new long[] {first},
+                new long[] {first + length}, new int[] {1})), dataType.isUnsigned);
+    }
+
+    /**
+     * Returns the total number of values in this variable, which is the product of all dimension lengths.
+     *
+     * @throws DataStoreContentException if the data type is unknown or if the number of values overflows.
+     */
+    private long length() throws DataStoreContentException {
+        if (reader == null) {
+            throw new DataStoreContentException(unknownType());
+        }
+        long length = 1;
+        try {
+            for (final Dimension dimension : dimensions) {
+                length = Math.multiplyExact(length, dimension.length());
             }
-            final int dimension = dimensions.length;
-            final long[] size  = new long[dimension];
-            final int [] sub   = new int [dimension];
-            for (int i=0; i<dimension; i++) {
-                sub [i] = 1;
-                size[i] = dimensions[(dimension - 1) - i].length();
+        } catch (ArithmeticException e) {
+            final StringBuilder size = new StringBuilder();
+            for (final Dimension dimension : dimensions) {
+                if (size.length() != 0) size.append(" × ");
+                size.append(dimension.length());
             }
-            values = Vector.create(reader.read(new Region(size, new long[dimension], size, sub)), dataType.isUnsigned)
-                    .compress(0);
+            throw new DataStoreContentException(Errors.format(Errors.Keys.ExcessiveListSize_2, name, size), e);
         }
-        return values;
+        return length;
     }
 
     /**
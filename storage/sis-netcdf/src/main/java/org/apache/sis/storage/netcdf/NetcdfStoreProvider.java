@@ -41,6 +41,7 @@ import org.apache.sis.setup.GeometryLibrary;
 import org.apache.sis.setup.OptionKey;
 import org.apache.sis.storage.DataStore;
 import org.apache.sis.storage.DataStoreProvider;
+import org.apache.sis.storage.DataOptionKey;
 import org.apache.sis.storage.StorageConnector;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.ProbeResult;
@@ -56,6 +57,11 @@ import org.apache.sis.util.Version;
  * on the classpath, then this class tries to instantiate a {@code NetcdfStore} backed by
  * the UCAR library.
  *
+ * <div class="section">NetCDF-4 files</div>
+ * NetCDF-4 files use the HDF5 container, which is not read by the embedded decoder.
+ * {@link #probeContent(StorageConnector)} recognizes them as netCDF version 4,
+ * but opening them requires the UCAR library as for any other unsupported input.
+ *
  * <div class="section">Thread safety</div>
  * The same {@code NetcdfStoreProvider} instance can be safely used by many threads without synchronization on
  * the part of the caller. However the {@link NetcdfStore} instances created by this factory are not thread-safe.
@@ -82,6 +88,19 @@ public class NetcdfStoreProvider extends DataStoreProvider {
      */
     static final String MIME_TYPE = "application/x-netcdf";
 
+    /**
+     * The signature at the beginning of HDF5 files, which are the container used by netCDF-4 files.
+     * This signature is used only for format detection; those files can not be read by {@link ChannelDecoder}.
+     */
+    private static final long HDF5_SIGNATURE = 0x894844460D0A1A0AL;
+
+    /**
+     * The netCDF format version reported for files using the HDF5 container.
+     * We do not use {@code Version.valueOf(4)} because that method returns
+     * a predefined constant for small numbers, which is not "4" in this case.
+     */
+    private static final Version HDF5_VERSION = new Version("4");
+
     /**
      * The parameter descriptor to be returned by {@link #getOpenParameters()}.
      */
@@ -169,8 +188,7 @@ public class NetcdfStoreProvider extends DataStoreProvider {
      */
     @Override
     public ProbeResult probeContent(final StorageConnector connector) throws DataStoreException {
-        int     version     = 0;
-        boolean hasVersion  = false;
+        Version version     = null;
         boolean isSupported = false;
         final ByteBuffer buffer = connector.getStorageAs(ByteBuffer.class);
         if (buffer != null) {
@@ -179,9 +197,11 @@ public class NetcdfStoreProvider extends DataStoreProvider {
             }
             final int header = buffer.getInt(buffer.position());
             if ((header & 0xFFFFFF00) == ChannelDecoder.MAGIC_NUMBER) {
-                hasVersion  = true;
-                version     = header & 0xFF;
-                isSupported = (version >= 1 && version <= ChannelDecoder.MAX_VERSION);
+                final int n = header & 0xFF;
+                version     = Version.valueOf(n);
+                isSupported = (n >= 1 && n <= ChannelDecoder.MAX_VERSION);
+            } else if (isHDF5(buffer)) {
+                version     = HDF5_VERSION;         // Supported only if the UCAR library is present.
             }
         }
         /*
@@ -237,8 +257,8 @@ public class NetcdfStoreProvider extends DataStoreProvider {
          * At this point, the readability status has been determined. The file version number
          * is unknown if we are able to open the file only through the UCAR library.
          */
-        if (hasVersion) {
-            return new ProbeResult(isSupported, MIME_TYPE, Version.valueOf(version));
+        if (version != null) {
+            return new ProbeResult(isSupported, MIME_TYPE, version);
         }
         return isSupported ? new ProbeResult(true, MIME_TYPE, null) : ProbeResult.UNSUPPORTED_STORAGE;
     }
@@ -273,17 +293,28 @@ public class NetcdfStoreProvider extends DataStoreProvider {
         Object keepOpen;
         final ChannelDataInput input = connector.getStorageAs(ChannelDataInput.class);
         if (input != null) try {
-            decoder = new ChannelDecoder(input, connector.getOption(OptionKey.ENCODING), geomlib, listeners);
+            final Long budget = connector.getOption(DataOptionKey.MEMORY_BUDGET);
+            if (budget != null) {
+                decoder = new ChannelDecoder(input, connector.getOption(OptionKey.ENCODING), geomlib, listeners, budget);
+            } else {
+                decoder = new ChannelDecoder(input, connector.getOption(OptionKey.ENCODING), geomlib, listeners);
+            }
             keepOpen = input;
         } catch (DataStoreException e) {
             final String path = connector.getStorageAs(String.class);
-            if (path != null) try {
+            if (path == null) {
+                throw e;
+            }
+            try {
                 decoder = createByReflection(path, false, geomlib, listeners);
-                keepOpen = path;
             } catch (IOException | DataStoreException s) {
                 e.addSuppressed(s);
+                throw e;
             }
-            throw e;
+            if (decoder == null) {
+                throw e;
+            }
+            keepOpen = path;
         } else {
             keepOpen = connector.getStorage();
             decoder = createByReflection(keepOpen, true, geomlib, listeners);
@@ -292,6 +323,17 @@ public class NetcdfStoreProvider extends DataStoreProvider {
         return decoder;
     }
 
+    /**
+     * Returns {@code true} if the given buffer starts with the HDF5 signature.
+     * The buffer position is not modified.
+     *
+     * @param  buffer  the first bytes of the file to test.
+     * @return whether the file is a HDF5 file, which is the case of netCDF-4 files.
+     */
+    private static boolean isHDF5(final ByteBuffer buffer) {
+        return buffer.remaining() >= Long.BYTES && buffer.getLong(buffer.position()) == HDF5_SIGNATURE;
+    }
+
     /**
      * Creates a new netCDF decoder as a wrapper around the UCAR library. This decoder is used only when we can
      * not create our embedded netCDF decoder. This method uses reflection for creating the wrapper, in order
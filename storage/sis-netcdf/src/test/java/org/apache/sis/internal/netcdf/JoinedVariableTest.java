@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.netcdf;
+
+import java.io.IOException;
+import org.apache.sis.math.Vector;
+import org.apache.sis.internal.netcdf.impl.ChannelDecoderTest;
+import org.apache.sis.internal.netcdf.impl.VariableInfoTest;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreClosedException;
+import org.apache.sis.util.collection.BackingStoreException;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link JoinedVariable}. This test joins the same file many times with itself.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+@DependsOn(VariableInfoTest.class)
+public final strictfp class JoinedVariableTest extends TestCase {
+    /**
+     * Creates a variable joining three times the "SST" variable of the two-dimensional test file.
+     */
+    private static JoinedVariable create() {
+        return new JoinedVariable("SST",
+                () -> ChannelDecoderTest.createChannelDecoder(TestData.NETCDF_2D_GEOGRAPHIC),
+                () -> ChannelDecoderTest.createChannelDecoder(TestData.NETCDF_2D_GEOGRAPHIC),
+                () -> ChannelDecoderTest.createChannelDecoder(TestData.NETCDF_2D_GEOGRAPHIC));
+    }
+
+    /**
+     * Reads all values of the "SST" variable in a single file.
+     */
+    private static Vector readSingle() throws IOException, DataStoreException {
+        try (Decoder decoder = ChannelDecoderTest.createChannelDecoder(TestData.NETCDF_2D_GEOGRAPHIC)) {
+            return decoder.getVariables()[0].read();
+        }
+    }
+
+    /**
+     * Tests the grid envelope and the reading of all values.
+     *
+     * @throws IOException if an I/O error occurred while opening the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testReadAll() throws IOException, DataStoreException {
+        final Vector single = readSingle();
+        try (JoinedVariable variable = create()) {
+            assertEquals("SST", variable.getName());
+            final int[] shape = variable.getGridEnvelope();
+            assertEquals(2, shape.length);
+            assertEquals(73, shape[1]);
+            final int rows = shape[0] / 3;
+            assertEquals(rows * 3, shape[0]);
+            final Vector all = variable.read();
+            assertEquals(single.size() * 3, all.size());
+            for (int i=0; i<all.size(); i++) {
+                assertEquals(single.doubleValue(i % single.size()), all.doubleValue(i), 0);
+            }
+        }
+    }
+
+    /**
+     * Tests reading a sub-sampled time series at one pixel, spanning many files.
+     *
+     * @throws IOException if an I/O error occurred while opening the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testReadSeries() throws IOException, DataStoreException {
+        final Vector single = readSingle();
+        try (JoinedVariable variable = create()) {
+            final int total = variable.getGridEnvelope()[0];
+            final int rows  = total / 3;
+            final int x     = 20;
+            final int step  = 7;
+            final Vector series = variable.read(new int[] {5, x}, new int[] {total, x+1}, new int[] {step, 1});
+            int n = 0;
+            for (int y=5; y<total; y += step) {
+                assertEquals("SST value", single.doubleValue((y % rows) * 73 + x), series.doubleValue(n++), 0);
+            }
+            assertEquals("length", n, series.size());
+        }
+    }
+
+    /**
+     * Verifies that a closed variable can not be used anymore.
+     *
+     * @throws IOException if an I/O error occurred while opening or closing the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testClosed() throws IOException, DataStoreException {
+        final JoinedVariable variable = create();
+        assertEquals(2, variable.getGridEnvelope().length);
+        variable.close();
+        variable.close();                                   // Shall have no effect.
+        try {
+            variable.getGridEnvelope();
+            fail("Closed variable shall not be usable.");
+        } catch (BackingStoreException e) {
+            assertTrue(e.getCause() instanceof DataStoreClosedException);
+        }
+        try {
+            variable.read();
+            fail("Closed variable shall not be usable.");
+        } catch (DataStoreClosedException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.sis.internal.netcdf;
 
 import java.io.IOException;
 import org.apache.sis.math.Vector;
+import org.apache.sis.coverage.grid.GridExtent;
 import org.apache.sis.util.Workaround;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.internal.netcdf.ucar.DecoderWrapper;
@@ -217,4 +218,26 @@ public strictfp class VariableTest extends TestCase {
             assertEquals("Longitude value", -180 + 5*i, data.floatValue(i), 0f);
         }
     }
+
+    /**
+     * Tests {@link Variable#read(GridExtent, int[])} on a two-dimensional variable.
+     * The values read with sub-sampling are compared with the values read without sub-sampling.
+     *
+     * @throws IOException if an error occurred while reading the netCDF file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testReadSubsampled() throws IOException, DataStoreException {
+        final Variable variable = selectDataset(TestData.NETCDF_2D_GEOGRAPHIC).getVariables()[0];
+        assertEquals("SST", variable.getName());
+        final Vector all  = variable.read();
+        final Vector data = variable.read(new GridExtent(null, new long[] {10, 20}, new long[] {29, 30}, true), new int[] {3, 2});
+        int n = 0;
+        for (int y=20; y<=30; y += 2) {
+            for (int x=10; x<=29; x += 3) {
+                assertEquals("SST value", all.doubleValue(y*73 + x), data.doubleValue(n++), 0);
+            }
+        }
+        assertEquals("length", n, data.size());
+    }
 }
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.netcdf.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import org.apache.sis.setup.GeometryLibrary;
+import org.apache.sis.internal.netcdf.TestCase;
+import org.apache.sis.internal.storage.io.ChannelDataInput;
+import org.apache.sis.feature.AbstractFeature;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.DependsOnMethod;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link FeaturesInfo}. The test file is a classic netCDF file created in memory with trajectories
+ * of different lengths, so that an error in the computation of the data position of the first feature
+ * of a split would cause coordinates to be shifted to another feature.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+@DependsOn(ChannelDecoderTest.class)
+public final strictfp class FeaturesInfoTest extends TestCase {
+    /**
+     * Tags and data types of the netCDF classic format used in the test file.
+     */
+    private static final int DIMENSION = 0x0A, VARIABLE = 0x0B, ATTRIBUTE = 0x0C, CHAR = 2, INT = 4, DOUBLE = 6;
+
+    /**
+     * Number of features in the test file.
+     */
+    private static final int NUM_FEATURES = 37;
+
+    /**
+     * Returns the number of points in the trajectory of the feature at the given index.
+     */
+    private static int count(final int feature) {
+        return 2 + feature % 3;
+    }
+
+    /**
+     * Creates the content of a netCDF file with {@value #NUM_FEATURES} trajectories.
+     * The <var>x</var> coordinates are {@code 1000*feature + point} and the <var>y</var>
+     * coordinates are the negative of <var>x</var>.
+     */
+    private static ByteBuffer createFile() {
+        int numPoints = 0;
+        for (int i=0; i<NUM_FEATURES; i++) {
+            numPoints += count(i);
+        }
+        final ByteBuffer b = ByteBuffer.allocate(8192);
+        b.putInt(0x43444601).putInt(0);                         // "CDF" version 1, no record.
+        b.putInt(DIMENSION).putInt(2);
+        name(b, "identifiers"); b.putInt(NUM_FEATURES);
+        name(b, "points");      b.putInt(numPoints);
+        b.putLong(0);                                           // No global attribute.
+        b.putInt(VARIABLE).putInt(5);
+        final int[] begins = {
+            variable(b, "identifiers", 0, "cf_role", "trajectory_id", INT, NUM_FEATURES * Integer.BYTES),
+            variable(b, "counts",      0, "sample_dimension", "points", INT, NUM_FEATURES * Integer.BYTES),
+            variable(b, "x",           1, "axis", "X", DOUBLE, numPoints * Double.BYTES),
+            variable(b, "y",           1, "axis", "Y", DOUBLE, numPoints * Double.BYTES),
+            variable(b, "time",        1, "axis", "T", DOUBLE, numPoints * Double.BYTES)
+        };
+        b.putInt(begins[0], b.position());
+        for (int i=0; i<NUM_FEATURES; i++) b.putInt(100 + i);
+        b.putInt(begins[1], b.position());
+        for (int i=0; i<NUM_FEATURES; i++) b.putInt(count(i));
+        for (int v=0; v<2; v++) {
+            b.putInt(begins[2 + v], b.position());
+            for (int i=0; i<NUM_FEATURES; i++) {
+                for (int j=0; j<count(i); j++) {
+                    final double x = 1000*i + j;
+                    b.putDouble(v == 0 ? x : -x);
+                }
+            }
+        }
+        b.putInt(begins[4], b.position());
+        for (int p=0; p<numPoints; p++) b.putDouble(p);
+        b.flip();
+        return b.asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes a name in the netCDF header, padded to a multiple of 4 bytes.
+     */
+    private static void name(final ByteBuffer b, final String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        b.putInt(bytes.length).put(bytes);
+        while ((b.position() & 3) != 0) b.put((byte) 0);
+    }
+
+    /**
+     * Writes a one-dimensional variable having a single attribute.
+     *
+     * @return position of the "begin" offset, to be set after the header has been written.
+     */
+    private static int variable(final ByteBuffer b, final String name, final int dimension,
+            final String attribute, final String value, final int type, final int size)
+    {
+        name(b, name);
+        b.putInt(1).putInt(dimension);
+        b.putInt(ATTRIBUTE).putInt(1);
+        name(b, attribute);
+        b.putInt(CHAR);
+        name(b, value);
+        b.putInt(type).putInt(size);
+        final int begin = b.position();
+        b.putInt(0);
+        return begin;
+    }
+
+    /**
+     * Opens the test file and returns the features description.
+     */
+    private static FeaturesInfo open() throws IOException, DataStoreException {
+        final ChannelDataInput input = new ChannelDataInput("Trajectories.nc",
+                Channels.newChannel(new ByteArrayInputStream(new byte[0])), createFile(), true);
+        final FeaturesInfo[] features = FeaturesInfo.create(new ChannelDecoder(input, null, GeometryLibrary.JAVA2D, LISTENERS));
+        assertEquals("features.length", 1, features.length);
+        return features[0];
+    }
+
+    /**
+     * Formats the identifier and the trajectory coordinates of the given feature.
+     */
+    private static String toString(final AbstractFeature feature) {
+        final StringBuilder sb = new StringBuilder().append(feature.getPropertyValue("identifiers")).append(':');
+        final double[] coords = new double[6];
+        for (final PathIterator it = ((Shape) feature.getPropertyValue("trajectory")).getPathIterator(null); !it.isDone(); it.next()) {
+            it.currentSegment(coords);
+            sb.append(' ').append(coords[0]).append(',').append(coords[1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Verifies that the given list contains all features in order, with the expected coordinates.
+     */
+    private static void verify(final List<String> features) {
+        assertEquals("size", NUM_FEATURES, features.size());
+        for (int i=0; i<NUM_FEATURES; i++) {
+            final StringBuilder sb = new StringBuilder().append(100 + i).append(':');
+            for (int j=0; j<count(i); j++) {
+                final double x = 1000*i + j;
+                sb.append(' ').append(x).append(',').append(-x);
+            }
+            assertEquals(sb.toString(), features.get(i));
+        }
+    }
+
+    /**
+     * Adds in the given list the features of the given iterator, splitting it recursively
+     * down to iterators of a single feature.
+     */
+    private static void drain(final Spliterator<AbstractFeature> it, final List<String> features) {
+        final long size = it.estimateSize();
+        final Spliterator<AbstractFeature> prefix = it.trySplit();
+        if (prefix != null) {
+            assertEquals("estimateSize", size, prefix.estimateSize() + it.estimateSize());
+            drain(prefix, features);
+            drain(it, features);
+        } else {
+            it.forEachRemaining((f) -> features.add(toString(f)));
+        }
+    }
+
+    /**
+     * Tests a sequential stream.
+     *
+     * @throws IOException if an I/O error occurred while opening the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testSequentialStream() throws IOException, DataStoreException {
+        verify(open().features(false).map(FeaturesInfoTest::toString).collect(Collectors.toList()));
+    }
+
+    /**
+     * Tests a parallel stream and compares with a sequential stream.
+     * No feature shall be lost or duplicated at split boundaries.
+     *
+     * @throws IOException if an I/O error occurred while opening the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    @DependsOnMethod("testSequentialStream")
+    public void testParallelStream() throws IOException, DataStoreException {
+        final FeaturesInfo info = open();
+        final List<String> sequential = info.features(false).map(FeaturesInfoTest::toString).collect(Collectors.toList());
+        final List<String> parallel   = info.features(true) .map(FeaturesInfoTest::toString).collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+        verify(parallel);
+        final Set<Object> ids = new HashSet<>();
+        info.features(true).forEach((f) -> {
+            final Object id = f.getPropertyValue("identifiers");
+            synchronized (ids) {
+                assertTrue("Duplicated feature.", ids.add(id));
+            }
+        });
+        assertEquals("size", NUM_FEATURES, ids.size());
+    }
+
+    /**
+     * Tests {@link Spliterator#trySplit()} down to iterators of a single feature.
+     *
+     * @throws IOException if an I/O error occurred while opening the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    @DependsOnMethod("testSequentialStream")
+    public void testTrySplit() throws IOException, DataStoreException {
+        final List<String> features = new ArrayList<>();
+        drain(open().features(false).spliterator(), features);
+        verify(features);
+    }
+}
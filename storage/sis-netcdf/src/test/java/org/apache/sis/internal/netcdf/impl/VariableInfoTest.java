@@ -18,9 +18,11 @@ package org.apache.sis.internal.netcdf.impl;
 
 import java.io.IOException;
 import org.apache.sis.internal.netcdf.Decoder;
+import org.apache.sis.internal.netcdf.Variable;
 import org.apache.sis.internal.netcdf.VariableTest;
 import org.apache.sis.internal.netcdf.TestData;
 import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.math.Vector;
 import org.apache.sis.test.DependsOn;
 import org.junit.Test;
 
@@ -67,4 +69,43 @@ public final strictfp class VariableInfoTest extends VariableTest {
         assertArrayEquals("numberValues", new Number[] { 10f,    20f,    1f  }, VariableInfo.numberValues(a));
         assertArrayEquals("stringValues", new String[] {"10.0", "20.0", "1.0"}, VariableInfo.stringValues(a));
     }
+
+    /**
+     * Tests {@link VariableInfo#read()} caching of values.
+     * Two consecutive reads of a small variable shall return the same instance.
+     *
+     * @throws IOException if an I/O error occurred while opening the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testCachedValues() throws IOException, DataStoreException {
+        final Variable variable = selectDataset(TestData.NETCDF_2D_GEOGRAPHIC).getVariables()[2];
+        assertEquals("lon", variable.getName());
+        assertSame(variable.read(), variable.read());
+    }
+
+    /**
+     * Tests {@link VariableInfo#read(long, int)} by comparing the values of a chunk
+     * with the values at the same indices in the flattened array of all values.
+     *
+     * @throws IOException if an I/O error occurred while opening the file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testReadChunk() throws IOException, DataStoreException {
+        final VariableInfo variable = (VariableInfo) selectDataset(TestData.NETCDF_2D_GEOGRAPHIC).getVariables()[0];
+        assertEquals("SST", variable.getName());
+        final Vector all   = variable.read();
+        final Vector chunk = variable.read(1000, 500);
+        assertEquals("length", 500, chunk.size());
+        for (int i=0; i<500; i++) {
+            assertEquals("SST value", all.doubleValue(1000 + i), chunk.doubleValue(i), 0);
+        }
+        try {
+            variable.read(all.size() - 10, 20);
+            fail("Expected IndexOutOfBoundsException.");
+        } catch (IndexOutOfBoundsException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
 }
@@ -17,6 +17,8 @@
 package org.apache.sis.storage.netcdf;
 
 import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 import ucar.nc2.NetcdfFile;
 import org.apache.sis.internal.netcdf.TestCase;
 import org.apache.sis.internal.netcdf.Decoder;
@@ -63,6 +65,26 @@ public final strictfp class NetcdfStoreProviderTest extends TestCase {
         c.closeAllExcept(null);
     }
 
+    /**
+     * Tests {@link NetcdfStoreProvider#probeContent(StorageConnector)} for an input stream starting with
+     * the HDF5 signature. The format shall be recognized as netCDF-4, but not supported since the UCAR
+     * library can not read an input stream.
+     *
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testProbeContentFromHDF5() throws DataStoreException {
+        final byte[] header = new byte[64];
+        ByteBuffer.wrap(header).putLong(0x894844460D0A1A0AL);
+        final StorageConnector c = new StorageConnector(new ByteArrayInputStream(header));
+        final NetcdfStoreProvider provider = new NetcdfStoreProvider();
+        final ProbeResult probe = provider.probeContent(c);
+        assertFalse ("isSupported", probe.isSupported());
+        assertEquals("getMimeType", NetcdfStoreProvider.MIME_TYPE, probe.getMimeType());
+        assertEquals("getVersion",  new Version("4"), probe.getVersion());
+        c.closeAllExcept(null);
+    }
+
     /**
      * Tests {@link NetcdfStoreProvider#probeContent(StorageConnector)} for a UCAR {@link NetcdfFile} object.
      *
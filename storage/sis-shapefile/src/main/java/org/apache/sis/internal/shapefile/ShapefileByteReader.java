@@ -17,13 +17,15 @@
 package org.apache.sis.internal.shapefile;
 
 import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import org.apache.sis.feature.DefaultAttributeType;
 import org.apache.sis.feature.DefaultFeatureType;
@@ -31,7 +33,10 @@ import org.apache.sis.internal.shapefile.jdbc.*;
 import org.apache.sis.storage.shapefile.InvalidShapefileFormatException;
 import org.apache.sis.storage.shapefile.ShapeTypeEnum;
 import org.apache.sis.feature.AbstractFeature;
-import org.apache.sis.util.logging.Logging;
+import org.apache.sis.internal.feature.Geometries;
+import org.apache.sis.math.Vector;
+import org.apache.sis.setup.GeometryLibrary;
+import org.apache.sis.storage.shapefile.GeometryContent;
 
 import com.esri.core.geometry.*;
 
@@ -39,7 +44,7 @@ import com.esri.core.geometry.*;
  * Reader of a Shapefile Binary content by the way of a {@link java.nio.MappedByteBuffer}
  *
  * @author  Marc Le Bihan
- * @version 0.5
+ * @version 1.0
  * @since   0.5
  * @module
  */
@@ -47,6 +52,10 @@ public class ShapefileByteReader extends CommonByteReader<InvalidShapefileFormat
     /** Name of the Geometry field. */
     private static final String GEOMETRY_NAME = "geometry";
 
+    /** Factory of the polygons and polylines, built from arrays of ordinates. */
+    @SuppressWarnings("unchecked")
+    private static final Geometries<Geometry> GEOMETRIES = (Geometries<Geometry>) Geometries.implementation(GeometryLibrary.ESRI);
+
     /** Shapefile descriptor. */
     private ShapefileDescriptor shapefileDescriptor;
 
@@ -65,6 +74,9 @@ public class ShapefileByteReader extends CommonByteReader<InvalidShapefileFormat
     /** Shapefile records lengths (loaded from .SHX file, if any found). */
     private ArrayList<Integer> recordsLengths;
 
+    /** What to read from the geometry of the records. */
+    private GeometryContent geometryContent = GeometryContent.GEOMETRY;
+
     /**
      * Construct a shapefile byte reader.
      * @param shapefile Shapefile.
@@ -113,6 +125,24 @@ public class ShapefileByteReader extends CommonByteReader<InvalidShapefileFormat
         return this.featuresType;
     }
 
+    /**
+     * Returns what is read from the geometry of the records.
+     * @return Geometry content read.
+     */
+    public GeometryContent getGeometryContent() {
+        return this.geometryContent;
+    }
+
+    /**
+     * Set what to read from the geometry of the records. Not reading the full geometries saves the decoding
+     * of their points when only the attributes or the bounding boxes of the features are needed.
+     * @param content Geometry content to read.
+     */
+    public void setGeometryContent(GeometryContent content) {
+        Objects.requireNonNull(content, "The geometry content to read cannot be null.");
+        this.geometryContent = content;
+    }
+
     /**
      * Create a feature descriptor.
      * @param name Name of the field.
@@ -254,213 +284,278 @@ public class ShapefileByteReader extends CommonByteReader<InvalidShapefileFormat
         }
     }
 
+    /**
+     * Returns the positions of all the records in the shapefile. They are taken from the shapefile index if one is available,
+     * or found by a scan of the records headers otherwise. The position of this reader is not changed.
+     * @return Position of the header of each record, in bytes from the beginning of the shapefile.
+     */
+    public int[] getRecordsPositions() {
+        if (this.indexes != null) {
+            int[] positions = new int[this.indexes.size()];
+
+            for (int index = 0; index < positions.length; index++) {
+                positions[index] = this.indexes.get(index) * 2; // Indexes unit are words (16 bits).
+            }
+
+            return positions;
+        }
+
+        // No index : walk through the records headers, which give the length of each record content.
+        ByteBuffer buffer = getByteBuffer().duplicate().order(ByteOrder.BIG_ENDIAN);
+        int[] positions = new int[16];
+        int count = 0;
+
+        for (int position = 100; position + 8 <= buffer.limit(); position += 8 + buffer.getInt(position + 4) * 2) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+
+            positions[count++] = position;
+        }
+
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Checks if the bounding box of the record at the current position intersects the given area.
+     * The position in the shapefile is not changed.
+     * @param xmin Minimal x value of the area.
+     * @param ymin Minimal y value of the area.
+     * @param xmax Maximal x value of the area.
+     * @param ymax Maximal y value of the area.
+     * @return true if the record bounding box intersects the given area, false if it doesn't or if the shape is null.
+     */
+    public boolean intersects(double xmin, double ymin, double xmax, double ymax) {
+        int position = getByteBuffer().position();
+        getByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+
+        try {
+            ShapeTypeEnum type = ShapeTypeEnum.get(getByteBuffer().getInt(position + 8));
+
+            if (type == null || type == ShapeTypeEnum.NullShape) {
+                return false;
+            }
+
+            double bxmin = getByteBuffer().getDouble(position + 12);
+            double bymin = getByteBuffer().getDouble(position + 20);
+            double bxmax, bymax;
+
+            switch(type) {
+                case Point: case PointZ: case PointM:
+                    bxmax = bxmin;
+                    bymax = bymin;
+                    break;
+
+                default:
+                    bxmax = getByteBuffer().getDouble(position + 28);
+                    bymax = getByteBuffer().getDouble(position + 36);
+            }
+
+            return bxmin <= xmax && bxmax >= xmin && bymin <= ymax && bymax >= ymin;
+        }
+        finally {
+            getByteBuffer().order(ByteOrder.BIG_ENDIAN);
+        }
+    }
+
     /**
      * Complete a feature with shapefile content.
      * @param feature Feature to complete.
      * @throws InvalidShapefileFormatException if a validation problem occurs.
      */
     public void completeFeature(AbstractFeature feature) throws InvalidShapefileFormatException {
+        completeFeature(getByteBuffer(), feature);
+    }
+
+    /**
+     * Complete a feature with the shapefile record at the current position of the given buffer.
+     * The buffer shall be a view of the content of this shapefile, typically a duplicate of {@link #getByteBuffer()} :
+     * many threads can decode records of the same shapefile concurrently if each of them has its own buffer.
+     * On return, the buffer is positioned at the beginning of the next record.
+     * @param buffer Buffer positioned on the record to read.
+     * @param feature Feature to complete.
+     * @throws InvalidShapefileFormatException if a validation problem occurs.
+     */
+    public void completeFeature(ByteBuffer buffer, AbstractFeature feature) throws InvalidShapefileFormatException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+
         // insert points into some type of list
-        int RecordNumber = getByteBuffer().getInt();
-        @SuppressWarnings("unused")
-        int ContentLength = getByteBuffer().getInt();
+        int RecordNumber = buffer.getInt();
+        int ContentLength = buffer.getInt();
+        int nextRecordPosition = buffer.position() + ContentLength * 2; // Length unit are words (16 bits).
 
-        getByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
-        int iShapeType = getByteBuffer().getInt();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int iShapeType = buffer.getInt();
 
         ShapeTypeEnum type = ShapeTypeEnum.get(iShapeType);
 
         if (type == null)
             throw new InvalidShapefileFormatException(MessageFormat.format("The shapefile feature type {0} doesn''t match to any known feature type.", this.featuresType));
 
+        try {
+            if (type != ShapeTypeEnum.NullShape) {
+                switch(this.geometryContent) {
+                    case NONE:
+                        break;
+
+                    case BOUNDING_BOX:
+                        loadBoundingBox(buffer, type, feature);
+                        break;
+
+                    default:
+                        loadGeometry(buffer, type, feature);
+                }
+            }
+        }
+        catch(BufferUnderflowException | IndexOutOfBoundsException e) {
+            String message = format(Level.SEVERE, "excp.record_overflow", RecordNumber, getFile().getAbsolutePath());
+            throw new InvalidShapefileFormatException(message, e);
+        }
+
+        if (buffer.position() > nextRecordPosition) {
+            String message = format(Level.SEVERE, "excp.record_overflow", RecordNumber, getFile().getAbsolutePath());
+            throw new InvalidShapefileFormatException(message);
+        }
+
+        // Z and M values, if any, are not read : go directly to the next record.
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.position(nextRecordPosition);
+    }
+
+    /**
+     * Load the geometry of a record.
+     * @param buffer Buffer positioned after the shape type of the record.
+     * @param type Shape type of the record.
+     * @param feature Feature to fill.
+     * @throws InvalidShapefileFormatException if the shape type is not supported or the record is invalid.
+     */
+    private void loadGeometry(ByteBuffer buffer, ShapeTypeEnum type, AbstractFeature feature) throws InvalidShapefileFormatException {
         switch (type) {
-            case Point:
-                loadPointFeature(feature);
+            case Point: case PointZ: case PointM:
+                loadPointFeature(buffer, feature);
                 break;
 
-            case Polygon:
-                loadPolygonFeature(feature);
+            case Polygon: case PolygonZ: case PolygonM:
+                loadPolygonFeature(buffer, feature);
                 break;
 
-            case PolyLine:
-                loadPolylineFeature(feature);
+            case PolyLine: case PolyLineZ: case PolyLineM:
+                loadPolylineFeature(buffer, feature);
                 break;
 
             default:
-                throw new InvalidShapefileFormatException("Unsupported shapefile type: " + iShapeType);
+                throw new InvalidShapefileFormatException("Unsupported shapefile type: " + type.getValue());
         }
+    }
 
-        getByteBuffer().order(ByteOrder.BIG_ENDIAN);
+    /**
+     * Set the bounding box of a record as the geometry of the feature, without decoding its points.
+     * @param buffer Buffer positioned after the shape type of the record.
+     * @param type Shape type of the record.
+     * @param feature Feature to fill.
+     */
+    private void loadBoundingBox(ByteBuffer buffer, ShapeTypeEnum type, AbstractFeature feature) {
+        double xmin = buffer.getDouble();
+        double ymin = buffer.getDouble();
+
+        switch(type) {
+            case Point: case PointZ: case PointM:
+                feature.setPropertyValue(GEOMETRY_NAME, new Envelope(xmin, ymin, xmin, ymin));
+                break;
+
+            default:
+                feature.setPropertyValue(GEOMETRY_NAME, new Envelope(xmin, ymin, buffer.getDouble(), buffer.getDouble()));
+        }
     }
 
     /**
      * Load point feature.
+     * @param buffer Buffer to read.
      * @param feature Feature to fill.
      */
-    private void loadPointFeature(AbstractFeature feature) {
-        double x = getByteBuffer().getDouble();
-        double y = getByteBuffer().getDouble();
+    private void loadPointFeature(ByteBuffer buffer, AbstractFeature feature) {
+        double x = buffer.getDouble();
+        double y = buffer.getDouble();
         Point pnt = new Point(x, y);
         feature.setPropertyValue(GEOMETRY_NAME, pnt);
     }
 
     /**
      * Load polygon feature.
+     * @param buffer Buffer to read.
      * @param feature Feature to fill.
+     * @throws InvalidShapefileFormatException if the parts indexes are invalid.
      */
-    private void loadPolygonFeature(AbstractFeature feature) {
-        /* double xmin = */getByteBuffer().getDouble();
-        /* double ymin = */getByteBuffer().getDouble();
-        /* double xmax = */getByteBuffer().getDouble();
-        /* double ymax = */getByteBuffer().getDouble();
-        int numParts = getByteBuffer().getInt();
-        int numPoints = getByteBuffer().getInt();
-
-        Polygon poly;
-
-        // Handle multiple polygon parts.
-        if (numParts > 1) {
-            Logger log = Logging.getLogger(ShapefileByteReader.class.getName());
-
-            if (log.isLoggable(Level.FINER)) {
-                String format = "Polygon with multiple linear rings encountered at position {0,number} with {1,number} parts.";
-                String message = MessageFormat.format(format, getByteBuffer().position(), numParts);
-                log.finer(message);
-            }
-
-            poly = readMultiplePolygonParts(numParts, numPoints);
-        }
-        else {
-            // Polygon with an unique part.
-            poly = readUniquePolygonPart(numPoints);
-        }
-
-        feature.setPropertyValue(GEOMETRY_NAME, poly);
+    private void loadPolygonFeature(ByteBuffer buffer, AbstractFeature feature) throws InvalidShapefileFormatException {
+        feature.setPropertyValue(GEOMETRY_NAME, GEOMETRIES.createPolygon(2, readParts(buffer)));
     }
 
     /**
-     * Read a polygon that has a unique part.
-     * @param numPoints Number of the points of the polygon.
-     * @return Polygon.
+     * Load polyline feature.
+     * @param buffer Buffer to read.
+     * @param feature Feature to fill.
+     * @throws InvalidShapefileFormatException if the parts indexes are invalid.
      */
-    @Deprecated // As soon as the readMultiplePolygonParts method proofs working well, this readUniquePolygonPart method can be removed and all calls be deferred to readMultiplePolygonParts.
-    private Polygon readUniquePolygonPart(int numPoints) {
-        /*int part = */ getByteBuffer().getInt();
-        Polygon poly = new Polygon();
-
-        // create a line from the points
-        double xpnt = getByteBuffer().getDouble();
-        double ypnt = getByteBuffer().getDouble();
-
-        poly.startPath(xpnt, ypnt);
-
-        for (int j = 0; j < numPoints - 1; j++) {
-            xpnt = getByteBuffer().getDouble();
-            ypnt = getByteBuffer().getDouble();
-            poly.lineTo(xpnt, ypnt);
-        }
-
-        return poly;
+    private void loadPolylineFeature(ByteBuffer buffer, AbstractFeature feature) throws InvalidShapefileFormatException {
+        feature.setPropertyValue(GEOMETRY_NAME, GEOMETRIES.createPolyline(2, readParts(buffer)));
     }
 
     /**
-     * Read a polygon that has multiple parts.
-     * @param numParts Number of parts of this polygon.
-     * @param numPoints Total number of points of this polygon, all parts considered.
-     * @return a multiple part polygon.
+     * Read the parts of a polygon or polyline in a single array of (x,y) ordinates, the parts being separated by NaN values.
+     * The points are bulk-copied from the buffer, instead of being read one by one.
+     * <pre>
+     * From ESRI Specification :
+     * Parts : 0 5  (meaning : 0 designs the first v1, 5 designs the first v5 on the points list below).
+     * Points : v1 v2 v3 v4 v1 v5 v8 v7 v6 v5
+     *
+     * POSITION  FIELD       VALUE      TYPE      NUMBER     ORDER
+     * Byte 0    Shape Type  5          Integer   1          Little
+     * Byte 4    Box         Box        Double    4          Little
+     * Byte 36   NumParts    NumParts   Integer   1          Little
+     * Byte 40   NumPoints   NumPoints  Integer   1          Little
+     * Byte 44   Parts       Parts      Integer   NumParts   Little
+     * Byte X    Points      Points     Point     NumPoints  Little
+     * </pre>
+     * @param buffer Buffer positioned after the shape type, in little endian order.
+     * @return Ordinates of all the parts.
+     * @throws InvalidShapefileFormatException if the parts indexes are invalid.
      */
-    private Polygon readMultiplePolygonParts(int numParts, int numPoints) {
-        /**
-         * From ESRI Specification :
-         * Parts : 0 5  (meaning : 0 designs the first v1, 5 designs the first v5 on the points list below).
-         * Points : v1 v2 v3 v4 v1 v5 v8 v7 v6 v5
-         *
-         * POSITION  FIELD       VALUE      TYPE      NUMBER     ORDER
-         * Byte 0    Shape Type  5          Integer   1          Little
-         * Byte 4    Box         Box        Double    4          Little
-         * Byte 36   NumParts    NumParts   Integer   1          Little
-         * Byte 40   NumPoints   NumPoints  Integer   1          Little
-         * Byte 44   Parts       Parts      Integer   NumParts   Little
-         * Byte X    Points      Points     Point     NumPoints  Little
-         */
-        int[] partsIndexes = new int[numParts];
+    private Vector readParts(ByteBuffer buffer) throws InvalidShapefileFormatException {
+        buffer.position(buffer.position() + 4 * Double.BYTES); // Skip the bounding box.
+        int numParts = buffer.getInt();
+        int numPoints = buffer.getInt();
 
-        // Read all the parts indexes (starting at byte 44).
-        for(int index=0; index < numParts; index ++) {
-            partsIndexes[index] = getByteBuffer().getInt();
+        if (numParts <= 0 || numPoints < 0) {
+            throw new InvalidShapefileFormatException(MessageFormat.format("Invalid number of parts ({0}) or points ({1}) at position {2,number}.", numParts, numPoints, buffer.position()));
         }
 
-        // Read all the points.
-        double[] xPoints = new double[numPoints];
-        double[] yPoints = new double[numPoints];
-
-        for(int index=0; index < numPoints; index ++) {
-            xPoints[index] = getByteBuffer().getDouble();
-            yPoints[index] = getByteBuffer().getDouble();
-        }
+        int[] partsIndexes = new int[numParts];
+        buffer.asIntBuffer().get(partsIndexes);
+        buffer.position(buffer.position() + numParts * Integer.BYTES);
 
-        // Create the polygon from the points.
-        Polygon poly = new Polygon();
+        // Each part but the first one is preceded by a (NaN, NaN) separator.
+        double[] ordinates = new double[(numPoints + numParts - 1) * 2];
+        DoubleBuffer points = buffer.asDoubleBuffer();
+        int offset = 0;
 
-        // create a line from the points
-        for(int index=0; index < numPoints; index ++) {
-            // Check if this index is one that begins a new part.
-            boolean newPolygon = false;
+        for(int part = 0; part < numParts; part ++) {
+            int end = (part + 1 < numParts) ? partsIndexes[part + 1] : numPoints;
+            int count = end - partsIndexes[part];
 
-            for(int j=0; j < partsIndexes.length; j ++) {
-                if (partsIndexes[j] == index) {
-                    newPolygon = true;
-                    break;
-                }
+            if (count < 0 || (part == 0 && partsIndexes[0] != 0)) {
+                throw new InvalidShapefileFormatException(MessageFormat.format("Invalid index of part {0} at position {1,number}.", part, buffer.position()));
             }
 
-            if (newPolygon) {
-                poly.startPath(xPoints[index], yPoints[index]);
+            if (part != 0) {
+                ordinates[offset++] = Double.NaN;
+                ordinates[offset++] = Double.NaN;
             }
-            else {
-                poly.lineTo(xPoints[index], yPoints[index]);
-            }
-        }
 
-        return poly;
-    }
-
-    /**
-     * Load polyline feature.
-     * @param feature Feature to fill.
-     */
-    private void loadPolylineFeature(AbstractFeature feature) {
-        /* double xmin = */getByteBuffer().getDouble();
-        /* double ymin = */getByteBuffer().getDouble();
-        /* double xmax = */getByteBuffer().getDouble();
-        /* double ymax = */getByteBuffer().getDouble();
-
-        int NumParts = getByteBuffer().getInt();
-        int NumPoints = getByteBuffer().getInt();
-
-        int[] NumPartArr = new int[NumParts + 1];
-
-        for (int n = 0; n < NumParts; n++) {
-            int idx = getByteBuffer().getInt();
-            NumPartArr[n] = idx;
-        }
-        NumPartArr[NumParts] = NumPoints;
-
-        double xpnt, ypnt;
-        Polyline ply = new Polyline();
-
-        for (int m = 0; m < NumParts; m++) {
-            xpnt = getByteBuffer().getDouble();
-            ypnt = getByteBuffer().getDouble();
-            ply.startPath(xpnt, ypnt);
-
-            for (int j = NumPartArr[m]; j < NumPartArr[m + 1] - 1; j++) {
-                xpnt = getByteBuffer().getDouble();
-                ypnt = getByteBuffer().getDouble();
-                ply.lineTo(xpnt, ypnt);
-            }
+            points.get(ordinates, offset, count * 2);
+            offset += count * 2;
         }
 
-        feature.setPropertyValue(GEOMETRY_NAME, ply);
+        buffer.position(buffer.position() + numPoints * 2 * Double.BYTES);
+        return Vector.create(ordinates, false);
     }
 }
@@ -0,0 +1,478 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.shapefile;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+
+/**
+ * Spatial index of the records of a shapefile, as a quadtree in the {@code .qix} file format.
+ * The {@code .qix} format is the one created by the {@code shptree} utility of MapServer and read by many
+ * other softwares. Each node of the tree contains the bounds of a quadrant of the shapefile extent, the
+ * numbers (starting at 0) of the records which are fully contained in that quadrant but not in any of its
+ * sub-quadrants, and the sub-quadrants. Each node also gives the number of bytes used by its sub-quadrants,
+ * which allows a search to skip a whole branch without reading it.
+ *
+ * <p>The index is either read from an existing {@code .qix} file, or built from the bounding boxes of
+ * the records of the main shapefile. In both cases, searches are performed directly on the bytes of the
+ * {@code .qix} format, which are memory-mapped when read from a file. An index built from the shapefile
+ * is written in a {@code .qix} file only on explicit request.</p>
+ *
+ * <p>The records returned by {@link #search(double, double, double, double)} are candidates: their bounding
+ * box may intersect the search area, but this is not verified since the index does not store the bounding box
+ * of each record. Callers shall verify the bounding box of the record itself if an exact result is needed.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public class ShapefileSpatialIndex extends AutoChecker {
+    /** Signature at the beginning of a {@code .qix} file. */
+    private static final byte[] SIGNATURE = {'S', 'Q', 'T'};
+
+    /** Code for little-endian and big-endian byte order in the {@code .qix} header. */
+    private static final byte LSB_ORDER = 1, MSB_ORDER = 2;
+
+    /** Version of the {@code .qix} format. */
+    private static final byte VERSION = 1;
+
+    /** Length of the {@code .qix} header in bytes. */
+    private static final int HEADER_LENGTH = 16;
+
+    /** Maximal depth of trees built by this class. */
+    private static final int MAX_DEPTH = 12;
+
+    /** Maximal depth of trees read from a file, for detecting corrupted files before a stack overflow. */
+    private static final int MAX_READ_DEPTH = 64;
+
+    /** Shape type codes (in the main shapefile) for null shapes and points. */
+    private static final int NULL_SHAPE = 0, POINT = 1, POINT_Z = 11, POINT_M = 21;
+
+    /** The bytes of the {@code .qix} file, including the header. */
+    private ByteBuffer buffer;
+
+    /** Number of records in the shapefile. */
+    private int numShapes;
+
+    /**
+     * Creates an index for the given bytes in {@code .qix} format.
+     * @param buffer Bytes of the index, starting with the {@code .qix} header.
+     * @throws IOException if the header is invalid.
+     */
+    private ShapefileSpatialIndex(ByteBuffer buffer) throws IOException {
+        Objects.requireNonNull(buffer, "The index buffer cannot be null.");
+
+        if (buffer.remaining() < HEADER_LENGTH || buffer.get(0) != SIGNATURE[0] || buffer.get(1) != SIGNATURE[1] || buffer.get(2) != SIGNATURE[2]) {
+            throw new IOException(format("excp.not_a_quadtree"));
+        }
+
+        switch(buffer.get(3)) {
+            case LSB_ORDER: buffer.order(ByteOrder.LITTLE_ENDIAN); break;
+            case MSB_ORDER: buffer.order(ByteOrder.BIG_ENDIAN); break;
+            default: buffer.order(ByteOrder.nativeOrder()); break;
+        }
+
+        this.buffer = buffer;
+        this.numShapes = buffer.getInt(8);
+    }
+
+    /**
+     * Returns the spatial index of the given shapefile. If the given {@code .qix} file exists and is not older
+     * than the shapefile, then it is read. Otherwise the index is built from the shapefile records and, if
+     * {@code write} is true, written in the {@code .qix} file for the next uses. Failure to write the index
+     * is logged but not fatal.
+     * @param shapefile The main shapefile ({@code .shp} file).
+     * @param qix The {@code .qix} file to read or to create, null if none.
+     * @param write true for writing the index in the {@code .qix} file if it had to be built.
+     * @return The spatial index.
+     * @throws IOException if the shapefile cannot be read.
+     */
+    public static ShapefileSpatialIndex open(File shapefile, File qix, boolean write) throws IOException {
+        IOException invalidIndex = null;
+
+        if (qix != null && qix.isFile() && qix.lastModified() >= shapefile.lastModified()) {
+            try {
+                ShapefileSpatialIndex index = read(qix);
+                index.log(Level.FINE, "log.index_has_been_read", qix.getAbsolutePath(), index.numShapes, shapefile.getAbsolutePath());
+                return index;
+            }
+            catch(IOException e) {
+                invalidIndex = e;
+            }
+        }
+
+        ShapefileSpatialIndex index = build(shapefile);
+
+        if (invalidIndex != null) {
+            index.log(Level.WARNING, "log.invalid_index_rebuilt", qix.getAbsolutePath(), invalidIndex.getMessage());
+        }
+
+        if (qix != null && write) {
+            try {
+                index.write(qix);
+            }
+            catch(IOException e) {
+                index.log(Level.WARNING, "log.index_cannot_be_written", qix.getAbsolutePath(), e.getMessage());
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Reads an existing {@code .qix} file. The file is memory-mapped, then its whole tree is
+     * traversed once for verifying that it is consistent with the size of the file.
+     * @param qix The {@code .qix} file.
+     * @return The spatial index.
+     * @throws IOException if the file cannot be read, is not a quadtree index or is corrupted.
+     */
+    public static ShapefileSpatialIndex read(File qix) throws IOException {
+        try(FileInputStream fis = new FileInputStream(qix); FileChannel fc = fis.getChannel()) {
+            ShapefileSpatialIndex index = new ShapefileSpatialIndex(fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size()));
+            index.search(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+            return index;
+        }
+    }
+
+    /**
+     * Builds a spatial index from the bounding boxes of the records of the given shapefile.
+     * The main shapefile is read twice (once for computing the extent, once for building the tree),
+     * but only the record headers and bounding boxes are read.
+     * @param shapefile The main shapefile ({@code .shp} file).
+     * @return The spatial index.
+     * @throws IOException if the shapefile cannot be read.
+     */
+    public static ShapefileSpatialIndex build(File shapefile) throws IOException {
+        try(FileInputStream fis = new FileInputStream(shapefile); FileChannel fc = fis.getChannel()) {
+            ByteBuffer shp = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+            double[] box = new double[4];
+
+            // Extent computed from the records rather than taken in the file header, which is sometime inexact.
+            double xmin = Double.POSITIVE_INFINITY, ymin = Double.POSITIVE_INFINITY;
+            double xmax = Double.NEGATIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+            int count = 0;
+
+            for (int position = readBox(shp, 100, box); position >= 0; position = readBox(shp, position, box)) {
+                count++;
+
+                if (!Double.isNaN(box[0])) {
+                    xmin = Math.min(xmin, box[0]);
+                    ymin = Math.min(ymin, box[1]);
+                    xmax = Math.max(xmax, box[2]);
+                    ymax = Math.max(ymax, box[3]);
+                }
+            }
+
+            Node root = (xmin <= xmax) ? new Node(xmin, ymin, xmax, ymax) : new Node(0, 0, 0, 0);
+
+            // Same heuristic than shptree: a few shapes per leaf when they are evenly distributed.
+            int maxDepth = 0;
+
+            for (long maxNodes = 1; maxNodes * 4 < count && maxDepth < MAX_DEPTH; maxNodes *= 2) {
+                maxDepth++;
+            }
+
+            int shape = 0;
+
+            for (int position = readBox(shp, 100, box); position >= 0; position = readBox(shp, position, box)) {
+                if (!Double.isNaN(box[0])) {
+                    root.insert(shape, box[0], box[1], box[2], box[3], maxDepth);
+                }
+
+                shape++;
+            }
+
+            ByteBuffer index = ByteBuffer.allocate(HEADER_LENGTH + root.size()).order(ByteOrder.LITTLE_ENDIAN);
+            index.put(SIGNATURE).put(LSB_ORDER).put(VERSION).put(new byte[3]);
+            index.putInt(count).putInt(maxDepth);
+            root.write(index);
+            index.flip();
+            return new ShapefileSpatialIndex(index);
+        }
+    }
+
+    /**
+     * Reads the bounding box of the record at the given position in the main shapefile.
+     * @param shp Bytes of the main shapefile.
+     * @param position Position of the record header.
+     * @param box Where to store the bounding box as (xmin, ymin, xmax, ymax). NaN for null shapes.
+     * @return Position of the next record, or -1 if there is no record at the given position.
+     */
+    private static int readBox(ByteBuffer shp, int position, double[] box) {
+        if (position + 12 > shp.limit()) {
+            return -1;
+        }
+
+        shp.order(ByteOrder.BIG_ENDIAN);
+        int contentLength = shp.getInt(position + 4) * 2;   // Length unit are words (16 bits).
+
+        shp.order(ByteOrder.LITTLE_ENDIAN);
+
+        switch(shp.getInt(position + 8)) {
+            case NULL_SHAPE:
+                Arrays.fill(box, Double.NaN);
+                break;
+
+            case POINT: case POINT_Z: case POINT_M:
+                box[0] = box[2] = shp.getDouble(position + 12);
+                box[1] = box[3] = shp.getDouble(position + 20);
+                break;
+
+            default:
+                for (int i = 0; i < 4; i++) {
+                    box[i] = shp.getDouble(position + 12 + i * Double.BYTES);
+                }
+        }
+
+        return position + 8 + contentLength;
+    }
+
+    /**
+     * Writes this index in the given file, in {@code .qix} format.
+     * @param qix The file where to write the index.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File qix) throws IOException {
+        try(FileOutputStream fos = new FileOutputStream(qix); FileChannel fc = fos.getChannel()) {
+            ByteBuffer bytes = this.buffer.duplicate();
+            bytes.clear();
+
+            while(bytes.hasRemaining()) {
+                fc.write(bytes);
+            }
+        }
+
+        log(Level.FINE, "log.index_written", qix.getAbsolutePath(), this.numShapes);
+    }
+
+    /**
+     * Returns the number of records in the indexed shapefile.
+     * @return Number of records.
+     */
+    public int getNumShapes() {
+        return this.numShapes;
+    }
+
+    /**
+     * Returns the numbers (starting at 0) of the records whose bounding box may intersect the given area.
+     * Only the branches of the tree intersecting the area are read.
+     * @param xmin Minimal x value of the search area.
+     * @param ymin Minimal y value of the search area.
+     * @param xmax Maximal x value of the search area.
+     * @param ymax Maximal y value of the search area.
+     * @return Candidate records numbers, starting at 0.
+     * @throws IOException if the index is corrupted.
+     */
+    public BitSet search(double xmin, double ymin, double xmax, double ymax) throws IOException {
+        ByteBuffer bytes = this.buffer.duplicate().order(this.buffer.order());
+        bytes.position(HEADER_LENGTH);
+
+        BitSet candidates = new BitSet(this.numShapes);
+
+        if (bytes.hasRemaining()) {
+            try {
+                search(bytes, candidates, this.numShapes, 0, xmin, ymin, xmax, ymax);
+            }
+            catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                throw new IOException(format("excp.corrupted_quadtree", e.toString()), e);
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Searches the node at the current buffer position and its sub-nodes.
+     * On return, the buffer is positioned after the node and all its sub-nodes.
+     * @throws BufferUnderflowException if the node extends past the end of the index.
+     * @throws IndexOutOfBoundsException if a shape number is not a valid record number, or if the tree is too deep.
+     * @throws IllegalArgumentException if the length of the sub-nodes is invalid.
+     */
+    private static void search(ByteBuffer bytes, BitSet candidates, int numShapes, int depth, double xmin, double ymin, double xmax, double ymax) {
+        if (depth > MAX_READ_DEPTH) {
+            throw new IndexOutOfBoundsException("depth = " + depth);
+        }
+
+        int subNodesLength = bytes.getInt();
+        double nxmin = bytes.getDouble();
+        double nymin = bytes.getDouble();
+        double nxmax = bytes.getDouble();
+        double nymax = bytes.getDouble();
+        int n = bytes.getInt();
+
+        if (nxmin > xmax || nxmax < xmin || nymin > ymax || nymax < ymin) {
+            // Skip the shape numbers, the number of sub-nodes and the sub-nodes.
+            bytes.position(bytes.position() + n * Integer.BYTES + Integer.BYTES + subNodesLength);
+            return;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int shape = bytes.getInt();
+
+            if (shape < 0 || shape >= numShapes) {
+                throw new IndexOutOfBoundsException("shape = " + shape);
+            }
+
+            candidates.set(shape);
+        }
+
+        int numSubNodes = bytes.getInt();
+
+        for (int i = 0; i < numSubNodes; i++) {
+            search(bytes, candidates, numShapes, depth + 1, xmin, ymin, xmax, ymax);
+        }
+    }
+
+    /**
+     * A node of the quadtree being built.
+     */
+    private static final class Node {
+        /** Bounds of the quadrant covered by this node. */
+        final double xmin, ymin, xmax, ymax;
+
+        /** Numbers of the records contained in this node but not in a sub-node. */
+        int[] shapes = new int[0];
+
+        /** Number of valid elements in {@link #shapes}. */
+        int numShapes;
+
+        /** The four sub-quadrants, created when first needed. */
+        Node[] children;
+
+        /**
+         * Creates a node for the given quadrant.
+         */
+        Node(double xmin, double ymin, double xmax, double ymax) {
+            this.xmin = xmin;
+            this.ymin = ymin;
+            this.xmax = xmax;
+            this.ymax = ymax;
+        }
+
+        /**
+         * Inserts the given record in the deepest node which fully contains its bounding box.
+         */
+        void insert(int shape, double bxmin, double bymin, double bxmax, double bymax, int depth) {
+            if (depth > 0) {
+                double xmid = (this.xmin + this.xmax) / 2;
+                double ymid = (this.ymin + this.ymax) / 2;
+                int quadrant = -1;
+
+                if (bxmax <= xmid || bxmin >= xmid) {
+                    if (bymax <= ymid || bymin >= ymid) {
+                        quadrant = (bxmin >= xmid ? 1 : 0) | (bymin >= ymid ? 2 : 0);
+                    }
+                }
+
+                if (quadrant >= 0) {
+                    if (this.children == null) {
+                        this.children = new Node[4];
+                    }
+
+                    Node child = this.children[quadrant];
+
+                    if (child == null) {
+                        child = new Node((quadrant & 1) == 0 ? this.xmin : xmid,
+                                         (quadrant & 2) == 0 ? this.ymin : ymid,
+                                         (quadrant & 1) == 0 ? xmid : this.xmax,
+                                         (quadrant & 2) == 0 ? ymid : this.ymax);
+                        this.children[quadrant] = child;
+                    }
+
+                    child.insert(shape, bxmin, bymin, bxmax, bymax, depth - 1);
+                    return;
+                }
+            }
+
+            if (this.numShapes == this.shapes.length) {
+                this.shapes = Arrays.copyOf(this.shapes, Math.max(4, this.numShapes * 2));
+            }
+
+            this.shapes[this.numShapes++] = shape;
+        }
+
+        /**
+         * Returns the non-null sub-nodes.
+         */
+        List<Node> children() {
+            List<Node> list = new ArrayList<>(4);
+
+            if (this.children != null) {
+                for (Node child : this.children) {
+                    if (child != null) {
+                        list.add(child);
+                    }
+                }
+            }
+
+            return list;
+        }
+
+        /**
+         * Returns the number of bytes used by this node and all its sub-nodes in the {@code .qix} format.
+         */
+        int size() {
+            return 4 * Double.BYTES + (this.numShapes + 3) * Integer.BYTES + subNodesSize();
+        }
+
+        /**
+         * Returns the number of bytes used by all sub-nodes of this node in the {@code .qix} format.
+         */
+        int subNodesSize() {
+            int size = 0;
+
+            for (Node child : children()) {
+                size += child.size();
+            }
+
+            return size;
+        }
+
+        /**
+         * Writes this node and all its sub-nodes in the given buffer.
+         */
+        void write(ByteBuffer out) {
+            List<Node> subNodes = children();
+            out.putInt(subNodesSize());
+            out.putDouble(this.xmin).putDouble(this.ymin).putDouble(this.xmax).putDouble(this.ymax);
+            out.putInt(this.numShapes);
+
+            for (int i = 0; i < this.numShapes; i++) {
+                out.putInt(this.shapes[i]);
+            }
+
+            out.putInt(subNodes.size());
+
+            for (Node child : subNodes) {
+                child.write(out);
+            }
+        }
+    }
+}
@@ -21,9 +21,11 @@ import java.nio.charset.Charset;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.sis.internal.shapefile.jdbc.resultset.SQLIllegalColumnIndexException;
 import org.apache.sis.internal.shapefile.jdbc.resultset.SQLNoSuchFieldException;
+import org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate;
 import org.apache.sis.feature.AbstractFeature;
 
 /**
@@ -127,4 +129,29 @@ public interface Dbase3ByteReader {
      * @return Map of field name / object value.
      */
     public Map<String, byte[]> readNextRowAsObjects();
+
+    /**
+     * Read some fields of the next row as a set of objects : the other fields are skipped without being decoded.
+     * @param columns Names of the fields to read, null for all.
+     * @return Map of field name / object value.
+     */
+    public Map<String, byte[]> readNextRowAsObjects(Set<String> columns);
+
+    /**
+     * Check if the next row verifies a compiled condition, without reading it.
+     * @param predicate Compiled condition.
+     * @return true or false if the condition is verified or not, null if the row has to be read to resolve the condition.
+     */
+    public Boolean nextRowMatches(RecordPredicate predicate);
+
+    /**
+     * Skip the next row without reading it.
+     */
+    public void skipNextRow();
+
+    /**
+     * Moves directly to the given row, without reading the rows before it : the next row read will be this one.
+     * @param recordNumber Number of the row, starting at 0.
+     */
+    public void setRowNum(int recordNumber);
 }
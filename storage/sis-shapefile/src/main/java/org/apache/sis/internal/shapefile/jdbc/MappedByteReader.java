@@ -18,14 +18,17 @@ package org.apache.sis.internal.shapefile.jdbc;
 
 import java.io.File;
 import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.UnsupportedCharsetException;
+import java.text.DecimalFormat;
 import java.util.*;
 import java.util.logging.Level;
 
 import org.apache.sis.internal.shapefile.jdbc.resultset.SQLIllegalColumnIndexException;
 import org.apache.sis.internal.shapefile.jdbc.resultset.SQLNoSuchFieldException;
+import org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate;
 import org.apache.sis.feature.AbstractFeature;
 
 
@@ -33,7 +36,7 @@ import org.apache.sis.feature.AbstractFeature;
  * Reader of a Database Binary content by the way of a {@link java.nio.MappedByteBuffer}
  *
  * @author  Marc Le Bihan
- * @version 0.5
+ * @version 1.0
  * @since   0.5
  * @module
  */
@@ -77,21 +80,110 @@ public class MappedByteReader extends AbstractDbase3ByteReader implements AutoCl
         // TODO: ignore deleted records
         getByteBuffer().get(); // denotes whether deleted or current
         // read first part of record
+        loadFieldsIntoFeature(getByteBuffer(), feature);
+    }
+
+    /**
+     * Load a row into a feature, reading it in the given buffer instead of at the current position of this reader.
+     * The buffer shall be a view of the content of this database, typically a duplicate of {@link #getByteBuffer()} :
+     * many threads can read rows of the same database concurrently if each of them has its own buffer.
+     * @param buffer Buffer to read.
+     * @param recordNumber Number of the record to read, starting at 0.
+     * @param feature Feature to fill.
+     * @return true if the row has been loaded, false if it is a deleted one.
+     */
+    public boolean loadRowIntoFeature(ByteBuffer buffer, int recordNumber, AbstractFeature feature) {
+        buffer.position(Short.toUnsignedInt(this.firstRecordPosition) + recordNumber * Short.toUnsignedInt(this.recordLength));
+
+        if (buffer.get() == '*') { // Deleted record.
+            return false;
+        }
+
+        loadFieldsIntoFeature(buffer, feature);
+        return true;
+    }
+
+    /**
+     * Load the fields values of a row into a feature.
+     * The values are decoded according to the type of their fields, then formatted as the strings set by
+     * {@link org.apache.sis.storage.shapefile.InputFeatureStream} : the same record gives the same feature in both cases.
+     * @param buffer Buffer positioned after the deletion flag of the row.
+     * @param feature Feature to fill.
+     */
+    private void loadFieldsIntoFeature(ByteBuffer buffer, AbstractFeature feature) {
+        DecimalFormat decimalFormat = null;
 
         for (DBase3FieldDescriptor fd : this.fieldsDescriptors) {
             byte[] data = new byte[fd.getLength()];
-            getByteBuffer().get(data);
+            buffer.get(data);
 
             int length = data.length;
             while (length != 0 && Byte.toUnsignedInt(data[length - 1]) <= ' ') {
                 length--;
             }
 
-            String value = new String(data, 0, length);
+            String value = (this.charset != null) ? new String(data, 0, length, this.charset) : new String(data, 0, length);
+
+            try {
+                switch(fd.getType()) {
+                    case AutoIncrement:
+                    case Integer:
+                        value = Integer.toString(Integer.parseInt(value.trim()));
+                        break;
+
+                    case Number:
+                        // Integer or Long if there is no decimal and the field is not too big, as the JDBC driver does.
+                        if (fd.getDecimalCount() == 0 && fd.getLength() <= 18) {
+                            value = Long.toString(fd.getLength() <= 9 ? Integer.parseInt(value.trim()) : Long.parseLong(value.trim()));
+                            break;
+                        }
+                        // Fall through.
+
+                    case Double:
+                    case Currency:
+                    case FloatingPoint:
+                        if (decimalFormat == null) {
+                            decimalFormat = new DecimalFormat();
+                            decimalFormat.setGroupingUsed(false);    // Avoid thousand separator.
+                        }
+
+                        value = (fd.getType() == DBaseDataType.FloatingPoint) ? decimalFormat.format(Float.parseFloat(value.trim()))
+                                                                              : decimalFormat.format(Double.parseDouble(value.trim()));
+                        break;
+
+                    case Date:
+                        value = toDate(value);
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+            catch(NumberFormatException e) {
+                value = null; // Empty or invalid numeric fields have no value.
+            }
+
             feature.setPropertyValue(fd.getName(), value);
         }
     }
 
+    /**
+     * Converts a date in the DBase 3 "YYYYMMDD" format to the ISO "YYYY-MM-DD" format.
+     * @param value Date in DBase 3 format.
+     * @return Date in ISO format, or null if the date is null or has an invalid format.
+     */
+    private static String toDate(String value) {
+        // "00000000" is stored in Database to represent a null value too.
+        if (value.length() != 8 || value.equals("00000000")) {
+            return null;
+        }
+
+        Calendar calendar = new GregorianCalendar(Integer.parseInt(value.substring(0, 4)),
+                Integer.parseInt(value.substring(4, 6)) - 1, Integer.parseInt(value.substring(6)), 0, 0, 0);
+
+        return new java.sql.Date(calendar.getTimeInMillis()).toString();
+    }
+
     /**
      * Checks if a next row is available. Warning : it may be a deleted one.
      * @return true if a next row is available.
@@ -136,6 +228,16 @@ public class MappedByteReader extends AbstractDbase3ByteReader implements AutoCl
      */
     @Override
     public Map<String, byte[]> readNextRowAsObjects() {
+        return readNextRowAsObjects(null);
+    }
+
+    /**
+     * Read some fields of the next row as a set of objects : the other fields are skipped without being decoded.
+     * @param columns Names of the fields to read, null for all.
+     * @return Map of field name / object value.
+     */
+    @Override
+    public Map<String, byte[]> readNextRowAsObjects(Set<String> columns) {
         // TODO: ignore deleted records
         /* byte isDeleted = */ getByteBuffer().get(); // denotes whether deleted or current
 
@@ -143,6 +245,11 @@ public class MappedByteReader extends AbstractDbase3ByteReader implements AutoCl
         HashMap<String, byte[]> fieldsValues = new HashMap<>();
 
         for (DBase3FieldDescriptor fd : this.fieldsDescriptors) {
+            if (columns != null && columns.contains(fd.getName()) == false) {
+                getByteBuffer().position(getByteBuffer().position() + fd.getLength());
+                continue;
+            }
+
             byte[] data = new byte[fd.getLength()];
             getByteBuffer().get(data);
 
@@ -170,6 +277,35 @@ public class MappedByteReader extends AbstractDbase3ByteReader implements AutoCl
         return fieldsValues;
     }
 
+    /**
+     * Check if the next row verifies a compiled condition, without reading it.
+     * @param predicate Compiled condition.
+     * @return true or false if the condition is verified or not, null if the row has to be read to resolve the condition.
+     */
+    @Override
+    public Boolean nextRowMatches(RecordPredicate predicate) {
+        return predicate.test(getByteBuffer(), getByteBuffer().position());
+    }
+
+    /**
+     * Skip the next row without reading it.
+     */
+    @Override
+    public void skipNextRow() {
+        getByteBuffer().position(getByteBuffer().position() + Short.toUnsignedInt(this.recordLength));
+    }
+
+    /**
+     * Moves directly to the given row, without reading the rows before it : the next row read will be this one.
+     * The row position is its number multiplied by the record length. A row after the last one moves at the end of file.
+     * @param recordNumber Number of the row, starting at 0.
+     */
+    @Override
+    public void setRowNum(int recordNumber) {
+        long position = Short.toUnsignedInt(this.firstRecordPosition) + (long)recordNumber * Short.toUnsignedInt(this.recordLength);
+        getByteBuffer().position((int)Math.min(position, getByteBuffer().limit()));
+    }
+
     /**
      * Loading the database file content from binary .dbf file.
      * @throws SQLInvalidDbaseFileFormatException if descriptor is not readable.
@@ -27,13 +27,14 @@ import java.util.stream.Collectors;
 import org.apache.sis.internal.shapefile.jdbc.*;
 import org.apache.sis.internal.shapefile.jdbc.metadata.DBFDatabaseMetaData;
 import org.apache.sis.internal.shapefile.jdbc.resultset.*;
+import org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate;
 import org.apache.sis.internal.shapefile.jdbc.statement.DBFStatement;
 
 
 /**
  * Connection to a DBF database.
  * @author  Marc Le Bihan
- * @version 0.5
+ * @version 1.0
  * @since   0.5
  * @module
  */
@@ -318,6 +319,39 @@ public class DBFConnection extends AbstractConnection {
         return this.byteReader.readNextRowAsObjects();
     }
 
+    /**
+     * Read some fields of the next row as a set of objects : the other fields are skipped without being decoded.
+     * @param columns Names of the fields to read, null for all.
+     * @return Map of field name / object value.
+     */
+    public Map<String, byte[]> readNextRowAsObjects(Set<String> columns) {
+        return this.byteReader.readNextRowAsObjects(columns);
+    }
+
+    /**
+     * Check if the next row verifies a compiled condition, without reading it.
+     * @param predicate Compiled condition.
+     * @return true or false if the condition is verified or not, null if the row has to be read to resolve the condition.
+     */
+    public Boolean nextRowMatches(RecordPredicate predicate) {
+        return this.byteReader.nextRowMatches(predicate);
+    }
+
+    /**
+     * Skip the next row without reading it.
+     */
+    public void skipNextRow() {
+        this.byteReader.skipNextRow();
+    }
+
+    /**
+     * Moves directly to the given row, without reading the rows before it : the next row read will be this one.
+     * @param recordNumber Number of the row, starting at 0.
+     */
+    public void setRowNum(int recordNumber) {
+        this.byteReader.setRowNum(recordNumber);
+    }
+
     /**
      * Returns the record number of the last record red.
      * @return The record number.
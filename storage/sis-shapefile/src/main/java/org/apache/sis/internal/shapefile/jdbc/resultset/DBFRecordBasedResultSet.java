@@ -25,7 +25,10 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.logging.Level;
 
@@ -46,6 +49,18 @@ public class DBFRecordBasedResultSet extends DBFResultSet {
     /** Condition of where clause (currently, only one is handled). */
     private ConditionalClauseResolver singleConditionOfWhereClause;
 
+    /** Condition of where clause compiled for an evaluation on the record bytes, null if it cannot be compiled. */
+    private RecordPredicate compiledCondition;
+
+    /** Indicates that the where clause has already been compiled. */
+    private boolean whereClauseCompiled;
+
+    /** Columns listed in the SELECT clause, null if all columns are selected. */
+    private List<String> selectedColumns;
+
+    /** Columns to decode in each record : the selected ones and the ones of the where clause. Null for all columns. */
+    private Set<String> decodedColumns;
+
     /** Indicates that the last result set record matching conditions has already been returned, and a further call of next() shall throw a "no more record" exception. */
     private boolean lastResultSetRecordAlreadyReturned;
 
@@ -60,7 +75,24 @@ public class DBFRecordBasedResultSet extends DBFResultSet {
      */
     public DBFRecordBasedResultSet(final DBFStatement stmt, String sqlQuery) throws SQLInvalidStatementException {
         super(stmt, sqlQuery);
-        this.singleConditionOfWhereClause = new CrudeSQLParser(this).parse();
+
+        CrudeSQLParser parser = new CrudeSQLParser(this);
+        this.singleConditionOfWhereClause = parser.parse();
+        this.selectedColumns = parser.parseSelectList();
+
+        if (this.selectedColumns != null) {
+            this.decodedColumns = new HashSet<>(this.selectedColumns);
+
+            if (this.singleConditionOfWhereClause != null) {
+                for (Object comparand : new Object[] {this.singleConditionOfWhereClause.getComparand1(), this.singleConditionOfWhereClause.getComparand2()}) {
+                    String fieldName = ClauseResolver.getFieldName(comparand);
+
+                    if (fieldName != null) {
+                        this.decodedColumns.add(fieldName);
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -165,8 +197,8 @@ public class DBFRecordBasedResultSet extends DBFResultSet {
 
         try {
             year = Integer.parseInt(value.substring(0, 4));
-            month = Integer.parseInt(value.substring(5, 7));
-            dayOfMonth = Integer.parseInt(value.substring(7));
+            month = Integer.parseInt(value.substring(4, 6));
+            dayOfMonth = Integer.parseInt(value.substring(6));
         }
         catch(NumberFormatException e) {
             String message = format(Level.WARNING, "excp.field_is_not_a_date", columnLabel, this.sql, value);
@@ -415,6 +447,15 @@ public class DBFRecordBasedResultSet extends DBFResultSet {
         return this.recordNumber;
     }
 
+    /**
+     * Checks if a column is listed in the SELECT clause of the query.
+     * @param columnLabel Column name.
+     * @return true if the column is selected, or if the query is a SELECT * one.
+     */
+    public boolean isSelected(String columnLabel) {
+        return this.selectedColumns == null || this.selectedColumns.contains(columnLabel);
+    }
+
     /**
      * @see java.sql.ResultSet#getShort(java.lang.String)
      * @throws SQLConnectionClosedException if the connection is closed.
@@ -456,6 +497,13 @@ public class DBFRecordBasedResultSet extends DBFResultSet {
         assertNotClosed();
 
         getFieldDesc(columnLabel, this.sql); // Ensure that the field queried exists, else a null value here can be interpreted as "not existing" or "has a null value".
+
+        // Only the selected columns have been decoded.
+        if (this.decodedColumns != null && this.decodedColumns.contains(columnLabel) == false) {
+            String message = format(Level.WARNING, "excp.column_not_selected", columnLabel, this.sql);
+            throw new SQLNoSuchFieldException(message, this.sql, getFile(), columnLabel);
+        }
+
         byte[] bytes = this.record.get(columnLabel);
 
         if (bytes == null) {
@@ -524,8 +572,35 @@ public class DBFRecordBasedResultSet extends DBFResultSet {
         return nextRecordMatchingConditions();
     }
 
+    /**
+     * Moves the cursor directly to the record of the given number, without reading the records before it.
+     * The record becomes the current one only if it matches the where condition.
+     * This allows to read only the records selected by another mean, like a spatial index.
+     * @param recordNumber Number of the record, starting at 1 like the ones returned by {@link #getRowNum()}.
+     * @return true if the record exists and matches the where condition, false otherwise.
+     * @throws SQLInvalidStatementException if the SQL statement is invalid.
+     * @throws SQLIllegalParameterException if the value of one parameter of a condition is invalid.
+     * @throws SQLNoSuchFieldException if a field mentionned in the condition doesn't exist.
+     * @throws SQLUnsupportedParsingFeatureException if the caller asked for a not yet supported feature of the driver.
+     * @throws SQLConnectionClosedException if the connection is closed.
+     * @throws SQLNotNumericException if a value or data expected to be numeric isn't.
+     * @throws SQLNotDateException if a value or data expected to be a date isn't.
+     */
+    @SuppressWarnings("resource") // Only read the current connection to move to the record and read it.
+    public boolean moveToRecord(int recordNumber) throws SQLConnectionClosedException, SQLInvalidStatementException, SQLIllegalParameterException, SQLNoSuchFieldException, SQLUnsupportedParsingFeatureException, SQLNotNumericException, SQLNotDateException {
+        logStep("moveToRecord", recordNumber);
+        assertNotClosed();
+
+        DBFConnection cnt = (DBFConnection)((DBFStatement)getStatement()).getConnection();
+        compileWhereClause(cnt);
+        cnt.setRowNum(recordNumber - 1);
+        return cnt.nextRowAvailable() && readNextRecordIfMatching(cnt);
+    }
+
     /**
      * Find the next record that match the where condition.
+     * The where condition is compiled at first call, then evaluated on the record bytes : the records that don't match it are skipped
+     * without being decoded, and only the selected columns of the matching ones are decoded.
      * @return true if a record has been found.
      * @throws SQLInvalidStatementException if the SQL statement is invalid.
      * @throws SQLIllegalParameterException if the value of one parameter of a condition is invalid.
@@ -537,16 +612,63 @@ public class DBFRecordBasedResultSet extends DBFResultSet {
      */
     @SuppressWarnings("resource") // Only read the current connection to find if a next row is available and read it.
     private boolean nextRecordMatchingConditions() throws SQLInvalidStatementException, SQLIllegalParameterException, SQLNoSuchFieldException, SQLUnsupportedParsingFeatureException, SQLConnectionClosedException, SQLNotNumericException, SQLNotDateException {
-        boolean recordMatchesConditions = false;
         DBFConnection cnt = (DBFConnection)((DBFStatement)getStatement()).getConnection();
+        compileWhereClause(cnt);
+
+        while(cnt.nextRowAvailable()) {
+            if (readNextRecordIfMatching(cnt)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Compiles the where condition and checks the selected columns, if not already done.
+     * @param cnt Connection to the database file.
+     * @throws SQLNoSuchFieldException if a field mentionned in the select list doesn't exist.
+     */
+    private void compileWhereClause(DBFConnection cnt) throws SQLNoSuchFieldException {
+        if (this.whereClauseCompiled == false) {
+            if (this.singleConditionOfWhereClause != null) {
+                this.compiledCondition = this.singleConditionOfWhereClause.compile(cnt.getFieldsDescriptors(), cnt.getCharset());
+            }
+
+            if (this.selectedColumns != null) {
+                for (String column : this.selectedColumns) {
+                    cnt.findColumn(column, this.sql); // Ensure that the selected columns exist.
+                }
+            }
+
+            this.whereClauseCompiled = true;
+        }
+    }
+
+    /**
+     * Reads the next row of the database file if it matches the where condition, or skips it otherwise.
+     * When the compiled condition can decide on the record bytes, a row that doesn't match it is skipped without being decoded.
+     * @param cnt Connection to the database file, positioned on an available row.
+     * @return true if the row has been read and matches the where condition.
+     * @throws SQLInvalidStatementException if the SQL statement is invalid.
+     * @throws SQLIllegalParameterException if the value of one parameter of a condition is invalid.
+     * @throws SQLNoSuchFieldException if a field mentionned in the condition doesn't exist.
+     * @throws SQLUnsupportedParsingFeatureException if the caller asked for a not yet supported feature of the driver.
+     * @throws SQLConnectionClosedException if the connection is closed.
+     * @throws SQLNotNumericException if a value or data expected to be numeric isn't.
+     * @throws SQLNotDateException if a value or data expected to be a date isn't.
+     */
+    private boolean readNextRecordIfMatching(DBFConnection cnt) throws SQLInvalidStatementException, SQLIllegalParameterException, SQLNoSuchFieldException, SQLUnsupportedParsingFeatureException, SQLConnectionClosedException, SQLNotNumericException, SQLNotDateException {
+        Boolean compiledResult = this.compiledCondition != null ? cnt.nextRowMatches(this.compiledCondition) : null;
 
-        while(cnt.nextRowAvailable() && recordMatchesConditions == false) {
-            this.record = cnt.readNextRowAsObjects();
-            this.recordNumber = cnt.getRowNum();
-            recordMatchesConditions = this.singleConditionOfWhereClause == null || this.singleConditionOfWhereClause.isVerified(this);
+        if (Boolean.FALSE.equals(compiledResult)) {
+            cnt.skipNextRow();
+            return false;
         }
 
-        return recordMatchesConditions;
+        this.record = cnt.readNextRowAsObjects(this.decodedColumns);
+        this.recordNumber = cnt.getRowNum();
+        return compiledResult != null || this.singleConditionOfWhereClause == null || this.singleConditionOfWhereClause.isVerified(this);
     }
 
     /**
@@ -16,11 +16,14 @@
  */
 package org.apache.sis.internal.shapefile.jdbc.sql;
 
+import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.logging.Level;
 
 import org.apache.sis.internal.shapefile.AutoChecker;
+import org.apache.sis.internal.shapefile.jdbc.DBase3FieldDescriptor;
 import org.apache.sis.internal.shapefile.jdbc.SQLConnectionClosedException;
 import org.apache.sis.internal.shapefile.jdbc.resultset.*;
 
@@ -134,6 +137,145 @@ public abstract class ClauseResolver extends AutoChecker {
         }
     }
 
+    /**
+     * Compile this condition against the layout of the records, for an evaluation directly on their bytes.
+     * Only the comparisons of a field with a literal are compiled : those involving two fields, a date field,
+     * or a string literal compared to a numeric field are left to {@link #isVerified(DBFRecordBasedResultSet)}.
+     * @param fields Fields descriptors of the database, in the order of the record.
+     * @param charset Database charset, null if the platform default one is used.
+     * @return Compiled predicate, or null if this condition cannot be compiled.
+     */
+    public RecordPredicate compile(List<DBase3FieldDescriptor> fields, Charset charset) {
+        String op = getOperator();
+
+        if (op == null || (op.equals("=") || op.equals(">") || op.equals(">=") || op.equals("<") || op.equals("<=")) == false) {
+            return null;
+        }
+
+        // One comparand shall be a field name, the other one a literal.
+        boolean fieldIsSecond = isFieldName(getComparand2());
+
+        if (isFieldName(getComparand1()) == fieldIsSecond) {
+            return null;
+        }
+
+        String fieldName = ((String)(fieldIsSecond ? getComparand2() : getComparand1())).trim();
+        Object literal = fieldIsSecond ? getComparand1() : getComparand2();
+
+        if (literal instanceof String) {
+            String text = ((String)literal).trim();
+
+            if (text.length() < 2 || text.startsWith("'") == false || text.endsWith("'") == false) {
+                return null; // Let isVerified(...) report the error.
+            }
+
+            literal = text.substring(1, text.length()-1);
+        }
+
+        // Find the field and its position in the record, after the deletion flag.
+        int offset = 1;
+
+        for (DBase3FieldDescriptor field : fields) {
+            if (field.getName().equals(fieldName)) {
+                return compile(field, offset, fieldIsSecond, literal, charset);
+            }
+
+            offset += field.getLength();
+        }
+
+        return null; // Let isVerified(...) report the unknown field.
+    }
+
+    /**
+     * Compile the comparison of a field with a literal.
+     * @param field Field descriptor.
+     * @param offset Offset of the field from the beginning of the record.
+     * @param fieldIsSecond true if the field is the second comparand.
+     * @param literal Literal : Integer, Double or String.
+     * @param charset Database charset, null if the platform default one is used.
+     * @return Compiled predicate, or null if this comparison cannot be compiled.
+     */
+    private RecordPredicate compile(DBase3FieldDescriptor field, int offset, boolean fieldIsSecond, Object literal, Charset charset) {
+        String op = getOperator();
+        int length = field.getLength();
+
+        switch(field.getType()) {
+            case Character: {
+                // Values of another type are compared to strings by their text.
+                String text = literal.toString();
+
+                if (op.equals("=")) {
+                    Charset cs = (charset != null) ? charset : Charset.defaultCharset();
+
+                    if (cs.newEncoder().canEncode(text)) {
+                        return new RecordPredicate.EqualBytes(fieldIsSecond, offset, length, text.getBytes(cs));
+                    }
+                }
+
+                return new RecordPredicate.TextField(op, fieldIsSecond, offset, length, text, charset);
+            }
+
+            case AutoIncrement:
+            case Integer:
+            case Number:
+            case Double:
+            case FloatingPoint:
+                break;
+
+            default:
+                return null;
+        }
+
+        if (literal instanceof Number == false) {
+            return null;
+        }
+
+        Number number = (Number)literal;
+
+        switch(field.getType()) {
+            case AutoIncrement:
+            case Integer:
+                return new RecordPredicate.IntegerField(op, fieldIsSecond, offset, length, false, number);
+
+            case Number:
+                // Same choice of Integer, Long or Double type than the ResultSet.
+                if (field.getDecimalCount() == 0 && length <= 18) {
+                    return new RecordPredicate.IntegerField(op, fieldIsSecond, offset, length, length > 9, number);
+                }
+
+                return new RecordPredicate.DoubleField(op, fieldIsSecond, offset, length, number);
+
+            case Double:
+                return new RecordPredicate.DoubleField(op, fieldIsSecond, offset, length, number);
+
+            default:
+                return new RecordPredicate.FloatField(op, fieldIsSecond, offset, length, number);
+        }
+    }
+
+    /**
+     * Returns the name of the field, if the given comparand designs a field.
+     * @param comparand Comparand.
+     * @return Field name, or null if the comparand is a literal.
+     */
+    public static String getFieldName(Object comparand) {
+        return isFieldName(comparand) ? ((String)comparand).trim() : null;
+    }
+
+    /**
+     * Checks if a comparand designs a field : it is then a string not enclosed by ' characters.
+     * @param comparand Comparand.
+     * @return true if the comparand is a field name.
+     */
+    private static boolean isFieldName(Object comparand) {
+        if (comparand instanceof String == false) {
+            return false;
+        }
+
+        String text = ((String)comparand).trim();
+        return text.startsWith("'") == false && text.endsWith("'") == false;
+    }
+
     /**
      * Returns true if this condition is verified.
      * @param rs The record containing the values to extract, if needed.
@@ -17,6 +17,8 @@
 package org.apache.sis.internal.shapefile.jdbc.sql;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.logging.Level;
 
@@ -49,11 +51,7 @@ public class CrudeSQLParser extends AbstractJDBC {
         logStep("parse");
 
         String sql = this.rs.getSQL().trim();
-
-        if (sql.toLowerCase().startsWith("select * from ") == false) {
-            String message = format(Level.WARNING, "excp.limited_feature_syntax", sql);
-            throw new SQLInvalidStatementException(message, this.rs.getSQL(), this.rs.getFile());
-        }
+        parseSelectList(); // Check the beginning of the statement.
 
         final String whereWord = " where ";
         int whereIndex = sql.toLowerCase().indexOf(whereWord);
@@ -92,6 +90,46 @@ public class CrudeSQLParser extends AbstractJDBC {
         return resolver;
     }
 
+    /**
+     * Get the names of the columns listed by the SELECT clause of the SQL statement.
+     * @return Columns names in the order of the SELECT clause, or null if the statement is a SELECT * one.
+     * @throws SQLInvalidStatementException if the SQL statement is invalid.
+     */
+    public List<String> parseSelectList() throws SQLInvalidStatementException {
+        logStep("parseSelectList");
+
+        String sql = this.rs.getSQL().trim();
+        final String selectWord = "select ";
+        final String fromWord = " from ";
+        int fromIndex = sql.toLowerCase().indexOf(fromWord);
+
+        if (sql.toLowerCase().startsWith(selectWord) == false || fromIndex == -1) {
+            String message = format(Level.WARNING, "excp.limited_feature_syntax", sql);
+            throw new SQLInvalidStatementException(message, this.rs.getSQL(), this.rs.getFile());
+        }
+
+        String selectList = sql.substring(selectWord.length(), fromIndex).trim();
+
+        if (selectList.equals("*")) {
+            return null;
+        }
+
+        List<String> columns = new ArrayList<>();
+
+        for (String column : selectList.split(",")) {
+            column = column.trim();
+
+            if (column.isEmpty() || column.contains(" ") || column.equals("*")) {
+                String message = format(Level.WARNING, "excp.limited_feature_syntax", sql);
+                throw new SQLInvalidStatementException(message, this.rs.getSQL(), this.rs.getFile());
+            }
+
+            columns.add(column);
+        }
+
+        return columns;
+    }
+
     /**
      * Promote a value to the best parameter available : Integer, then Double, then String.
      * TODO Convert to Date, and admit null values.
@@ -0,0 +1,471 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.shapefile.jdbc.sql;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A condition of a where clause compiled against the layout of the DBase records : it compares a field to a literal
+ * directly on the bytes of a record, without decoding the other fields of that record.
+ * <br>- Instances are created by {@link ClauseResolver#compile(java.util.List, Charset)}.
+ * <br>- Comparison rules are the ones of {@link ClauseResolver#isVerified(org.apache.sis.internal.shapefile.jdbc.resultset.DBFRecordBasedResultSet)},
+ * including the promotion of numeric types.
+ * <br>- When the field value cannot be evaluated directly (a number that doesn't parse, for example), the predicate answers {@code null} :
+ * the caller has then to decode the record and to resolve the condition the usual way, which reports the error if there is one.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public abstract class RecordPredicate {
+    /** Value returned by {@link #compare(ByteBuffer, int, int)} when the field value cannot be evaluated directly. */
+    static final int UNDECIDED = Integer.MIN_VALUE;
+
+    /** Operator : =, &gt;, &gt;=, &lt; or &lt;=. */
+    private final String operator;
+
+    /** true if the field is the second comparand of the condition, and the literal the first one. */
+    private final boolean reversed;
+
+    /** Offset of the field from the beginning of the record (the deletion flag is at offset 0). */
+    private final int offset;
+
+    /** Length of the field in bytes. */
+    private final int length;
+
+    /**
+     * Construct a record predicate.
+     * @param op Operator.
+     * @param fieldIsSecond true if the field is the second comparand of the condition.
+     * @param fieldOffset Offset of the field from the beginning of the record.
+     * @param fieldLength Length of the field in bytes.
+     */
+    RecordPredicate(String op, boolean fieldIsSecond, int fieldOffset, int fieldLength) {
+        this.operator = op;
+        this.reversed = fieldIsSecond;
+        this.offset = fieldOffset;
+        this.length = fieldLength;
+    }
+
+    /**
+     * Check if the condition is verified by the record starting at the given position.
+     * The position of the buffer is not changed.
+     * @param buffer Buffer containing the record.
+     * @param recordPosition Position of the record (its deletion flag) in the buffer.
+     * @return true or false if the condition is verified or not, null if the caller has to decode the record to resolve the condition.
+     */
+    public final Boolean test(ByteBuffer buffer, int recordPosition) {
+        int start = recordPosition + this.offset;
+        int end = start + this.length;
+
+        // Trim the bytes right, the same way the record reader does.
+        while (end > start && Byte.toUnsignedInt(buffer.get(end - 1)) <= ' ') {
+            end--;
+        }
+
+        int comparison = compare(buffer, start, end);
+
+        if (comparison == UNDECIDED) {
+            return null;
+        }
+
+        comparison = Integer.signum(comparison);
+
+        if (this.reversed) {
+            comparison = -comparison;
+        }
+
+        switch(this.operator) {
+            case "=" :
+                return comparison == 0;
+
+            case ">" :
+                return comparison > 0;
+
+            case ">=" :
+                return comparison >= 0;
+
+            case "<" :
+                return comparison < 0;
+
+            case "<=" :
+                return comparison <= 0;
+
+            default :
+                throw new IllegalStateException(this.operator); // Operators are checked before compilation.
+        }
+    }
+
+    /**
+     * Compare the field value to the literal.
+     * @param buffer Buffer containing the record.
+     * @param start Position of the first byte of the field value.
+     * @param end Position after the last byte of the field value, trailing spaces excluded.
+     * @return Negative, zero or positive if the field value is less, equal or greater than the literal, or {@link #UNDECIDED}.
+     */
+    abstract int compare(ByteBuffer buffer, int start, int end);
+
+    /**
+     * Parse an integer value written in ASCII characters, leading spaces and sign allowed.
+     * @param buffer Buffer containing the value.
+     * @param start Position of the first byte.
+     * @param end Position after the last byte.
+     * @param min Minimal value allowed.
+     * @param max Maximal value allowed.
+     * @return The value, or null if the bytes are not a valid integer in the given range.
+     */
+    static Long parseInteger(ByteBuffer buffer, int start, int end, long min, long max) {
+        while (start < end && Byte.toUnsignedInt(buffer.get(start)) <= ' ') {
+            start++;
+        }
+
+        boolean negative = false;
+
+        if (start < end && (buffer.get(start) == '-' || buffer.get(start) == '+')) {
+            negative = buffer.get(start) == '-';
+            start++;
+        }
+
+        if (start == end) {
+            return null;
+        }
+
+        long value = 0;
+
+        for (int index = start; index < end; index++) {
+            int digit = buffer.get(index) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+
+            // Accumulate negatively, so that the minimal long value can be parsed too.
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                return null;
+            }
+
+            value = value * 10 - digit;
+        }
+
+        if (negative == false) {
+            if (value == Long.MIN_VALUE) {
+                return null;
+            }
+
+            value = -value;
+        }
+
+        return (value < min || value > max) ? null : value;
+    }
+
+    /**
+     * Parse a decimal value written in ASCII characters. Only plain decimal notations having few significant digits are parsed here,
+     * because they can be converted to the nearest double with a single division : the result is then the one of {@link Double#parseDouble(String)}.
+     * Other values are parsed by {@link Double#parseDouble(String)}.
+     * @param buffer Buffer containing the value.
+     * @param start Position of the first byte.
+     * @param end Position after the last byte.
+     * @return The value, or {@link Double#NaN} if the bytes are not a valid number.
+     */
+    static double parseDecimal(ByteBuffer buffer, int start, int end) {
+        int first = start;
+
+        while (first < end && Byte.toUnsignedInt(buffer.get(first)) <= ' ') {
+            first++;
+        }
+
+        int index = first;
+        boolean negative = false;
+
+        if (index < end && (buffer.get(index) == '-' || buffer.get(index) == '+')) {
+            negative = buffer.get(index) == '-';
+            index++;
+        }
+
+        long mantissa = 0;
+        int scale = -1;
+        int digits = 0;
+
+        for (; index < end; index++) {
+            byte b = buffer.get(index);
+
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+
+                if (++digits > 15 || scale >= 0 && ++scale > 22) {
+                    break;
+                }
+            }
+            else {
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                }
+                else {
+                    break;
+                }
+            }
+        }
+
+        if (index == end && digits != 0) {
+            // Both the mantissa and the power of ten are exact doubles, so the division is correctly rounded.
+            double value = (scale > 0) ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+            return negative ? -value : value;
+        }
+
+        // Exponents, long mantissas, special values or invalid numbers.
+        try {
+            return Double.parseDouble(new String(bytes(buffer, first, end), StandardCharsets.US_ASCII));
+        }
+        catch(NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** Powers of ten that are exactly representable as double values. */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+
+        for (int index = 1; index < POWERS_OF_TEN.length; index++) {
+            POWERS_OF_TEN[index] = POWERS_OF_TEN[index - 1] * 10;
+        }
+    }
+
+    /**
+     * Copy the bytes of a field value.
+     * @param buffer Buffer containing the value.
+     * @param start Position of the first byte.
+     * @param end Position after the last byte.
+     * @return Bytes.
+     */
+    static byte[] bytes(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = buffer.get(start + index);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Comparison of an integer field (Java type Integer or Long) to a numeric literal.
+     */
+    static final class IntegerField extends RecordPredicate {
+        /** Range of the values accepted by the field Java type. */
+        private final long min, max;
+
+        /** The literal, if it is an integer. */
+        private final long integerLiteral;
+
+        /** The literal, if it is a double. NaN if the literal is an integer. */
+        private final double doubleLiteral;
+
+        /**
+         * Construct the predicate.
+         * @param op Operator.
+         * @param fieldIsSecond true if the field is the second comparand of the condition.
+         * @param fieldOffset Offset of the field from the beginning of the record.
+         * @param fieldLength Length of the field in bytes.
+         * @param isLong true if the field Java type is Long, false if it is Integer.
+         * @param literal Integer, Long or Double literal.
+         */
+        IntegerField(String op, boolean fieldIsSecond, int fieldOffset, int fieldLength, boolean isLong, Number literal) {
+            super(op, fieldIsSecond, fieldOffset, fieldLength);
+            this.min = isLong ? Long.MIN_VALUE : Integer.MIN_VALUE;
+            this.max = isLong ? Long.MAX_VALUE : Integer.MAX_VALUE;
+            this.integerLiteral = literal.longValue();
+            this.doubleLiteral = (literal instanceof Double || literal instanceof Float) ? literal.doubleValue() : Double.NaN;
+        }
+
+        /**
+         * @see org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate#compare(java.nio.ByteBuffer, int, int)
+         */
+        @Override
+        int compare(ByteBuffer buffer, int start, int end) {
+            Long value = parseInteger(buffer, start, end, this.min, this.max);
+
+            if (value == null) {
+                return UNDECIDED;
+            }
+
+            // Integer and Long values are promoted to Double when compared to a Double.
+            if (Double.isNaN(this.doubleLiteral)) {
+                return Long.compare(value, this.integerLiteral);
+            }
+
+            return Double.compare(value.doubleValue(), this.doubleLiteral);
+        }
+    }
+
+    /**
+     * Comparison of a double field to a numeric literal.
+     */
+    static final class DoubleField extends RecordPredicate {
+        /** The literal. */
+        private final double literal;
+
+        /**
+         * Construct the predicate.
+         * @param op Operator.
+         * @param fieldIsSecond true if the field is the second comparand of the condition.
+         * @param fieldOffset Offset of the field from the beginning of the record.
+         * @param fieldLength Length of the field in bytes.
+         * @param value Integer or Double literal.
+         */
+        DoubleField(String op, boolean fieldIsSecond, int fieldOffset, int fieldLength, Number value) {
+            super(op, fieldIsSecond, fieldOffset, fieldLength);
+            this.literal = value.doubleValue();
+        }
+
+        /**
+         * @see org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate#compare(java.nio.ByteBuffer, int, int)
+         */
+        @Override
+        int compare(ByteBuffer buffer, int start, int end) {
+            double value = parseDecimal(buffer, start, end);
+
+            // A NaN can also be a "NaN" text in the field : let the ResultSet decide.
+            if (Double.isNaN(value)) {
+                return UNDECIDED;
+            }
+
+            return Double.compare(value, this.literal);
+        }
+    }
+
+    /**
+     * Comparison of a float field to a numeric literal.
+     */
+    static final class FloatField extends RecordPredicate {
+        /** The literal. */
+        private final Number literal;
+
+        /**
+         * Construct the predicate.
+         * @param op Operator.
+         * @param fieldIsSecond true if the field is the second comparand of the condition.
+         * @param fieldOffset Offset of the field from the beginning of the record.
+         * @param fieldLength Length of the field in bytes.
+         * @param value Integer or Double literal.
+         */
+        FloatField(String op, boolean fieldIsSecond, int fieldOffset, int fieldLength, Number value) {
+            super(op, fieldIsSecond, fieldOffset, fieldLength);
+            this.literal = value;
+        }
+
+        /**
+         * @see org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate#compare(java.nio.ByteBuffer, int, int)
+         */
+        @Override
+        int compare(ByteBuffer buffer, int start, int end) {
+            float value;
+
+            try {
+                value = Float.parseFloat(new String(bytes(buffer, start, end), StandardCharsets.US_ASCII).trim());
+            }
+            catch(NumberFormatException e) {
+                return UNDECIDED;
+            }
+
+            // An Integer literal is promoted to Float, and a Float field to Double when compared to a Double.
+            if (this.literal instanceof Double) {
+                return Double.compare(value, this.literal.doubleValue());
+            }
+
+            return Float.compare(value, this.literal.floatValue());
+        }
+    }
+
+    /**
+     * Equality test of a character field with a literal, on the encoded bytes.
+     */
+    static final class EqualBytes extends RecordPredicate {
+        /** The literal, encoded with the database charset. */
+        private final byte[] literal;
+
+        /**
+         * Construct the predicate.
+         * @param fieldIsSecond true if the field is the second comparand of the condition.
+         * @param fieldOffset Offset of the field from the beginning of the record.
+         * @param fieldLength Length of the field in bytes.
+         * @param value Literal, encoded with the database charset.
+         */
+        EqualBytes(boolean fieldIsSecond, int fieldOffset, int fieldLength, byte[] value) {
+            super("=", fieldIsSecond, fieldOffset, fieldLength);
+            this.literal = value;
+        }
+
+        /**
+         * @see org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate#compare(java.nio.ByteBuffer, int, int)
+         */
+        @Override
+        int compare(ByteBuffer buffer, int start, int end) {
+            if (end - start != this.literal.length) {
+                return 1;
+            }
+
+            for (int index = 0; index < this.literal.length; index++) {
+                if (buffer.get(start + index) != this.literal[index]) {
+                    return 1;
+                }
+            }
+
+            return 0;
+        }
+    }
+
+    /**
+     * Ordering comparison of a character field with a literal : only the field compared is decoded.
+     */
+    static final class TextField extends RecordPredicate {
+        /** The literal. */
+        private final String literal;
+
+        /** Database charset, null for the platform default. */
+        private final Charset charset;
+
+        /**
+         * Construct the predicate.
+         * @param op Operator.
+         * @param fieldIsSecond true if the field is the second comparand of the condition.
+         * @param fieldOffset Offset of the field from the beginning of the record.
+         * @param fieldLength Length of the field in bytes.
+         * @param value Literal.
+         * @param cs Database charset, null for the platform default.
+         */
+        TextField(String op, boolean fieldIsSecond, int fieldOffset, int fieldLength, String value, Charset cs) {
+            super(op, fieldIsSecond, fieldOffset, fieldLength);
+            this.literal = value;
+            this.charset = cs;
+        }
+
+        /**
+         * @see org.apache.sis.internal.shapefile.jdbc.sql.RecordPredicate#compare(java.nio.ByteBuffer, int, int)
+         */
+        @Override
+        int compare(ByteBuffer buffer, int start, int end) {
+            byte[] bytes = bytes(buffer, start, end);
+            String value = (this.charset != null) ? new String(bytes, this.charset) : new String(bytes);
+            return value.compareTo(this.literal);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.shapefile;
+
+
+/**
+ * What to read from the geometry of the shapefile records.
+ *
+ * <div class="warning">This is an experimental class,
+ * not yet target for any Apache SIS release at this time.</div>
+ *
+ * @author  agent
+ * @version 1.0
+ *
+ * @see InputFeatureStream#setGeometryContent(GeometryContent)
+ * @see ShapefileStoreProvider#getOpenParameters()
+ *
+ * @since 1.0
+ * @module
+ */
+public enum GeometryContent {
+    /** The full geometry of each record is decoded. */
+    GEOMETRY,
+
+    /** Only the bounding box of each record is read, and set as the geometry of the feature. */
+    BOUNDING_BOX,
+
+    /** The geometries are not read : the geometry of the features is left unset. */
+    NONE
+}
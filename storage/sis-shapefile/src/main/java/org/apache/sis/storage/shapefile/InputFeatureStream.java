@@ -18,9 +18,11 @@ package org.apache.sis.storage.shapefile;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.sql.SQLFeatureNotSupportedException;
 import java.text.DecimalFormat;
 import java.text.MessageFormat;
+import java.util.BitSet;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
@@ -47,7 +49,7 @@ import org.apache.sis.feature.AbstractFeature;
  * not yet target for any Apache SIS release at this time.</div>
  *
  * @author  Marc Le Bihan
- * @version 0.5
+ * @version 1.0
  * @since   0.5
  * @module
  */
@@ -91,6 +93,18 @@ public class InputFeatureStream extends InputStream {
     /** Shapefile reader. */
     private ShapefileByteReader shapefileReader;
 
+    /** Numbers (starting at 0) of the records that may intersect the spatial filter, null if there is no spatial filter. */
+    private BitSet candidates;
+
+    /** Area of the spatial filter, as (xmin, ymin, xmax, ymax). */
+    private double[] filterArea;
+
+    /** Position of the header of each record in the shapefile, computed when first needed by a spatial filter. */
+    private int[] recordsPositions;
+
+    /** Number (starting at 0) of the record from which to search the next spatial candidate. */
+    private int nextCandidate;
+
     /**
      * Create an input stream of features over a connection.
      * @param shpfile Shapefile.
@@ -206,6 +220,30 @@ public class InputFeatureStream extends InputStream {
         this.connection.close();
     }
 
+    /**
+     * Set what to read from the geometry of the shapefile records. When only the attributes or the bounding boxes
+     * of the features are needed, not decoding the full geometries saves the reading of all their points.
+     * @param content Geometry content to read : full geometry (default), bounding box only, or none.
+     */
+    public void setGeometryContent(GeometryContent content) {
+        this.shapefileReader.setGeometryContent(content);
+    }
+
+    /**
+     * Restricts the features returned by this stream to the ones whose bounding box intersects the given area.
+     * Only the records which are candidates according the spatial index are read : the other ones are neither
+     * read in the shapefile nor in the database file.
+     * @param spatialCandidates Numbers (starting at 0) of the records that may intersect the area, as given by a spatial index.
+     * @param xmin Minimal x value of the area.
+     * @param ymin Minimal y value of the area.
+     * @param xmax Maximal x value of the area.
+     * @param ymax Maximal y value of the area.
+     */
+    void setSpatialFilter(BitSet spatialCandidates, double xmin, double ymin, double xmax, double ymax) {
+        this.candidates = spatialCandidates;
+        this.filterArea = new double[] {xmin, ymin, xmax, ymax};
+    }
+
     /**
      * Read next feature responding to the SQL query.
      * @return Feature, null if no more feature is available.
@@ -284,36 +322,44 @@ public class InputFeatureStream extends InputStream {
                 return null;
             }
 
-            int previousRecordNumber = this.rs.getRowNum();
-
-            if (this.rs.next() == false) {
-                this.endOfFile = true;
-                return null;
+            if (this.candidates != null) {
+                if (nextSpatialCandidate() == false) {
+                    this.endOfFile = true;
+                    return null;
+                }
             }
+            else {
+                int previousRecordNumber = this.rs.getRowNum();
+
+                if (this.rs.next() == false) {
+                    this.endOfFile = true;
+                    return null;
+                }
+
+                int currentRecordNumber = this.rs.getRowNum();
 
-            int currentRecordNumber = this.rs.getRowNum();
+                // On the shapefile, only jump in another place if a direct access is needed.
+                boolean directAccesRequired = currentRecordNumber != (previousRecordNumber + 1);
 
-            // On the shapefile, only jump in another place if a direct access is needed.
-            boolean directAccesRequired = currentRecordNumber != (previousRecordNumber + 1);
+                if (directAccesRequired) {
+                    try {
+                        if (LOGGER.isLoggable(Level.FINER)) {
+                            MessageFormat format = new MessageFormat(this.rsc.getString("log.shapefile_reading_with_direct_access"));
+                            LOGGER.finer(format.format(new Object[] {previousRecordNumber, currentRecordNumber}));
+                        }
 
-            if (directAccesRequired) {
-                try {
+                        this.shapefileReader.setRowNum(currentRecordNumber);
+                    }
+                    catch(SQLInvalidRecordNumberForDirectAccessException e) {
+                        // This would be an internal API problem, because as soon as we handle a shapefile index, we shall go through its relative shape feature file correctly.
+                        throw new RuntimeException(e.getMessage(), e);
+                    }
+                }
+                else {
                     if (LOGGER.isLoggable(Level.FINER)) {
-                        MessageFormat format = new MessageFormat(this.rsc.getString("log.shapefile_reading_with_direct_access"));
+                        MessageFormat format = new MessageFormat(this.rsc.getString("log.shapefile_reading_with_sequential_access"));
                         LOGGER.finer(format.format(new Object[] {previousRecordNumber, currentRecordNumber}));
                     }
-
-                    this.shapefileReader.setRowNum(currentRecordNumber);
-                }
-                catch(SQLInvalidRecordNumberForDirectAccessException e) {
-                    // This would be an internal API problem, because as soon as we handle a shapefile index, we shall go through its relative shape feature file correctly.
-                    throw new RuntimeException(e.getMessage(), e);
-                }
-            }
-            else {
-                if (LOGGER.isLoggable(Level.FINER)) {
-                    MessageFormat format = new MessageFormat(this.rsc.getString("log.shapefile_reading_with_sequential_access"));
-                    LOGGER.finer(format.format(new Object[] {previousRecordNumber, currentRecordNumber}));
                 }
             }
 
@@ -324,6 +370,12 @@ public class InputFeatureStream extends InputStream {
             try(DBFBuiltInMemoryResultSetForColumnsListing rsDatabase = (DBFBuiltInMemoryResultSetForColumnsListing)metadata.getColumns(null, null, null, null)) {
                 while(rsDatabase.next()) {
                     String fieldName = rsDatabase.getString("COLUMN_NAME");
+
+                    // The columns that are not selected by the query are not decoded, and left unset in the feature.
+                    if (this.rs.isSelected(fieldName) == false) {
+                        continue;
+                    }
+
                     Object fieldValue = this.rs.getObject(fieldName);
 
                     // FIXME To allow features to be filled again, the values are converted to String again : feature should allow any kind of data.
@@ -364,6 +416,39 @@ public class InputFeatureStream extends InputStream {
         }
     }
 
+    /**
+     * Moves to the next record which is a candidate according to the spatial index, intersects the spatial filter and matches the SQL query.
+     * Only the candidate records are read : they are located in the shapefile by the positions given by the shapefile index (.shx),
+     * and in the database file by their number multiplied by the record length.
+     * @return true if a record has been found, false if there is no more candidate.
+     * @throws SQLNotNumericException if a field expected numeric isn't.
+     * @throws SQLNotDateException if a field expected of date kind, isn't.
+     * @throws SQLNoSuchFieldException if a field doesn't exist.
+     * @throws SQLIllegalParameterException if a parameter is illegal in the query.
+     * @throws SQLInvalidStatementException if the SQL statement is invalid.
+     * @throws SQLConnectionClosedException if the connection is closed.
+     * @throws SQLUnsupportedParsingFeatureException if a SQL ability is not currently available through this driver.
+     */
+    private boolean nextSpatialCandidate() throws SQLConnectionClosedException, SQLInvalidStatementException, SQLIllegalParameterException, SQLNoSuchFieldException, SQLUnsupportedParsingFeatureException, SQLNotNumericException, SQLNotDateException {
+        if (this.recordsPositions == null) {
+            this.recordsPositions = this.shapefileReader.getRecordsPositions();
+        }
+
+        ByteBuffer shp = this.shapefileReader.getByteBuffer();
+
+        for (int shape = this.candidates.nextSetBit(this.nextCandidate); shape >= 0 && shape < this.recordsPositions.length; shape = this.candidates.nextSetBit(shape + 1)) {
+            this.nextCandidate = shape + 1;
+            shp.position(this.recordsPositions[shape]);
+
+            if (this.shapefileReader.intersects(this.filterArea[0], this.filterArea[1], this.filterArea[2], this.filterArea[3])
+                    && this.rs.moveToRecord(shape + 1)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Execute the wished SQL query.
      * @throws SQLConnectionClosedException if the connection is closed.
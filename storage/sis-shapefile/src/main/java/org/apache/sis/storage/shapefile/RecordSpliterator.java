@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.shapefile;
+
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import org.apache.sis.feature.AbstractFeature;
+import org.apache.sis.feature.DefaultFeatureType;
+import org.apache.sis.internal.shapefile.ShapefileByteReader;
+import org.apache.sis.internal.shapefile.jdbc.MappedByteReader;
+import org.apache.sis.util.collection.BackingStoreException;
+
+
+/**
+ * Iterator over a range of records of a shapefile. Each instance reads the {@code .shp} and {@code .dbf} files
+ * through its own {@linkplain ByteBuffer#duplicate() duplicates} of the memory-mapped buffers, so the position
+ * changes done by one iterator are not seen by the others. This allows {@link #trySplit()} to give half of the
+ * remaining records to another iterator which can be executed in a different thread.
+ *
+ * <p>The records are located in the {@code .shp} file by the positions read from the {@code .shx} index,
+ * and in the {@code .dbf} file by their number multiplied by the record length. Records flagged as deleted
+ * in the database file are skipped.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+final class RecordSpliterator implements Spliterator<AbstractFeature> {
+    /**
+     * The type of features to create.
+     */
+    private final DefaultFeatureType type;
+
+    /**
+     * The reader of the main {@code .shp} file, used for decoding the geometries.
+     */
+    private final ShapefileByteReader shapefile;
+
+    /**
+     * The reader of the {@code .dbf} file, used for decoding the attributes.
+     */
+    private final MappedByteReader database;
+
+    /**
+     * Position of the header of each record in the {@code .shp} file. This array is shared by all iterators
+     * and shall not be modified.
+     */
+    private final int[] positions;
+
+    /**
+     * View over the content of the {@code .shp} file, for the exclusive use of this iterator.
+     */
+    private final ByteBuffer shpBuffer;
+
+    /**
+     * View over the content of the {@code .dbf} file, for the exclusive use of this iterator.
+     */
+    private final ByteBuffer dbfBuffer;
+
+    /**
+     * Number of the next record to read.
+     */
+    private int index;
+
+    /**
+     * Number after the last record to read.
+     */
+    private final int end;
+
+    /**
+     * Creates a new iterator over the records in the given range.
+     *
+     * @param store      the data store which is creating this iterator.
+     * @param positions  position of the header of each record in the {@code .shp} file.
+     * @param index      number of the first record to read.
+     * @param end        number after the last record to read.
+     */
+    RecordSpliterator(final ShapefileStore store, final int[] positions, final int index, final int end) {
+        this(store.getType(), store.shapefile, store.database, positions, index, end);
+    }
+
+    /**
+     * Creates a new iterator over the records in the given range.
+     * Used for the initial iterator and for the iterators created by {@link #trySplit()}.
+     */
+    private RecordSpliterator(final DefaultFeatureType type, final ShapefileByteReader shapefile,
+            final MappedByteReader database, final int[] positions, final int index, final int end)
+    {
+        this.type      = type;
+        this.shapefile = shapefile;
+        this.database  = database;
+        this.positions = positions;
+        this.index     = index;
+        this.end       = end;
+        shpBuffer = shapefile.getByteBuffer().duplicate();
+        dbfBuffer = database .getByteBuffer().duplicate();
+    }
+
+    /**
+     * If at least one more feature is available, creates it and gives it to the given action.
+     * Deleted records are skipped.
+     *
+     * @param  action  the action to execute on the next feature.
+     * @return {@code false} if there is no more feature to read.
+     * @throws BackingStoreException if the record can not be decoded.
+     */
+    @Override
+    public boolean tryAdvance(final Consumer<? super AbstractFeature> action) {
+        while (index < end) {
+            final int i = index++;
+            final AbstractFeature feature = type.newInstance();
+            if (database.loadRowIntoFeature(dbfBuffer, i, feature)) {
+                shpBuffer.position(positions[i]);
+                try {
+                    shapefile.completeFeature(shpBuffer, feature);
+                } catch (InvalidShapefileFormatException e) {
+                    throw new BackingStoreException(e);
+                }
+                action.accept(feature);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If this iterator can be partitioned, returns an iterator over the first half of the remaining records
+     * and reserves the second half to this iterator. Otherwise returns {@code null}.
+     *
+     * @return an iterator over the first half of the remaining records, or {@code null} if too few records remain.
+     */
+    @Override
+    public Spliterator<AbstractFeature> trySplit() {
+        final int mid = (index + end) >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        final RecordSpliterator prefix = new RecordSpliterator(type, shapefile, database, positions, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    /**
+     * Returns the number of records remaining in the range of this iterator.
+     * This is an upper bound, since deleted records will be skipped.
+     *
+     * @return number of remaining records.
+     */
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    /**
+     * Returns the characteristics of this iterator. The size is not declared as exact
+     * since the database file may contain deleted records.
+     *
+     * @return the characteristics of this iterator.
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
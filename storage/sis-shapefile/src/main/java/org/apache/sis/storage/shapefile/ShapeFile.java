@@ -17,11 +17,16 @@
 package org.apache.sis.storage.shapefile;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
+import org.opengis.geometry.Envelope;
+
 import org.apache.sis.feature.DefaultFeatureType;
 import org.apache.sis.internal.shapefile.ShapefileDescriptor;
+import org.apache.sis.internal.shapefile.ShapefileSpatialIndex;
 import org.apache.sis.internal.shapefile.jdbc.DBase3FieldDescriptor;
 
 /**
@@ -31,7 +36,7 @@ import org.apache.sis.internal.shapefile.jdbc.DBase3FieldDescriptor;
  * not yet target for any Apache SIS release at this time.</div>
  *
  * @author  Travis L. Pinney
- * @version 0.5
+ * @version 1.0
  *
  * @see <a href="http://www.esri.com/library/whitepapers/pdfs/shapefile.pdf">ESRI Shapefile Specification</a>
  * @see <a href="http://ulisse.elettra.trieste.it/services/doc/dbase/DBFstruct.htm">dBASE III File Structure</a>
@@ -49,6 +54,15 @@ public class ShapeFile {
     /** Shapefile index, if any. */
     private File shapeFileIndex;
 
+    /** Quadtree spatial index file (.qix), read if it exists. */
+    private File spatialIndexFile;
+
+    /** true if the spatial index built on the first spatial query should be written in the .qix file. */
+    private boolean writeSpatialIndex;
+
+    /** Quadtree spatial index, loaded on the first spatial query. */
+    private ShapefileSpatialIndex spatialIndex;
+
     /** Type of the features contained in this shapefile. */
     private DefaultFeatureType featuresType;
 
@@ -90,6 +104,7 @@ public class ShapeFile {
 
         shapeFileIndexName.replace(shpfile.length() - 3, shpfile.length(), shapeFileIndexSuffix);
         this.shapeFileIndex = new File(shapeFileIndexName.toString());
+        this.spatialIndexFile = spatialIndexFile(shpfile);
     }
 
     /**
@@ -103,6 +118,25 @@ public class ShapeFile {
 
         this.shapeFile = new File(shpfile);
         this.databaseFile = new File(dbasefile);
+        this.spatialIndexFile = spatialIndexFile(shpfile);
+    }
+
+    /**
+     * Deduct the quadtree spatial index file name by suffixing the shapefile name by qix (trying to respect the same case).
+     * @param shpfile Shapefile name.
+     * @return Spatial index file.
+     */
+    private static File spatialIndexFile(String shpfile) {
+        StringBuilder spatialIndexName = new StringBuilder(shpfile);
+
+        String spatialIndexSuffix = null;
+        spatialIndexSuffix = shpfile.endsWith("shp") ? "qix" : spatialIndexSuffix;
+        spatialIndexSuffix = shpfile.endsWith("SHP") ? "QIX" : spatialIndexSuffix;
+        spatialIndexSuffix = shpfile.endsWith("Shp") ? "Qix" : spatialIndexSuffix;
+        spatialIndexSuffix = (spatialIndexSuffix == null) ? "qix" : spatialIndexSuffix;
+
+        spatialIndexName.replace(shpfile.length() - 3, shpfile.length(), spatialIndexSuffix);
+        return new File(spatialIndexName.toString());
     }
 
     /**
@@ -173,7 +207,7 @@ public class ShapeFile {
      * @throws InvalidShapefileFormatException if the shapefile format is invalid.
      */
     public InputFeatureStream findAll() throws InvalidDbaseFileFormatException, ShapefileNotFoundException, DbaseFileNotFoundException, InvalidShapefileFormatException {
-        return find(null);
+        return find((String) null);
     }
 
     /**
@@ -193,6 +227,87 @@ public class ShapeFile {
         return is;
     }
 
+    /**
+     * Find features whose bounding box intersects the given envelope.
+     * @param envelope Area of interest, in the coordinate reference system of the shapefile.
+     * @return Features
+     * @throws DbaseFileNotFoundException if the database file has not been found.
+     * @throws ShapefileNotFoundException if the shapefile has not been found.
+     * @throws InvalidDbaseFileFormatException if the database file format is invalid.
+     * @throws InvalidShapefileFormatException if the shapefile format is invalid, or if the spatial index cannot be built.
+     */
+    public InputFeatureStream find(Envelope envelope) throws InvalidDbaseFileFormatException, ShapefileNotFoundException, DbaseFileNotFoundException, InvalidShapefileFormatException {
+        return find(null, envelope);
+    }
+
+    /**
+     * Set if the spatial index built from the shapefile on the first spatial query should be written in a .qix file next to the shapefile,
+     * for being read by the next uses. By default, the index is kept in memory only and the directory of the shapefile is never modified.
+     * @param write true for writing the spatial index if it has to be built.
+     */
+    public synchronized void setWriteSpatialIndex(boolean write) {
+        this.writeSpatialIndex = write;
+    }
+
+    /**
+     * Find features corresponding to an SQL request and whose bounding box intersects the given envelope.
+     * A quadtree spatial index (.qix file) is used for selecting the candidate records: it is read if it exists and is up to date,
+     * or built from the shapefile otherwise (and written next to it if {@link #setWriteSpatialIndex(boolean)} has been set).
+     * Records which are not candidates are skipped without decoding their geometry.
+     * @param sqlStatement SQL Statement to run, if null, will default to SELECT * FROM database.
+     * @param envelope Area of interest, in the coordinate reference system of the shapefile.
+     * @return Features
+     * @throws DbaseFileNotFoundException if the database file has not been found.
+     * @throws ShapefileNotFoundException if the shapefile has not been found.
+     * @throws InvalidDbaseFileFormatException if the database file format is invalid.
+     * @throws InvalidShapefileFormatException if the shapefile format is invalid, or if the spatial index cannot be built.
+     */
+    public InputFeatureStream find(String sqlStatement, Envelope envelope) throws InvalidDbaseFileFormatException, ShapefileNotFoundException, DbaseFileNotFoundException, InvalidShapefileFormatException {
+        Objects.requireNonNull(envelope, "The envelope of a spatial query cannot be null.");
+
+        double xmin = envelope.getMinimum(0);
+        double ymin = envelope.getMinimum(1);
+        double xmax = envelope.getMaximum(0);
+        double ymax = envelope.getMaximum(1);
+
+        // The candidates are searched before opening the stream, so that a failure doesn't leave it open.
+        BitSet candidates;
+
+        try {
+            candidates = getSpatialIndex().search(xmin, ymin, xmax, ymax);
+        }
+        catch(IOException e) {
+            throw new InvalidShapefileFormatException(e.getMessage(), e);
+        }
+
+        InputFeatureStream is = find(sqlStatement);
+        is.setSpatialFilter(candidates, xmin, ymin, xmax, ymax);
+        return is;
+    }
+
+    /**
+     * Returns the quadtree spatial index of this shapefile, reading or building it if needed.
+     * @return Spatial index.
+     * @throws ShapefileNotFoundException if the shapefile has not been found.
+     * @throws InvalidShapefileFormatException if the spatial index cannot be read or built.
+     */
+    private synchronized ShapefileSpatialIndex getSpatialIndex() throws ShapefileNotFoundException, InvalidShapefileFormatException {
+        if (this.spatialIndex == null) {
+            if (this.shapeFile.exists() == false) {
+                throw new ShapefileNotFoundException(this.shapeFile.getAbsolutePath());
+            }
+
+            try {
+                this.spatialIndex = ShapefileSpatialIndex.open(this.shapeFile, this.spatialIndexFile, this.writeSpatialIndex);
+            }
+            catch(IOException e) {
+                throw new InvalidShapefileFormatException(e.getMessage(), e);
+            }
+        }
+
+        return this.spatialIndex;
+    }
+
     /**
      * Load shapefile descriptors : features types, shapefileDescriptor, database field descriptors :
      * this is also automatically done when executing a query on it, by findAll.
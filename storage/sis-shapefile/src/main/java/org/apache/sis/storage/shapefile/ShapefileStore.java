@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.shapefile;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.opengis.geometry.Envelope;
+import org.opengis.metadata.Metadata;
+import org.opengis.metadata.maintenance.ScopeCode;
+import org.opengis.parameter.ParameterValueGroup;
+import org.apache.sis.feature.AbstractFeature;
+import org.apache.sis.feature.DefaultFeatureType;
+import org.apache.sis.geometry.ImmutableEnvelope;
+import org.apache.sis.internal.shapefile.ShapefileByteReader;
+import org.apache.sis.internal.shapefile.ShapefileDescriptor;
+import org.apache.sis.internal.shapefile.jdbc.MappedByteReader;
+import org.apache.sis.internal.storage.MetadataBuilder;
+import org.apache.sis.internal.storage.URIDataStore;
+import org.apache.sis.internal.storage.io.IOUtilities;
+import org.apache.sis.metadata.sql.MetadataStoreException;
+import org.apache.sis.parameter.Parameters;
+import org.apache.sis.setup.OptionKey;
+import org.apache.sis.storage.DataStore;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.FeatureSet;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.storage.UnsupportedStorageException;
+import org.apache.sis.storage.event.ChangeEvent;
+import org.apache.sis.storage.event.ChangeListener;
+
+
+/**
+ * A data store backed by a shapefile, made of a main {@code .shp} file, a {@code .dbf} database file
+ * and an optional {@code .shx} index. Instances of this data store are created by
+ * {@link ShapefileStoreProvider#open(StorageConnector)}.
+ *
+ * <p>The {@code .shp} and {@code .dbf} files are memory-mapped. The {@linkplain #features(boolean) stream of features}
+ * reads records through its own views of those mappings, using the record positions given by the {@code .shx} index
+ * (or found by a scan of the records headers if there is no index). Consequently the stream can be split in ranges
+ * of records decoded concurrently when a parallel stream is requested.</p>
+ *
+ * <p>The {@code "geometryContent"} open parameter specifies whether the features contain their full geometries
+ * (the default), only their bounding boxes, or no geometry at all.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ *
+ * @see ShapefileStoreProvider
+ *
+ * @since 1.0
+ * @module
+ */
+public class ShapefileStore extends DataStore implements FeatureSet {
+    /**
+     * The reader of the main {@code .shp} file, which also provides the feature type.
+     */
+    final ShapefileByteReader shapefile;
+
+    /**
+     * The reader of the {@code .dbf} database file.
+     */
+    final MappedByteReader database;
+
+    /**
+     * The {@link ShapefileStoreProvider#LOCATION} parameter value, or {@code null} if none.
+     * This is used for information purpose only, not for actual reading operations.
+     *
+     * @see #getOpenParameters()
+     */
+    private final URI location;
+
+    /**
+     * Position of the header of each record in the {@code .shp} file, computed when first needed.
+     *
+     * @see #positions()
+     */
+    private int[] positions;
+
+    /**
+     * The object returned by {@link #getMetadata()}, created when first needed and cached.
+     */
+    private Metadata metadata;
+
+    /**
+     * Creates a new shapefile store from the given file or path.
+     * The {@code .dbf} and {@code .shx} files are expected in the same directory than the {@code .shp} file.
+     *
+     * @param  provider   the factory that created this {@code DataStore} instance, or {@code null} if unspecified.
+     * @param  connector  information about the storage (URL, file, path, <i>etc</i>).
+     * @throws DataStoreException if an error occurred while opening the shapefile.
+     */
+    public ShapefileStore(final ShapefileStoreProvider provider, final StorageConnector connector) throws DataStoreException {
+        this(provider, connector, GeometryContent.GEOMETRY);
+    }
+
+    /**
+     * Creates a new shapefile store from the given file or path, reading only the given content of the geometries.
+     *
+     * @param  provider   the factory that created this {@code DataStore} instance, or {@code null} if unspecified.
+     * @param  connector  information about the storage (URL, file, path, <i>etc</i>).
+     * @param  content    what to read from the geometry of the records, or {@code null} for the full geometries.
+     * @throws DataStoreException if an error occurred while opening the shapefile.
+     */
+    public ShapefileStore(final ShapefileStoreProvider provider, final StorageConnector connector, final GeometryContent content)
+            throws DataStoreException
+    {
+        super(provider, connector);
+        location = connector.getStorageAs(URI.class);
+        final Path path = connector.getStorageAs(Path.class);
+        if (path == null) {
+            throw new UnsupportedStorageException(super.getLocale(), ShapefileStoreProvider.NAME,
+                    connector.getStorage(), connector.getOption(OptionKey.OPEN_OPTIONS));
+        }
+        connector.closeAllExcept(null);                 // The files will be memory-mapped by the readers.
+        final ShapeFile files = new ShapeFile(path.toString());
+        final File index = files.getFileShapefileIndex();
+        ShapefileByteReader shp = null;
+        try {
+            shp = new ShapefileByteReader(files.getFileShapefile(), files.getFileDatabase(), index.isFile() ? index : null);
+            if (content != null) {
+                shp.setGeometryContent(content);
+            }
+            database = new MappedByteReader(files.getFileDatabase(), null);
+        } catch (SQLException e) {
+            if (shp != null) try {
+                shp.close();
+            } catch (IOException s) {
+                e.addSuppressed(s);
+            }
+            throw new DataStoreException(e);
+        }
+        shapefile = shp;
+    }
+
+    /**
+     * Returns the parameters used to open this shapefile data store.
+     * The parameters are described by {@link ShapefileStoreProvider#getOpenParameters()} and contains
+     * at least a parameter named {@value org.apache.sis.storage.DataStoreProvider#LOCATION},
+     * together with the {@code "geometryContent"} parameter.
+     *
+     * @return parameters used for opening this data store, or {@code null} if not available.
+     */
+    @Override
+    public ParameterValueGroup getOpenParameters() {
+        final ParameterValueGroup pg = URIDataStore.parameters(provider, location);
+        if (pg != null) {
+            Parameters.castOrWrap(pg).getOrCreate(ShapefileStoreProvider.GEOMETRY_CONTENT).setValue(shapefile.getGeometryContent());
+        }
+        return pg;
+    }
+
+    /**
+     * Returns information about the shapefile as a whole.
+     *
+     * @return information about the dataset.
+     * @throws DataStoreException if an error occurred while reading the data.
+     */
+    @Override
+    public synchronized Metadata getMetadata() throws DataStoreException {
+        if (metadata == null) {
+            final MetadataBuilder builder = new MetadataBuilder();
+            try {
+                builder.setFormat(ShapefileStoreProvider.NAME);
+            } catch (MetadataStoreException e) {
+                builder.addFormatName(ShapefileStoreProvider.NAME);
+                listeners.warning(null, e);
+            }
+            builder.addResourceScope(ScopeCode.DATASET, null);
+            builder.addFeatureType(getType(), database.getRowCount());
+            if (location != null) {
+                builder.addTitleOrIdentifier(IOUtilities.filenameWithoutExtension(super.getDisplayName()), MetadataBuilder.Scope.ALL);
+            }
+            metadata = builder.build(true);
+        }
+        return metadata;
+    }
+
+    /**
+     * Returns the bounding box declared in the shapefile header. The coordinate reference system
+     * is unspecified since the {@code .prj} file is not read by current implementation.
+     *
+     * @return the spatial extent of all features in the shapefile.
+     */
+    @Override
+    public Envelope getEnvelope() {
+        final ShapefileDescriptor d = shapefile.getShapefileDescriptor();
+        return new ImmutableEnvelope(new double[] {d.getXmin(), d.getYmin()},
+                                     new double[] {d.getXmax(), d.getYmax()}, null);
+    }
+
+    /**
+     * Returns the type of all features in the shapefile.
+     *
+     * @return type of all features.
+     */
+    @Override
+    public DefaultFeatureType getType() {
+        return shapefile.getFeaturesType();
+    }
+
+    /**
+     * Returns the stream of features in the shapefile. Deleted records of the database file are omitted.
+     * If {@code parallel} is {@code true}, the stream is split in ranges of records which are decoded
+     * concurrently, each range using its own views of the memory-mapped files.
+     *
+     * @param  parallel  {@code true} for a parallel stream, or {@code false} for a sequential stream.
+     * @return a stream over all features in the shapefile.
+     * @throws DataStoreException if an error occurred while creating the stream.
+     */
+    @Override
+    public Stream<AbstractFeature> features(final boolean parallel) throws DataStoreException {
+        final int[] p = positions();
+        return StreamSupport.stream(new RecordSpliterator(this, p, 0, Math.min(p.length, database.getRowCount())), parallel);
+    }
+
+    /**
+     * Returns the position of the header of each record in the {@code .shp} file.
+     * The array is computed when first needed, then shared by all streams.
+     */
+    private synchronized int[] positions() {
+        if (positions == null) {
+            positions = shapefile.getRecordsPositions();
+        }
+        return positions;
+    }
+
+    /**
+     * Ignored in current implementation, since this resource produces no events.
+     *
+     * @param  <T>        {@inheritDoc}
+     * @param  listener   {@inheritDoc}
+     * @param  eventType  {@inheritDoc}
+     */
+    @Override
+    public <T extends ChangeEvent> void addListener(ChangeListener<? super T> listener, Class<T> eventType) {
+    }
+
+    /**
+     * Ignored in current implementation, since this resource produces no events.
+     *
+     * @param  <T>        {@inheritDoc}
+     * @param  listener   {@inheritDoc}
+     * @param  eventType  {@inheritDoc}
+     */
+    @Override
+    public <T extends ChangeEvent> void removeListener(ChangeListener<? super T> listener, Class<T> eventType) {
+    }
+
+    /**
+     * Closes this shapefile store and releases any underlying resources.
+     * Streams created by {@link #features(boolean)} can not be used anymore after this method call.
+     *
+     * @throws DataStoreException if an error occurred while closing the shapefile.
+     */
+    @Override
+    public synchronized void close() throws DataStoreException {
+        try {
+            try {
+                shapefile.close();
+            } finally {
+                database.close();
+            }
+        } catch (IOException e) {
+            throw new DataStoreException(e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.shapefile;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.opengis.parameter.ParameterDescriptor;
+import org.opengis.parameter.ParameterDescriptorGroup;
+import org.opengis.parameter.ParameterValueGroup;
+import org.apache.sis.parameter.ParameterBuilder;
+import org.apache.sis.parameter.Parameters;
+import org.apache.sis.storage.DataStore;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreProvider;
+import org.apache.sis.storage.ProbeResult;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.internal.storage.Capability;
+import org.apache.sis.internal.storage.StoreMetadata;
+import org.apache.sis.internal.storage.URIDataStore;
+import org.apache.sis.util.ArgumentChecks;
+
+
+/**
+ * The provider of {@link ShapefileStore} instances. Given a {@link StorageConnector} input,
+ * this class tries to instantiate a {@code ShapefileStore}.
+ *
+ * <div class="section">Thread safety</div>
+ * The same {@code ShapefileStoreProvider} instance can be safely used by many threads without synchronization
+ * on the part of the caller.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+@StoreMetadata(formatName   = ShapefileStoreProvider.NAME,
+               fileSuffixes = "shp",
+               capabilities = Capability.READ)
+public class ShapefileStoreProvider extends DataStoreProvider {
+    /**
+     * The format name.
+     */
+    static final String NAME = "ESRI Shapefile";
+
+    /**
+     * The file code expected at the beginning of the main file, in big endian order.
+     */
+    private static final int FILE_CODE = 9994;
+
+    /**
+     * The version expected at offset 28 of the main file, in little endian order.
+     */
+    private static final int VERSION = 1000;
+
+    /**
+     * Description of the parameter for what to read from the geometry of the records.
+     * The default value is {@link GeometryContent#GEOMETRY}.
+     */
+    static final ParameterDescriptor<GeometryContent> GEOMETRY_CONTENT;
+
+    /**
+     * The parameter descriptor to be returned by {@link #getOpenParameters()}.
+     */
+    private static final ParameterDescriptorGroup OPEN_DESCRIPTOR;
+    static {
+        final ParameterBuilder builder = new ParameterBuilder();
+        GEOMETRY_CONTENT = builder.addName("geometryContent").setDescription("What to read from the geometry of the records.")
+                                  .create(GeometryContent.class, GeometryContent.GEOMETRY);
+        OPEN_DESCRIPTOR  = builder.addName(NAME).createGroup(URIDataStore.Provider.LOCATION_PARAM, GEOMETRY_CONTENT);
+    }
+
+    /**
+     * Creates a new provider.
+     */
+    public ShapefileStoreProvider() {
+    }
+
+    /**
+     * Returns a generic name for this data store, used mostly in warnings or error messages.
+     *
+     * @return a short name or abbreviation for the data format.
+     */
+    @Override
+    public String getShortName() {
+        return NAME;
+    }
+
+    /**
+     * Returns a description of all parameters accepted by this provider for opening a shapefile.
+     * In addition to the location, a {@code "geometryContent"} parameter specifies whether the features
+     * shall contain the full geometries, only their bounding boxes, or no geometry at all.
+     *
+     * @return description of available parameters for opening a shapefile.
+     */
+    @Override
+    public ParameterDescriptorGroup getOpenParameters() {
+        return OPEN_DESCRIPTOR;
+    }
+
+    /**
+     * Returns {@link ProbeResult#SUPPORTED} if the given storage appears to be the main file of a shapefile.
+     * This method verifies the file code and the version found in the header of the {@code .shp} file.
+     *
+     * @param  connector  information about the storage (URL, stream, <i>etc</i>).
+     * @return {@link ProbeResult#SUPPORTED} if the given storage seems to be readable as a shapefile.
+     * @throws DataStoreException if an I/O error occurred.
+     */
+    @Override
+    public ProbeResult probeContent(final StorageConnector connector) throws DataStoreException {
+        final ByteBuffer buffer = connector.getStorageAs(ByteBuffer.class);
+        if (buffer != null) {
+            final int start = buffer.position();
+            if (buffer.remaining() < 32) {
+                return ProbeResult.INSUFFICIENT_BYTES;
+            }
+            final ByteOrder order = buffer.order();
+            try {
+                if (buffer.order(ByteOrder.BIG_ENDIAN).getInt(start) == FILE_CODE &&
+                    buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(start + 28) == VERSION)
+                {
+                    return ProbeResult.SUPPORTED;
+                }
+            } finally {
+                buffer.order(order);
+            }
+        }
+        return ProbeResult.UNSUPPORTED_STORAGE;
+    }
+
+    /**
+     * Returns a {@link ShapefileStore} implementation associated with this provider.
+     *
+     * @param  connector  information about the storage (URL, stream, <i>etc</i>).
+     * @return a data store implementation associated with this provider for the given storage.
+     * @throws DataStoreException if an error occurred while creating the data store instance.
+     */
+    @Override
+    public DataStore open(final StorageConnector connector) throws DataStoreException {
+        return new ShapefileStore(this, connector);
+    }
+
+    /**
+     * Returns a {@link ShapefileStore} implementation for the given parameters.
+     * The {@code "geometryContent"} parameter, if present, specifies what to read from the geometries.
+     *
+     * @param  parameters  opening parameters as defined by {@link #getOpenParameters()}.
+     * @return a data store implementation associated with this provider for the given parameters.
+     * @throws DataStoreException if an error occurred while creating the data store instance.
+     */
+    @Override
+    public DataStore open(final ParameterValueGroup parameters) throws DataStoreException {
+        ArgumentChecks.ensureNonNull("parameter", parameters);
+        final StorageConnector connector = URIDataStore.Provider.connector(this, parameters);
+        return new ShapefileStore(this, connector, Parameters.castOrWrap(parameters).getValue(GEOMETRY_CONTENT));
+    }
+}
@@ -23,7 +23,7 @@
  *
  * @author  Travis L. Pinney
  * @author  Marc Le Bihan
- * @version 0.5
+ * @version 1.0
  * @since   0.5
  * @module
  */
@@ -19,11 +19,13 @@ package org.apache.sis.internal.shapefile.jdbc.sql;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.sql.*;
 
 import org.apache.sis.internal.shapefile.jdbc.AbstractTestBaseForInternalJDBC;
 import org.apache.sis.internal.shapefile.jdbc.resultset.DBFRecordBasedResultSet;
+import org.apache.sis.internal.shapefile.jdbc.resultset.SQLNoSuchFieldException;
 import org.junit.Test;
 
 /**
@@ -99,6 +101,47 @@ public class WhereClauseTest extends AbstractTestBaseForInternalJDBC {
         checkAndCount("FNODE_ < TNODE_", rs -> rs.getInt("FNODE_") < rs.getInt("TNODE_"), 1);
     }
 
+    /**
+     * Test where conditions : literal [operator] field.
+     * @throws SQLException if a trouble occurs : all tests shall pass.
+     */
+    @Test
+    public void whereCondition_literal_field() throws SQLException {
+        checkAndCount("2000 > FNODE_", rs -> rs.getInt("FNODE_") < 2000, 3);
+        checkAndCount("'36TH' = FNAME", rs -> rs.getString("FNAME").equals("36TH"), 1);
+    }
+
+    /**
+     * Test a query selecting some columns only : the other columns are not available in the ResultSet.
+     * @throws SQLException if a trouble occurs : all tests shall pass.
+     */
+    @Test
+    public void selectedColumns() throws SQLException {
+        String sql = "SELECT FNODE_, ST_NAME FROM SignedBikeRoute WHERE SHAPE_LEN < 70.5";
+
+        try(Connection connection = connect(); Statement stmt = connection.createStatement(); DBFRecordBasedResultSet rs = (DBFRecordBasedResultSet)stmt.executeQuery(sql)) {
+            int count = 0;
+
+            while(rs.next()) {
+                count ++;
+                assertTrue("FNODE_ should be selected.", rs.isSelected("FNODE_"));
+                assertFalse("FNAME should not be selected.", rs.isSelected("FNAME"));
+                rs.getInt("FNODE_");
+                rs.getString("ST_NAME");
+
+                try {
+                    rs.getString("FNAME");
+                    fail("FNAME is not selected and should not be available in the ResultSet.");
+                }
+                catch(SQLNoSuchFieldException e) {
+                    // This is the expected exception.
+                }
+            }
+
+            assertEquals("Wrong number of records red by : " + sql, 3, count);
+        }
+    }
+
     /**
      * Trick suggested by AdiGuba (Forum des développeurs) to avoid the exception thrown by ResultSet:getInt(),
      * unhandlable by a simple Predicate.
@@ -17,11 +17,16 @@
 package org.apache.sis.storage.shapefile;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.net.URISyntaxException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Logger;
 
 import org.apache.sis.storage.DataStoreException;
@@ -30,13 +35,18 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.apache.sis.feature.AbstractFeature;
 import org.apache.sis.feature.AbstractAttribute;
+import org.apache.sis.geometry.Envelope2D;
+
+import com.esri.core.geometry.Envelope;
+import com.esri.core.geometry.Geometry;
+import com.esri.core.geometry.Point;
 
 
 /**
  * Tests the {@link ShapeFile} class.
  *
  * @author  Travis L. Pinney
- * @version 0.5
+ * @version 1.0
  * @since   0.5
  * @module
  */
@@ -189,6 +199,119 @@ public final strictfp class ShapeFileTest extends TestCase {
          assertEquals("Shapefile part : direct access didn't returned the same geometry than sequential access.", sequentialGeometry, directGeometry);
      }
 
+     /**
+      * Testing a bounding box query through the quadtree spatial index.
+      * The features found by the spatial query shall be the points found inside the same area by a full scan.
+      * @throws URISyntaxException if the resource name is incorrect.
+      * @throws DataStoreException if a general file reading trouble occurs.
+      */
+     @Test
+     public void testSpatialQuery() throws DataStoreException, URISyntaxException {
+         ShapeFile shp = new ShapeFile(path("ABRALicenseePt_4326_clipped.shp"));
+         List<Point> points = new ArrayList<>();
+
+         try(InputFeatureStream is = shp.findAll()) {
+             AbstractFeature feature = is.readFeature();
+
+             while(feature != null) {
+                 points.add((Point) feature.getPropertyValue("geometry"));
+                 feature = is.readFeature();
+             }
+         }
+
+         // Query an area containing all points except the one having the largest x value.
+         assertTrue("The shapefile should contain at least two points.", points.size() >= 2);
+         points.sort((p1, p2) -> Double.compare(p1.getX(), p2.getX()));
+         double xmin = points.get(0).getX(), ymin = Double.POSITIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+         double xmax = (points.get(points.size() - 2).getX() + points.get(points.size() - 1).getX()) / 2;
+
+         for(Point point : points) {
+             ymin = Math.min(ymin, point.getY());
+             ymax = Math.max(ymax, point.getY());
+         }
+
+         Envelope2D area = new Envelope2D(null, xmin, ymin, xmax - xmin, ymax - ymin);
+
+         // The attributes of the features shall be the ones of the same records, read directly in the database file.
+         String field = shp.getDatabaseFieldsDescriptors().get(0).getName();
+         List<Object> expected = new ArrayList<>();
+
+         try(InputFeatureStream is = shp.findAll()) {
+             AbstractFeature feature = is.readFeature();
+
+             while(feature != null) {
+                 Point point = (Point) feature.getPropertyValue("geometry");
+
+                 if (area.contains(point.getX(), point.getY())) {
+                     expected.add(feature.getPropertyValue(field));
+                 }
+
+                 feature = is.readFeature();
+             }
+         }
+
+         List<Object> found = new ArrayList<>();
+
+         try(InputFeatureStream is = shp.find(area)) {
+             AbstractFeature feature = is.readFeature();
+
+             while(feature != null) {
+                 Point point = (Point) feature.getPropertyValue("geometry");
+                 assertTrue("The feature found by the spatial query is outside the area.", area.contains(point.getX(), point.getY()));
+                 found.add(feature.getPropertyValue(field));
+                 feature = is.readFeature();
+             }
+         }
+
+         assertFalse("The test area should contain some points.", expected.isEmpty());
+         assertTrue("The test area should exclude some points.", expected.size() < points.size());
+         assertEquals("The spatial query didn't return the same features than the full scan.", expected, found);
+     }
+
+     /**
+      * Testing the reading of the bounding boxes only, or of no geometry at all.
+      * The bounding boxes shall be the envelopes of the full geometries, and the attributes shall be read in all cases.
+      * @throws URISyntaxException if the resource name is incorrect.
+      * @throws DataStoreException if a general file reading trouble occurs.
+      */
+     @Test
+     public void testGeometryContent() throws DataStoreException, URISyntaxException {
+         ShapeFile shp = new ShapeFile(path("SignedBikeRoute_4326_clipped.shp"));
+
+         try(InputFeatureStream full = shp.findAll(); InputFeatureStream boxes = shp.findAll(); InputFeatureStream none = shp.findAll()) {
+             boxes.setGeometryContent(GeometryContent.BOUNDING_BOX);
+             none.setGeometryContent(GeometryContent.NONE);
+
+             AbstractFeature feature = full.readFeature();
+             assertNotNull("The shapefile should contain some features.", feature);
+
+             while(feature != null) {
+                 Envelope expected = new Envelope();
+                 ((Geometry) feature.getPropertyValue("geometry")).queryEnvelope(expected);
+
+                 AbstractFeature boxFeature = boxes.readFeature();
+                 Envelope box = (Envelope) boxFeature.getPropertyValue("geometry");
+                 assertEquals("xmin", expected.getXMin(), box.getXMin(), 1E-9);
+                 assertEquals("ymin", expected.getYMin(), box.getYMin(), 1E-9);
+                 assertEquals("xmax", expected.getXMax(), box.getXMax(), 1E-9);
+                 assertEquals("ymax", expected.getYMax(), box.getYMax(), 1E-9);
+
+                 AbstractFeature noGeometryFeature = none.readFeature();
+                 assertNull("No geometry should have been read.", noGeometryFeature.getPropertyValue("geometry"));
+
+                 for (String field : new String[] {"OBJECTID", "FNODE_"}) {
+                     assertEquals(field, feature.getPropertyValue(field), boxFeature.getPropertyValue(field));
+                     assertEquals(field, feature.getPropertyValue(field), noGeometryFeature.getPropertyValue(field));
+                 }
+
+                 feature = full.readFeature();
+             }
+
+             assertNull("All the streams should have the same number of features.", boxes.readFeature());
+             assertNull("All the streams should have the same number of features.", none.readFeature());
+         }
+     }
+
     /**
      * Read all the shapefile content.
      * @param shp Shapefile to read.
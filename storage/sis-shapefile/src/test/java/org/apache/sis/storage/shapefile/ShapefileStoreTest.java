@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.shapefile;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.opengis.parameter.ParameterValueGroup;
+import org.apache.sis.feature.AbstractFeature;
+import org.apache.sis.storage.DataStore;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreProvider;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link ShapefileStore}.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final strictfp class ShapefileStoreTest extends TestCase {
+    /**
+     * Returns the path to the given test file.
+     */
+    private static Path path(final String name) throws URISyntaxException {
+        return Paths.get(ShapefileStoreTest.class.getResource(name).toURI());
+    }
+
+    /**
+     * Reads all features of the given shapefile with the legacy {@link InputFeatureStream}.
+     */
+    private static List<AbstractFeature> readWithInputStream(final Path file) throws DataStoreException {
+        final List<AbstractFeature> features = new ArrayList<>();
+        try (InputFeatureStream is = new ShapeFile(file.toString()).findAll()) {
+            AbstractFeature feature;
+            while ((feature = is.readFeature()) != null) {
+                features.add(feature);
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Verifies that sequential and parallel streams return the same features
+     * than the ones read by {@link InputFeatureStream}, in the same order.
+     */
+    private static void verifyStreams(final String name) throws URISyntaxException, DataStoreException {
+        final Path file = path(name);
+        final List<AbstractFeature> expected = readWithInputStream(file);
+        assertFalse("Expected at least one feature.", expected.isEmpty());
+        try (ShapefileStore store = new ShapefileStore(new ShapefileStoreProvider(), new StorageConnector(file))) {
+            assertEquals(expected.get(0).getType(), store.getType());
+            final List<AbstractFeature> sequential = store.features(false).collect(Collectors.toList());
+            final List<AbstractFeature> parallel   = store.features(true) .collect(Collectors.toList());
+            assertEquals("sequential", expected, sequential);
+            assertEquals("parallel",   expected, parallel);
+        }
+    }
+
+    /**
+     * Tests reading a shapefile of polylines.
+     *
+     * @throws URISyntaxException if the resource name is incorrect.
+     * @throws DataStoreException if an error occurred while reading the shapefile.
+     */
+    @Test
+    public void testPolylines() throws URISyntaxException, DataStoreException {
+        verifyStreams("SignedBikeRoute_4326_clipped.shp");
+    }
+
+    /**
+     * Tests reading a shapefile of points.
+     *
+     * @throws URISyntaxException if the resource name is incorrect.
+     * @throws DataStoreException if an error occurred while reading the shapefile.
+     */
+    @Test
+    public void testPoints() throws URISyntaxException, DataStoreException {
+        verifyStreams("ABRALicenseePt_4326_clipped.shp");
+    }
+
+    /**
+     * Tests opening a shapefile with the {@code "geometryContent"} parameter.
+     *
+     * @throws URISyntaxException if the resource name is incorrect.
+     * @throws DataStoreException if an error occurred while reading the shapefile.
+     */
+    @Test
+    public void testGeometryContentParameter() throws URISyntaxException, DataStoreException {
+        final ShapefileStoreProvider provider = new ShapefileStoreProvider();
+        final ParameterValueGroup pg = provider.getOpenParameters().createValue();
+        pg.parameter(DataStoreProvider.LOCATION).setValue(path("ABRALicenseePt_4326_clipped.shp").toUri());
+        pg.parameter("geometryContent").setValue(GeometryContent.NONE);
+        try (DataStore store = provider.open(pg)) {
+            assertEquals(GeometryContent.NONE, store.getOpenParameters().parameter("geometryContent").getValue());
+            final List<AbstractFeature> features = ((ShapefileStore) store).features(false).collect(Collectors.toList());
+            assertFalse("Expected at least one feature.", features.isEmpty());
+            for (final AbstractFeature feature : features) {
+                assertNull("geometry", feature.getPropertyValue("geometry"));
+                assertNotNull("ADDRID", feature.getPropertyValue("ADDRID"));
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.junit.BeforeClass;
  */
 @Suite.SuiteClasses({
     org.apache.sis.storage.shapefile.ShapeFileTest.class,
+    org.apache.sis.storage.shapefile.ShapefileStoreTest.class,
     org.apache.sis.internal.shapefile.jdbc.DBFConnectionTest.class,
     org.apache.sis.internal.shapefile.jdbc.DBFStatementTest.class,
     org.apache.sis.internal.shapefile.jdbc.DBFResultSetTest.class,
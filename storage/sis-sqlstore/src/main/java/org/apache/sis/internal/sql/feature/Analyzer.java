@@ -63,12 +63,27 @@ final class Analyzer {
      */
     final DataSource source;
 
+    /**
+     * Maximal number of rows for which the associations to other tables are resolved in a single query.
+     */
+    final int batchSize;
+
+    /**
+     * Number of rows fetched from the database at once when iterating over a table.
+     */
+    final int fetchSize;
+
     /**
      * Information about the database as a whole.
      * Used for fetching tables, columns, primary keys <i>etc.</i>
      */
     final DatabaseMetaData metadata;
 
+    /**
+     * The SQL dialect of the database, guessed from the {@linkplain #metadata}.
+     */
+    final Dialect dialect;
+
     /**
      * Functions that may be specific to the geospatial database in use.
      */
@@ -141,10 +156,12 @@ final class Analyzer {
      * @param  listeners  Value of {@code SQLStore.listeners}.
      * @param  locale     Value of {@code SQLStore.getLocale()}.
      */
-    Analyzer(final DataSource source, final DatabaseMetaData metadata, final WarningListeners<DataStore> listeners,
-             final Locale locale) throws SQLException
+    Analyzer(final DataSource source, final int batchSize, final int fetchSize, final DatabaseMetaData metadata,
+             final WarningListeners<DataStore> listeners, final Locale locale) throws SQLException
     {
         this.source      = source;
+        this.batchSize   = batchSize;
+        this.fetchSize   = fetchSize;
         this.metadata    = metadata;
         this.listeners   = listeners;
         this.locale      = locale;
@@ -167,7 +184,7 @@ final class Analyzer {
         ignoredTables = new HashSet<>(4);
         ignoredTables.add(crs);
         ignoredTables.add(geom);
-        final Dialect dialect = Dialect.guess(metadata);
+        dialect = Dialect.guess(metadata);
         if (dialect == Dialect.POSTGRESQL) {
             ignoredTables.add("geography_columns");     // Postgis 1+
             ignoredTables.add("raster_columns");        // Postgis 2
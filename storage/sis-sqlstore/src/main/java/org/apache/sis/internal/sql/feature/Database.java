@@ -104,15 +104,17 @@ public final class Database {
      * @param  connection   connection to the database. Sometime the caller already has a connection at hand.
      * @param  source       provider of (pooled) connections to the database. Specified by users at construction time.
      * @param  tableNames   qualified name of the tables. Specified by users at construction time.
+     * @param  batchSize    maximal number of rows for which the associations are resolved in a single query.
+     * @param  fetchSize    number of rows fetched from the database at once when iterating over a table.
      * @param  listeners    where to send the warnings. This is the value of {@code store.listeners}.
      * @throws SQLException if a database error occurred while reading metadata.
      * @throws DataStoreException if a logical error occurred while analyzing the database structure.
      */
     public Database(final SQLStore store, final Connection connection, final DataSource source,
-            final GenericName[] tableNames, final WarningListeners<DataStore> listeners)
+            final GenericName[] tableNames, final int batchSize, final int fetchSize, final WarningListeners<DataStore> listeners)
             throws SQLException, DataStoreException
     {
-        final Analyzer analyzer = new Analyzer(source, connection.getMetaData(), listeners, store.getLocale());
+        final Analyzer analyzer = new Analyzer(source, batchSize, fetchSize, connection.getMetaData(), listeners, store.getLocale());
         final String[] tableTypes = getTableTypes(analyzer.metadata);
         final Set<TableReference> declared = new LinkedHashSet<>();
         for (final GenericName tableName : tableNames) {
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Collection;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.sql.Connection;
@@ -29,7 +31,9 @@ import java.sql.Statement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.lang.reflect.Array;
+import org.apache.sis.internal.metadata.sql.Dialect;
 import org.apache.sis.internal.metadata.sql.SQLBuilder;
 import org.apache.sis.storage.InternalDataStoreException;
 import org.apache.sis.util.collection.BackingStoreException;
@@ -101,6 +105,49 @@ final class Features implements Spliterator<AbstractFeature>, Runnable {
      */
     private final int[][] foreignerKeyIndices;
 
+    /**
+     * If this iterator is a dependency of another iterator, one-based indices of the columns compared
+     * by the {@link #statement} to the foreigner key values of the other iterator. Otherwise {@code null}.
+     * Those values are used for distributing the features fetched in a batch to the features that reference them.
+     */
+    private final int[] searchColumnIndices;
+
+    /**
+     * Maximal number of rows read before to resolve their associations, and maximal number of
+     * foreigner key values given to the {@link #statement} of a dependency in a single query.
+     */
+    private final int batchSize;
+
+    /**
+     * Features read by the last call to {@link #readBatch()}, with their associations resolved.
+     * Only the elements at indices {@link #batchPosition} inclusive to {@link #batchCount} exclusive
+     * are pending; other elements have already been given to the consumer.
+     */
+    private AbstractFeature[] batch;
+
+    /**
+     * Values of the foreigner keys of each feature in the {@link #batch}, or {@code null} if there is no dependency.
+     * The value of {@code batchKeys[row][i]} is the array of column values for {@code dependencies[i]}, or
+     * {@code null} if at least one of those values is null.
+     */
+    private Object[][][] batchKeys;
+
+    /**
+     * Values of the {@link #searchColumnIndices} columns for each feature in the {@link #batch},
+     * as computed by {@link #groupKey(Object[])}. This is {@code null} if this iterator is not a dependency.
+     */
+    private Object[] batchSearchKeys;
+
+    /**
+     * Number of valid elements in the {@link #batch} array.
+     */
+    private int batchCount;
+
+    /**
+     * Index of the next feature to give to the consumer in the {@link #batch} array.
+     */
+    private int batchPosition;
+
     /**
      * If this iterator returns only the feature matching some condition (typically a primary key value),
      * the statement for performing that filtering. Otherwise if this iterator returns all features, then
@@ -134,6 +181,35 @@ final class Features implements Spliterator<AbstractFeature>, Runnable {
      */
     private final Class<?> keyComponentClass;
 
+    /**
+     * For each attribute, whether the column contains geometries encoded in WKB, or {@code null} if none.
+     *
+     * @see Table#isGeometry
+     */
+    private final boolean[] isGeometry;
+
+    /**
+     * The decoder of geometries encoded in WKB, or {@code null} if this table has no geometry column.
+     */
+    private final WKBReader geometryReader;
+
+    /**
+     * The table for which this iterator has been created. Used for reporting warnings.
+     */
+    private final Table table;
+
+    /**
+     * Whether a warning has already been reported for a geometry that can not be decoded.
+     * Used for reporting the warning only once per iterator instead of once per row.
+     */
+    private boolean unsupportedGeometryReported;
+
+    /**
+     * Whether the auto-commit mode of the connection needs to be restored when this iterator is closed.
+     * This is {@code true} if the auto-commit has been disabled for allowing the driver to stream the rows.
+     */
+    private boolean restoreAutoCommit;
+
     /**
      * Estimated number of rows, or {@literal <= 0} if unknown.
      */
@@ -148,17 +224,39 @@ final class Features implements Spliterator<AbstractFeature>, Runnable {
      * @param attributeColumns  value of {@link Table#attributeColumns}: often the same as attribute names.
      * @param importedKeys      value of {@link Table#importedKeys}:     targets of this table foreign keys.
      * @param exportedKeys      value of {@link Table#exportedKeys}:     foreigner keys of other tables.
+     * @param primaryKeys       value of {@link Table#primaryKeys}:      used for ordering the rows of a page.
      * @param following         the relations that we are following. Used for avoiding never ending loop.
      * @param noFollow          relation to not follow, or {@code null} if none.
+     * @param offset            number of rows to skip, or 0 if none. Ignored if {@code following} is non-empty.
+     * @param limit             maximal number of rows to return, or a negative value if unlimited.
+     *                          Ignored if {@code following} is non-empty.
+     * @param keyRange          minimal and maximal values (inclusive) of the single primary key column,
+     *                          or {@code null} for all rows. Ignored if {@code following} is non-empty.
      */
     Features(final Table table, final Connection connection, final String[] attributeNames, final String[] attributeColumns,
-             final Relation[] importedKeys, final Relation[] exportedKeys, final List<Relation> following, final Relation noFollow)
+             final Relation[] importedKeys, final Relation[] exportedKeys, final String[] primaryKeys,
+             final List<Relation> following, final Relation noFollow, final long offset, final long limit,
+             final long[] keyRange)
              throws SQLException, InternalDataStoreException
     {
+        this.table = table;
         this.featureType = table.featureType;
         this.attributeNames = attributeNames;
+        this.batchSize = table.batchSize;
+        this.isGeometry = table.isGeometry;
+        this.geometryReader = (table.geometries != null) ? new WKBReader(table.geometries) : null;
         final DatabaseMetaData metadata = connection.getMetaData();
-        estimatedSize = following.isEmpty() ? table.countRows(metadata, true) : 0;
+        long estimatedSize = 0;
+        if (following.isEmpty() && keyRange == null) {
+            estimatedSize = table.countRows(metadata, true);
+            if (estimatedSize > 0) {
+                estimatedSize = Math.max(estimatedSize - offset, 0);
+            }
+            if (limit >= 0 && (estimatedSize <= 0 || estimatedSize > limit)) {
+                estimatedSize = limit;
+            }
+        }
+        this.estimatedSize = estimatedSize;
         final SQLBuilder sql = new SQLBuilder(metadata, true).append("SELECT");
         final Map<String,Integer> columnIndices = new HashMap<>();
         /*
@@ -235,19 +333,89 @@ final class Features implements Spliterator<AbstractFeature>, Runnable {
          * Create a Statement if we don't need any condition, or a PreparedStatement if we need to add
          * a "WHERE" clause. In the later case, we will cache the features already created if there is
          * a possibility that many rows reference the same feature instance.
+         *
+         * The condition matches a batch of foreigner key values at once. The values of the searched columns
+         * are added in the SELECT clause (if not already present) for distributing the features found by the
+         * query to the features referencing them.
+         *
+         * If only a page of the rows is requested, the rows are ordered by primary keys (if any)
+         * for making the content of each page determinist. If only a range of primary key values
+         * is requested (for parallel streams), the range is added as a condition.
          */
-        sql.append(" FROM ").appendIdentifier(table.name.catalog, table.name.schema, table.name.table);
         if (following.isEmpty()) {
+            sql.append(" FROM ").appendIdentifier(table.name.catalog, table.name.schema, table.name.table);
+            if (keyRange != null) {
+                sql.append(" WHERE ").appendIdentifier(primaryKeys[0]).append(" BETWEEN ")
+                   .append(Long.toString(keyRange[0])).append(" AND ").append(Long.toString(keyRange[1]));
+            }
+            if (offset > 0 || limit >= 0) {
+                if (primaryKeys != null) {
+                    String separator = " ORDER BY ";
+                    for (final String column : primaryKeys) {
+                        sql.append(separator).appendIdentifier(column);
+                        separator = ", ";
+                    }
+                }
+                sql.appendFetchPage(offset, limit);
+            }
             statement = null;
             instances = null;       // A future SIS version could use the map opportunistically if it exists.
             keyComponentClass = null;
-            result = connection.createStatement().executeQuery(sql.toString());
+            searchColumnIndices = null;
+            /*
+             * The fetch size allows the driver to stream the rows instead of loading the whole table in memory.
+             * PostgreSQL honors the fetch size only outside auto-commit mode, so we disable it for the duration
+             * of this iteration. This is safe since we only read data.
+             */
+            if (sql.dialect == Dialect.POSTGRESQL && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            Statement stmt = null;
+            try {
+                stmt = connection.createStatement();
+                stmt.setFetchSize(table.fetchSize);
+                result = stmt.executeQuery(sql.toString());
+            } catch (SQLException | RuntimeException e) {
+                /*
+                 * The caller will close the connection, but a pooled connection would be given
+                 * to the next user with auto-commit still disabled if we do not restore it now.
+                 */
+                if (stmt != null) try {
+                    stmt.close();
+                } catch (SQLException s) {
+                    e.addSuppressed(s);
+                }
+                if (restoreAutoCommit) try {
+                    restoreAutoCommit = false;
+                    connection.setAutoCommit(true);
+                } catch (SQLException s) {
+                    e.addSuppressed(s);
+                }
+                throw e;
+            }
         } else {
             final Relation componentOf = following.get(following.size() - 1);
-            String separator = " WHERE ";
-            for (String primaryKey : componentOf.getSearchColumns()) {
-                sql.append(separator).appendIdentifier(primaryKey).append("=?");
-                separator = " AND ";
+            final Collection<String> searchColumns = componentOf.getSearchColumns();
+            searchColumnIndices = getColumnIndices(sql, searchColumns, columnIndices);
+            sql.append(" FROM ").appendIdentifier(table.name.catalog, table.name.schema, table.name.table).append(" WHERE ");
+            if (searchColumns.size() == 1) {
+                sql.appendIdentifier(searchColumns.iterator().next()).append(" IN (");
+                for (int i=0; i<batchSize; i++) {
+                    if (i != 0) sql.append(',');
+                    sql.append('?');
+                }
+                sql.append(')');
+            } else {
+                for (int i=0; i<batchSize; i++) {
+                    if (i != 0) sql.append(" OR ");
+                    String separator = "(";
+                    for (String primaryKey : searchColumns) {
+                        sql.append(separator).appendIdentifier(primaryKey).append("=?");
+                        separator = " AND ";
+                    }
+                    sql.append(')');
+                }
             }
             statement = connection.prepareStatement(sql.toString());
             /*
@@ -295,11 +463,50 @@ final class Features implements Spliterator<AbstractFeature>, Runnable {
     }
 
     /**
-     * Returns an array of the given length capable to hold the identifier,
-     * or {@code null} if there is no need for an array.
+     * Returns the key to use for the given foreigner key values in the {@link #instances} cache.
+     * If the foreigner key uses only one column, the key is the value of that column without array.
+     * Otherwise the key is an array of {@link #keyComponentClass} holding all values.
      */
-    private Object identifierArray(final int columnCount) {
-        return (columnCount > 1) ? Array.newInstance(keyComponentClass, columnCount) : null;
+    private Object cacheKey(final Object[] values) {
+        if (values.length == 1) {
+            return values[0];
+        }
+        final Object keys = Array.newInstance(keyComponentClass, values.length);
+        for (int p=0; p < values.length; p++) {
+            Array.set(keys, p, values[p]);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the key to use for grouping the features having the given key values.
+     * The keys are compared with {@link Object#equals(Object)}, so multi-columns keys are wrapped in a list.
+     * Integer types are widened to {@link Long} because the foreigner key columns may not have exactly the
+     * same type than the referenced columns.
+     */
+    private static Object groupKey(final Object[] values) {
+        final Object[] group = values.clone();
+        for (int p=0; p < group.length; p++) {
+            final Object value = group[p];
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                group[p] = ((Number) value).longValue();
+            }
+        }
+        return (group.length == 1) ? group[0] : Arrays.asList(group);
+    }
+
+    /**
+     * Returns the values in the given columns of the current row,
+     * or {@code null} if at least one value is null.
+     */
+    private static Object[] readKey(final ResultSet result, final int[] columnIndices) throws SQLException {
+        final Object[] values = new Object[columnIndices.length];
+        for (int p=0; p < columnIndices.length; p++) {
+            if ((values[p] = result.getObject(columnIndices[p])) == null) {
+                return null;
+            }
+        }
+        return values;
     }
 
     /**
@@ -361,101 +568,183 @@ final class Features implements Spliterator<AbstractFeature>, Runnable {
      * @return {@code true} if we have read an instance and {@code all} is {@code false} (so there is maybe other instances).
      */
     private boolean fetch(final Consumer<? super AbstractFeature> action, final boolean all) throws SQLException {
-        while (result.next()) {
+        do {
+            while (batchPosition < batchCount) {
+                final AbstractFeature feature = batch[batchPosition];
+                batch[batchPosition++] = null;                          // Let GC do its work.
+                action.accept(feature);
+                if (!all) return true;
+            }
+        } while (readBatch() != 0);
+        return false;
+    }
+
+    /**
+     * Reads the next rows of the current {@link #result}, up to {@link #batchSize} rows, then resolves the
+     * associations of all those features with one query per dependency. The features are stored in the
+     * {@link #batch} array.
+     *
+     * @return number of features read, or 0 if there is no more rows.
+     */
+    private int readBatch() throws SQLException {
+        if (batch == null) {
+            batch = new AbstractFeature[batchSize];
+            if (dependencies.length != 0) {
+                batchKeys = new Object[batchSize][][];
+            }
+            if (searchColumnIndices != null) {
+                batchSearchKeys = new Object[batchSize];
+            }
+        }
+        int count = 0;
+        while (count < batchSize && result.next()) {
             final AbstractFeature feature = featureType.newInstance();
             for (int i=0; i < attributeNames.length; i++) {
-                final Object value = result.getObject(i+1);
+                final Object value;
+                if (isGeometry != null && isGeometry[i]) {
+                    try {
+                        value = geometryReader.read(result.getBytes(i+1));
+                    } catch (SQLFeatureNotSupportedException e) {
+                        if (!unsupportedGeometryReported) {
+                            unsupportedGeometryReported = true;
+                            table.warning(e);
+                        }
+                        continue;                       // Leave the property without value.
+                    }
+                } else {
+                    value = result.getObject(i+1);
+                }
                 if (!result.wasNull()) {
                     feature.setPropertyValue(attributeNames[i], value);
                 }
             }
-            for (int i=0; i < dependencies.length; i++) {
-                final Features dependency = dependencies[i];
-                final int[] columnIndices = foreignerKeyIndices[i];
-                final Object value;
-                if (i < importCount) {
-                    /*
-                     * Relation.Direction.IMPORT: this table contains the foreigner keys.
-                     *
-                     * If the foreigner key uses only one column, we will store the foreigner key value
-                     * in the 'key' variable without creating array. But if the foreigner key uses more
-                     * than one column, then we need to create an array holding all values.
-                     */
-                    Object key = null;
-                    final Object keys = dependency.identifierArray(columnIndices.length);
-                    for (int p=0; p < columnIndices.length;) {
-                        key = result.getObject(columnIndices[p]);
-                        if (keys != null) Array.set(keys, p, key);
-                        dependency.statement.setObject(++p, key);
+            if (batchKeys != null) {
+                final Object[][] keys = new Object[dependencies.length][];
+                for (int i=0; i < keys.length; i++) {
+                    keys[i] = readKey(result, foreignerKeyIndices[i]);
+                }
+                batchKeys[count] = keys;
+            }
+            if (batchSearchKeys != null) {
+                final Object[] key = readKey(result, searchColumnIndices);
+                batchSearchKeys[count] = (key != null) ? groupKey(key) : null;
+            }
+            batch[count++] = feature;
+        }
+        for (int i=0; i < dependencies.length; i++) {
+            resolve(i, count);
+        }
+        batchPosition = 0;
+        batchCount = count;
+        return count;
+    }
+
+    /**
+     * Sets the association to {@code dependencies[i]} for the {@code count} first features in the {@link #batch}.
+     * The features referenced by all foreigner key values not found in the cache are fetched in a single query.
+     *
+     * @param  i      index of the dependency for which to set the associations.
+     * @param  count  number of features in the batch.
+     */
+    private void resolve(final int i, final int count) throws SQLException {
+        final Features dependency = dependencies[i];
+        final boolean imported = (i < importCount);
+        /*
+         * Relation.Direction.IMPORT: this table contains the foreigner keys. Many rows may reference the same
+         * feature instance, so we look in the cache before to query the database.
+         *
+         * Relation.Direction.EXPORT: another table references this table. We do not cache those dependencies
+         * because this direction can return a lot of instances, contrarily to Direction.IMPORT which return only
+         * one instance. Furthermore instances fetched from Direction.EXPORT can not be shared by feature instances,
+         * so caching would be useless here. But we need to remember the feature which own the fetched instances.
+         */
+        final Map<Object,Object> values = new HashMap<>();
+        final Map<Object,Object[]> missing = new HashMap<>();
+        final Map<Object,AbstractFeature> owners = imported ? null : new HashMap<>();
+        for (int row=0; row < count; row++) {
+            final Object[] key = batchKeys[row][i];
+            if (key != null) {
+                Object existing = imported ? dependency.instances.get(dependency.cacheKey(key)) : null;
+                final Object group = groupKey(key);
+                if (existing != null) {
+                    values.put(group, existing);
+                } else if (!values.containsKey(group)) {
+                    missing.put(group, key);
+                }
+                if (owners != null) {
+                    owners.put(group, batch[row]);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            final Map<Object,List<AbstractFeature>> fetched = dependency.fetchReferenced(missing.values());
+            for (final Map.Entry<Object,Object[]> entry : missing.entrySet()) {
+                final Object group = entry.getKey();
+                final List<AbstractFeature> features = fetched.get(group);
+                Object feature = null;
+                if (features != null) {
+                    if (owners != null && dependency.deferredAssociation != null) {
+                        final AbstractFeature owner = owners.get(group);
+                        for (final AbstractFeature f : features) {
+                            f.setPropertyValue(dependency.deferredAssociation, owner);
+                        }
                     }
-                    if (keys != null) key = keys;
-                    value = dependency.fetchReferenced(key, null);
-                } else {
-                    /*
-                     * Relation.Direction.EXPORT: another table references this table.
-                     *
-                     * 'key' must stay null because we do not cache those dependencies.
-                     * The reason is that this direction can return a lot of instances,
-                     * contrarily to Direction.IMPORT which return only one instance.
-                     * Furthermore instances fetched from Direction.EXPORT can not be
-                     * shared by feature instances, so caching would be useless here.
-                     */
-                    for (int p=0; p < columnIndices.length;) {
-                        final Object k = result.getObject(columnIndices[p]);
-                        dependency.statement.setObject(++p, k);
+                    feature = (features.size() == 1) ? features.get(0) : features;
+                    if (imported) {
+                        @SuppressWarnings("unchecked")          // Check is performed by putIfAbsent(…).
+                        final Object previous = ((WeakValueHashMap) dependency.instances)
+                                .putIfAbsent(dependency.cacheKey(entry.getValue()), feature);
+                        if (previous != null) {
+                            feature = previous;
+                        }
                     }
-                    value = dependency.fetchReferenced(null, feature);
                 }
-                feature.setPropertyValue(associationNames[i], value);
+                values.put(group, feature);
             }
-            action.accept(feature);
-            if (!all) return true;
         }
-        return false;
+        for (int row=0; row < count; row++) {
+            final Object[] key = batchKeys[row][i];
+            batch[row].setPropertyValue(associationNames[i], (key != null) ? values.get(groupKey(key)) : null);
+        }
     }
 
     /**
-     * Executes the current {@link #statement} and stores all features in a list.
-     * Returns {@code null} if there is no feature, or returns the feature instance
-     * if there is only one such instance, or returns a list of features otherwise.
+     * Executes the current {@link #statement} for the given foreigner key values and groups the features by key.
+     * The number of keys shall not exceed {@link #batchSize}. If there is less keys than the number of parameters
+     * in the statement, the last key is repeated.
      *
-     * @param  key    the key to use for referencing the feature in the cache, or {@code null} for no caching.
-     * @param  owner  if the features to fetch are components of another feature, that container feature instance.
-     * @return the feature as a singleton {@code Feature} or as a {@code Collection<Feature>}.
-     */
-    private Object fetchReferenced(final Object key, final AbstractFeature owner) throws SQLException {
-        if (key != null) {
-            Object existing = instances.get(key);
-            if (existing != null) {
-                return existing;
+     * @param  keys  values of the foreigner key columns of each key to search.
+     * @return the features found, grouped by {@linkplain #groupKey(Object[]) key}.
+     */
+    private Map<Object,List<AbstractFeature>> fetchReferenced(final Collection<Object[]> keys) throws SQLException {
+        assert keys.size() <= batchSize : keys.size();
+        int p = 0;
+        Object[] key = null;
+        final Iterator<Object[]> it = keys.iterator();
+        for (int s=0; s < batchSize; s++) {
+            if (it.hasNext()) key = it.next();
+            for (final Object value : key) {
+                statement.setObject(++p, value);
             }
         }
-        final List<AbstractFeature> features = new ArrayList<>();
+        final Map<Object,List<AbstractFeature>> features = new HashMap<>();
         try (ResultSet r = statement.executeQuery()) {
             result = r;
-            fetch(features::add, true);
+            int count;
+            while ((count = readBatch()) != 0) {
+                for (int row=0; row < count; row++) {
+                    final Object group = batchSearchKeys[row];
+                    if (group != null) {
+                        features.computeIfAbsent(group, (k) -> new ArrayList<>(1)).add(batch[row]);
+                    }
+                    batch[row] = null;
+                }
+            }
         } finally {
             result = null;
+            batchCount = 0;
         }
-        if (owner != null && deferredAssociation != null) {
-            for (final AbstractFeature feature : features) {
-                feature.setPropertyValue(deferredAssociation, owner);
-            }
-        }
-        Object feature;
-        switch (features.size()) {
-            case 0:  feature = null; break;
-            case 1:  feature = features.get(0); break;
-            default: feature = features; break;
-        }
-        if (key != null) {
-            @SuppressWarnings("unchecked")          // Check is performed by putIfAbsent(…).
-            final Object previous = ((WeakValueHashMap) instances).putIfAbsent(key, feature);
-            if (previous != null) {
-                feature = previous;
-            }
-        }
-        return feature;
+        return features;
     }
 
     /**
@@ -475,10 +764,17 @@ final class Features implements Spliterator<AbstractFeature>, Runnable {
             result = null;
             final Statement s = r.getStatement();
             try (Connection c = s.getConnection()) {
-                r.close();      // Implied by s.close() according JDBC javadoc, but we are paranoiac.
-                s.close();
-                for (final Features dependency : dependencies) {
-                    dependency.close();
+                try {
+                    r.close();      // Implied by s.close() according JDBC javadoc, but we are paranoiac.
+                    s.close();
+                    for (final Features dependency : dependencies) {
+                        dependency.close();
+                    }
+                } finally {
+                    if (restoreAutoCommit) {
+                        restoreAutoCommit = false;
+                        c.setAutoCommit(true);      // Shall be restored even on failure, since the connection is pooled.
+                    }
                 }
             }
         }
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.sql.feature;
+
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.sql.SQLException;
+import org.apache.sis.storage.InternalDataStoreException;
+import org.apache.sis.util.collection.BackingStoreException;
+
+// Branch-dependent imports
+import org.apache.sis.feature.AbstractFeature;
+
+
+/**
+ * Iterator over the features having a primary key value in a given range. This iterator can be split
+ * in two iterators over the lower and upper halves of the range, which allows parallel streams to read
+ * the table with one query per range. The query is executed on the first call to {@link #tryAdvance(Consumer)}
+ * or {@link #forEachRemaining(Consumer)}, using a (pooled) connection owned by this iterator. Iterators that
+ * have started their query can not be split anymore.
+ *
+ * <p>This iterator is used only for tables having a primary key made of a single column of integer type.
+ * Keys may be sparse; the number of features in each range is estimated from the density of keys in the
+ * whole table.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+final class KeyRangeFeatures implements Spliterator<AbstractFeature>, Runnable {
+    /**
+     * The table for which to read features.
+     */
+    private final Table table;
+
+    /**
+     * Minimal primary key value (inclusive) of the features to read.
+     */
+    private long lower;
+
+    /**
+     * Maximal primary key value (inclusive) of the features to read.
+     */
+    private final long upper;
+
+    /**
+     * Estimated number of rows per primary key value, or {@link Double#NaN} if unknown.
+     */
+    private final double density;
+
+    /**
+     * The iterators that have been opened by this iterator and all iterators created by {@link #trySplit()}.
+     * This queue is shared by all those iterators, so {@link #run()} can close all connections when the
+     * stream is closed. Iterators are removed from this queue when they are exhausted.
+     */
+    private final Queue<Features> opened;
+
+    /**
+     * The iterator over the features in the range of this {@code KeyRangeFeatures},
+     * or {@code null} if the query has not yet been executed.
+     */
+    private Features iterator;
+
+    /**
+     * Whether all features in the range of this iterator have been consumed. After the
+     * connection has been released, {@link #iterator} can not be used anymore.
+     */
+    private boolean exhausted;
+
+    /**
+     * Creates a new iterator over all features of the given table.
+     *
+     * @param  table  the table for which to read features.
+     * @param  lower  minimal primary key value in the table.
+     * @param  upper  maximal primary key value in the table.
+     * @param  count  estimated number of rows in the table, or {@literal <= 0} if unknown.
+     */
+    KeyRangeFeatures(final Table table, final long lower, final long upper, final long count) {
+        this.table   = table;
+        this.lower   = lower;
+        this.upper   = upper;
+        this.density = (count > 0) ? count / ((double) upper - (double) lower + 1) : Double.NaN;
+        this.opened  = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Creates a new iterator over a sub-range of the given iterator.
+     */
+    private KeyRangeFeatures(final KeyRangeFeatures parent, final long lower, final long upper) {
+        this.table   = parent.table;
+        this.lower   = lower;
+        this.upper   = upper;
+        this.density = parent.density;
+        this.opened  = parent.opened;
+    }
+
+    /**
+     * Declares that this iterator never returns {@code null} elements.
+     */
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+
+    /**
+     * Returns the estimated number of features in the range of this iterator.
+     */
+    @Override
+    public long estimateSize() {
+        final double span = (double) upper - (double) lower + 1;
+        final double n = Double.isNaN(density) ? span : span * density;
+        return (n >= Long.MAX_VALUE) ? Long.MAX_VALUE : Math.max(1, Math.round(n));
+    }
+
+    /**
+     * If the query has not yet been executed and the range contains more features than the batch size,
+     * returns an iterator over the lower half of the range and reserves the upper half to this iterator.
+     * Otherwise returns {@code null}.
+     *
+     * @return an iterator over the lower half of the range, or {@code null} if this iterator can not be split.
+     */
+    @Override
+    public Spliterator<AbstractFeature> trySplit() {
+        if (iterator != null || lower >= upper || estimateSize() <= table.batchSize) {
+            return null;
+        }
+        final long mid = (lower & upper) + ((lower ^ upper) >> 1);      // Average without overflow.
+        final KeyRangeFeatures prefix = new KeyRangeFeatures(this, lower, mid);
+        lower = mid + 1;
+        return prefix;
+    }
+
+    /**
+     * Executes the query for the range of this iterator if not already done.
+     */
+    private Features open() {
+        if (iterator == null) {
+            try {
+                iterator = table.features(lower, upper);
+            } catch (SQLException | InternalDataStoreException e) {
+                throw new BackingStoreException(e);
+            }
+            opened.add(iterator);
+        }
+        return iterator;
+    }
+
+    /**
+     * Closes the connection used by this iterator, if any.
+     * After this method call, this iterator is considered exhausted.
+     */
+    private void release() {
+        exhausted = true;
+        final Features it = iterator;
+        if (it != null && opened.remove(it)) {
+            it.run();
+        }
+    }
+
+    /**
+     * Gives the next feature to the given consumer.
+     * The connection is released when there is no more feature.
+     */
+    @Override
+    public boolean tryAdvance(final Consumer<? super AbstractFeature> action) {
+        if (exhausted) {
+            return false;
+        }
+        if (open().tryAdvance(action)) {
+            return true;
+        }
+        release();
+        return false;
+    }
+
+    /**
+     * Gives all remaining features to the given consumer, then releases the connection.
+     */
+    @Override
+    public void forEachRemaining(final Consumer<? super AbstractFeature> action) {
+        if (exhausted) {
+            return;
+        }
+        open().forEachRemaining(action);
+        release();
+    }
+
+    /**
+     * Closes the (pooled) connections of all iterators that have not been exhausted.
+     * This is a handler to be invoked by {@link java.util.stream.Stream#close()}.
+     */
+    @Override
+    public void run() {
+        BackingStoreException error = null;
+        Features it;
+        while ((it = opened.poll()) != null) {
+            try {
+                it.run();
+            } catch (BackingStoreException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+}
@@ -60,6 +60,12 @@ public final class Resources extends IndexedResourceBundle {
         private Keys() {
         }
 
+        /**
+         * Maximal number of rows for which the associations to other tables are fetched in a single
+         * query.
+         */
+        public static final short BatchSize = 8;
+
         /**
          * Provider of connections to the database.
          */
@@ -70,6 +76,11 @@ public final class Resources extends IndexedResourceBundle {
          */
         public static final short DuplicatedColumn_1 = 5;
 
+        /**
+         * Number of rows fetched from the database at once when iterating over a table.
+         */
+        public static final short FetchSize = 9;
+
         /**
          * “{0}” is not a valid qualified name for a table.
          */
@@ -85,6 +96,11 @@ public final class Resources extends IndexedResourceBundle {
          */
         public static final short MalformedForeignerKey_2 = 7;
 
+        /**
+         * Malformed well-known binary (WKB) geometry.
+         */
+        public static final short MalformedGeometry = 10;
+
         /**
          * Table names, optionally with their schemas and catalogs.
          */
@@ -94,6 +110,11 @@ public final class Resources extends IndexedResourceBundle {
          * No mapping from SQL type “{0}” to a Java class.
          */
         public static final short UnknownType_1 = 4;
+
+        /**
+         * Unsupported geometry type code {0} in binary geometry.
+         */
+        public static final short UnsupportedGeometryType_1 = 11;
     }
 
     /**
@@ -28,6 +28,7 @@ import java.sql.SQLException;
 import java.sql.DatabaseMetaData;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.apache.sis.internal.metadata.sql.Reflection;
+import org.apache.sis.internal.feature.Geometries;
 import org.apache.sis.setup.GeometryLibrary;
 
 
@@ -88,8 +89,10 @@ class SpatialFunctions {
      * It may return array of primitive types however.
      * If no match is found, then this method returns {@code null}.
      *
-     * <p>The default implementation handles the types declared in {@link Types} class.
-     * Subclasses should handle the geometry types declared by spatial extensions.</p>
+     * <p>The default implementation handles the types declared in {@link Types} class, together with the
+     * {@code geometry} and {@code geography} types of PostGIS. Values of the later types are presumed
+     * encoded in WKB or EWKB and will be decoded by {@link WKBReader}.
+     * Subclasses should handle other geometry types declared by spatial extensions.</p>
      *
      * @param  sqlType      SQL type code as one of {@link java.sql.Types} constants.
      * @param  sqlTypeName  data source dependent type name. For User Defined Type (UDT) the name is fully qualified.
@@ -97,6 +100,9 @@ class SpatialFunctions {
      */
     @SuppressWarnings("fallthrough")
     protected Class<?> toJavaType(final int sqlType, final String sqlTypeName) {
+        if ("geometry".equalsIgnoreCase(sqlTypeName) || "geography".equalsIgnoreCase(sqlTypeName)) {
+            return Geometries.implementation(library).rootClass;
+        }
         switch (sqlType) {
             case Types.BIT:
             case Types.BOOLEAN:                 return Boolean.class;
@@ -22,11 +22,13 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.math.BigInteger;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.sql.DatabaseMetaData;
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.Statement;
 import java.sql.SQLException;
 import javax.sql.DataSource;
 import org.opengis.util.GenericName;
@@ -36,12 +38,17 @@ import org.apache.sis.feature.builder.AttributeTypeBuilder;
 import org.apache.sis.feature.builder.AssociationRoleBuilder;
 import org.apache.sis.feature.builder.FeatureTypeBuilder;
 import org.apache.sis.internal.feature.Geometries;
+import org.apache.sis.storage.FeatureSet;
+import org.apache.sis.storage.Query;
+import org.apache.sis.storage.UnsupportedQueryException;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.DataStoreContentException;
 import org.apache.sis.storage.InternalDataStoreException;
 import org.apache.sis.internal.metadata.sql.Reflection;
+import org.apache.sis.internal.metadata.sql.SQLBuilder;
 import org.apache.sis.internal.metadata.sql.SQLUtilities;
 import org.apache.sis.internal.storage.AbstractFeatureSet;
+import org.apache.sis.internal.storage.query.SimpleQuery;
 import org.apache.sis.internal.util.CollectionsExt;
 import org.apache.sis.util.collection.WeakValueHashMap;
 import org.apache.sis.util.collection.TreeTable;
@@ -75,6 +82,22 @@ final class Table extends AbstractFeatureSet {
      */
     private final DataSource source;
 
+    /**
+     * Maximal number of rows for which the associations to other tables are resolved in a single query.
+     */
+    final int batchSize;
+
+    /**
+     * Number of rows fetched from the database at once when iterating over this table.
+     */
+    final int fetchSize;
+
+    /**
+     * Whether the database has a known syntax for skipping rows and limiting the number of rows.
+     * If {@code false}, {@link #subset(Query)} uses the generic implementation instead of SQL clauses.
+     */
+    private final boolean isFetchPageSupported;
+
     /**
      * The structure of this table represented as a feature. Each feature attribute is a table column,
      * except synthetic attributes like "sis:identifier". The feature may also contain associations
@@ -141,6 +164,17 @@ final class Table extends AbstractFeatureSet {
      */
     final boolean hasGeometry;
 
+    /**
+     * For each element in {@link #attributeColumns}, whether the column contains geometries encoded in WKB.
+     * This is {@code null} if this table does not contain any geometry column.
+     */
+    final boolean[] isGeometry;
+
+    /**
+     * The library to use for creating geometry objects, or {@code null} if this table has no geometry column.
+     */
+    final Geometries<?> geometries;
+
     /**
      * Creates a description of the table of the given name.
      * The table is identified by {@code id}, which contains a (catalog, schema, name) tuple.
@@ -155,8 +189,11 @@ final class Table extends AbstractFeatureSet {
             throws SQLException, DataStoreException
     {
         super(analyzer.listeners);
-        this.source = analyzer.source;
-        this.name   = id;
+        this.source    = analyzer.source;
+        this.batchSize = analyzer.batchSize;
+        this.fetchSize = analyzer.fetchSize;
+        this.isFetchPageSupported = analyzer.dialect.isFetchPageSupported;
+        this.name      = id;
         final String tableEsc  = analyzer.escape(id.table);
         final String schemaEsc = analyzer.escape(id.schema);
         /*
@@ -222,6 +259,7 @@ final class Table extends AbstractFeatureSet {
         int startWithLowerCase     = 0;
         final List<String> attributeNames = new ArrayList<>();
         final List<String> attributeColumns = new ArrayList<>();
+        final List<Integer> geometryColumns = new ArrayList<>();
         final FeatureTypeBuilder feature = new FeatureTypeBuilder(analyzer.nameFactory, analyzer.functions.library, analyzer.locale);
         try (ResultSet reflect = analyzer.metadata.getColumns(id.catalog, schemaEsc, tableEsc, null)) {
             while (reflect.next()) {
@@ -281,6 +319,7 @@ final class Table extends AbstractFeatureSet {
                         }
                     }
                     if (Geometries.isKnownType(type)) {
+                        geometryColumns.add(attributeColumns.size() - 1);
                         final CoordinateReferenceSystem crs = analyzer.functions.createGeometryCRS(reflect);
                         if (crs != null) {
                             attribute.setCRS(crs);
@@ -413,6 +452,16 @@ final class Table extends AbstractFeatureSet {
         this.attributeNames   = attributeNames.toArray(new String[attributeNames.size()]);
         this.attributeColumns = attributeColumns.equals(attributeNames) ? this.attributeNames
                               : attributeColumns.toArray(new String[attributeColumns.size()]);
+        if (geometryColumns.isEmpty()) {
+            isGeometry = null;
+            geometries = null;
+        } else {
+            isGeometry = new boolean[this.attributeColumns.length];
+            for (final int i : geometryColumns) {
+                isGeometry[i] = true;
+            }
+            geometries = Geometries.implementation(analyzer.functions.library);
+        }
     }
 
     /**
@@ -591,6 +640,18 @@ final class Table extends AbstractFeatureSet {
         return count;
     }
 
+    /**
+     * Reports a warning which occurred while reading feature instances. The iteration continues after
+     * the warning; the property which caused the warning is left without value.
+     *
+     * @param  exception  the exception which occurred while reading a property value.
+     */
+    final void warning(final Exception exception) {
+        if (listeners != null) {
+            listeners.warning(null, exception);
+        }
+    }
+
     /**
      * Returns a stream of all features contained in this dataset.
      *
@@ -600,11 +661,69 @@ final class Table extends AbstractFeatureSet {
      */
     @Override
     public Stream<AbstractFeature> features(final boolean parallel) throws DataStoreException {
+        return features(parallel, 0, -1);
+    }
+
+    /**
+     * Requests a subset of features from this table. If the given query is a {@link SimpleQuery}
+     * and the database dialect has a known syntax for pages of rows, then the query offset and limit
+     * are translated in SQL clauses executed by the database. Other queries, or queries on databases
+     * of unknown dialect, are executed by the default implementation.
+     *
+     * @param  query  definition of feature and feature properties filtering applied at reading time.
+     * @return resulting subset of features (never {@code null}).
+     * @throws UnsupportedQueryException if this {@code FeatureSet} can not execute the given query.
+     * @throws DataStoreException if another error occurred while processing the query.
+     */
+    @Override
+    public FeatureSet subset(final Query query) throws DataStoreException {
+        if (isFetchPageSupported && query instanceof SimpleQuery) {
+            final SimpleQuery q = (SimpleQuery) query;
+            final long offset = q.getOffset();
+            final long limit  = q.getLimit();
+            if (offset == 0 && limit < 0) {
+                return this;
+            }
+            return new TableSubset(this, offset, limit);
+        }
+        return super.subset(query);
+    }
+
+    /**
+     * Returns a stream of the features in the given range of rows.
+     * The offset and limit are executed by the database, except a limit of zero
+     * which gives an empty stream without querying the database.
+     *
+     * <p>If a parallel stream is requested for all rows and the primary key is a single integer column,
+     * then the stream can be split in ranges of primary key values. Each range is read by its own query
+     * on its own (pooled) connection.</p>
+     *
+     * @param  parallel  {@code true} for a parallel stream (if supported), or {@code false} for a sequential stream.
+     * @param  offset    number of rows to skip, or 0 if none.
+     * @param  limit     maximal number of rows to return, or a negative value if unlimited.
+     * @return the features in the given range of rows.
+     * @throws DataStoreException if an error occurred while creating the stream.
+     */
+    final Stream<AbstractFeature> features(final boolean parallel, final long offset, final long limit) throws DataStoreException {
+        if (limit == 0) {
+            return Stream.empty();          // Some databases reject "FETCH FIRST 0 ROWS ONLY".
+        }
         DataStoreException ex;
         Connection connection = null;
         try {
             connection = source.getConnection();
-            final Features iter = features(connection, new ArrayList<>(), null);
+            if (parallel && offset == 0 && limit < 0) {
+                final long[] bounds = keyBounds(connection);
+                if (bounds != null) {
+                    final long count = countRows(connection.getMetaData(), true);
+                    connection.close();
+                    connection = null;
+                    final KeyRangeFeatures iter = new KeyRangeFeatures(this, bounds[0], bounds[1], count);
+                    return StreamSupport.stream(iter, true).onClose(iter);
+                }
+            }
+            final Features iter = new Features(this, connection, attributeNames, attributeColumns,
+                    importedKeys, exportedKeys, primaryKeys, new ArrayList<>(), null, offset, limit, null);
             return StreamSupport.stream(iter, parallel).onClose(iter);
         } catch (SQLException cause) {
             ex = new DataStoreException(Exceptions.unwrap(cause));
@@ -627,6 +746,64 @@ final class Table extends AbstractFeatureSet {
     final Features features(final Connection connection, final List<Relation> following, final Relation noFollow)
             throws SQLException, InternalDataStoreException
     {
-        return new Features(this, connection, attributeNames, attributeColumns, importedKeys, exportedKeys, following, noFollow);
+        return new Features(this, connection, attributeNames, attributeColumns,
+                importedKeys, exportedKeys, primaryKeys, following, noFollow, 0, -1, null);
+    }
+
+    /**
+     * Returns an iterator over the features having a primary key value in the given range.
+     * The iterator uses its own (pooled) connection, which is closed when the iterator is closed.
+     * This method shall be invoked only if {@link #keyBounds(Connection)} returned a non-null value.
+     *
+     * @param  lower  minimal primary key value, inclusive.
+     * @param  upper  maximal primary key value, inclusive.
+     */
+    final Features features(final long lower, final long upper) throws SQLException, InternalDataStoreException {
+        final Connection connection = source.getConnection();
+        try {
+            return new Features(this, connection, attributeNames, attributeColumns, importedKeys, exportedKeys,
+                    primaryKeys, new ArrayList<>(), null, 0, -1, new long[] {lower, upper});
+        } catch (SQLException | InternalDataStoreException | RuntimeException e) {
+            try {
+                connection.close();
+            } catch (SQLException s) {
+                e.addSuppressed(s);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the minimal and maximal values of the primary key, or {@code null} if the features of this table
+     * can not be partitioned by ranges of primary key values. Current implementation supports only primary keys
+     * made of a single column of integer type.
+     *
+     * @param  connection  connection to the database.
+     * @return minimal and maximal primary key values (inclusive), or {@code null} if none.
+     */
+    private long[] keyBounds(final Connection connection) throws SQLException {
+        if (primaryKeys == null || primaryKeys.length != 1 || primaryKeyClass == BigInteger.class
+                || !Numbers.isInteger(primaryKeyClass))
+        {
+            return null;
+        }
+        final SQLBuilder sql = new SQLBuilder(connection.getMetaData(), true)
+                .append("SELECT MIN(").appendIdentifier(primaryKeys[0])
+                .append("), MAX(").appendIdentifier(primaryKeys[0])
+                .append(") FROM ").appendIdentifier(name.catalog, name.schema, name.table);
+        try (Statement stmt = connection.createStatement();
+             ResultSet r = stmt.executeQuery(sql.toString()))
+        {
+            if (r.next()) {
+                final long lower = r.getLong(1);
+                if (!r.wasNull()) {
+                    final long upper = r.getLong(2);
+                    if (!r.wasNull()) {
+                        return new long[] {lower, upper};
+                    }
+                }
+            }
+        }
+        return null;
     }
 }
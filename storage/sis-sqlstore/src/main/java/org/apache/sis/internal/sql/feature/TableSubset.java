@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.sql.feature;
+
+import java.util.stream.Stream;
+import org.opengis.util.GenericName;
+import org.opengis.geometry.Envelope;
+import org.apache.sis.internal.storage.AbstractFeatureSet;
+import org.apache.sis.internal.storage.query.SimpleQuery;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.FeatureSet;
+import org.apache.sis.storage.Query;
+
+// Branch-dependent imports
+import org.apache.sis.feature.AbstractFeature;
+import org.apache.sis.feature.DefaultFeatureType;
+
+
+/**
+ * A range of rows in a {@link Table}, as the result of a {@link SimpleQuery} with an offset or a limit.
+ * Contrarily to the generic implementation provided by {@link SimpleQuery#execute(FeatureSet)},
+ * the offset and limit are translated in SQL clauses, so the rows outside the range are not
+ * transferred from the database.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+final class TableSubset extends AbstractFeatureSet {
+    /**
+     * The table from which to read a range of rows.
+     */
+    private final Table table;
+
+    /**
+     * Number of rows to skip, or 0 if none.
+     */
+    private final long offset;
+
+    /**
+     * Maximal number of rows to return, or a negative value if unlimited.
+     */
+    private final long limit;
+
+    /**
+     * Creates a new range of rows in the given table.
+     *
+     * @param  table   the table from which to read a range of rows.
+     * @param  offset  number of rows to skip, or 0 if none.
+     * @param  limit   maximal number of rows to return, or a negative value if unlimited.
+     */
+    TableSubset(final Table table, final long offset, final long limit) {
+        super(table);
+        this.table  = table;
+        this.offset = offset;
+        this.limit  = limit;
+    }
+
+    /**
+     * Returns {@code null} since this resource is a computation result.
+     */
+    @Override
+    public GenericName getIdentifier() {
+        return null;
+    }
+
+    /**
+     * Returns {@code null} since computing the envelope would be costly.
+     */
+    @Override
+    public Envelope getEnvelope() {
+        return null;
+    }
+
+    /**
+     * Returns the type of features in this range of rows, which is the type of all features in the table.
+     */
+    @Override
+    public DefaultFeatureType getType() {
+        return table.featureType;
+    }
+
+    /**
+     * Requests a subset of this range of rows. If the given query is a {@link SimpleQuery},
+     * then its offset and limit are combined with the ones of this range. Other queries are
+     * executed by the default implementation.
+     */
+    @Override
+    public FeatureSet subset(final Query query) throws DataStoreException {
+        if (query instanceof SimpleQuery) {
+            final SimpleQuery q = (SimpleQuery) query;
+            final long skip = q.getOffset();
+            long count = q.getLimit();
+            if (limit >= 0) {
+                final long remaining = Math.max(limit - skip, 0);
+                if (count < 0 || count > remaining) {
+                    count = remaining;
+                }
+            }
+            return new TableSubset(table, offset + skip, count);
+        }
+        return super.subset(query);
+    }
+
+    /**
+     * Returns a stream of the features in this range of rows.
+     */
+    @Override
+    public Stream<AbstractFeature> features(final boolean parallel) throws DataStoreException {
+        return table.features(parallel, offset, limit);
+    }
+}
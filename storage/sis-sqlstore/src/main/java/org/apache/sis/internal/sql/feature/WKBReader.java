@@ -0,0 +1,405 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.sql.feature;
+
+import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.BufferUnderflowException;
+import java.sql.SQLException;
+import java.sql.SQLDataException;
+import java.sql.SQLFeatureNotSupportedException;
+import org.apache.sis.internal.feature.Geometries;
+import org.apache.sis.math.Vector;
+
+
+/**
+ * Decoder of geometries encoded in the <cite>Well-Known Binary</cite> (WKB) format, including the
+ * PostGIS <cite>Extended WKB</cite> (EWKB) and ISO SQL/MM variants. The geometries are created directly
+ * by the geometry library given at construction time, without intermediate text representation.
+ * The bytes to decode can be either the binary WKB, or the hexadecimal representation of WKB as returned
+ * by PostGIS for {@code geometry} columns.
+ *
+ * <p>Points, line strings, polygons, multi-line strings and multi-polygons are created directly.
+ * The rings of polygons are given to the geometry library with their role (exterior ring or hole) as
+ * declared in the WKB, without geometric inference. Multi-points and geometry collections have no
+ * equivalent in {@link Geometries} factory methods; they are transcoded to <cite>Well-Known Text</cite>
+ * and given to {@link Geometries#parseWKT(String)}, which is not supported by all libraries.
+ * The <var>z</var> and <var>m</var> values are skipped since {@link Geometries#createPoint(double, double)}
+ * is two-dimensional. The SRID of EWKB geometries is ignored since the coordinate reference system is given
+ * by the column metadata.</p>
+ *
+ * <p>Instances of this class are not thread-safe. Each {@link Features} iterator uses its own instance.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+final class WKBReader {
+    /**
+     * Geometry type codes defined by the WKB specification.
+     */
+    private static final int POINT = 1, LINESTRING = 2, POLYGON = 3, MULTIPOINT = 4, MULTILINESTRING = 5,
+            MULTIPOLYGON = 6, GEOMETRYCOLLECTION = 7;
+
+    /**
+     * EWKB flags set in the geometry type code for signaling the presence of <var>z</var>
+     * or <var>m</var> values, or of a SRID after the geometry type.
+     */
+    private static final int EWKB_Z = 0x80000000, EWKB_M = 0x40000000, EWKB_SRID = 0x20000000;
+
+    /**
+     * The library to use for creating geometry objects.
+     */
+    private final Geometries<?> library;
+
+    /**
+     * The buffer of the geometry being decoded.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Number of ordinate values per point in the geometry being decoded, including <var>z</var> and <var>m</var>.
+     * Only the two first ordinates are retained.
+     */
+    private int dimension;
+
+    /**
+     * The (<var>x</var>,<var>y</var>) tuples of the geometry being decoded, with {@link Double#NaN} values
+     * between paths. This array is recycled for all geometries. Only the {@link #count} first elements are valid.
+     */
+    private double[] ordinates;
+
+    /**
+     * Number of valid elements in the {@link #ordinates} array.
+     */
+    private int count;
+
+    /**
+     * Creates a new reader creating geometries with the given library.
+     *
+     * @param  library  the library to use for creating geometry objects.
+     */
+    WKBReader(final Geometries<?> library) {
+        this.library   = library;
+        this.ordinates = new double[64];
+    }
+
+    /**
+     * Decodes the given binary or hexadecimal WKB. The given bytes are usually
+     * the value returned by {@link java.sql.ResultSet#getBytes(int)}.
+     *
+     * @param  wkb  the binary WKB, or the ASCII characters of an hexadecimal WKB, or {@code null}.
+     * @return the geometry, or {@code null} if the given array is null or empty.
+     * @throws SQLDataException if the given bytes are not a valid WKB geometry.
+     * @throws SQLFeatureNotSupportedException if the geometry type is not supported by this reader
+     *         or by the geometry library.
+     */
+    final Object read(byte[] wkb) throws SQLException {
+        if (wkb == null || wkb.length == 0) {
+            return null;
+        }
+        if (wkb[0] != 0 && wkb[0] != 1) {
+            wkb = decodeHex(wkb);
+        }
+        buffer = ByteBuffer.wrap(wkb);
+        try {
+            return readGeometry();
+        } catch (BufferUnderflowException e) {
+            throw new SQLDataException(Resources.format(Resources.Keys.MalformedGeometry), e);
+        } finally {
+            buffer = null;
+        }
+    }
+
+    /**
+     * Converts the given ASCII characters of an hexadecimal string to the bytes that they represent.
+     */
+    private static byte[] decodeHex(final byte[] hex) throws SQLDataException {
+        if ((hex.length & 1) == 0) {
+            final byte[] wkb = new byte[hex.length >>> 1];
+            int i = 0;
+            while (i < wkb.length) {
+                final int hi = Character.digit(hex[i << 1], 16);
+                final int lo = Character.digit(hex[(i << 1) | 1], 16);
+                if ((hi | lo) < 0) break;
+                wkb[i++] = (byte) ((hi << 4) | lo);
+            }
+            if (i == wkb.length) {
+                return wkb;
+            }
+        }
+        throw new SQLDataException(Resources.format(Resources.Keys.MalformedGeometry));
+    }
+
+    /**
+     * Reads the byte order and the geometry type of the geometry at the current buffer position.
+     * This method sets the buffer byte order and the {@link #dimension} field.
+     *
+     * @return the geometry type, without the flags for <var>z</var> and <var>m</var> values.
+     */
+    private int readHeader() throws SQLException {
+        final ByteOrder order;
+        switch (buffer.get()) {
+            case 0:  order = ByteOrder.BIG_ENDIAN;    break;
+            case 1:  order = ByteOrder.LITTLE_ENDIAN; break;
+            default: throw new SQLDataException(Resources.format(Resources.Keys.MalformedGeometry));
+        }
+        buffer.order(order);
+        int type = buffer.getInt();
+        int dim = 2;
+        if ((type & EWKB_Z) != 0) dim++;
+        if ((type & EWKB_M) != 0) dim++;
+        if ((type & EWKB_SRID) != 0) {
+            buffer.getInt();                            // SRID ignored (the CRS is given by column metadata).
+        }
+        type &= ~(EWKB_Z | EWKB_M | EWKB_SRID);
+        switch (type / 1000) {                          // ISO SQL/MM codes: 1000 for Z, 2000 for M, 3000 for ZM.
+            case 0:  break;
+            case 1:
+            case 2:  dim++;   break;
+            case 3:  dim += 2; break;
+            default: throw unsupported(type);
+        }
+        dimension = dim;
+        return type % 1000;
+    }
+
+    /**
+     * Reads the geometry at the current buffer position and creates the object with the geometry library.
+     */
+    private Object readGeometry() throws SQLException {
+        final int start = buffer.position();
+        final int type = readHeader();
+        count = 0;
+        switch (type) {
+            case POINT: {
+                final double x = buffer.getDouble();
+                final double y = buffer.getDouble();
+                skipExtraOrdinates();
+                return library.createPoint(x, y);
+            }
+            case LINESTRING: {
+                readPath();
+                return library.createPolyline(2, ordinates());
+            }
+            case POLYGON: {
+                return library.createPolygons(2, new Vector[][] {readRings()});
+            }
+            case MULTILINESTRING: {
+                for (int n = buffer.getInt(); --n >= 0;) {
+                    if (readHeader() != LINESTRING) {
+                        throw new SQLDataException(Resources.format(Resources.Keys.MalformedGeometry));
+                    }
+                    readPath();
+                }
+                return library.createPolyline(2, ordinates());
+            }
+            case MULTIPOLYGON: {
+                final Vector[][] polygons = new Vector[readCount()][];
+                for (int i=0; i<polygons.length; i++) {
+                    if (readHeader() != POLYGON) {
+                        throw new SQLDataException(Resources.format(Resources.Keys.MalformedGeometry));
+                    }
+                    polygons[i] = readRings();
+                }
+                return library.createPolygons(2, polygons);
+            }
+            case MULTIPOINT:
+            case GEOMETRYCOLLECTION: {
+                buffer.position(start);
+                final StringBuilder wkt = new StringBuilder(80);
+                appendWKT(wkt, 0);
+                final Object geometry;
+                try {
+                    geometry = library.parseWKT(wkt.toString());
+                } catch (Exception e) {
+                    final SQLFeatureNotSupportedException ex = unsupported(type);
+                    ex.initCause(e);
+                    throw ex;
+                }
+                if (geometry == null) {
+                    throw unsupported(type);            // ESRI library has no geometry collection.
+                }
+                return geometry;
+            }
+            default: {
+                throw unsupported(type);
+            }
+        }
+    }
+
+    /**
+     * Returns the exception to throw for an unsupported geometry type.
+     */
+    private static SQLFeatureNotSupportedException unsupported(final int type) {
+        return new SQLFeatureNotSupportedException(Resources.format(Resources.Keys.UnsupportedGeometryType_1, type));
+    }
+
+    /**
+     * Transcodes the geometry at the current buffer position to <cite>Well-Known Text</cite>.
+     * Only the (<var>x</var>,<var>y</var>) ordinate values are written.
+     *
+     * @param  wkt       where to write the WKT.
+     * @param  expected  the expected geometry type of a component of a multi-geometry,
+     *                   or 0 if the type name shall be written (root geometry or member of a collection).
+     */
+    private void appendWKT(final StringBuilder wkt, final int expected) throws SQLException {
+        final int type = readHeader();
+        if (expected == 0) {
+            final String name;
+            switch (type) {
+                case POINT:              name = "POINT";              break;
+                case LINESTRING:         name = "LINESTRING";         break;
+                case POLYGON:            name = "POLYGON";            break;
+                case MULTIPOINT:         name = "MULTIPOINT";         break;
+                case MULTILINESTRING:    name = "MULTILINESTRING";    break;
+                case MULTIPOLYGON:       name = "MULTIPOLYGON";       break;
+                case GEOMETRYCOLLECTION: name = "GEOMETRYCOLLECTION"; break;
+                default: throw unsupported(type);
+            }
+            wkt.append(name).append(' ');
+        } else if (type != expected) {
+            throw new SQLDataException(Resources.format(Resources.Keys.MalformedGeometry));
+        }
+        switch (type) {
+            case POINT: {
+                final double x = buffer.getDouble();
+                final double y = buffer.getDouble();
+                skipExtraOrdinates();
+                if (Double.isNaN(x) && Double.isNaN(y)) {
+                    wkt.append("EMPTY");                        // Convention used by PostGIS for empty points.
+                } else {
+                    wkt.append('(').append(x).append(' ').append(y).append(')');
+                }
+                break;
+            }
+            case LINESTRING: {
+                appendPath(wkt);
+                break;
+            }
+            default: {
+                final int n = readCount();
+                if (n == 0) {
+                    wkt.append("EMPTY");
+                    break;
+                }
+                wkt.append('(');
+                for (int i=0; i<n; i++) {
+                    if (i != 0) wkt.append(", ");
+                    switch (type) {
+                        case POLYGON:         appendPath(wkt);            break;
+                        case MULTIPOINT:      appendWKT(wkt, POINT);      break;
+                        case MULTILINESTRING: appendWKT(wkt, LINESTRING); break;
+                        case MULTIPOLYGON:    appendWKT(wkt, POLYGON);    break;
+                        default:              appendWKT(wkt, 0);          break;
+                    }
+                }
+                wkt.append(')');
+            }
+        }
+    }
+
+    /**
+     * Transcodes the sequence of points at the current buffer position to <cite>Well-Known Text</cite>.
+     */
+    private void appendPath(final StringBuilder wkt) {
+        final int n = buffer.getInt();
+        if (n < 0 || n > buffer.remaining() / (dimension * Double.BYTES)) {
+            throw new BufferUnderflowException();
+        }
+        if (n == 0) {
+            wkt.append("EMPTY");
+            return;
+        }
+        for (int i=0; i<n; i++) {
+            wkt.append(i == 0 ? '(' : ',').append(buffer.getDouble()).append(' ').append(buffer.getDouble());
+            skipExtraOrdinates();
+        }
+        wkt.append(')');
+    }
+
+    /**
+     * Reads the rings of a polygon. The first ring is the exterior ring and the other rings are holes,
+     * as specified by the WKB format. Each ring is returned in its own vector, so the geometry library
+     * does not need to infer the role of each ring.
+     */
+    private Vector[] readRings() {
+        final Vector[] rings = new Vector[readCount()];
+        for (int i=0; i<rings.length; i++) {
+            count = 0;
+            readPath();
+            rings[i] = Vector.create(Arrays.copyOf(ordinates, count), false);
+        }
+        return rings;
+    }
+
+    /**
+     * Reads the number of rings or polygons that follow. Each of them takes at least 4 bytes,
+     * which allows to detect corrupted numbers before to allocate arrays.
+     */
+    private int readCount() {
+        final int n = buffer.getInt();
+        if (n < 0 || n > buffer.remaining() / Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        return n;
+    }
+
+    /**
+     * Reads a sequence of points and appends their (<var>x</var>,<var>y</var>) values to the {@link #ordinates}
+     * array. If the array already contains a path, then a pair of {@link Double#NaN} values is inserted before
+     * the new path.
+     */
+    private void readPath() {
+        final int n = buffer.getInt();
+        if (n > buffer.remaining() / (dimension * Double.BYTES)) {
+            throw new BufferUnderflowException();
+        }
+        final int required = count + (n + 1) * 2;
+        if (required > ordinates.length) {
+            ordinates = Arrays.copyOf(ordinates, Math.max(required, ordinates.length * 2));
+        }
+        if (count != 0) {
+            ordinates[count++] = Double.NaN;
+            ordinates[count++] = Double.NaN;
+        }
+        for (int i=0; i<n; i++) {
+            ordinates[count++] = buffer.getDouble();
+            ordinates[count++] = buffer.getDouble();
+            skipExtraOrdinates();
+        }
+    }
+
+    /**
+     * Skips the <var>z</var> and <var>m</var> values of the current point, if any.
+     */
+    private void skipExtraOrdinates() {
+        if (dimension > 2) {
+            buffer.position(buffer.position() + (dimension - 2) * Double.BYTES);
+        }
+    }
+
+    /**
+     * Returns a view over the valid elements of the {@link #ordinates} array.
+     * The geometry library copies the values, so the array can be recycled.
+     */
+    private Vector ordinates() {
+        return Vector.create(ordinates, false).subList(0, count);
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.sis.storage.Resource;
 import org.apache.sis.storage.Aggregate;
 import org.apache.sis.storage.DataStore;
 import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataOptionKey;
 import org.apache.sis.storage.IllegalNameException;
 import org.apache.sis.storage.StorageConnector;
 import org.apache.sis.storage.event.ChangeEvent;
@@ -64,11 +65,39 @@ public class SQLStore extends DataStore implements Aggregate {
             "getURL"                    // SQL Server
     };
 
+    /**
+     * Default value of the maximal number of rows for which the associations are resolved in a single query.
+     *
+     * @see DataOptionKey#BATCH_SIZE
+     */
+    static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Default value of the number of rows that the JDBC driver fetches from the database at once.
+     *
+     * @see DataOptionKey#FETCH_SIZE
+     */
+    static final int DEFAULT_FETCH_SIZE = 1000;
+
     /**
      * The data source to use for obtaining connections to the database.
      */
     private final DataSource source;
 
+    /**
+     * Maximal number of rows for which the associations to other tables are resolved in a single query.
+     *
+     * @see DataOptionKey#BATCH_SIZE
+     */
+    private final int batchSize;
+
+    /**
+     * Number of rows that the JDBC driver fetches from the database at once when iterating over a table.
+     *
+     * @see DataOptionKey#FETCH_SIZE
+     */
+    private final int fetchSize;
+
     /**
      * The result of inspecting database schema for deriving {@link org.apache.sis.feature.DefaultFeatureType}s.
      * Created when first needed. May be discarded and recreated if the store needs a refresh.
@@ -101,6 +130,9 @@ public class SQLStore extends DataStore implements Aggregate {
      *
      * Qualified table names can be created by the {@link SQLStoreProvider#createTableName(String, String, String)}
      * convenience method. Only the main tables need to be specified; dependencies will be followed automatically.
+     * The number of rows for which the associations are resolved in a single query can be specified by the
+     * {@link DataOptionKey#BATCH_SIZE} option of the given connector, and the number of rows fetched from
+     * the database at once can be specified by the {@link DataOptionKey#FETCH_SIZE} option.
      *
      * @param  provider    the factory that created this {@code DataStore} instance, or {@code null} if unspecified.
      * @param  connector   information about the storage (JDBC data source, <i>etc</i>).
@@ -112,6 +144,12 @@ public class SQLStore extends DataStore implements Aggregate {
     {
         super(provider, connector);
         source = connector.getStorageAs(DataSource.class);
+        final Integer batch = connector.getOption(DataOptionKey.BATCH_SIZE);
+        batchSize = (batch != null) ? batch : DEFAULT_BATCH_SIZE;
+        ArgumentChecks.ensureStrictlyPositive("batchSize", batchSize);
+        final Integer fetch = connector.getOption(DataOptionKey.FETCH_SIZE);
+        fetchSize = (fetch != null) ? fetch : DEFAULT_FETCH_SIZE;
+        ArgumentChecks.ensureStrictlyPositive("fetchSize", fetchSize);
         ArgumentChecks.ensureNonNull("tableNames", tableNames);
         tableNames = tableNames.clone();
         for (int i=0; i<tableNames.length; i++) {
@@ -140,6 +178,8 @@ public class SQLStore extends DataStore implements Aggregate {
         final ParameterValueGroup pg = provider.getOpenParameters().createValue();
         pg.parameter(SQLStoreProvider.LOCATION).setValue(source);
         pg.parameter(SQLStoreProvider.TABLES).setValue(tableNames);
+        pg.parameter(SQLStoreProvider.BATCH_SIZE).setValue(batchSize);
+        pg.parameter(SQLStoreProvider.FETCH_SIZE).setValue(fetchSize);
         return pg;
     }
 
@@ -159,7 +199,7 @@ public class SQLStore extends DataStore implements Aggregate {
     private synchronized Database model() throws DataStoreException {
         if (model == null) {
             try (Connection c = source.getConnection()) {
-                model = new Database(this, c, source, tableNames, listeners);
+                model = new Database(this, c, source, tableNames, batchSize, fetchSize, listeners);
             } catch (SQLException e) {
                 throw new DataStoreException(Exceptions.unwrap(e));
             }
@@ -176,7 +216,7 @@ public class SQLStore extends DataStore implements Aggregate {
      */
     private Database model(final Connection c) throws DataStoreException, SQLException {
         if (model == null) {
-            model = new Database(this, c, source, tableNames, listeners);
+            model = new Database(this, c, source, tableNames, batchSize, fetchSize, listeners);
         }
         return model;
     }
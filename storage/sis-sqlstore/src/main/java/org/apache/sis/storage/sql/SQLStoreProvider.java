@@ -33,6 +33,7 @@ import org.apache.sis.internal.sql.feature.Resources;
 import org.apache.sis.storage.DataStore;
 import org.apache.sis.storage.DataStoreProvider;
 import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataOptionKey;
 import org.apache.sis.storage.IllegalOpenParameterException;
 import org.apache.sis.storage.StorageConnector;
 import org.apache.sis.storage.ProbeResult;
@@ -65,6 +66,18 @@ public class SQLStoreProvider extends DataStoreProvider {
      */
     static final String TABLES = "tables";
 
+    /**
+     * Name of the parameter for the maximal number of rows for which the associations are resolved in a single query.
+     * Values of this parameter are {@code Integer}.
+     */
+    static final String BATCH_SIZE = "batchSize";
+
+    /**
+     * Name of the parameter for the number of rows that the JDBC driver fetches from the database at once.
+     * Values of this parameter are {@code Integer}.
+     */
+    static final String FETCH_SIZE = "fetchSize";
+
     /**
      * Description of the {@value #LOCATION} parameter.
      */
@@ -75,6 +88,16 @@ public class SQLStoreProvider extends DataStoreProvider {
      */
     private static final ParameterDescriptor<GenericName[]> TABLES_PARAM;
 
+    /**
+     * Description of the optional {@code "batchSize"} parameter.
+     */
+    private static final ParameterDescriptor<Integer> BATCH_SIZE_PARAM;
+
+    /**
+     * Description of the optional {@code "fetchSize"} parameter.
+     */
+    private static final ParameterDescriptor<Integer> FETCH_SIZE_PARAM;
+
     /**
      * The parameter descriptor to be returned by {@link #getOpenParameters()}.
      */
@@ -87,7 +110,13 @@ public class SQLStoreProvider extends DataStoreProvider {
         TABLES_PARAM = builder.addName(TABLES).setRequired(true)
                               .setDescription(Resources.formatInternational(Resources.Keys.QualifiedTableNames))
                               .create(GenericName[].class, null);
-        OPEN_DESCRIPTOR = builder.addName(NAME).createGroup(SOURCE_PARAM, TABLES_PARAM);
+        BATCH_SIZE_PARAM = builder.addName(BATCH_SIZE).setRequired(false)
+                              .setDescription(Resources.formatInternational(Resources.Keys.BatchSize))
+                              .createBounded(1, Integer.MAX_VALUE, SQLStore.DEFAULT_BATCH_SIZE);
+        FETCH_SIZE_PARAM = builder.addName(FETCH_SIZE)
+                              .setDescription(Resources.formatInternational(Resources.Keys.FetchSize))
+                              .createBounded(1, Integer.MAX_VALUE, SQLStore.DEFAULT_FETCH_SIZE);
+        OPEN_DESCRIPTOR = builder.addName(NAME).createGroup(SOURCE_PARAM, TABLES_PARAM, BATCH_SIZE_PARAM, FETCH_SIZE_PARAM);
     }
 
     /**
@@ -222,6 +251,8 @@ public class SQLStoreProvider extends DataStoreProvider {
         try {
             final Parameters p = Parameters.castOrWrap(parameters);
             final StorageConnector connector = new StorageConnector(p.getValue(SOURCE_PARAM));
+            connector.setOption(DataOptionKey.BATCH_SIZE, p.getValue(BATCH_SIZE_PARAM));
+            connector.setOption(DataOptionKey.FETCH_SIZE, p.getValue(FETCH_SIZE_PARAM));
             final GenericName[] tableNames = p.getValue(TABLES_PARAM);
             return new SQLStore(this, connector, tableNames);
         } catch (ParameterNotFoundException | UnconvertibleObjectException e) {
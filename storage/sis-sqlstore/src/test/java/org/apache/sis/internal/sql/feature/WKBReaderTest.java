@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.sql.feature;
+
+import java.awt.Shape;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.SQLException;
+import java.sql.SQLDataException;
+import java.sql.SQLFeatureNotSupportedException;
+import org.apache.sis.internal.feature.Geometries;
+import org.apache.sis.setup.GeometryLibrary;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link WKBReader}. Geometries are created with the Java2D library, which is always available.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final strictfp class WKBReaderTest extends TestCase {
+    /**
+     * The reader to test.
+     */
+    private final WKBReader reader = new WKBReader(Geometries.implementation(GeometryLibrary.JAVA2D));
+
+    /**
+     * Converts the given bytes to the ASCII characters of their hexadecimal representation,
+     * as returned by PostGIS.
+     */
+    private static byte[] toHex(final byte[] wkb) {
+        final byte[] hex = new byte[wkb.length * 2];
+        for (int i=0; i<wkb.length; i++) {
+            hex[i*2    ] = (byte) Character.toUpperCase(Character.forDigit((wkb[i] >>> 4) & 0xF, 16));
+            hex[i*2 + 1] = (byte) Character.toUpperCase(Character.forDigit( wkb[i]         & 0xF, 16));
+        }
+        return hex;
+    }
+
+    /**
+     * Tests decoding a point in little-endian order.
+     *
+     * @throws SQLException if the WKB can not be decoded.
+     */
+    @Test
+    public void testPoint() throws SQLException {
+        final ByteBuffer wkb = ByteBuffer.allocate(21).order(ByteOrder.LITTLE_ENDIAN);
+        wkb.put((byte) 1).putInt(1).putDouble(4).putDouble(-5);
+        assertEquals(new Point2D.Double(4, -5), reader.read(wkb.array()));
+        assertNull(reader.read(null));
+    }
+
+    /**
+     * Tests decoding a three-dimensional line string in EWKB with a SRID, in big-endian order
+     * and in hexadecimal representation. The <var>z</var> values shall be skipped.
+     *
+     * @throws SQLException if the WKB can not be decoded.
+     */
+    @Test
+    public void testLineStringEWKB() throws SQLException {
+        final ByteBuffer wkb = ByteBuffer.allocate(13 + 3*24).order(ByteOrder.BIG_ENDIAN);
+        wkb.put((byte) 0).putInt(0x80000000 | 0x20000000 | 2).putInt(4326).putInt(3)
+           .putDouble(1).putDouble(2).putDouble(100)
+           .putDouble(3).putDouble(5).putDouble(100)
+           .putDouble(6).putDouble(4).putDouble(100);
+        final Rectangle2D bounds = ((Shape) reader.read(toHex(wkb.array()))).getBounds2D();
+        assertEquals(new Rectangle2D.Double(1, 2, 5, 3), bounds);
+    }
+
+    /**
+     * Tests decoding a polygon with a hole.
+     *
+     * @throws SQLException if the WKB can not be decoded.
+     */
+    @Test
+    public void testPolygon() throws SQLException {
+        final double[][] rings = {
+            {0, 0,  0, 10,  10, 10,  10, 0,  0, 0},
+            {2, 2,  4,  2,   4,  4,   2, 4,  2, 2}
+        };
+        final ByteBuffer wkb = ByteBuffer.allocate(9 + 2*(4 + 5*16)).order(ByteOrder.LITTLE_ENDIAN);
+        wkb.put((byte) 1).putInt(3).putInt(rings.length);
+        for (final double[] ring : rings) {
+            wkb.putInt(ring.length / 2);
+            for (final double value : ring) {
+                wkb.putDouble(value);
+            }
+        }
+        final Shape polygon = (Shape) reader.read(wkb.array());
+        assertTrue (polygon.contains(1, 1));
+        assertFalse(polygon.contains(3, 3));
+        assertFalse(polygon.contains(11, 5));
+    }
+
+    /**
+     * Tests decoding a multi-polygon where the second polygon is an island inside the hole of the first polygon.
+     * The island shall be part of the geometry even if it is located inside a hole.
+     *
+     * @throws SQLException if the WKB can not be decoded.
+     */
+    @Test
+    public void testMultiPolygonWithIsland() throws SQLException {
+        final double[][][] polygons = {
+            {{0, 0,  0, 10,  10, 10,  10, 0,  0, 0},             // Exterior ring of first polygon.
+             {2, 2,  8,  2,   8,  8,   2, 8,  2, 2}},            // Hole in first polygon.
+            {{4, 4,  4,  6,   6,  6,   6, 4,  4, 4}}             // Island inside the hole.
+        };
+        final ByteBuffer wkb = ByteBuffer.allocate(9 + (9 + 2*84) + (9 + 84)).order(ByteOrder.LITTLE_ENDIAN);
+        wkb.put((byte) 1).putInt(6).putInt(polygons.length);
+        for (final double[][] rings : polygons) {
+            wkb.put((byte) 1).putInt(3).putInt(rings.length);
+            for (final double[] ring : rings) {
+                wkb.putInt(ring.length / 2);
+                for (final double value : ring) {
+                    wkb.putDouble(value);
+                }
+            }
+        }
+        assertEquals("remaining", 0, wkb.remaining());
+        final Shape polygon = (Shape) reader.read(wkb.array());
+        assertTrue ("Exterior ring", polygon.contains(1, 1));
+        assertFalse("Hole",          polygon.contains(3, 3));
+        assertTrue ("Island",        polygon.contains(5, 5));
+        assertFalse("Outside",       polygon.contains(11, 5));
+    }
+
+    /**
+     * Tests decoding geometry types that are not supported by the reader or by the geometry library.
+     * Multi-points and geometry collections are transcoded to WKT, which Java2D can not parse.
+     * Those errors shall be distinguished from malformed geometries.
+     *
+     * @throws SQLException if the WKB can not be decoded for another reason than an unsupported type.
+     */
+    @Test
+    public void testUnsupported() throws SQLException {
+        final ByteBuffer wkb = ByteBuffer.allocate(9 + 2*21).order(ByteOrder.LITTLE_ENDIAN);
+        wkb.put((byte) 1).putInt(4).putInt(2);                  // Multi-point.
+        wkb.put((byte) 1).putInt(1).putDouble(1).putDouble(2);
+        wkb.put((byte) 1).putInt(1).putDouble(3).putDouble(4);
+        try {
+            reader.read(wkb.array());
+            fail("Java2D can not parse multi-points.");
+        } catch (SQLFeatureNotSupportedException e) {
+            assertTrue(e.getMessage().contains("4"));
+            assertTrue(e.getCause() instanceof UnsupportedOperationException);
+        }
+        wkb.clear();
+        wkb.put((byte) 1).putInt(7).putInt(0);                  // Empty geometry collection.
+        try {
+            reader.read(wkb.array());
+            fail("Java2D can not parse geometry collections.");
+        } catch (SQLFeatureNotSupportedException e) {
+            assertTrue(e.getMessage().contains("7"));
+        }
+        wkb.clear();
+        wkb.put((byte) 1).putInt(17).putInt(0);                 // Unknown type (triangle).
+        try {
+            reader.read(wkb.array());
+            fail("Triangles are not supported.");
+        } catch (SQLFeatureNotSupportedException e) {
+            assertTrue(e.getMessage().contains("17"));
+        }
+    }
+
+    /**
+     * Tests decoding truncated geometries.
+     *
+     * @throws SQLException if the WKB can not be decoded for another reason than a malformed geometry.
+     */
+    @Test
+    public void testMalformed() throws SQLException {
+        final ByteBuffer wkb = ByteBuffer.allocate(9).order(ByteOrder.LITTLE_ENDIAN);
+        wkb.put((byte) 1).putInt(1).putInt(0);                  // Truncated point.
+        try {
+            reader.read(wkb.array());
+            fail("Truncated geometry shall not be accepted.");
+        } catch (SQLDataException e) {
+            assertNotNull(e.getMessage());
+        }
+        wkb.clear();
+        wkb.put((byte) 1).putInt(4).putInt(1000);               // Multi-point declaring too many points.
+        try {
+            reader.read(wkb.array());
+            fail("Truncated geometry shall not be accepted.");
+        } catch (SQLDataException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+}
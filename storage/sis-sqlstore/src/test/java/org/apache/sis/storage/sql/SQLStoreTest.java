@@ -19,11 +19,16 @@ package org.apache.sis.storage.sql;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Spliterator;
 import java.util.stream.Stream;
 import org.apache.sis.storage.FeatureSet;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataOptionKey;
 import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.internal.storage.query.SimpleQuery;
 import org.apache.sis.test.sql.TestDatabase;
 import org.apache.sis.test.TestCase;
 import org.junit.Test;
@@ -71,7 +76,18 @@ public final strictfp class SQLStoreTest extends TestCase {
      */
     @Test
     public void testOnDerby() throws Exception {
-        test(TestDatabase.create("SQLStore"), true);
+        test(TestDatabase.create("SQLStore"), true, SQLStore.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Tests on Derby with batches smaller than the number of features, in order to verify that
+     * associations are resolved correctly when they span many batches.
+     *
+     * @throws Exception if an error occurred while testing the database.
+     */
+    @Test
+    public void testOnDerbyWithSmallBatches() throws Exception {
+        test(TestDatabase.create("SQLStore"), true, 2);
     }
 
     /**
@@ -81,7 +97,7 @@ public final strictfp class SQLStoreTest extends TestCase {
      */
     @Test
     public void testOnHSQLDB() throws Exception {
-        test(TestDatabase.createOnHSQLDB("SQLStore", true), true);
+        test(TestDatabase.createOnHSQLDB("SQLStore", true), true, SQLStore.DEFAULT_BATCH_SIZE);
     }
 
     /**
@@ -91,7 +107,56 @@ public final strictfp class SQLStoreTest extends TestCase {
      */
     @Test
     public void testOnPostgreSQL() throws Exception {
-        test(TestDatabase.createOnPostgreSQL(SCHEMA, true), false);
+        test(TestDatabase.createOnPostgreSQL(SCHEMA, true), false, SQLStore.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Tests a parallel stream on a table having an integer primary key, which allows the stream
+     * to be split in ranges of key values. Keys are intentionally sparse.
+     *
+     * @throws Exception if an error occurred while testing the database.
+     */
+    @Test
+    public void testParallelOnDerby() throws Exception {
+        final String[] scripts = new String[22];
+        scripts[0] = "CREATE SCHEMA " + SCHEMA + ';';
+        scripts[1] = "CREATE TABLE " + SCHEMA + ".\"Numbers\" (\"id\" INTEGER NOT NULL PRIMARY KEY, \"square\" INTEGER);";
+        for (int i=2; i<scripts.length; i++) {
+            final int id = (i - 2) * 7 - 30;
+            scripts[i] = "INSERT INTO " + SCHEMA + ".\"Numbers\" VALUES (" + id + ", " + (id * id) + ");";
+        }
+        try (TestDatabase tmp = TestDatabase.create("SQLStoreParallel")) {
+            tmp.executeSQL(SQLStoreTest.class, scripts);
+            final StorageConnector connector = new StorageConnector(tmp.source);
+            connector.setOption(DataOptionKey.BATCH_SIZE, 2);
+            connector.setOption(DataOptionKey.FETCH_SIZE, 3);
+            try (SQLStore store = new SQLStore(new SQLStoreProvider(), connector,
+                    SQLStoreProvider.createTableName(null, null, "Numbers")))
+            {
+                final FeatureSet numbers = (FeatureSet) store.findResource("Numbers");
+                final Set<Integer> ids = new HashSet<>();
+                try (Stream<AbstractFeature> features = numbers.features(true)) {
+                    features.forEach((f) -> {
+                        final int id = (Integer) f.getPropertyValue("id");
+                        assertEquals("square", id * id, f.getPropertyValue("square"));
+                        synchronized (ids) {
+                            assertTrue("Duplicated feature.", ids.add(id));
+                        }
+                    });
+                }
+                assertEquals("count", scripts.length - 2, ids.size());
+                /*
+                 * An exhausted iterator shall keep returning false instead of using its released connection.
+                 */
+                try (Stream<AbstractFeature> features = numbers.features(true)) {
+                    final Spliterator<AbstractFeature> it = features.spliterator();
+                    int count = 0;
+                    while (it.tryAdvance((f) -> {})) count++;
+                    assertEquals("count", scripts.length - 2, count);
+                    assertFalse("Exhausted iterator.", it.tryAdvance((f) -> fail("Unexpected feature.")));
+                }
+            }
+        }
     }
 
     /**
@@ -100,8 +165,9 @@ public final strictfp class SQLStoreTest extends TestCase {
      * @param  inMemory  where the test database is in memory. If {@code true}, then the database is presumed
      *                   initially empty: a schema will be created, and we assume that there is no ambiguity
      *                   if we don't specify the schema in {@link SQLStore} constructor.
+     * @param  batchSize maximal number of rows for which associations are resolved in a single query.
      */
-    private void test(final TestDatabase database, final boolean inMemory) throws Exception {
+    private void test(final TestDatabase database, final boolean inMemory, final int batchSize) throws Exception {
         final String[] scripts = {
             "CREATE SCHEMA " + SCHEMA + ';',
             "file:Features.sql"
@@ -111,7 +177,9 @@ public final strictfp class SQLStoreTest extends TestCase {
         }
         try (TestDatabase tmp = database) {
             tmp.executeSQL(SQLStoreTest.class, scripts);
-            try (SQLStore store = new SQLStore(new SQLStoreProvider(), new StorageConnector(tmp.source),
+            final StorageConnector connector = new StorageConnector(tmp.source);
+            connector.setOption(DataOptionKey.BATCH_SIZE, batchSize);
+            try (SQLStore store = new SQLStore(new SQLStoreProvider(), connector,
                     SQLStoreProvider.createTableName(null, inMemory ? null : SCHEMA, "Cities")))
             {
                 final FeatureSet cities = (FeatureSet) store.findResource("Cities");
@@ -130,6 +198,7 @@ public final strictfp class SQLStoreTest extends TestCase {
                 try (Stream<AbstractFeature> features = cities.features(false)) {
                     features.forEach((f) -> verifyContent(f));
                 }
+                verifySubsets(cities);
             }
         }
         assertEquals(Integer.valueOf(2), countryCount.remove("CAN"));
@@ -138,6 +207,37 @@ public final strictfp class SQLStoreTest extends TestCase {
         assertTrue  (countryCount.isEmpty());
     }
 
+    /**
+     * Verifies that pages of the {@code "Cities"} table obtained by {@link SimpleQuery} offset and limit
+     * do not overlap and cover all cities, and that an empty page can be requested.
+     */
+    private static void verifySubsets(final FeatureSet cities) throws DataStoreException {
+        final Set<String> names = new HashSet<>();
+        for (int offset = 0; offset < 4; offset += 3) {
+            final SimpleQuery query = new SimpleQuery();
+            query.setOffset(offset);
+            query.setLimit(3);
+            final FeatureSet page = cities.subset(query);
+            assertSame("type", cities.getType(), page.getType());
+            try (Stream<AbstractFeature> features = page.features(false)) {
+                final Object[] pageNames = features.map((f) -> f.getPropertyValue("native_name")).toArray();
+                assertEquals("Number of features in page.", (offset == 0) ? 3 : 1, pageNames.length);
+                for (final Object name : pageNames) {
+                    assertTrue("Same feature in two pages.", names.add(name.toString()));
+                }
+            }
+        }
+        assertSetEquals(Arrays.asList("東京", "Paris", "Montréal", "Québec"), names);
+        /*
+         * A limit of zero shall give an empty page without sending "FETCH FIRST 0 ROWS ONLY" to the database.
+         */
+        final SimpleQuery query = new SimpleQuery();
+        query.setLimit(0);
+        try (Stream<AbstractFeature> features = cities.subset(query).features(false)) {
+            assertEquals("Number of features in empty page.", 0, features.count());
+        }
+    }
+
     /**
      * Verifies the result of analyzing the structure of the {@code "Cities"} table.
      */
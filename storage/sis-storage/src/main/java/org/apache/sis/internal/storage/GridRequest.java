@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage;
+
+import java.util.Arrays;
+import org.opengis.geometry.Envelope;
+import org.opengis.metadata.spatial.DimensionNameType;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.datum.PixelInCell;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.util.FactoryException;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.geometry.Envelopes;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.operation.matrix.Matrices;
+import org.apache.sis.referencing.operation.matrix.MatrixSIS;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreReferencingException;
+
+
+/**
+ * The sub-region and sub-sampling to read from a grid coverage resource for a requested domain.
+ * This class converts the domain given by users to {@code GridCoverageResource.read(GridGeometry, int...)}
+ * into a range of cell indices in the grid of the resource, together with a sub-sampling factor for each
+ * grid dimension. Data store implementations can use those values for reading only the cells that are
+ * needed, for example with {@link org.apache.sis.internal.storage.io.Region}.
+ *
+ * <p>The domain is interpreted as below:</p>
+ * <ul>
+ *   <li>If the domain is {@code null}, then the full extent is read without sub-sampling.</li>
+ *   <li>If the domain has a <cite>grid to CRS</cite> transform, then its grid extent (or its envelope
+ *       if there is no extent) is converted to the grid coordinates of the resource. The sub-sampling
+ *       is the size of the domain cells measured in units of resource cells, rounded toward zero.</li>
+ *   <li>Otherwise if the domain has only an envelope, then that envelope is converted to the grid
+ *       coordinates of the resource and there is no sub-sampling.</li>
+ *   <li>Otherwise if the domain has only an extent, then that extent is taken as already expressed
+ *       in the grid coordinates of the resource.</li>
+ * </ul>
+ *
+ * In all cases the region is clipped to the extent of the resource.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final class GridRequest {
+    /**
+     * Tolerance factor for rounding the sub-sampling. A domain cell which is 1.9999999 resource
+     * cells large due to rounding errors should be considered as 2 resource cells large.
+     */
+    private static final double EPS = 1E-6;
+
+    /**
+     * The grid geometry of the resource from which to read data.
+     */
+    private final GridGeometry source;
+
+    /**
+     * Cell indices of the region to read, inclusive. Those indices are in the grid
+     * coordinates of the resource, in the same order than the source grid extent.
+     */
+    private final long[] lower, upper;
+
+    /**
+     * The sub-sampling along each grid dimension. 1 means no sub-sampling.
+     */
+    private final int[] subsampling;
+
+    /**
+     * Computes the region to read in the given source grid for the given domain.
+     *
+     * @param  source  the grid geometry of the resource from which to read data. Shall have an extent.
+     * @param  domain  the desired grid extent and resolution, or {@code null} for reading the whole source.
+     * @throws DataStoreException if the domain can not be converted to source grid coordinates,
+     *         or if the domain does not intersect the source extent.
+     */
+    public GridRequest(final GridGeometry source, final GridGeometry domain) throws DataStoreException {
+        this.source = source;
+        final GridExtent extent = source.getExtent();
+        final int dimension = extent.getDimension();
+        lower       = new long[dimension];
+        upper       = new long[dimension];
+        subsampling = new int [dimension];
+        Arrays.fill(subsampling, 1);
+        for (int i=0; i<dimension; i++) {
+            lower[i] = extent.getLow (i);
+            upper[i] = extent.getHigh(i);
+        }
+        if (domain != null) try {
+            /*
+             * Conversion from the domain grid to the source grid, both mapping cell corners.
+             * Coordinate reference systems are assumed the same if one of them is unspecified.
+             */
+            final boolean hasTransforms = domain.isDefined(GridGeometry.GRID_TO_CRS) && source.isDefined(GridGeometry.GRID_TO_CRS);
+            final boolean hasCRS = domain.isDefined(GridGeometry.CRS) && source.isDefined(GridGeometry.CRS);
+            MathTransform domainToSource = null;
+            if (hasTransforms) {
+                MathTransform tr = domain.getGridToCRS(PixelInCell.CELL_CORNER);
+                if (hasCRS) {
+                    tr = MathTransforms.concatenate(tr, CRS.findOperation(domain.getCoordinateReferenceSystem(),
+                                    source.getCoordinateReferenceSystem(), null).getMathTransform());
+                }
+                domainToSource = MathTransforms.concatenate(tr, source.getGridToCRS(PixelInCell.CELL_CORNER).inverse());
+            }
+            /*
+             * Region to read in source grid coordinates, with upper values exclusive.
+             */
+            GeneralEnvelope area = null;
+            if (domain.isDefined(GridGeometry.EXTENT)) {
+                final GridExtent request = domain.getExtent();
+                final int n = request.getDimension();
+                area = new GeneralEnvelope(n);
+                for (int i=0; i<n; i++) {
+                    area.setRange(i, request.getLow(i), request.getHigh(i) + 1.0);
+                }
+                if (domainToSource != null) {
+                    area = Envelopes.transform(domainToSource, area);
+                } else if (domain.isDefined(GridGeometry.GRID_TO_CRS)) {
+                    area = null;                // Source has no transform: can not relate the two grids.
+                }
+            } else if (domain.isDefined(GridGeometry.ENVELOPE) && source.isDefined(GridGeometry.GRID_TO_CRS)) {
+                Envelope env = domain.getEnvelope();
+                if (hasCRS) {
+                    env = Envelopes.transform(env, source.getCoordinateReferenceSystem());
+                }
+                area = Envelopes.transform(source.getGridToCRS(PixelInCell.CELL_CORNER).inverse(), env);
+            }
+            if (area != null) {
+                for (int i = Math.min(dimension, area.getDimension()); --i >= 0;) {
+                    final double min = Math.floor(area.getLower(i) + EPS);
+                    final double max = Math.ceil (area.getUpper(i) - EPS) - 1;
+                    if (min > lower[i]) lower[i] = (long) min;          // Also false if NaN.
+                    if (max < upper[i]) upper[i] = (long) max;
+                    if (lower[i] > upper[i]) {
+                        throw new DataStoreException(Resources.format(Resources.Keys.DomainOutsideData));
+                    }
+                }
+            }
+            /*
+             * The sub-sampling along a source grid dimension is the largest displacement in that dimension
+             * when moving by one cell along any domain dimension. If the conversion is not linear, we take
+             * the derivative at the center of the requested domain.
+             */
+            if (domainToSource != null) {
+                Matrix m = MathTransforms.getMatrix(domainToSource);
+                int numCol = 0;
+                if (m != null) {
+                    numCol = m.getNumCol() - 1;                         // Ignore the translation column.
+                } else if (domain.isDefined(GridGeometry.EXTENT)) {
+                    m = domainToSource.derivative(domain.getExtent().getCentroid());
+                    numCol = m.getNumCol();
+                }
+                for (int i = Math.min(dimension, m != null ? m.getNumRow() : 0); --i >= 0;) {
+                    double s = 0;
+                    for (int j=0; j<numCol; j++) {
+                        s = Math.max(s, Math.abs(m.getElement(i, j)));
+                    }
+                    s = Math.floor(s + EPS);
+                    if (s > 1) {
+                        subsampling[i] = (int) Math.min(s, upper[i] - lower[i] + 1);
+                    }
+                }
+            }
+        } catch (FactoryException | TransformException e) {
+            throw new DataStoreReferencingException(e);
+        }
+    }
+
+    /**
+     * Returns the number of dimensions of the source grid.
+     *
+     * @return number of grid dimensions.
+     */
+    public int getDimension() {
+        return subsampling.length;
+    }
+
+    /**
+     * Returns the grid coordinate of the first cell to read in the given dimension.
+     *
+     * @param  i  the dimension for which to get the low coordinate value.
+     * @return index of the first cell to read, inclusive.
+     */
+    public long getLow(final int i) {
+        return lower[i];
+    }
+
+    /**
+     * Returns the grid coordinate of the last cell that may be read in the given dimension.
+     * The last cell actually read may be before this value if there is a sub-sampling.
+     *
+     * @param  i  the dimension for which to get the high coordinate value.
+     * @return index of the last cell to read, inclusive.
+     */
+    public long getHigh(final int i) {
+        return upper[i];
+    }
+
+    /**
+     * Returns the sub-sampling in the given dimension. 1 means no sub-sampling.
+     *
+     * @param  i  the dimension for which to get the sub-sampling.
+     * @return the sub-sampling in the given dimension.
+     */
+    public int getSubsampling(final int i) {
+        return subsampling[i];
+    }
+
+    /**
+     * Returns the sub-sampling in all dimensions. 1 means no sub-sampling.
+     *
+     * @return the sub-sampling in all dimensions (a new array on each invocation).
+     */
+    public int[] getSubsampling() {
+        return subsampling.clone();
+    }
+
+    /**
+     * Returns the number of cells that will be read in the given dimension after sub-sampling.
+     *
+     * @param  i  the dimension for which to get the number of cells to read.
+     * @return number of cells to read in the given dimension.
+     * @throws ArithmeticException if the number of cells is too large.
+     */
+    public int getTargetSize(final int i) {
+        return Math.toIntExact((upper[i] - lower[i]) / subsampling[i] + 1);
+    }
+
+    /**
+     * Returns the region to read, in the grid coordinates of the resource.
+     * Sub-sampling is not applied on the returned extent.
+     *
+     * @return the region to read in the source grid.
+     */
+    public GridExtent getSourceExtent() {
+        return new GridExtent(getAxisTypes(), lower, upper, true);
+    }
+
+    /**
+     * Returns the types of source grid axes, or {@code null} if unknown.
+     */
+    private DimensionNameType[] getAxisTypes() {
+        final GridExtent extent = source.getExtent();
+        final DimensionNameType[] types = new DimensionNameType[subsampling.length];
+        boolean hasTypes = false;
+        for (int i=0; i<types.length; i++) {
+            types[i] = extent.getAxisType(i).orElse(null);
+            hasTypes |= (types[i] != null);
+        }
+        return hasTypes ? types : null;
+    }
+
+    /**
+     * Returns the grid geometry of the data after they have been read. The extent of the returned geometry
+     * starts at zero in all dimensions and has the {@linkplain #getTargetSize(int) target size}. The
+     * <cite>grid to CRS</cite> transform takes in account the region offset and the sub-sampling.
+     *
+     * @return grid geometry of the data read for this request.
+     * @throws DataStoreException if the grid geometry can not be computed.
+     */
+    public GridGeometry getTargetGeometry() throws DataStoreException {
+        final int dimension = subsampling.length;
+        final long[] high = new long[dimension];
+        for (int i=0; i<dimension; i++) {
+            high[i] = getTargetSize(i) - 1;
+        }
+        final GridExtent extent = new GridExtent(getAxisTypes(), new long[dimension], high, true);
+        final CoordinateReferenceSystem crs = source.isDefined(GridGeometry.CRS) ? source.getCoordinateReferenceSystem() : null;
+        if (!source.isDefined(GridGeometry.GRID_TO_CRS)) {
+            return new GridGeometry(extent, crs);
+        }
+        final MatrixSIS m = Matrices.createDiagonal(dimension + 1, dimension + 1);
+        for (int i=0; i<dimension; i++) {
+            m.setElement(i, i, subsampling[i]);
+            m.setElement(i, dimension, lower[i]);
+        }
+        try {
+            return new GridGeometry(extent, PixelInCell.CELL_CORNER, MathTransforms.concatenate(
+                    MathTransforms.linear(m), source.getGridToCRS(PixelInCell.CELL_CORNER)), crs);
+        } catch (TransformException e) {
+            throw new DataStoreReferencingException(e);
+        }
+    }
+}
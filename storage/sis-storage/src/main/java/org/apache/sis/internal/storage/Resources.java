@@ -166,6 +166,11 @@ public final class Resources extends IndexedResourceBundle {
          */
         public static final short DirectoryContent_1 = 35;
 
+        /**
+         * The requested domain does not intersect the data extent.
+         */
+        public static final short DomainOutsideData = 52;
+
         /**
          * Character string in the “{0}” file is too long. The string has {2} characters while the
          * limit is {1}.
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.io.IOException;
+import java.awt.image.Raster;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import org.apache.sis.util.Configuration;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.util.collection.Cache;
+import org.apache.sis.internal.system.CacheStatistics;
+import org.apache.sis.storage.DataStoreException;
+
+
+/**
+ * A cache of decoded tiles shared by all coverage readers in the running JVM.
+ * Tiles are retained by strong references as long as the sum of their sizes is below a memory budget.
+ * When the budget is exceeded, the least recently used tiles are retained only by soft references,
+ * so they may still be found in the cache until the garbage collector reclaims them.
+ *
+ * <p>Tiles are identified by the data store instance which read them, not by the file location,
+ * so closing a data store does not discard the tiles of another data store opened on the same file.
+ * The methods returning tiles give copies of the cached tiles, so callers can not modify the
+ * content of the cache by casting a tile to {@link WritableRaster}.</p>
+ *
+ * <p>Hits, misses and evictions are counted and reported by the
+ * {@link org.apache.sis.internal.system.Supervisor} MBean.</p>
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final class TileCache extends Cache<TileCache.Key, Raster> {
+    /**
+     * The shared instance, created when first needed.
+     *
+     * @see #getInstance()
+     */
+    private static volatile TileCache instance;
+
+    /**
+     * Creates a new cache with the given memory budget.
+     *
+     * @param  budget  maximal amount of bytes to retain by strong references.
+     */
+    private TileCache(final long budget) {
+        super(64, budget, true);
+        CacheStatistics.TILES.budget(budget);
+    }
+
+    /**
+     * Returns the cache shared by all coverage readers. The default memory budget is 1/8 of the maximal
+     * amount of memory that the Java virtual machine will attempt to use, up to a maximum of 1 gigabyte.
+     *
+     * @return the shared tile cache.
+     */
+    public static TileCache getInstance() {
+        TileCache c = instance;
+        if (c == null) {
+            synchronized (TileCache.class) {
+                c = instance;
+                if (c == null) {
+                    instance = c = new TileCache(Math.min(Runtime.getRuntime().maxMemory() / 8, 1L << 30));
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Sets the memory budget of the shared tile cache. This method replaces the shared cache by a new,
+     * empty one. Tiles cached before this method call are discarded.
+     *
+     * @param  budget  maximal amount of bytes of decoded tiles to retain by strong references.
+     */
+    @Configuration
+    public static synchronized void setMemoryBudget(final long budget) {
+        ArgumentChecks.ensurePositive("budget", budget);
+        final TileCache old = instance;
+        instance = new TileCache(budget);
+        if (old != null) {
+            old.clear();
+        }
+    }
+
+    /**
+     * Returns the tile for the given key, reading and decoding it if it is not already in the cache.
+     * If another thread is already loading the same tile, then this method waits for that thread
+     * to complete its work instead of loading the tile twice.
+     *
+     * @param  key     the key of the tile to get.
+     * @param  loader  the function to invoke for reading and decoding the tile if it is not in the cache.
+     * @return a copy of the tile for the given key.
+     * @throws IOException if an error occurred while reading the tile.
+     * @throws DataStoreException if an error occurred while decoding the tile.
+     */
+    public Raster getOrLoad(final Key key, final Loader loader) throws IOException, DataStoreException {
+        Raster tile = peek(key);
+        if (tile == null) {
+            final Handler<Raster> handler = lock(key);
+            try {
+                tile = handler.peek();
+                if (tile == null) {
+                    CacheStatistics.TILES.miss();
+                    tile = loader.load();
+                    return copy(tile);
+                }
+            } finally {
+                handler.putAndUnlock(tile);
+            }
+        }
+        CacheStatistics.TILES.hit();
+        return copy(tile);
+    }
+
+    /**
+     * Returns the tile for the given key if it is in the cache, or {@code null} otherwise.
+     * A non-null result is counted as a cache hit. A null result is not counted as a miss;
+     * the miss will be counted when the caller {@linkplain #store stores} the loaded tile.
+     *
+     * @param  key  the key of the tile to get.
+     * @return a copy of the cached tile, or {@code null} if none.
+     */
+    public Raster getIfPresent(final Key key) {
+        final Raster tile = peek(key);
+        if (tile != null) {
+            CacheStatistics.TILES.hit();
+            return copy(tile);
+        }
+        return null;
+    }
+
+    /**
+     * Stores a tile loaded by the caller after {@link #getIfPresent(Key)} returned {@code null}.
+     * This method is for callers loading many tiles in a batch; for loading a single tile,
+     * {@link #getOrLoad(Key, Loader)} should be preferred. If another thread stored a tile
+     * for the same key in the meantime, then the tile already in the cache is returned.
+     *
+     * @param  key   the key of the tile to store.
+     * @param  tile  the tile loaded by the caller. Shall not be modified after this method call.
+     * @return a copy of the tile which is in the cache for the given key.
+     */
+    public Raster store(final Key key, final Raster tile) {
+        CacheStatistics.TILES.miss();
+        final Raster existing = putIfAbsent(key, tile);
+        return copy((existing != null) ? existing : tile);
+    }
+
+    /**
+     * Returns a copy of the given cached tile. The copy shares nothing with the cached tile,
+     * so modifications applied by the caller do not affect the tiles returned to other callers.
+     */
+    private static Raster copy(final Raster tile) {
+        final WritableRaster copy = tile.createCompatibleWritableRaster(
+                tile.getMinX(), tile.getMinY(), tile.getWidth(), tile.getHeight());
+        copy.setDataElements(tile.getMinX(), tile.getMinY(), tile);
+        return copy;
+    }
+
+    /**
+     * Removes all tiles read by the given data store. This method should be invoked when a data store is closed.
+     * Tiles read by other data stores are not removed, even if those stores are opened on the same file.
+     *
+     * @param  source  the data store of the tiles to remove, as given to the {@link Key} constructor.
+     */
+    public void clear(final Object source) {
+        final List<Key> keys = new ArrayList<>();
+        for (final Key key : keySet()) {
+            if (key.source == source) {
+                keys.add(key);
+            }
+        }
+        for (final Key key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Returns the number of bytes used by the given tile. The sample model is ignored;
+     * only the size of the data buffer is taken in account.
+     *
+     * @param  tile  the tile for which to get the memory usage.
+     * @return the number of bytes used by the data of the given tile.
+     */
+    @Override
+    protected int cost(final Raster tile) {
+        final DataBuffer buffer = tile.getDataBuffer();
+        final long bits = (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType());
+        return (int) Math.min(bits / Byte.SIZE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts the tiles that are no longer retained by strong references.
+     *
+     * @param  key  the key of the evicted tile.
+     */
+    @Override
+    protected void evicted(final Key key) {
+        CacheStatistics.TILES.evicted();
+    }
+
+    /**
+     * The function to invoke for reading and decoding a tile which is not in the cache.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Reads and decodes the tile.
+         *
+         * @return the decoded tile.
+         * @throws IOException if an error occurred while reading the tile.
+         * @throws DataStoreException if an error occurred while decoding the tile.
+         */
+        Raster load() throws IOException, DataStoreException;
+    }
+
+    /**
+     * Key of a tile in the cache. A key identifies the data store instance which read the tile,
+     * the image index in the data store, the resolution level and the tile indices. Data stores
+     * are compared by identity, so two data stores opened on the same file do not share tiles.
+     */
+    public static final class Key {
+        /**
+         * The data store which read the tile, compared by identity.
+         */
+        final Object source;
+
+        /**
+         * Index of the image in the source, resolution level (0 for the finest resolution)
+         * and tile indices along <var>x</var> and <var>y</var> axes.
+         */
+        private final int image, level, tileX, tileY;
+
+        /**
+         * Creates a new key for the given tile.
+         *
+         * @param  source  the data store which read the tile.
+         * @param  image   index of the image in the data store.
+         * @param  level   resolution level, with 0 for the finest resolution.
+         * @param  tileX   column index of the tile.
+         * @param  tileY   row index of the tile.
+         */
+        public Key(final Object source, final int image, final int level, final int tileX, final int tileY) {
+            ArgumentChecks.ensureNonNull("source", source);
+            this.source = source;
+            this.image  = image;
+            this.level  = level;
+            this.tileX  = tileX;
+            this.tileY  = tileY;
+        }
+
+        /**
+         * Returns a hash code value for this key.
+         */
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(source) + 31*(image + 31*(level + 31*(tileX + 31*tileY)));
+        }
+
+        /**
+         * Compares this key with the given object for equality.
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj instanceof Key) {
+                final Key other = (Key) obj;
+                return image == other.image && level == other.level && tileX == other.tileX && tileY == other.tileY
+                        && source == other.source;
+            }
+            return false;
+        }
+
+        /**
+         * Returns a string representation of this key for debugging purpose.
+         */
+        @Override
+        public String toString() {
+            return "Tile[" + source + ", image=" + image + ", level=" + level + ", (" + tileX + ", " + tileY + ")]";
+        }
+    }
+}
@@ -32,7 +32,7 @@ import static org.apache.sis.util.ArgumentChecks.ensureBetween;
  * querying or modifying the stream position. This class does not define any read or write operations.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.5
+ * @version 1.0
  * @since   0.5 (derived from 0.3)
  * @module
  */
@@ -209,7 +209,10 @@ public abstract class ChannelData implements Markable {
      * portion of the stream will result in an {@link IndexOutOfBoundsException}.
      *
      * <p>This method moves the data starting at the given position to the beginning of the {@link #buffer},
-     * thus making more room for new data before the data at the given position is discarded.</p>
+     * thus making more room for new data before the data at the given position is discarded. This method
+     * does nothing (except discarding obsolete marks) if the buffer is read-only, since such buffers can not
+     * be compacted. Read-only buffers are expected to be memory-mapped files or other buffers containing
+     * the whole stream content.</p>
      *
      * @param  position  the length of the stream prefix that may be flushed.
      * @throws IOException if an I/O error occurred.
@@ -220,11 +223,13 @@ public abstract class ChannelData implements Markable {
             throw new IndexOutOfBoundsException(Errors.format(Errors.Keys.ValueOutOfRange_4,
                     "position", bufferOffset, currentPosition, position));
         }
-        final int n = (int) (position - bufferOffset);
-        final int p = buffer.position() - n;
-        final int r = buffer.limit() - n;
-        flushAndSetPosition(n);                             // Number of bytes to forget.
-        buffer.compact().position(p).limit(r);
+        if (!buffer.isReadOnly()) {                         // Read-only buffers contain the whole stream.
+            final int n = (int) (position - bufferOffset);
+            final int p = buffer.position() - n;
+            final int r = buffer.limit() - n;
+            flushAndSetPosition(n);                         // Number of bytes to forget.
+            buffer.compact().position(p).limit(r);
+        }
         /*
          * Discard trailing obsolete marks. Note that obsolete marks between valid marks
          * can not be discarded - only the trailing obsolete marks can be removed.
@@ -27,6 +27,7 @@ import java.nio.LongBuffer;
 import java.nio.FloatBuffer;
 import java.nio.DoubleBuffer;
 import java.nio.charset.Charset;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import org.apache.sis.internal.storage.Resources;
@@ -60,8 +61,14 @@ import static org.apache.sis.util.ArgumentChecks.ensureBetween;
  * the {@link javax.imageio.stream.ImageInputStream} one, mostly for situations when inter-operability with
  * {@link javax.imageio} is needed.
  *
+ * <div class="section">Memory-mapped files</div>
+ * If the {@code mapped} argument given to the constructor is {@code true}, then the buffer is assumed to contain
+ * the whole stream content (typically a {@link java.nio.MappedByteBuffer} created by {@link #map(FileChannel)})
+ * and the channel is never read. In such case all read and seek operations work directly on the mapped memory
+ * without copying data through an intermediate buffer.
+ *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.7
+ * @version 1.0
  * @since   0.3
  * @module
  */
@@ -72,6 +79,14 @@ public class ChannelDataInput extends ChannelData {
      */
     public final ReadableByteChannel channel;
 
+    /**
+     * {@code true} if {@link #buffer} contains the whole stream content, in which case
+     * the channel is never read. This is the case of memory-mapped files.
+     *
+     * @see #isMapped()
+     */
+    private final boolean isMapped;
+
     /**
      * Creates a new data input for the given channel and using the given buffer.
      * If the buffer already contains some data, then the {@code filled} argument shall be {@code true}.
@@ -86,16 +101,75 @@ public class ChannelDataInput extends ChannelData {
      */
     public ChannelDataInput(final String filename, final ReadableByteChannel channel, final ByteBuffer buffer,
             final boolean filled) throws IOException
+    {
+        this(filename, channel, buffer, filled, false);
+    }
+
+    /**
+     * Creates a new data input for the given channel and using the given buffer, which may be a memory mapping.
+     * If {@code mapped} is {@code true}, then the buffer shall contain the whole stream content (typically a
+     * buffer created by {@link #map(FileChannel)}) and the channel will never be read. In that case the
+     * {@code filled} argument is ignored.
+     *
+     * @param  filename  a short identifier (typically a filename without path) used for formatting error message.
+     * @param  channel   the channel from where data are read.
+     * @param  buffer    the buffer where to copy the data, or the whole stream content if {@code mapped} is true.
+     * @param  filled    {@code true} if the buffer already contains data, or {@code false} if it needs
+     *                   to be initially filled with some content read from the channel.
+     * @param  mapped    {@code true} if the buffer contains the whole stream content.
+     * @throws IOException if an error occurred while reading the channel.
+     *
+     * @since 1.0
+     */
+    public ChannelDataInput(final String filename, final ReadableByteChannel channel, final ByteBuffer buffer,
+            final boolean filled, final boolean mapped) throws IOException
     {
         super(filename, channel, buffer);
         this.channel = channel;
-        if (!filled) {
+        isMapped = mapped;
+        if (!filled && !mapped) {
             buffer.clear();
             channel.read(buffer);
             buffer.flip();
         }
     }
 
+    /**
+     * Maps in memory the content of the given file, from the current channel position to the end of file.
+     * The returned buffer can be given to the {@code ChannelDataInput} constructor (with {@code mapped}
+     * argument set to {@code true}) for reading the file without copying data between buffers.
+     * This method returns {@code null} if the file is too large for being mapped in a single buffer,
+     * in which case the caller should fallback on the usual buffered reads. A sliding window is not
+     * used for larger files because the {@link #buffer} field is final and used directly by readers.
+     *
+     * @param  channel  the channel to map.
+     * @return a read-only buffer over the file content, or {@code null} if the file is larger than 2 gigabytes.
+     * @throws IOException if an error occurred while mapping the file.
+     *
+     * @since 1.0
+     */
+    public static ByteBuffer map(final FileChannel channel) throws IOException {
+        final long position = channel.position();
+        final long size = channel.size() - position;
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return null;
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     * Returns {@code true} if the {@linkplain #buffer buffer} contains the whole stream content.
+     * This is the case when the buffer is a memory mapping of the file. In such case the channel
+     * is never read and the buffer limit is the end of stream.
+     *
+     * @return whether the buffer contains the whole stream content.
+     *
+     * @since 1.0
+     */
+    public final boolean isMapped() {
+        return isMapped;
+    }
+
     /**
      * Tries to read more bytes from the channel without changing the buffer position.
      * This method returns a negative number if the buffer is already full or if the channel reached the
@@ -137,6 +211,9 @@ public class ChannelDataInput extends ChannelData {
         if (buffer.hasRemaining()) {
             return true;
         }
+        if (isMapped) {
+            return false;
+        }
         bufferOffset += buffer.limit();
         buffer.clear();
         int c = channel.read(buffer);
@@ -161,6 +238,9 @@ public class ChannelDataInput extends ChannelData {
         assert n >= 0 && n <= buffer.capacity() : n;
         n -= buffer.remaining();
         if (n > 0) {
+            if (isMapped) {
+                throw new EOFException(eof());
+            }
             bufferOffset += buffer.position();
             buffer.compact();
             do {
@@ -544,6 +624,12 @@ public class ChannelDataInput extends ChannelData {
          */
         abstract void transfer(int offset, int n);
 
+        /**
+         * Sets the view to use for transferring data. The given buffer shall be a value
+         * previously returned by {@link #createView()}.
+         */
+        abstract void setView(Buffer view);
+
         /**
          * Skips the given amount of bytes in the buffer. It is caller responsibility to ensure
          * that there is enough bytes remaining in the buffer.
@@ -579,6 +665,17 @@ public class ChannelDataInput extends ChannelData {
             ensureBufferContains(Math.min(length << dataSizeShift, buffer.capacity()));
             if (view == null) {
                 view = createView();                                    // Must be after ensureBufferContains(int).
+            } else if (isMapped && (buffer.position() & ((1 << dataSizeShift) - 1)) != 0) {
+                /*
+                 * A memory-mapped buffer can not be compacted. Use a temporary view starting at the current
+                 * position, then restore the caller's view. Above 'ensureBufferContains(int)' call verified
+                 * that all values are available.
+                 */
+                createView();
+                transfer(offset, length);
+                skipInBuffer(length << dataSizeShift);
+                setView(view);
+                return;
             } else {
                 // Buffer position must be a multiple of the data size.
                 // If not, fix that by shifting the content to index 0.
@@ -618,6 +715,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return buffer;}
         @Override public void   createDataArray(int n)  {dest = new byte[n];}
         @Override        void   transfer(int p, int n)  {buffer.get(dest, p, n);}
+        @Override        void   setView(Buffer v)       {}
         @Override public void   setDest(Object array)   {dest = (byte[]) array;};
         @Override public void readFully(Buffer view, int offset, int length) throws IOException {
             ChannelDataInput.this.readFully(dest, offset, length);
@@ -639,6 +737,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asCharBuffer();}
         @Override public void   createDataArray(int n)  {dest = new char[n];}
         @Override        void   transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override        void   setView(Buffer v)       {view = (CharBuffer) v;}
         @Override public void   setDest(Object array)   {dest = (char[]) array;};
     };
 
@@ -657,6 +756,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asShortBuffer();}
         @Override public void   createDataArray(int n)  {dest = new short[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void          setView(Buffer v)       {view = (ShortBuffer) v;}
         @Override public void   setDest(Object array)   {dest = (short[]) array;};
     };
 
@@ -675,6 +775,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asIntBuffer();}
         @Override public void   createDataArray(int n)  {dest = new int[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void          setView(Buffer v)       {view = (IntBuffer) v;}
         @Override public void   setDest(Object array)   {dest = (int[]) array;};
     };
 
@@ -693,6 +794,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asLongBuffer();}
         @Override public void   createDataArray(int n)  {dest = new long[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void          setView(Buffer v)       {view = (LongBuffer) v;}
         @Override public void   setDest(Object array)   {dest = (long[]) array;};
     };
 
@@ -711,6 +813,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asFloatBuffer();}
         @Override public void   createDataArray(int n)  {dest = new float[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void          setView(Buffer v)       {view = (FloatBuffer) v;}
         @Override public void   setDest(Object array)   {dest = (float[]) array;};
     };
 
@@ -729,6 +832,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asDoubleBuffer();}
         @Override public void   createDataArray(int n)  {dest = new double[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void          setView(Buffer v)       {view = (DoubleBuffer) v;}
         @Override public void   setDest(Object array)   {dest = (double[]) array;};
     };
 
@@ -848,6 +952,12 @@ public class ChannelDataInput extends ChannelData {
              * Requested position is inside the current limits of the buffer.
              */
             buffer.position((int) p);
+        } else if (isMapped) {
+            /*
+             * Requested position is outside the file content. We can not move the
+             * mapped buffer since it contains all the data that we can read.
+             */
+            throw new EOFException(eof());
         } else if (channel instanceof SeekableByteChannel) {
             /*
              * Requested position is outside the current limits of the buffer,
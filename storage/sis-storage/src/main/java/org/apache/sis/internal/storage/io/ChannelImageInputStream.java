@@ -43,7 +43,7 @@ import javax.imageio.stream.ImageInputStream;
  * <p>This class is used when compatibility with {@link javax.imageio.ImageReader} is needed.</p>
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.5
+ * @version 1.0
  *
  * @see javax.imageio.stream.FileImageInputStream
  * @see javax.imageio.ImageIO#createImageInputStream(Object)
@@ -69,6 +69,27 @@ public class ChannelImageInputStream extends ChannelDataInput implements ImageIn
         super(filename, channel, buffer, filled);
     }
 
+    /**
+     * Creates a new input stream for the given channel and using the given buffer, which may be a memory mapping.
+     * See {@link ChannelDataInput#ChannelDataInput(String, ReadableByteChannel, ByteBuffer, boolean, boolean)}
+     * for a description of the {@code mapped} argument.
+     *
+     * @param  filename  a file identifier used only for formatting error message.
+     * @param  channel   the channel from where data are read.
+     * @param  buffer    the buffer where to copy the data, or the whole stream content if {@code mapped} is true.
+     * @param  filled    {@code true} if the buffer already contains data, or {@code false} if it needs
+     *                   to be initially filled with some content read from the channel.
+     * @param  mapped    {@code true} if the buffer contains the whole stream content.
+     * @throws IOException if an error occurred while reading the channel.
+     *
+     * @since 1.0
+     */
+    public ChannelImageInputStream(final String filename, final ReadableByteChannel channel,
+            final ByteBuffer buffer, final boolean filled, final boolean mapped) throws IOException
+    {
+        super(filename, channel, buffer, filled, mapped);
+    }
+
     /**
      * Creates a new input stream from the given {@code ChannelDataInput}.
      * This constructor is invoked when we need to change the implementation class
@@ -78,7 +99,7 @@ public class ChannelImageInputStream extends ChannelDataInput implements ImageIn
      * @throws IOException if an error occurred while reading the channel.
      */
     public ChannelImageInputStream(final ChannelDataInput input) throws IOException {
-        super(input.filename, input.channel, input.buffer, true);
+        super(input.filename, input.channel, input.buffer, true, input.isMapped());
     }
 
     /**
@@ -18,6 +18,13 @@ package org.apache.sis.internal.storage.io;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.ShortBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.FloatBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.BufferOverflowException;
 import java.io.IOException;
 import org.apache.sis.util.Numbers;
 import org.apache.sis.util.resources.Errors;
@@ -28,12 +35,12 @@ import org.apache.sis.util.Debug;
 
 /**
  * Helper methods for reading a rectangular area, a cube or a hyper-cube from a channel.
- * The data can be stored in an existing array, or a new array can be created.
+ * The data can be stored in an existing array or buffer, or a new array can be created.
  * This class does not handle compression; it is rather designed for efficient reading of uncompressed data.
  *
  * @author  Johann Sorel (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.7
  * @module
  */
@@ -114,45 +121,118 @@ public final class HyperRectangleReader {
      * @param  region  the sub-area to read and the sub-sampling to use.
      * @return the data in an array of primitive type.
      * @throws IOException if an error occurred while transferring data from the channel.
+     *
+     * @see #read(Region, Buffer)
      */
     public Object read(final Region region) throws IOException {
+        try {
+            reader.createDataArray(region.targetLength(region.getDimension()));
+            transfer(region, 0, null);
+            return reader.dataArray();
+        } finally {
+            reader.setDest(null);
+        }
+    }
+
+    /**
+     * Reads data in the given region and stores them in the given buffer, starting at the buffer position.
+     * The buffer type shall match the data type (e.g. {@link java.nio.DoubleBuffer} for {@code double} values).
+     * On return, the buffer position is advanced by the number of values read.
+     *
+     * <p>This method allows callers to recycle the same buffer for many read operations, and to use direct buffers.
+     * If the buffer is backed by a Java array, the values are stored directly in that array. Otherwise the values
+     * are transferred through a temporary array having the length of the longest contiguous sequence of values,
+     * which is usually much smaller than the region.</p>
+     *
+     * @param  region  the sub-area to read and the sub-sampling to use.
+     * @param  target  the buffer where to store the values.
+     * @throws BufferOverflowException if the buffer has not enough remaining space for the values to read.
+     * @throws ClassCastException if the buffer type does not match the type of data to read.
+     * @throws IOException if an error occurred while transferring data from the channel.
+     *
+     * @since 1.0
+     */
+    public void read(final Region region, final Buffer target) throws IOException {
+        final int length   = region.targetLength(region.getDimension());
+        final int position = target.position();
+        if (target.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        try {
+            if (target.hasArray()) {
+                reader.setDest(target.array());
+                transfer(region, target.arrayOffset() + position, null);
+            } else {
+                reader.createDataArray(region.targetLength(region.contiguousDataDimension));
+                transfer(region, 0, target);
+            }
+        } finally {
+            reader.setDest(null);
+        }
+        target.position(position + length);
+    }
+
+    /**
+     * Reads data in the given region and stores them in the array known to {@link #reader}.
+     * If {@code target} is non-null, then each contiguous sequence of values is stored in the array
+     * starting at index 0, then copied in the target buffer. Otherwise values are stored in the array
+     * starting at the given array position.
+     *
+     * @param  region         the sub-area to read and the sub-sampling to use.
+     * @param  arrayPosition  index in the destination array where to store the first value.
+     * @param  target         buffer where to copy the values after each read operation, or {@code null}.
+     */
+    private void transfer(final Region region, int arrayPosition, final Buffer target) throws IOException {
         final int contiguousDataLength = region.targetLength(region.contiguousDataDimension);
         final long[] strides = new long[region.getDimension() - region.contiguousDataDimension];
         final int[]   cursor = new int[strides.length];
         final int  sizeShift = reader.dataSizeShift();
         long  streamPosition = origin + (region.startAt << sizeShift);
-        int    arrayPosition = 0;
         for (int i=0; i<strides.length; i++) {
             strides[i] = (region.skips[i + region.contiguousDataDimension] + contiguousDataLength) << sizeShift;
             assert (strides[i] > 0) : i;
         }
-        try {
-            reader.createDataArray(region.targetLength(region.getDimension()));
-            final Buffer view = reader.view();
-loop:       do {
-                reader.seek(streamPosition);
-                assert reader.view() == view;
-                reader.readFully(view, arrayPosition, contiguousDataLength);
-                for (int i=0; i<cursor.length; i++) {
-                    /*
-                     * After we have read as much contiguous data as we can (may be a row, or a plane, or
-                     * a cube, etc. depending if we have to skip values or not between rows/planes/cubes),
-                     * search the highest dimension which is going to change (i.e. are we going to start a
-                     * new row, or a new plane, or a new cube?). This determine how many bytes we have to
-                     * skip.
-                     */
-                    if (++cursor[i] < region.targetSize[region.contiguousDataDimension + i]) {
-                        streamPosition += strides[i];
-                        arrayPosition  += contiguousDataLength;
-                        continue loop;
-                    }
-                    cursor[i] = 0;
+        final Buffer view = reader.view();
+loop:   do {
+            reader.seek(streamPosition);
+            assert reader.view() == view;
+            reader.readFully(view, arrayPosition, contiguousDataLength);
+            if (target != null) {
+                put(target, reader.dataArray(), contiguousDataLength);
+            } else {
+                arrayPosition += contiguousDataLength;
+            }
+            for (int i=0; i<cursor.length; i++) {
+                /*
+                 * After we have read as much contiguous data as we can (may be a row, or a plane, or
+                 * a cube, etc. depending if we have to skip values or not between rows/planes/cubes),
+                 * search the highest dimension which is going to change (i.e. are we going to start a
+                 * new row, or a new plane, or a new cube?). This determine how many bytes we have to
+                 * skip.
+                 */
+                if (++cursor[i] < region.targetSize[region.contiguousDataDimension + i]) {
+                    streamPosition += strides[i];
+                    continue loop;
                 }
-                break;
-            } while (true);
-            return reader.dataArray();
-        } finally {
-            reader.setDest(null);
-        }
+                cursor[i] = 0;
+            }
+            break;
+        } while (true);
+    }
+
+    /**
+     * Copies the first {@code length} values of the given array in the given buffer.
+     *
+     * @throws ClassCastException if the buffer type does not match the array type.
+     */
+    private static void put(final Buffer target, final Object source, final int length) {
+        if      (target instanceof   ByteBuffer) ((  ByteBuffer) target).put((byte[])   source, 0, length);
+        else if (target instanceof  ShortBuffer) (( ShortBuffer) target).put((short[])  source, 0, length);
+        else if (target instanceof    IntBuffer) ((   IntBuffer) target).put((int[])    source, 0, length);
+        else if (target instanceof   LongBuffer) ((  LongBuffer) target).put((long[])   source, 0, length);
+        else if (target instanceof  FloatBuffer) (( FloatBuffer) target).put((float[])  source, 0, length);
+        else if (target instanceof DoubleBuffer) ((DoubleBuffer) target).put((double[]) source, 0, length);
+        else if (target instanceof   CharBuffer) ((  CharBuffer) target).put((char[])   source, 0, length);
+        else throw new ClassCastException(Errors.format(Errors.Keys.UnknownType_1, target.getClass()));
     }
 }
@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * A channel which reads the next block of bytes in a background thread while the caller decodes the current block.
+ * This class uses two buffers: one buffer contains the bytes given to the callers of {@link #read(ByteBuffer)}, and
+ * the other buffer is filled in a background thread with the bytes that follow. When the first buffer is exhausted,
+ * the two buffers are swapped and a new background read is started. Consequently, sequential scans of large files
+ * (for example by {@link HyperRectangleReader}) do not wait for the disk at each {@link ChannelDataInput} refill,
+ * provided that decoding one block takes about as much time as reading it.
+ *
+ * <p>Moving the {@linkplain #position(long) position} discards the bytes read in advance.
+ * This class is efficient for sequential reads, but has no advantage for random accesses.</p>
+ *
+ * <p>The background reads are executed in the {@linkplain ForkJoinPool#commonPool() fork-join common pool}
+ * as {@linkplain ForkJoinPool#managedBlock managed blocking} operations, so the pool can create compensation
+ * threads while a read is blocked. Consequently the blocking I/O does not starve the parallel computations
+ * executed in the same pool.</p>
+ *
+ * <div class="section">Thread-safety</div>
+ * This class is not thread-safe. Only the background read operation is executed in another thread,
+ * and this class waits for its completion before to modify any state.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final class ReadAheadChannel implements SeekableByteChannel {
+    /**
+     * Default size of the buffers to fill in advance. This is larger than the {@link ChannelDataInput}
+     * default buffer size because reading larger blocks reduces the number of system calls.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The channel from which to read the bytes.
+     */
+    private final SeekableByteChannel channel;
+
+    /**
+     * The bytes read in advance and not yet given to the caller. This buffer is in read mode
+     * (i.e. {@linkplain ByteBuffer#flip() flipped}): the remaining bytes are the bytes to give.
+     */
+    private ByteBuffer current;
+
+    /**
+     * The buffer which is filled in a background thread, or which will be filled by the next background read.
+     */
+    private ByteBuffer next;
+
+    /**
+     * The background task filling the {@link #next} buffer, or {@code null} if none.
+     * The task result is the value returned by {@link SeekableByteChannel#read(ByteBuffer)}.
+     */
+    private Future<Integer> pending;
+
+    /**
+     * Whether the channel reached the end of stream.
+     */
+    private boolean eof;
+
+    /**
+     * Position of the next byte to give to the caller.
+     */
+    private long position;
+
+    /**
+     * Whether {@link #close()} has been invoked.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new channel reading in advance the bytes of the given channel.
+     *
+     * @param  channel     the channel from which to read the bytes.
+     * @param  bufferSize  size of each of the two buffers to fill.
+     * @throws IOException if an error occurred while fetching the channel position.
+     */
+    public ReadAheadChannel(final SeekableByteChannel channel, final int bufferSize) throws IOException {
+        this.channel  = channel;
+        this.current  = ByteBuffer.allocate(bufferSize);
+        this.next     = ByteBuffer.allocate(bufferSize);
+        this.position = channel.position();
+        current.limit(0);
+    }
+
+    /**
+     * Starts filling the {@link #next} buffer in a background thread.
+     */
+    private void readAhead() {
+        final ByteBuffer target = next;
+        target.clear();
+        pending = ForkJoinPool.commonPool().submit(new Fill(target));
+    }
+
+    /**
+     * The task filling a buffer in a background thread. The read operation is executed as a managed
+     * blocking operation for allowing the fork-join pool to compensate for the blocked thread.
+     */
+    private final class Fill implements Callable<Integer>, ForkJoinPool.ManagedBlocker {
+        /** The buffer to fill. */
+        private final ByteBuffer target;
+
+        /** Number of bytes read, or -1 on end of stream. Valid only if {@link #done} is {@code true}. */
+        private int count;
+
+        /** The exception thrown by the read operation, or {@code null} if none. */
+        private IOException failure;
+
+        /** Whether the read operation has been executed. */
+        private boolean done;
+
+        /** Creates a new task for filling the given buffer. */
+        Fill(final ByteBuffer target) {
+            this.target = target;
+        }
+
+        /** Reads the bytes, letting the pool know that the current thread may block. */
+        @Override public Integer call() throws IOException, InterruptedException {
+            ForkJoinPool.managedBlock(this);
+            if (failure != null) throw failure;
+            return count;
+        }
+
+        /** Executes the blocking read operation. */
+        @Override public boolean block() {
+            try {
+                count = channel.read(target);
+            } catch (IOException e) {
+                failure = e;
+            }
+            done = true;
+            return true;
+        }
+
+        /** Returns whether the read operation has been executed. */
+        @Override public boolean isReleasable() {
+            return done;
+        }
+    }
+
+    /**
+     * Waits for the background read to complete and returns its result.
+     * If there is no background read, then this method returns 0.
+     *
+     * @return number of bytes read in the {@link #next} buffer, or -1 on end of stream.
+     * @throws IOException if the background read failed or if this thread has been interrupted.
+     */
+    private int await() throws IOException {
+        final Future<Integer> task = pending;
+        if (task == null) {
+            return 0;
+        }
+        pending = null;
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+        }
+    }
+
+    /**
+     * Reads a sequence of bytes from this channel into the given buffer.
+     * This method copies bytes that have been read in advance, and starts the reading
+     * of the next block when all bytes read in advance have been given to the caller.
+     *
+     * @param  dst  the buffer where to store the bytes.
+     * @return number of bytes read, or -1 on end of stream.
+     * @throws IOException if an error occurred while reading the bytes.
+     */
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (!current.hasRemaining()) {
+            if (eof) {
+                return -1;
+            }
+            if (pending == null) {
+                readAhead();                    // First read, or first read after a seek.
+            }
+            final int n = await();
+            final ByteBuffer filled = next;
+            next = current;
+            current = filled;
+            current.flip();
+            if (n < 0) {
+                eof = true;
+                return -1;
+            }
+            readAhead();                        // Read the block after the one that we just got.
+        }
+        final int n = Math.min(current.remaining(), dst.remaining());
+        if (n == current.remaining()) {
+            dst.put(current);
+        } else {
+            final int limit = current.limit();
+            current.limit(current.position() + n);
+            dst.put(current);
+            current.limit(limit);
+        }
+        position += n;
+        return n;
+    }
+
+    /**
+     * Unsupported operation, since this channel is read-only.
+     *
+     * @param  src  ignored.
+     * @return never returned.
+     */
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Returns the position of the next byte to be given by {@link #read(ByteBuffer)}.
+     *
+     * @return the position of this channel.
+     */
+    @Override
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Sets the position of the next byte to be read. If the new position is inside the block of bytes
+     * already read in advance, then the buffer position is adjusted. Otherwise the bytes read in advance
+     * are discarded and the next call to {@link #read(ByteBuffer)} will read the bytes at the new position.
+     *
+     * @param  newPosition  the new position.
+     * @return {@code this}.
+     * @throws IOException if an error occurred while setting the position.
+     */
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        final long delta = newPosition - position;
+        if (delta >= -current.position() && delta <= current.remaining()) {
+            current.position(current.position() + (int) delta);
+        } else {
+            try {
+                await();                        // Channel position is undetermined while a read is pending.
+            } catch (IOException e) {
+                // Ignore since we discard the result anyway.
+            }
+            channel.position(newPosition);
+            current.clear().limit(0);
+            eof = false;
+        }
+        position = newPosition;
+        return this;
+    }
+
+    /**
+     * Returns the size of the underlying channel.
+     *
+     * @return the size of the channel.
+     * @throws IOException if an error occurred while fetching the size.
+     */
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Unsupported operation, since this channel is read-only.
+     *
+     * @param  size  ignored.
+     * @return never returned.
+     */
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Returns whether the underlying channel is open.
+     *
+     * @return whether this channel is open.
+     */
+    @Override
+    public boolean isOpen() {
+        return !closed && channel.isOpen();
+    }
+
+    /**
+     * Waits for the background read (if any) to complete, then closes the underlying channel.
+     * Invoking this method on a channel which is already closed has no effect.
+     *
+     * @throws IOException if an error occurred while closing the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            await();
+        } catch (IOException e) {
+            // Ignore since we are closing the channel anyway.
+        }
+        channel.close();
+    }
+}
@@ -49,6 +49,59 @@ public final class DataOptionKey<T> extends OptionKey<T> {
     public static final OptionKey<FoliationRepresentation> FOLIATION_REPRESENTATION =
             new DataOptionKey<>("FOLIATION_REPRESENTATION", FoliationRepresentation.class);
 
+    /**
+     * Whether to map local files in memory instead of reading them through a buffer.
+     * If {@code true} and the storage is a file smaller than 2 gigabytes, then data stores
+     * using {@link StorageConnector} will read the file content directly from a memory mapping.
+     * This avoid a system call and a copy for each buffer refill in random access patterns.
+     * This option is ignored for storages that are not files, or for larger files.
+     *
+     * @since 1.0
+     */
+    public static final OptionKey<Boolean> MEMORY_MAPPED = new DataOptionKey<>("MEMORY_MAPPED", Boolean.class);
+
+    /**
+     * Whether to read the next block of bytes in a background thread while the current block is decoded.
+     * This is useful for sequential scans of large files on slow devices, since decoding a block overlaps
+     * the reading of the next one. This option has no effect on random accesses, and is ignored if the
+     * storage is not seekable or if {@link #MEMORY_MAPPED} is used.
+     *
+     * @since 1.0
+     */
+    public static final OptionKey<Boolean> READ_AHEAD = new DataOptionKey<>("READ_AHEAD", Boolean.class);
+
+    /**
+     * Maximal amount of memory, in bytes, that a data store may use for keeping decoded values by strong references.
+     * Values decoded beyond this budget are kept by soft references, so the garbage collector can discard them if
+     * memory is needed; they will be read again from the storage when next requested. This option is useful when
+     * many data stores are kept open in the same application. If this option is not specified, then the budget
+     * is determined by the data store implementation.
+     *
+     * @since 1.0
+     */
+    public static final OptionKey<Long> MEMORY_BUDGET = new DataOptionKey<>("MEMORY_BUDGET", Long.class);
+
+    /**
+     * Maximal number of features for which the associations to other features are fetched together.
+     * For example a data store backed by a database may collect the foreigner keys of that amount of rows,
+     * then fetch all the referenced features in a single query instead of one query per row.
+     * Larger values reduce the number of round trips at the cost of larger queries.
+     * If this option is not specified, then the batch size is determined by the data store implementation.
+     *
+     * @since 1.0
+     */
+    public static final OptionKey<Integer> BATCH_SIZE = new DataOptionKey<>("BATCH_SIZE", Integer.class);
+
+    /**
+     * Number of rows that a data store should transfer from the storage at once when reading large datasets.
+     * For example a data store backed by a database may give this value to the JDBC driver,
+     * so the rows are streamed in chunks of that size instead of being all loaded in memory.
+     * If this option is not specified, then the fetch size is determined by the data store implementation.
+     *
+     * @since 1.0
+     */
+    public static final OptionKey<Integer> FETCH_SIZE = new DataOptionKey<>("FETCH_SIZE", Integer.class);
+
     /**
      * Creates a new key of the given name.
      */
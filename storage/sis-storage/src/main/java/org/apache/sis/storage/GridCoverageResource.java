@@ -16,6 +16,7 @@
  */
 package org.apache.sis.storage;
 
+import org.apache.sis.coverage.grid.GridCoverage;
 import org.apache.sis.coverage.grid.GridGeometry;
 
 
@@ -37,4 +38,27 @@ public interface GridCoverageResource extends Resource {
      * @throws DataStoreException if an error occurred while reading definitions from the underlying data store.
      */
     GridGeometry getGridGeometry() throws DataStoreException;
+
+    /**
+     * Loads a subset of the grid coverage represented by this resource. If a non-null grid geometry is specified,
+     * then this method will try to return a grid coverage matching the given grid geometry on a best-effort basis;
+     * the coverage actually returned may have a different resolution, cover a different area in a different CRS,
+     * <i>etc</i>. The general contract is that the returned coverage should not contain less data than a coverage
+     * matching exactly the given geometry.
+     *
+     * <p>Implementations should push the requested sub-region and sub-sampling down to the format reader,
+     * in order to read only the needed cells. For example a request for a 256×256 preview of a 40000×40000
+     * grid should not need to read the whole grid.</p>
+     *
+     * <p>The returned coverage shall contain the exact set of sample dimensions specified by {@code range}.
+     * The same sample dimension may be repeated many times in that array.</p>
+     *
+     * @param  domain  desired grid extent and resolution, or {@code null} for reading the whole domain.
+     * @param  range   0-based indices of sample dimensions to read, or {@code null} or an empty sequence
+     *                 for reading them all.
+     * @return the grid coverage for the specified domain and range.
+     * @throws IllegalArgumentException if a {@code range} index is out of bounds.
+     * @throws DataStoreException if an error occurred while reading the grid coverage data.
+     */
+    GridCoverage read(GridGeometry domain, int... range) throws DataStoreException;
 }
@@ -30,6 +30,7 @@ import java.io.BufferedInputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import javax.imageio.stream.ImageInputStream;
@@ -51,6 +52,7 @@ import org.apache.sis.internal.storage.Resources;
 import org.apache.sis.internal.storage.io.IOUtilities;
 import org.apache.sis.internal.storage.io.ChannelFactory;
 import org.apache.sis.internal.storage.io.ChannelDataInput;
+import org.apache.sis.internal.storage.io.ReadAheadChannel;
 import org.apache.sis.internal.storage.io.ChannelImageInputStream;
 import org.apache.sis.internal.storage.io.InputStreamAdapter;
 import org.apache.sis.internal.storage.io.RewindableLineReader;
@@ -85,7 +87,7 @@ import org.apache.sis.setup.OptionKey;
  * is serializable.</p>
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.8
+ * @version 1.0
  * @since   0.3
  * @module
  */
@@ -466,8 +468,12 @@ public class StorageConnector implements Serializable {
                  * This should be done by the above 'wrapperFor.reset()' call.
                  */
                 final ChannelDataInput input = (ChannelDataInput) view;
-                input.buffer.limit(0);                                      // Must be after channel reset.
-                input.setStreamPosition(0);                                 // Must be after buffer.limit(0).
+                if (input.isMapped()) {
+                    input.seek(0);                                          // Buffer contains the whole file.
+                } else {
+                    input.buffer.limit(0);                                  // Must be after channel reset.
+                    input.setStreamPosition(0);                             // Must be after buffer.limit(0).
+                }
             } else if (view instanceof Channel) {
                 /*
                  * Searches for a ChannelDataInput wrapping the channel, because it contains the original position
@@ -570,6 +576,8 @@ public class StorageConnector implements Serializable {
      *   <li>{@link OptionKey#URL_ENCODING} for converting URL to URI or filename, if needed.</li>
      *   <li>{@link OptionKey#OPEN_OPTIONS} for specifying whether the data store shall be read only or read/write.</li>
      *   <li>{@link OptionKey#BYTE_BUFFER}  for allowing users to control the byte buffer to be created.</li>
+     *   <li>{@link DataOptionKey#MEMORY_MAPPED} for reading local files through a memory mapping.</li>
+     *   <li>{@link DataOptionKey#READ_AHEAD} for reading the next bytes in a background thread.</li>
      * </ul>
      *
      * @param <T>    the type of option value.
@@ -924,17 +932,27 @@ public class StorageConnector implements Serializable {
          * (potentially an InputStream). We need to remember this chain in 'Coupled' objects.
          */
         final String name = getStorageName();
-        final ReadableByteChannel channel = factory.readable(name, null);
+        ReadableByteChannel channel = factory.readable(name, null);
+        ByteBuffer buffer = null;
+        if (channel instanceof FileChannel && Boolean.TRUE.equals(getOption(DataOptionKey.MEMORY_MAPPED))) {
+            buffer = ChannelDataInput.map((FileChannel) channel);   // Null if the file is too large.
+        }
+        final boolean mapped = (buffer != null);
+        if (!mapped && channel instanceof SeekableByteChannel && Boolean.TRUE.equals(getOption(DataOptionKey.READ_AHEAD))) {
+            channel = new ReadAheadChannel((SeekableByteChannel) channel, ReadAheadChannel.DEFAULT_BUFFER_SIZE);
+        }
         addView(ReadableByteChannel.class, channel, null, factory.isCoupled() ? CASCADE_ON_RESET : 0);
-        ByteBuffer buffer = getOption(OptionKey.BYTE_BUFFER);       // User-supplied buffer.
-        if (buffer == null) {
-            buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);      // Default buffer if user did not specified any.
+        if (!mapped) {
+            buffer = getOption(OptionKey.BYTE_BUFFER);              // User-supplied buffer.
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);  // Default buffer if user did not specified any.
+            }
         }
         final ChannelDataInput asDataInput;
         if (asImageInputStream) {
-            asDataInput = new ChannelImageInputStream(name, channel, buffer, false);
+            asDataInput = new ChannelImageInputStream(name, channel, buffer, mapped, mapped);
         } else {
-            asDataInput = new ChannelDataInput(name, channel, buffer, false);
+            asDataInput = new ChannelDataInput(name, channel, buffer, mapped, mapped);
         }
         addView(ChannelDataInput.class, asDataInput, ReadableByteChannel.class, CASCADE_ON_RESET);
         /*
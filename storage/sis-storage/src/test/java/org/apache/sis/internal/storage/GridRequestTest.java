@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage;
+
+import org.opengis.referencing.datum.PixelInCell;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.referencing.operation.matrix.Matrices;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link GridRequest}.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final strictfp class GridRequestTest extends TestCase {
+    /**
+     * Creates a grid geometry with the given extent and a <cite>cell corner to CRS</cite> transform
+     * having the given scale factors and translation terms.
+     */
+    private static GridGeometry grid(final long width, final long height,
+            final double sx, final double sy, final double tx, final double ty) throws TransformException
+    {
+        return new GridGeometry(new GridExtent(width, height), PixelInCell.CELL_CORNER,
+                MathTransforms.linear(Matrices.create(3, 3, new double[] {
+                    sx, 0,  tx,
+                    0,  sy, ty,
+                    0,  0,  1
+                })), null);
+    }
+
+    /**
+     * Tests a request for the whole source grid.
+     *
+     * @throws Exception if an error occurred while computing the request.
+     */
+    @Test
+    public void testWholeGrid() throws Exception {
+        final GridRequest request = new GridRequest(grid(1000, 800, 0.5, -0.5, 10, 60), null);
+        assertEquals(0,    request.getLow(0));
+        assertEquals(0,    request.getLow(1));
+        assertEquals(999,  request.getHigh(0));
+        assertEquals(799,  request.getHigh(1));
+        assertEquals(1000, request.getTargetSize(0));
+        assertEquals(800,  request.getTargetSize(1));
+        assertArrayEquals(new int[] {1, 1}, request.getSubsampling());
+    }
+
+    /**
+     * Tests a request for a sub-region with cells 10 times larger than the source cells.
+     *
+     * @throws Exception if an error occurred while computing the request.
+     */
+    @Test
+    public void testSubsampling() throws Exception {
+        final GridRequest request = new GridRequest(grid(1000, 800, 0.5, -0.5, 10, 60),
+                                                    grid(  10,   8, 5,   -5,   60, 50));
+        assertEquals(100, request.getLow (0));
+        assertEquals( 20, request.getLow (1));
+        assertEquals(199, request.getHigh(0));
+        assertEquals( 99, request.getHigh(1));
+        assertArrayEquals(new int[] {10, 10}, request.getSubsampling());
+        assertEquals(10, request.getTargetSize(0));
+        assertEquals( 8, request.getTargetSize(1));
+        /*
+         * The target geometry shall map its first cell corner to the same location
+         * than the first cell corner of the requested domain.
+         */
+        final GridGeometry target = request.getTargetGeometry();
+        assertEquals(9, target.getExtent().getHigh(0));
+        assertEquals(7, target.getExtent().getHigh(1));
+        final MathTransform tr = target.getGridToCRS(PixelInCell.CELL_CORNER);
+        final double[] coordinates = {0, 0, 10, 8};
+        tr.transform(coordinates, 0, coordinates, 0, 2);
+        assertArrayEquals(new double[] {60, 50, 110, 10}, coordinates, STRICT);
+    }
+
+    /**
+     * Tests a request for a domain which is partially outside the source grid.
+     * The region shall be clipped to the source extent.
+     *
+     * @throws Exception if an error occurred while computing the request.
+     */
+    @Test
+    public void testClipping() throws Exception {
+        final GridRequest request = new GridRequest(grid(1000, 800, 0.5, -0.5, 10, 60),
+                                                    grid(  50,  50, 0.5, -0.5, 500, 60));
+        assertEquals(980, request.getLow (0));
+        assertEquals(999, request.getHigh(0));
+        assertEquals(  0, request.getLow (1));
+        assertEquals( 49, request.getHigh(1));
+        assertArrayEquals(new int[] {1, 1}, request.getSubsampling());
+    }
+
+    /**
+     * Tests a request for a domain which does not intersect the source grid.
+     *
+     * @throws Exception if an error occurred while computing the request.
+     */
+    @Test
+    public void testOutside() throws Exception {
+        try {
+            new GridRequest(grid(1000, 800, 0.5, -0.5, 10, 60), grid(10, 10, 1, -1, -100, 60));
+            fail("Expected DataStoreException.");
+        } catch (DataStoreException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+}
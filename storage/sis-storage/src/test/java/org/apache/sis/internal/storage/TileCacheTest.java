@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage;
+
+import java.awt.image.Raster;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import org.apache.sis.internal.system.CacheStatistics;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link TileCache}.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final strictfp class TileCacheTest extends TestCase {
+    /**
+     * Tests {@link TileCache#getOrLoad(TileCache.Key, TileCache.Loader)} and the hit and miss counters.
+     *
+     * @throws Exception if an error occurred while loading a tile.
+     */
+    @Test
+    public void testGetOrLoad() throws Exception {
+        final TileCache cache = TileCache.getInstance();
+        final Object source = new Object();
+        final long hits   = CacheStatistics.TILES.hits();
+        final long misses = CacheStatistics.TILES.misses();
+        final WritableRaster tile = Raster.createBandedRaster(DataBuffer.TYPE_USHORT, 16, 8, 2, null);
+        tile.setSample(5, 6, 1, 1000);
+        try {
+            final TileCache.Key key = new TileCache.Key(source, 0, 0, 3, 4);
+            assertEquals(1000, cache.getOrLoad(key, () -> tile).getSample(5, 6, 1));
+            assertEquals(1000, cache.getOrLoad(new TileCache.Key(source, 0, 0, 3, 4), () -> {
+                throw new AssertionError("Tile should have been cached.");
+            }).getSample(5, 6, 1));
+            assertEquals("misses", misses + 1, CacheStatistics.TILES.misses());
+            assertEquals("hits",   hits   + 1, CacheStatistics.TILES.hits());
+            assertNull(cache.peek(new TileCache.Key(source, 0, 1, 3, 4)));
+            cache.clear(source);
+            assertNull(cache.peek(key));
+        } finally {
+            cache.clear(source);
+        }
+    }
+
+    /**
+     * Tests {@link TileCache#getIfPresent(TileCache.Key)} and {@link TileCache#store(TileCache.Key, Raster)}.
+     */
+    @Test
+    public void testStore() {
+        final TileCache cache = TileCache.getInstance();
+        final Object source = new Object();
+        final WritableRaster tile  = Raster.createBandedRaster(DataBuffer.TYPE_BYTE, 16, 8, 1, null);
+        final WritableRaster other = Raster.createBandedRaster(DataBuffer.TYPE_BYTE, 16, 8, 1, null);
+        tile .setSample(2, 3, 0, 10);
+        other.setSample(2, 3, 0, 20);
+        try {
+            final TileCache.Key key = new TileCache.Key(source, 2, 0, 0, 1);
+            assertNull(cache.getIfPresent(key));
+            assertEquals(10, cache.store(key, tile) .getSample(2, 3, 0));
+            assertEquals(10, cache.store(key, other).getSample(2, 3, 0));
+            assertEquals(10, cache.getIfPresent(key).getSample(2, 3, 0));
+        } finally {
+            cache.clear(source);
+        }
+    }
+
+    /**
+     * Verifies that the tiles returned by the cache are copies, and that tiles of different sources are
+     * kept separated even if the sources are equal. The latter case happens when two data stores are
+     * opened on the same file.
+     */
+    @Test
+    public void testIsolation() {
+        final TileCache cache = TileCache.getInstance();
+        final String source1 = new String("file.tiff");
+        final String source2 = new String("file.tiff");
+        final WritableRaster tile = Raster.createBandedRaster(DataBuffer.TYPE_BYTE, 16, 8, 1, null);
+        tile.setSample(2, 3, 0, 10);
+        try {
+            final TileCache.Key key = new TileCache.Key(source1, 0, 0, 0, 0);
+            cache.store(key, tile);
+            final Raster copy = cache.getIfPresent(key);
+            assertNotSame(tile, copy);
+            ((WritableRaster) copy).setSample(2, 3, 0, 30);
+            assertEquals("Cached tile shall not be modified.", 10, cache.getIfPresent(key).getSample(2, 3, 0));
+            assertNull(cache.getIfPresent(new TileCache.Key(source2, 0, 0, 0, 0)));
+            cache.clear(source2);
+            assertNotNull("Tiles of another source shall not be removed.", cache.getIfPresent(key));
+        } finally {
+            cache.clear(source1);
+        }
+    }
+
+    /**
+     * Tests the cost computed for a tile, which is its size in bytes.
+     */
+    @Test
+    public void testCost() {
+        final Raster tile = Raster.createBandedRaster(DataBuffer.TYPE_USHORT, 16, 8, 2, null);
+        assertEquals(16 * 8 * 2 * Short.BYTES, TileCache.getInstance().cost(tile));
+    }
+}
@@ -20,6 +20,7 @@ import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.EOFException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import org.junit.Test;
@@ -32,7 +33,7 @@ import static org.junit.Assert.*;
  * of that buffer is used for the tests, while the original full buffer is used for comparison purpose.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.5
+ * @version 1.0
  * @since   0.3
  * @module
  */
@@ -63,6 +64,39 @@ public final strictfp class ChannelDataInputTest extends ChannelDataTestCase {
         transferRandomData(testedStream, array.length - ARRAY_MAX_LENGTH, 16);
     }
 
+    /**
+     * Tests all read methods with a read-only buffer containing the whole stream content,
+     * as it would be the case with a memory-mapped file. The channel shall never be read.
+     *
+     * @throws IOException should never happen since we read and write in memory only.
+     */
+    @Test
+    public void testMapped() throws IOException {
+        final byte[] array = createRandomArray(STREAM_LENGTH);
+        referenceStream = new DataInputStream(new ByteArrayInputStream(array));
+        testedStream = new ChannelDataInput("testMapped", new ByteArrayChannel(new byte[0], true),
+                ByteBuffer.wrap(array).asReadOnlyBuffer(), true, true);
+        assertTrue("isMapped()", testedStream.isMapped());
+        transferRandomData(testedStream, array.length - ARRAY_MAX_LENGTH, 16);
+        /*
+         * Seek to random positions and compare with the original data.
+         */
+        final ByteBuffer buffer = ByteBuffer.wrap(array);
+        for (int i=0; i<100; i++) {
+            final int position = random.nextInt(array.length - Long.BYTES);
+            testedStream.seek(position);
+            assertEquals(buffer.getLong(position), testedStream.readLong());
+        }
+        testedStream.seek(array.length);
+        assertFalse("hasRemaining()", testedStream.hasRemaining());
+        try {
+            testedStream.readInt();
+            fail("Expected end of file.");
+        } catch (EOFException e) {
+            assertTrue(e.getMessage().contains("testMapped"));
+        }
+    }
+
     /**
      * Reads a random unit of data using a method selected randomly.
      * This method is invoked (indirectly) by {@link #testAllReadMethods()}.
@@ -38,7 +38,7 @@ import static org.junit.Assert.*;
  *
  * @author  Johann Sorel (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
- * @version 0.7
+ * @version 1.0
  * @since   0.7
  * @module
  */
@@ -148,7 +148,18 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
      */
     private void verifyRegionRead() throws IOException {
         final short[] data = (short[]) reader.read(new Region(size, lower, upper, subsampling));
-        int p = 0;
+        assertEquals("Array length", verifyValues(data, 0), data.length);
+    }
+
+    /**
+     * Compares the values in the given array against the expected values for the region defined by current
+     * {@link #lower}, {@link #upper} and {@link #subsampling} values.
+     *
+     * @param  data  the values to verify.
+     * @param  p     index of the first value to verify.
+     * @return index after the last value verified.
+     */
+    private int verifyValues(final short[] data, int p) {
         final int s3 = subsampling[3];
         final int s2 = subsampling[2];
         final int s1 = subsampling[1];
@@ -162,7 +173,7 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
                 }
             }
         }
-        assertEquals("Array length", p, data.length);
+        return p;
     }
 
     /**
@@ -217,4 +228,34 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
         initialize(TestUtilities.createRandomNumberGenerator(), false);
         verifyRegionRead();
     }
+
+    /**
+     * Tests reading data in a caller-supplied buffer, both backed by an array and direct.
+     * The same buffer is used twice for verifying that it can be recycled.
+     *
+     * @throws IOException should never happen.
+     * @throws DataStoreException should never happen.
+     */
+    @Test
+    @DependsOnMethod("testRandom")
+    public void testReadInBuffer() throws IOException, DataStoreException {
+        initialize(TestUtilities.createRandomNumberGenerator(), true);
+        final Region region = new Region(size, lower, upper, subsampling);
+        final int length = region.targetLength(region.getDimension());
+        final ShortBuffer[] buffers = {
+            ShortBuffer.allocate(length + 3),
+            ByteBuffer.allocateDirect((length + 3) * Short.BYTES).order(ByteOrder.nativeOrder()).asShortBuffer()
+        };
+        for (final ShortBuffer buffer : buffers) {
+            for (int i=0; i<2; i++) {
+                buffer.clear().position(3);
+                reader.read(region, buffer);
+                assertEquals("position", length + 3, buffer.position());
+                final short[] data = new short[length + 3];
+                buffer.flip();
+                buffer.get(data);
+                assertEquals(length + 3, verifyValues(data, 3));
+            }
+        }
+    }
 }
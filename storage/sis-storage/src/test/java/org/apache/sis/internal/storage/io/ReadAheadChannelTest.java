@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.io;
+
+import java.util.Random;
+import java.util.Arrays;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link ReadAheadChannel}.
+ *
+ * @author  agent
+ * @version 1.0
+ * @since   1.0
+ * @module
+ */
+public final strictfp class ReadAheadChannelTest extends TestCase {
+    /**
+     * Creates an array filled with random values.
+     */
+    private static byte[] createRandomArray(final Random random, final int length) {
+        final byte[] array = new byte[length];
+        random.nextBytes(array);
+        return array;
+    }
+
+    /**
+     * Tests sequential reads through a {@link ChannelDataInput}. The buffers of the {@code ReadAheadChannel}
+     * and of the {@code ChannelDataInput} have different sizes, in order to test reads overlapping two blocks.
+     *
+     * @throws IOException should never happen since we read in memory only.
+     */
+    @Test
+    public void testSequentialRead() throws IOException {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final byte[] array  = createRandomArray(random, 40000);
+        final ByteBuffer expected = ByteBuffer.wrap(array);
+        final ChannelDataInput input = new ChannelDataInput("testSequentialRead",
+                new ReadAheadChannel(new ByteArrayChannel(array, true), random.nextInt(1000) + 16),
+                ByteBuffer.allocate(random.nextInt(100) + Long.BYTES), false);
+        while (expected.remaining() >= Long.BYTES) {
+            assertEquals(expected.getLong(), input.readLong());
+        }
+        final int length = expected.remaining();
+        assertArrayEquals(Arrays.copyOfRange(array, array.length - length, array.length), input.readBytes(length));
+        assertFalse(input.hasRemaining());
+        input.channel.close();
+    }
+
+    /**
+     * Tests {@link ReadAheadChannel#position(long)} with random positions.
+     *
+     * @throws IOException should never happen since we read in memory only.
+     */
+    @Test
+    public void testSeek() throws IOException {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final byte[] array  = createRandomArray(random, 20000);
+        final ByteBuffer expected = ByteBuffer.wrap(array);
+        final ChannelDataInput input = new ChannelDataInput("testSeek",
+                new ReadAheadChannel(new ByteArrayChannel(array, true), 256),
+                ByteBuffer.allocate(64), false);
+        for (int i=0; i<200; i++) {
+            final int position = random.nextInt(array.length - Integer.BYTES);
+            input.seek(position);
+            assertEquals("getStreamPosition()", position, input.getStreamPosition());
+            assertEquals(expected.getInt(position), input.readInt());
+        }
+        input.channel.close();
+    }
+
+    /**
+     * Tests {@link ReadAheadChannel#close()} invoked twice, and a read after close.
+     *
+     * @throws IOException should never happen since we read in memory only.
+     */
+    @Test
+    public void testClose() throws IOException {
+        final ReadAheadChannel channel = new ReadAheadChannel(new ByteArrayChannel(new byte[1000], true), 100);
+        assertEquals(100, channel.read(ByteBuffer.allocate(100)));        // Start a background read.
+        channel.close();
+        assertFalse("isOpen()", channel.isOpen());
+        channel.close();                                                    // Shall have no effect.
+        try {
+            channel.read(ByteBuffer.allocate(10));
+            fail("Expected ClosedChannelException.");
+        } catch (ClosedChannelException e) {
+            // This is the expected exception.
+        }
+    }
+}